@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.bench;
+
+import io.github.em.verilog.sign.FastEcdsaP256Signer;
+import io.github.em.verilog.sign.SimulatedLatencySigner;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entries signed per second against a simulated 1 ms signer round trip: one request per entry
+ * (what a synchronous {@code LogSigner} over a remote key does) versus batches kept in flight the
+ * way the writer's signing pipeline does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class AsyncSignerBenchmark {
+
+    private static final int ENTRIES = 256;
+
+    @Param({"16", "64"})
+    public int batchSize;
+
+    @Param({"8"})
+    public int maxInFlight;
+
+    private FastEcdsaP256Signer local;
+    private SimulatedLatencySigner remote;
+    private byte[][] hashes;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        local = new FastEcdsaP256Signer(kp.getPrivate().getEncoded(), kp.getPublic().getEncoded(), true);
+        remote = new SimulatedLatencySigner(local, Duration.ofMillis(1));
+
+        hashes = new byte[ENTRIES][32];
+        SecureRandom rng = new SecureRandom();
+        for (byte[] h : hashes) rng.nextBytes(h);
+    }
+
+    @TearDown
+    public void tearDown() {
+        remote.close();
+        local.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public byte[] oneRequestPerEntry() {
+        byte[] last = null;
+        for (byte[] h : hashes) {
+            last = remote.signEntryHashes(new byte[][]{h}).join()[0];
+        }
+        return last;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public byte[] pipelinedBatches() {
+        ArrayDeque<CompletableFuture<byte[][]>> inFlight = new ArrayDeque<>();
+        byte[][] last = null;
+        for (int off = 0; off < ENTRIES; off += batchSize) {
+            byte[][] batch = new byte[Math.min(batchSize, ENTRIES - off)][];
+            System.arraycopy(hashes, off, batch, 0, batch.length);
+            inFlight.addLast(remote.signEntryHashes(batch));
+            if (inFlight.size() > maxInFlight) last = inFlight.removeFirst().join();
+        }
+        while (!inFlight.isEmpty()) last = inFlight.removeFirst().join();
+        return last[last.length - 1];
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.bench;
+
+import io.github.em.verilog.CryptoUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-entry hash and hex work: the previous {@code getInstance}/{@code String.format} implementations against the
+ * thread-confined digest and table-driven codec in {@link CryptoUtil}. Run with {@code -prof gc} to see the
+ * allocation difference.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CryptoUtilBenchmark {
+
+    private final byte[] payload = new byte[512];
+    private final byte[] hash = new byte[32];
+    private final char[] hexBuf = new char[64];
+    private String hashHex;
+
+    @Setup
+    public void setup() {
+        new Random(1).nextBytes(payload);
+        new Random(2).nextBytes(hash);
+        hashHex = CryptoUtil.toHexLower(hash);
+    }
+
+    @Benchmark
+    public byte[] sha256Legacy() throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(payload);
+    }
+
+    @Benchmark
+    public byte[] sha256ThreadLocal() throws Exception {
+        return CryptoUtil.sha256(payload);
+    }
+
+    @Benchmark
+    public String hexLegacy() {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String hexTable() {
+        return CryptoUtil.toHexLower(hash);
+    }
+
+    @Benchmark
+    public char[] hexIntoBuffer() {
+        CryptoUtil.toHexLower(hash, 0, hash.length, hexBuf, 0);
+        return hexBuf;
+    }
+
+    /** the reader's entryHash / prevHash check before: encode, then String.equals */
+    @Benchmark
+    public boolean compareViaHexString() {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) sb.append(String.format("%02x", b));
+        return sb.toString().equals(hashHex);
+    }
+
+    @Benchmark
+    public boolean compareBytesToHex() {
+        return CryptoUtil.hexLowerEquals(hash, hashHex);
+    }
+}
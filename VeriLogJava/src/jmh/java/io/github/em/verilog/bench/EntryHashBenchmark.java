@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.bench;
+
+import io.github.em.verilog.crypto.HashAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry hash throughput per {@link HashAlgorithm} over a canonical-entry-sized payload. Compare on the target host
+ * before choosing {@code entryHash(...)}: SHA-256 wins where the CPU has SHA extensions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class EntryHashBenchmark {
+
+    @Param({"SHA_256", "BLAKE2B_256", "BLAKE3_256"})
+    public HashAlgorithm hash;
+
+    @Param({"256", "1024"})
+    public int payloadBytes;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() {
+        payload = new byte[payloadBytes];
+        new Random(1).nextBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] digest() throws Exception {
+        return hash.digest(payload);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.bench;
+
+import io.github.em.verilog.crypto.CipherSuite;
+import io.github.em.verilog.crypto.SegmentCipher;
+import io.github.em.verilog.crypto.XChaCha20Poly1305;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-frame AEAD cost of every cipher suite on the same payload sizes: allocating byte[] API, the reusable
+ * {@code *Into} API, JCE AES-256-GCM and plain BouncyCastle for reference.
+ * Allocation per op is visible with {@code ./gradlew jmh -PjmhInclude=FrameCipherBenchmark} plus {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class FrameCipherBenchmark {
+
+    @Param({"256", "4096"})
+    public int size;
+
+    private byte[] key;
+    private byte[] nonce24;
+    private byte[] nonce12;
+    private byte[] aad;
+    private byte[] plaintext;
+    private byte[] ciphertext;
+
+    private XChaCha20Poly1305.Context ctx;
+    private SegmentCipher segment;
+    private SegmentCipher aesGcm;
+    private byte[] aesCiphertext;
+    private ByteBuffer src;
+    private ByteBuffer dst;
+    private ByteBuffer back;
+
+    @Setup
+    public void setup() {
+        SecureRandom rng = new SecureRandom();
+        key = new byte[32];
+        nonce24 = new byte[24];
+        nonce12 = new byte[12];
+        aad = new byte[32];
+        plaintext = new byte[size];
+        rng.nextBytes(key);
+        rng.nextBytes(nonce24);
+        rng.nextBytes(aad);
+        rng.nextBytes(plaintext);
+
+        ctx = new XChaCha20Poly1305.Context(key);
+        segment = SegmentCipher.create(CipherSuite.CHACHA20_POLY1305_SEGMENT, key, new byte[16]);
+        aesGcm = SegmentCipher.create(CipherSuite.AES_256_GCM_SEGMENT, key, new byte[16]);
+        ciphertext = XChaCha20Poly1305.encrypt(key, nonce24, plaintext, aad);
+        aesCiphertext = aesGcm.encrypt((byte) 1, 42L, null, plaintext, aad);
+        src = ByteBuffer.wrap(plaintext);
+        dst = ByteBuffer.allocate(size + 16);
+        back = ByteBuffer.allocate(size);
+    }
+
+    @Benchmark
+    public byte[] encryptAllocating() {
+        return XChaCha20Poly1305.encrypt(key, nonce24, plaintext, aad);
+    }
+
+    @Benchmark
+    public ByteBuffer encryptInto() {
+        src.clear();
+        dst.clear();
+        ctx.encryptInto(nonce24, aad, src, dst);
+        return dst;
+    }
+
+    @Benchmark
+    public ByteBuffer encryptIntoSegmentSuite() {
+        src.clear();
+        dst.clear();
+        segment.encryptInto((byte) 1, 42L, null, aad, src, dst);
+        return dst;
+    }
+
+    @Benchmark
+    public ByteBuffer encryptIntoAesGcmSuite() {
+        src.clear();
+        dst.clear();
+        aesGcm.encryptInto((byte) 1, 42L, null, aad, src, dst);
+        return dst;
+    }
+
+    @Benchmark
+    public ByteBuffer decryptIntoAesGcmSuite() throws InvalidCipherTextException {
+        back.clear();
+        aesGcm.decryptInto((byte) 1, 42L, null, aad, ByteBuffer.wrap(aesCiphertext), back);
+        return back;
+    }
+
+    @Benchmark
+    public ByteBuffer decryptInto() throws InvalidCipherTextException {
+        back.clear();
+        ctx.decryptInto(nonce24, aad, ByteBuffer.wrap(ciphertext), back);
+        return back;
+    }
+
+    /** what every frame cost before: a fresh BC engine, key parameter and output array */
+    @Benchmark
+    public byte[] bouncyCastlePerCall() throws InvalidCipherTextException {
+        ChaCha20Poly1305 aead = new ChaCha20Poly1305();
+        aead.init(true, new AEADParameters(new KeyParameter(key), 128, nonce12, aad));
+        byte[] out = new byte[aead.getOutputSize(plaintext.length)];
+        int off = aead.processBytes(plaintext, 0, plaintext.length, out, 0);
+        aead.doFinal(out, off);
+        return out;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.bench;
+
+import io.github.em.verilog.crypto.NonceSource;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frame nonce cost and segment-open cost: the old per-segment {@code new SecureRandom()} path against the
+ * thread-local DRBG. Run with {@code ./gradlew jmh -PjmhInclude=NonceSourceBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NonceSourceBenchmark {
+
+    private final byte[] nonce = new byte[24];
+    private SecureRandom secureRandom;
+    private NonceSource drbg;
+
+    @Setup
+    public void setup() {
+        secureRandom = new SecureRandom();
+        drbg = NonceSource.threadLocalDrbg();
+    }
+
+    @Benchmark
+    public byte[] nonceSecureRandom() {
+        secureRandom.nextBytes(nonce);
+        return nonce;
+    }
+
+    @Benchmark
+    public byte[] nonceDrbg() {
+        drbg.nextBytes(nonce);
+        return nonce;
+    }
+
+    /** what FramedLogFile.openOrCreate did per segment before: a fresh SecureRandom plus salt */
+    @Benchmark
+    public byte[] segmentOpenSecureRandom() {
+        byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        return salt;
+    }
+
+    @Benchmark
+    public byte[] segmentOpenDrbg() {
+        byte[] salt = new byte[16];
+        NonceSource.threadLocalDrbg().nextBytes(salt);
+        return salt;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] nonceSecureRandomShared4Threads(SharedRng shared) {
+        shared.rng.nextBytes(nonce);
+        return nonce;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public byte[] nonceDrbg4Threads() {
+        drbg.nextBytes(nonce);
+        return nonce;
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedRng {
+        final SecureRandom rng = new SecureRandom();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.bench;
+
+import io.github.em.verilog.sign.BcEcdsaP256Signer;
+import io.github.em.verilog.sign.Ed25519LogSigner;
+import io.github.em.verilog.sign.FastEcdsaP256Signer;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.bouncycastle.crypto.params.Ed25519KeyGenerationParameters;
+import org.bouncycastle.crypto.util.PrivateKeyInfoFactory;
+import org.bouncycastle.crypto.util.SubjectPublicKeyInfoFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signs per second: {@link BcEcdsaP256Signer} against {@link FastEcdsaP256Signer}, with and without presignature
+ * pool, and {@link Ed25519LogSigner}. The pool result holds as long as the refill thread keeps up, i.e. for bursty
+ * rather than saturated load.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SignerBenchmark {
+
+    private BcEcdsaP256Signer bc;
+    private FastEcdsaP256Signer fast;
+    private FastEcdsaP256Signer pooled;
+    private Ed25519LogSigner ed25519;
+    private final byte[] entryHash = new byte[32];
+
+    @Setup
+    public void setup() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] pkcs8 = kp.getPrivate().getEncoded();
+        byte[] spki = kp.getPublic().getEncoded();
+
+        bc = new BcEcdsaP256Signer(pkcs8, spki, true);
+        fast = new FastEcdsaP256Signer(pkcs8, spki, true);
+        pooled = new FastEcdsaP256Signer(pkcs8, spki, true, 4096);
+
+        Ed25519KeyPairGenerator edGen = new Ed25519KeyPairGenerator();
+        edGen.init(new Ed25519KeyGenerationParameters(new SecureRandom()));
+        AsymmetricCipherKeyPair edKp = edGen.generateKeyPair();
+        ed25519 = new Ed25519LogSigner(
+                PrivateKeyInfoFactory.createPrivateKeyInfo(edKp.getPrivate()).getEncoded(),
+                SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(edKp.getPublic()).getEncoded());
+
+        new SecureRandom().nextBytes(entryHash);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fast.close();
+        pooled.close();
+    }
+
+    @Benchmark
+    public byte[] bcSigner() throws Exception {
+        return bc.signEntryHash(entryHash);
+    }
+
+    @Benchmark
+    public byte[] fastSigner() throws Exception {
+        return fast.signEntryHash(entryHash);
+    }
+
+    @Benchmark
+    public byte[] fastSignerPresignaturePool() throws Exception {
+        return pooled.signEntryHash(entryHash);
+    }
+
+    @Benchmark
+    public byte[] ed25519Signer() throws Exception {
+        return ed25519.signEntryHash(entryHash);
+    }
+}
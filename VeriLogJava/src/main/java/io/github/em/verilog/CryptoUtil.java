@@ -13,19 +13,57 @@ import io.github.em.verilog.errors.VeriLogCryptoException;
 import io.github.em.verilog.errors.VeriLogFormatException;
 
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 public final class CryptoUtil {
     private CryptoUtil() {}
 
+    public static final int SHA256_LEN = 32;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final byte[] HEX_VALUE = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUE, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            HEX_VALUE[HEX[i]] = (byte) i;
+            HEX_VALUE[Character.toUpperCase(HEX[i])] = (byte) i;
+        }
+    }
+
+    // MessageDigest.getInstance walks the provider list on every call; one instance per thread is enough
+    private static final ThreadLocal<MessageDigest> SHA256 = new ThreadLocal<>();
+
+    private static MessageDigest sha256Digest() throws VeriLogCryptoException {
+        MessageDigest md = SHA256.get();
+        if (md == null) {
+            try {
+                md = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // should never happen on a standard JVM
+                throw new VeriLogCryptoException("crypto.sha256_unavailable", e);
+            }
+            SHA256.set(md);
+        }
+        return md;
+    }
+
     public static byte[] sha256(byte[] data) throws VeriLogCryptoException {
+        return sha256Digest().digest(data); // digest() also resets
+    }
+
+    /** hashes {@code data[off, off+len)} into {@code out[outOff, outOff+32)} */
+    public static void sha256(byte[] data, int off, int len, byte[] out, int outOff) throws VeriLogCryptoException {
+        MessageDigest md = sha256Digest();
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            return md.digest(data);
-        } catch (NoSuchAlgorithmException e) {
-            // should never happen on a standard JVM
-            throw new VeriLogCryptoException("crypto.sha256_unavailable", e);
+            md.update(data, off, len);
+            md.digest(out, outOff, SHA256_LEN);
+        } catch (DigestException e) {
+            md.reset();
+            throw new VeriLogCryptoException("crypto.hash_failed", e);
         }
     }
 
@@ -34,35 +72,61 @@ public final class CryptoUtil {
     }
 
     public static String toHexLower(byte[] bytes) {
-        StringBuilder sb = new StringBuilder(bytes.length * 2);
-        for (byte b : bytes) sb.append(String.format("%02x", b));
-        return sb.toString();
+        char[] out = new char[bytes.length * 2];
+        toHexLower(bytes, 0, bytes.length, out, 0);
+        return new String(out);
+    }
+
+    /** writes {@code 2 * len} lowercase hex chars into {@code dst} starting at {@code dstOff} */
+    public static void toHexLower(byte[] src, int off, int len, char[] dst, int dstOff) {
+        for (int i = 0; i < len; i++) {
+            int b = src[off + i];
+            dst[dstOff++] = HEX[(b >>> 4) & 0xF];
+            dst[dstOff++] = HEX[b & 0xF];
+        }
+    }
+
+    /**
+     * Same result as {@code toHexLower(bytes).equals(hex)} without building the string. Uppercase hex does not
+     * match, since hashes are always written lowercase.
+     */
+    public static boolean hexLowerEquals(byte[] bytes, String hex) {
+        if (hex == null || hex.length() != bytes.length * 2) return false;
+        int diff = 0;
+        for (int i = 0, j = 0; i < bytes.length; i++, j += 2) {
+            int b = bytes[i];
+            diff |= hex.charAt(j) ^ HEX[(b >>> 4) & 0xF];
+            diff |= hex.charAt(j + 1) ^ HEX[b & 0xF];
+        }
+        return diff == 0;
     }
 
     public static byte[] fromHex(String hex) throws VeriLogFormatException {
         if (hex == null) throw new NullPointerException("hex");
         String s = hex.trim();
-
         if ((s.length() % 2) != 0) {
             throw new VeriLogFormatException("format.hex.odd_length", s.length());
         }
+        byte[] out = new byte[s.length() / 2];
+        fromHex(s, out, 0);
+        return out;
+    }
 
-        int len = s.length() / 2;
-        byte[] out = new byte[len];
-
-        for (int i = 0; i < len; i++) {
-            int hi = hexCharToInt(s.charAt(2 * i));
-            int lo = hexCharToInt(s.charAt(2 * i + 1));
-            out[i] = (byte) ((hi << 4) | lo);
+    /** decodes all of {@code hex} (even length, either case) into {@code out} starting at {@code outOff} */
+    public static void fromHex(CharSequence hex, byte[] out, int outOff) throws VeriLogFormatException {
+        if ((hex.length() % 2) != 0) {
+            throw new VeriLogFormatException("format.hex.odd_length", hex.length());
+        }
+        for (int i = 0; i < hex.length(); i += 2) {
+            int hi = hexCharToInt(hex.charAt(i));
+            int lo = hexCharToInt(hex.charAt(i + 1));
+            out[outOff++] = (byte) ((hi << 4) | lo);
         }
-
-        return out;
     }
 
     private static int hexCharToInt(char c) throws VeriLogFormatException {
-        if (c >= '0' && c <= '9') return c - '0';
-        if (c >= 'a' && c <= 'f') return 10 + (c - 'a');
-        if (c >= 'A' && c <= 'F') return 10 + (c - 'A');
-        throw new VeriLogFormatException("format.hex.invalid_char", String.valueOf(c));
+        int v = c < 128 ? HEX_VALUE[c] : -1;
+        if (v < 0) throw new VeriLogFormatException("format.hex.invalid_char", String.valueOf(c));
+        return v;
     }
-}
\ No newline at end of file
+}
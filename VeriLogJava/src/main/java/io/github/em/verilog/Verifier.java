@@ -11,11 +11,15 @@ package io.github.em.verilog;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.crypto.HashAlgorithm;
 import io.github.em.verilog.errors.VeriLogCryptoException;
 import io.github.em.verilog.errors.VeriLogFormatException;
+import io.github.em.verilog.provider.CryptoProvider;
+import io.github.em.verilog.provider.CryptoSelection;
+import io.github.em.verilog.sign.BcPublicKeyLoader;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 
 import java.security.PublicKey;
-import java.security.Signature;
 import java.util.Base64;
 import java.util.Iterator;
 import java.util.Objects;
@@ -48,9 +52,21 @@ public final class Verifier {
 
     public static VerifyReport verifySingle(JsonNode signedEntry, PublicKey pub)
             throws VeriLogCryptoException {
+        return verifySingle(signedEntry, pub, CryptoSelection.defaults());
+    }
+
+    /** @param crypto its ES256_VERIFY provider checks the signature */
+    public static VerifyReport verifySingle(JsonNode signedEntry, PublicKey pub, CryptoSelection crypto)
+            throws VeriLogCryptoException {
 
         Objects.requireNonNull(signedEntry, "signedEntry");
         Objects.requireNonNull(pub, "pub");
+        Objects.requireNonNull(crypto, "crypto");
+        return verifySingle(signedEntry, ecKey(pub), crypto.es256Verifier());
+    }
+
+    private static VerifyReport verifySingle(JsonNode signedEntry, ECPublicKeyParameters pub,
+                                             CryptoProvider.Es256Verifier es256) throws VeriLogCryptoException {
 
         // Required fields check (avoid NPE)
         if (!signedEntry.hasNonNull("seq")
@@ -67,22 +83,17 @@ public final class Verifier {
             payload.remove("sig");
 
             String canonicalPayload = CanonicalJson.canonicalize(payload);
-            byte[] entryHashBytes = CryptoUtil.sha256Utf8(canonicalPayload);
-            String computedHex = CryptoUtil.toHexLower(entryHashBytes);
-
-            String expectedHex = signedEntry.get(ENTRY_HASH).textValue();
-            if (!computedHex.equals(expectedHex)) {
+            HashAlgorithm hash = HashAlgorithm.fromTag(signedEntry.path(HashAlgorithm.ENTRY_FIELD).textValue());
+            if (hash == null) return VerifyReport.fail(seq, "unsupported hashAlg");
+            byte[] entryHashBytes = hash.digestUtf8(canonicalPayload);
+            if (!CryptoUtil.hexLowerEquals(entryHashBytes, signedEntry.get(ENTRY_HASH).textValue())) {
                 return VerifyReport.fail(seq, "entryHash mismatch");
             }
 
             final byte[] sigRaw;
             sigRaw = convertToRaw(signedEntry);
-            if (sigRaw == null) return VerifyReport.fail(seq, "signature encoding invalid");
-            final byte[] sigDer;
-            sigDer = convertToDer(sigRaw);
-            if (sigDer == null) return VerifyReport.fail(seq, "signature encoding invalid");
-            Signature verifier = getSignatureAlgorithm();
-            return verifySignature(verifier, pub, sigDer, entryHashBytes, seq);
+            if (sigRaw == null || sigRaw.length != 64) return VerifyReport.fail(seq, "signature encoding invalid");
+            return verifySignature(es256, pub, sigRaw, entryHashBytes, seq);
 
         } catch (RuntimeException e) {
             // Unexpected programming/runtime issue
@@ -95,9 +106,17 @@ public final class Verifier {
     // optional helper: verify chain (seq contiguous + prevHash)
     public static VerifyReport verifyChain(Iterator<? extends JsonNode> entries, PublicKey pub)
             throws VeriLogCryptoException, VeriLogFormatException {
+        return verifyChain(entries, pub, CryptoSelection.defaults());
+    }
+
+    public static VerifyReport verifyChain(Iterator<? extends JsonNode> entries, PublicKey pub, CryptoSelection crypto)
+            throws VeriLogCryptoException, VeriLogFormatException {
 
         Objects.requireNonNull(entries, "entries");
         Objects.requireNonNull(pub, "pub");
+        Objects.requireNonNull(crypto, "crypto");
+        final CryptoProvider.Es256Verifier es256 = crypto.es256Verifier();
+        final ECPublicKeyParameters key = ecKey(pub);
 
         String prevEntryHash = null;
         long expectedSeq = 1;
@@ -115,7 +134,7 @@ public final class Verifier {
             rep = validateSeqContiguous(seq, expectedSeq);
             if (!rep.valid) return rep;
 
-            rep = verifySingle(e, pub);
+            rep = verifySingle(e, key, es256);
             if (!rep.valid) return rep;
 
             String prevHash = e.get("prevHash").textValue();
@@ -128,13 +147,22 @@ public final class Verifier {
         return VerifyReport.success();
     }
 
-    private static VerifyReport verifySignature(Signature verifier, PublicKey pub, byte[] sigDer, byte[] entryHashBytes, long seq) throws VeriLogCryptoException {
+    /** the key in the form the ES256 providers take; converted once per call, not per entry */
+    private static ECPublicKeyParameters ecKey(PublicKey pub) throws VeriLogCryptoException {
+        try {
+            return BcPublicKeyLoader.fromSpkiDer(pub.getEncoded());
+        } catch (VeriLogFormatException e) {
+            throw new VeriLogCryptoException("crypto.signature_verify_failed", e);
+        }
+    }
+
+    private static VerifyReport verifySignature(CryptoProvider.Es256Verifier es256, ECPublicKeyParameters pub,
+                                                byte[] sigRaw, byte[] entryHashBytes, long seq)
+            throws VeriLogCryptoException {
         try {
-            verifier.initVerify(pub);
-            verifier.update(entryHashBytes);
-            boolean ok = verifier.verify(sigDer);
+            boolean ok = es256.verify(pub, entryHashBytes, sigRaw);
             return ok ? VerifyReport.success() : VerifyReport.fail(seq, "signature invalid");
-        } catch (Exception e) {
+        } catch (VeriLogCryptoException | RuntimeException e) {
             throw new VeriLogCryptoException("crypto.signature_verify_failed", e);
         }
     }
@@ -151,22 +179,6 @@ public final class Verifier {
             return null;
         }
     }
-    @SuppressWarnings("java:S1168")
-    private static byte[] convertToDer(byte[] sigRaw) {
-        try {
-            return EcdsaSigCodec.rawToDer(sigRaw);
-        } catch (VeriLogFormatException e) {
-            return null;
-        }
-    }
-
-    private static Signature getSignatureAlgorithm() throws VeriLogCryptoException {
-        try {
-            return Signature.getInstance("SHA256withECDSA");
-        } catch (Exception e) {
-            throw new VeriLogCryptoException("crypto.signature_engine_unavailable", e);
-        }
-    }
 
 
     private static VerifyReport validateRequiredFields(JsonNode e) {
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.sign.SignatureAlgorithm;
+
+/**
+ * Record a writer puts ahead of the first entry of a file whose chain starts over at seq 1 from the genesis
+ * hash, because it found no earlier segment to continue. Bound to the file (header hash), signed by the
+ * long-term key via {@link ControlRecords} and stored as a {@code TYPE_CHAIN_RESTART} frame. A verifier only
+ * accepts a new chain in the middle of a directory with this record, and lists the file as a restart.
+ */
+public final class ChainRestartRecord {
+
+    public static final String KIND = "chainRestart";
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    private ChainRestartRecord() {
+    }
+
+    public static ObjectNode unsigned(
+            long firstSeq,
+            byte[] headerHash,
+            SignatureAlgorithm issuerAlg,
+            String issuerKeyId
+    ) {
+        ObjectNode rec = OM.createObjectNode();
+        rec.put("version", 1);
+        rec.put("kind", KIND);
+        rec.put("firstSeq", firstSeq);
+        rec.put("headerHash", CryptoUtil.toHexLower(headerHash));
+        rec.put("keyId", issuerKeyId);
+        rec.put(SignatureAlgorithm.FIELD, issuerAlg.tag());
+        return rec;
+    }
+}
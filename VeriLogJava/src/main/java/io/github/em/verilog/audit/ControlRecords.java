@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CanonicalJson;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Signing helpers shared by control frames (key certificates, MAC chain records). The long-term key signs
+ * sha256(canonical JSON without {@code sig}), the same construction as entries.
+ */
+public final class ControlRecords {
+
+    private ControlRecords() {
+    }
+
+    /** hash the issuer signs; ignores an existing {@code sig} field */
+    public static byte[] hash(JsonNode record) throws VeriLogCryptoException {
+        ObjectNode copy = record.deepCopy();
+        copy.remove("sig");
+        return CryptoUtil.sha256Utf8(CanonicalJson.canonicalize(copy));
+    }
+
+    public static byte[] toJsonUtf8(ObjectNode unsigned, byte[] sigRaw) {
+        ObjectNode signed = unsigned.deepCopy();
+        signed.put("sig", Base64.getEncoder().encodeToString(sigRaw));
+        return signed.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -9,9 +9,12 @@
  */
 package io.github.em.verilog.audit;
 
+import io.github.em.verilog.crypto.HashAlgorithm;
+
 public final class HashChainState {
     private long nextSeq;
     private String prevHashHex; // 64 hex chars
+    private HashAlgorithm hash = HashAlgorithm.SHA_256; // follows the open segment's header
 
     public HashChainState(long nextSeq, String prevHashHex) {
         this.nextSeq = nextSeq;
@@ -21,8 +24,22 @@ public final class HashChainState {
     public long nextSeq() { return nextSeq; }
     public String prevHashHex() { return prevHashHex; }
 
+    public HashAlgorithm hashAlgorithm() { return hash; }
+
     public long allocateSeq() { return nextSeq++; }
 
+    /** switches the function for following entries; links stay valid since every function yields 32 bytes */
+    public void useHashAlgorithm(HashAlgorithm hash) {
+        if (hash == null) throw new NullPointerException("hash");
+        this.hash = hash;
+    }
+
+    /** continues after an entry already on disk, e.g. when a writer reopens its segment */
+    public void resumeAfter(long lastSeq, String entryHashHex) {
+        this.nextSeq = lastSeq + 1;
+        this.prevHashHex = entryHashHex;
+    }
+
     public void updatePrevHash(String entryHashHex) {
         this.prevHashHex = entryHashHex;
     }
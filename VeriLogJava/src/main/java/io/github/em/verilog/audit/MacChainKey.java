@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+
+import java.util.Arrays;
+
+/**
+ * Forward-secure entry MAC key. Entry i is authenticated with HMAC-SHA256(k_i, entryHash), after which
+ * k_i is replaced by k_{i+1} = SHA-256(k_i) and overwritten, so a later compromise of the writer cannot
+ * forge entries that were already written. HMAC is computed by hand rather than with BC's {@code HMac},
+ * which would keep k_i-derived pads alive until the next init. Not thread-safe.
+ */
+public final class MacChainKey {
+    public static final int KEY_LEN = 32;
+    public static final int MAC_LEN = 32;
+
+    private static final int BLOCK = 64;
+
+    private final byte[] key = new byte[KEY_LEN];
+    private final byte[] pad = new byte[BLOCK];
+    private final byte[] inner = new byte[MAC_LEN];
+    private final SHA256Digest sha = new SHA256Digest();
+    private long index;
+
+    public MacChainKey(byte[] k0) {
+        if (k0 == null || k0.length != KEY_LEN) throw new IllegalArgumentException("key must be 32 bytes");
+        System.arraycopy(k0, 0, key, 0, KEY_LEN);
+    }
+
+    /** MACs with the current key, then evolves it */
+    public byte[] macAndEvolve(byte[] entryHash32) {
+        byte[] mac = new byte[MAC_LEN];
+        mac(entryHash32, mac);
+        evolve();
+        return mac;
+    }
+
+    /** constant-time compare against the current key's MAC, then evolves it either way */
+    public boolean verifyAndEvolve(byte[] entryHash32, byte[] mac) {
+        byte[] expected = new byte[MAC_LEN];
+        mac(entryHash32, expected);
+        evolve();
+        if (mac == null || mac.length != MAC_LEN) return false;
+        int diff = 0;
+        for (int i = 0; i < MAC_LEN; i++) diff |= expected[i] ^ mac[i];
+        return diff == 0;
+    }
+
+    /** number of evolutions so far, i.e. index of the current key */
+    public long index() {
+        return index;
+    }
+
+    public void destroy() {
+        Arrays.fill(key, (byte) 0);
+    }
+
+    private void mac(byte[] msg, byte[] out) {
+        if (msg == null || msg.length != 32) throw new IllegalArgumentException("entryHash must be 32 bytes");
+
+        Arrays.fill(pad, (byte) 0x36);
+        for (int i = 0; i < KEY_LEN; i++) pad[i] ^= key[i];
+        sha.update(pad, 0, BLOCK);
+        sha.update(msg, 0, msg.length);
+        sha.doFinal(inner, 0);
+
+        Arrays.fill(pad, (byte) 0x5c);
+        for (int i = 0; i < KEY_LEN; i++) pad[i] ^= key[i];
+        sha.update(pad, 0, BLOCK);
+        sha.update(inner, 0, MAC_LEN);
+        sha.doFinal(out, 0);
+
+        Arrays.fill(pad, (byte) 0);
+        Arrays.fill(inner, (byte) 0);
+    }
+
+    private void evolve() {
+        sha.update(key, 0, KEY_LEN);
+        sha.doFinal(key, 0);
+        index++;
+    }
+}
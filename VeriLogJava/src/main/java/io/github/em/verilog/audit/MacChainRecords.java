@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.sign.SignatureAlgorithm;
+
+import java.util.Base64;
+
+/**
+ * Signed control records of the MAC chain mode. The key record carries the initial MAC key sealed to the
+ * auditor and is bound to the file and its first seq; a checkpoint commits to the hash chain head, which
+ * makes every entry up to it publicly verifiable without the MAC key. Both are signed via
+ * {@link ControlRecords}.
+ */
+public final class MacChainRecords {
+
+    public static final String KEY_KIND = "macKey";
+    public static final String CHECKPOINT_KIND = "macCheckpoint";
+    public static final String SEAL_ALG = "X25519-HKDF-SHA256-ChaCha20Poly1305";
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    private MacChainRecords() {
+    }
+
+    public static ObjectNode keyRecord(
+            long firstSeq,
+            byte[] headerHash,
+            byte[] sealedKey,
+            SignatureAlgorithm issuerAlg,
+            String issuerKeyId
+    ) {
+        ObjectNode rec = OM.createObjectNode();
+        rec.put("version", 1);
+        rec.put("kind", KEY_KIND);
+        rec.put("firstSeq", firstSeq);
+        rec.put("headerHash", CryptoUtil.toHexLower(headerHash));
+        rec.put("sealAlg", SEAL_ALG);
+        rec.put("sealedKey", Base64.getEncoder().encodeToString(sealedKey));
+        rec.put("keyId", issuerKeyId);
+        rec.put(SignatureAlgorithm.FIELD, issuerAlg.tag());
+        return rec;
+    }
+
+    public static ObjectNode checkpoint(
+            long seq,
+            String entryHashHex,
+            byte[] headerHash,
+            SignatureAlgorithm issuerAlg,
+            String issuerKeyId
+    ) {
+        ObjectNode rec = OM.createObjectNode();
+        rec.put("version", 1);
+        rec.put("kind", CHECKPOINT_KIND);
+        rec.put("seq", seq);
+        rec.put("entryHash", entryHashHex);
+        rec.put("headerHash", CryptoUtil.toHexLower(headerHash));
+        rec.put("keyId", issuerKeyId);
+        rec.put(SignatureAlgorithm.FIELD, issuerAlg.tag());
+        return rec;
+    }
+}
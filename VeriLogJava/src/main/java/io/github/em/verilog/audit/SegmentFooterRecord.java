@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.io.SegmentSummary;
+import io.github.em.verilog.sign.SignatureAlgorithm;
+
+import java.util.Base64;
+
+/**
+ * Footer of a sealed segment: what the segment holds (frame count, byte length, entry seq range, chain links at
+ * both ends, timestamp range) and a sparse (seq, offset) index. Signed by the long-term key via
+ * {@link ControlRecords} and stored as the {@code TYPE_FOOTER} frame.
+ */
+public final class SegmentFooterRecord {
+
+    public static final String KIND = "segmentFooter";
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    private SegmentFooterRecord() {
+    }
+
+    /**
+     * @param length       offset of the footer frame, i.e. header and frames before it
+     * @param indexRecords 16-byte big-endian (seq, offset) pairs
+     */
+    public static ObjectNode unsigned(
+            byte[] headerHash,
+            SegmentSummary summary,
+            long length,
+            byte[] indexRecords,
+            SignatureAlgorithm issuerAlg,
+            String issuerKeyId
+    ) {
+        ObjectNode rec = OM.createObjectNode();
+        rec.put("version", 1);
+        rec.put("kind", KIND);
+        rec.put("headerHash", CryptoUtil.toHexLower(headerHash));
+        rec.put("frames", summary.frames());
+        rec.put("length", length);
+        if (summary.hasEntries()) {
+            rec.put("firstSeq", summary.firstSeq());
+            rec.put("lastSeq", summary.lastSeq());
+            rec.put("firstPrevHash", CryptoUtil.toHexLower(summary.firstPrevHash()));
+            rec.put("lastEntryHash", CryptoUtil.toHexLower(summary.lastEntryHash()));
+        }
+        if (summary.hasTimeRange()) {
+            rec.put("minTs", summary.minTs().toString());
+            rec.put("maxTs", summary.maxTs().toString());
+        }
+        rec.put("index", Base64.getEncoder().encodeToString(indexRecords));
+        rec.put("keyId", issuerKeyId);
+        rec.put(SignatureAlgorithm.FIELD, issuerAlg.tag());
+        return rec;
+    }
+}
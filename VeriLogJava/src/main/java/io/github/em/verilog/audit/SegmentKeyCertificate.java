@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.sign.SignatureAlgorithm;
+
+import java.util.Base64;
+
+/**
+ * Certificate binding a per-segment signing key to one file (header hash) and the first entry seq
+ * it signs. Signed by the long-term key via {@link ControlRecords} and stored as a {@code TYPE_KEY_CERT}
+ * frame.
+ */
+public final class SegmentKeyCertificate {
+
+    public static final String KIND = "segmentKey";
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    private SegmentKeyCertificate() {
+    }
+
+    public static ObjectNode unsigned(
+            long firstSeq,
+            byte[] headerHash,
+            SignatureAlgorithm subjectAlg,
+            byte[] subjectSpkiDer,
+            String subjectKeyId,
+            SignatureAlgorithm issuerAlg,
+            String issuerKeyId
+    ) {
+        ObjectNode cert = OM.createObjectNode();
+        cert.put("version", 1);
+        cert.put("kind", KIND);
+        cert.put("firstSeq", firstSeq);
+        cert.put("headerHash", CryptoUtil.toHexLower(headerHash));
+        cert.put("subjectAlg", subjectAlg.tag());
+        cert.put("subjectKey", Base64.getEncoder().encodeToString(subjectSpkiDer));
+        cert.put("subjectKeyId", subjectKeyId);
+        cert.put("keyId", issuerKeyId);
+        cert.put(SignatureAlgorithm.FIELD, issuerAlg.tag());
+        return cert;
+    }
+}
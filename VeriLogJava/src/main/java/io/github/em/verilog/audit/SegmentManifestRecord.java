@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.io.SegmentSummary;
+import io.github.em.verilog.sign.SignatureAlgorithm;
+
+/**
+ * One line of the segment manifest: where a sealed segment was put (relative to the log directory), which file
+ * it is (header hash), what it holds (frames, length, entry seq range) and the hash of its signed footer. Record
+ * {@code n} carries the hash of record {@code n - 1}, so records cannot be dropped or reordered in the middle.
+ * Signed by the long-term key via {@link ControlRecords}.
+ */
+public final class SegmentManifestRecord {
+
+    public static final String KIND = "segmentManifest";
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    private SegmentManifestRecord() {
+    }
+
+    /**
+     * @param prevHash   {@link ControlRecords#hash} of the previous record; all zero for the first
+     * @param path       segment path relative to the log directory, with {@code /} separators
+     * @param length     offset of the footer frame
+     * @param footerHash {@link ControlRecords#hash} of the segment's footer record
+     */
+    public static ObjectNode unsigned(
+            long n,
+            byte[] prevHash,
+            String path,
+            byte[] headerHash,
+            SegmentSummary summary,
+            long length,
+            byte[] footerHash,
+            SignatureAlgorithm issuerAlg,
+            String issuerKeyId
+    ) {
+        ObjectNode rec = OM.createObjectNode();
+        rec.put("version", 1);
+        rec.put("kind", KIND);
+        rec.put("n", n);
+        rec.put("prevHash", CryptoUtil.toHexLower(prevHash));
+        rec.put("path", path);
+        rec.put("headerHash", CryptoUtil.toHexLower(headerHash));
+        rec.put("frames", summary.frames());
+        rec.put("length", length);
+        if (summary.hasEntries()) {
+            rec.put("firstSeq", summary.firstSeq());
+            rec.put("lastSeq", summary.lastSeq());
+        }
+        rec.put("footerHash", CryptoUtil.toHexLower(footerHash));
+        rec.put("keyId", issuerKeyId);
+        rec.put(SignatureAlgorithm.FIELD, issuerAlg.tag());
+        return rec;
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.sign.SignatureAlgorithm;
+
+/**
+ * Line of the segment manifest that records the deletion of a listed segment by the retention limits. The writer
+ * appends it before it deletes the file, chained like {@link SegmentManifestRecord} and signed by the long-term
+ * key via {@link ControlRecords}. A verifier only accepts a listed segment as gone with this record.
+ */
+public final class SegmentPruneRecord {
+
+    public static final String KIND = "segmentPrune";
+
+    private static final ObjectMapper OM = new ObjectMapper();
+
+    private SegmentPruneRecord() {
+    }
+
+    /**
+     * @param prevHash {@link ControlRecords#hash} of the previous record
+     * @param path     path of the deleted segment as its manifest record lists it
+     */
+    public static ObjectNode unsigned(
+            long n,
+            byte[] prevHash,
+            String path,
+            SignatureAlgorithm issuerAlg,
+            String issuerKeyId
+    ) {
+        ObjectNode rec = OM.createObjectNode();
+        rec.put("version", 1);
+        rec.put("kind", KIND);
+        rec.put("n", n);
+        rec.put("prevHash", CryptoUtil.toHexLower(prevHash));
+        rec.put("path", path);
+        rec.put("keyId", issuerKeyId);
+        rec.put(SignatureAlgorithm.FIELD, issuerAlg.tag());
+        return rec;
+    }
+}
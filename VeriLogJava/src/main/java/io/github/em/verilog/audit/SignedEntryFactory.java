@@ -13,9 +13,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.em.verilog.CanonicalJson;
 import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.crypto.HashAlgorithm;
 import io.github.em.verilog.errors.VeriLogCryptoException;
 import io.github.em.verilog.errors.VeriLogJsonException;
+import io.github.em.verilog.provider.CryptoSelection;
 import io.github.em.verilog.sign.LogSigner;
+import io.github.em.verilog.sign.SignatureAlgorithm;
 
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
@@ -25,6 +28,16 @@ import java.util.Map;
 public final class SignedEntryFactory {
 
     private final ObjectMapper om = new ObjectMapper();
+    private final CryptoSelection crypto;
+
+    public SignedEntryFactory() {
+        this(CryptoSelection.defaults());
+    }
+
+    /** @param crypto SHA-256 provider for segments using the default entry hash */
+    public SignedEntryFactory(CryptoSelection crypto) {
+        this.crypto = crypto;
+    }
 
     public byte[] buildSignedEntryJsonUtf8(
             HashChainState chain,
@@ -35,6 +48,24 @@ public final class SignedEntryFactory {
             Instant tsUtc
     ) throws VeriLogCryptoException {
 
+        PreparedEntry p = prepare(chain, signer.keyId(), signer.algorithm(), actor, eventType, event, tsUtc);
+        return complete(p, signer.signEntryHash(p.entryHash));
+    }
+
+    /**
+     * Builds and hashes the unsigned entry and advances the chain. The signature does not feed into
+     * the chain, so later entries can be prepared while this one is still being signed.
+     */
+    public PreparedEntry prepare(
+            HashChainState chain,
+            String keyId,
+            SignatureAlgorithm alg,
+            String actor,
+            String eventType,
+            Map<String, Object> event,
+            Instant tsUtc
+    ) throws VeriLogCryptoException {
+
         long seq = chain.allocateSeq();
 
         ObjectNode unsigned = om.createObjectNode();
@@ -45,21 +76,49 @@ public final class SignedEntryFactory {
         unsigned.put("eventType", eventType);
         unsigned.set("event", om.valueToTree(event));
         unsigned.put("prevHash", chain.prevHashHex());
-        unsigned.put("keyId", signer.keyId());
+        unsigned.put("keyId", keyId);
+        if (alg != null && alg != SignatureAlgorithm.ES256) {
+            // covered by entryHash, so the tag cannot be swapped without breaking the chain
+            unsigned.put(SignatureAlgorithm.FIELD, alg.tag());
+        }
+        HashAlgorithm hash = chain.hashAlgorithm();
+        if (hash != HashAlgorithm.SHA_256) unsigned.put(HashAlgorithm.ENTRY_FIELD, hash.tag());
 
         String canonicalPayload = CanonicalJson.canonicalize(unsigned);
-        byte[] entryHashBytes = CryptoUtil.sha256Utf8(canonicalPayload);
+        byte[] entryHashBytes = hash == HashAlgorithm.SHA_256
+                ? crypto.sha256(canonicalPayload.getBytes(StandardCharsets.UTF_8))
+                : hash.digestUtf8(canonicalPayload);
         String entryHashHex = CryptoUtil.toHexLower(entryHashBytes);
 
-        byte[] sigRaw = signer.signEntryHash(entryHashBytes);
+        chain.updatePrevHash(entryHashHex);
+
+        return new PreparedEntry(seq, unsigned, entryHashBytes, entryHashHex, tsUtc);
+    }
+
+    /** adds entryHash and sig to a prepared entry and serializes it */
+    public byte[] complete(PreparedEntry p, byte[] sigRaw) {
         String sigB64 = Base64.getEncoder().encodeToString(sigRaw);
 
-        ObjectNode signed = unsigned.deepCopy();
-        signed.put("entryHash", entryHashHex);
+        ObjectNode signed = p.unsigned.deepCopy();
+        signed.put("entryHash", p.entryHashHex);
         signed.put("sig", sigB64);
 
-        chain.updatePrevHash(entryHashHex);
-
         return signed.toString().getBytes(StandardCharsets.UTF_8);
     }
-}
\ No newline at end of file
+
+    public static final class PreparedEntry {
+        public final long seq;
+        public final byte[] entryHash;
+        public final Instant ts;
+        final ObjectNode unsigned;
+        final String entryHashHex;
+
+        PreparedEntry(long seq, ObjectNode unsigned, byte[] entryHash, String entryHashHex, Instant ts) {
+            this.seq = seq;
+            this.unsigned = unsigned;
+            this.entryHash = entryHash;
+            this.entryHashHex = entryHashHex;
+            this.ts = ts;
+        }
+    }
+}
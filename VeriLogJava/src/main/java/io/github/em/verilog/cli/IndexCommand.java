@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.cli;
+
+import io.github.em.verilog.io.SegmentIndex;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@code verilog index}: rebuilds the {@link SegmentIndex} sidecar of a segment offline.
+ */
+public final class IndexCommand {
+
+    /**
+     * Exit codes:
+     * 0 = OK
+     * 3 = bad arguments
+     * 4 = I/O or unexpected errors
+     */
+    public int run(String[] args) {
+        try {
+            Map<String, String> flags = parseFlags(args);
+            if (!flags.containsKey("file")) throw new IllegalArgumentException("Provide --file <segment.vlog>.");
+            Path file = Paths.get(flags.get("file"));
+
+            byte[] dek32 = DekParser.parseDek(flags);
+            if (dek32.length == 0) {
+                throw new IllegalArgumentException(
+                        "Provide --dek-hex (64 hex chars) or --dek-b64 (base64 of 32 bytes)."
+                );
+            }
+            int every = Integer.parseInt(flags.getOrDefault("every", String.valueOf(SegmentIndex.DEFAULT_INTERVAL)));
+            if (every < 1) throw new IllegalArgumentException("--every must be >= 1");
+            if (!Files.isRegularFile(file)) throw new IllegalArgumentException("No such segment: " + file);
+
+            int records = SegmentIndex.rebuild(file, dek32, every);
+            System.out.println(SegmentIndex.pathFor(file).getFileName() + " -> " + records + " records");
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            printHelp();
+            return 3;
+        } catch (Exception e) {
+            System.err.println("ERROR: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            return 4;
+        }
+    }
+
+    static void printHelp() {
+        System.out.println("  verilog index --file <file.vlog> --dek-hex <64hex> [--every <frames>]");
+    }
+
+    private static Map<String, String> parseFlags(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (int i = 1; i < args.length; i += 2) {
+            String a = args[i];
+            if (!a.startsWith("--")) throw new IllegalArgumentException("Unexpected arg: " + a);
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + a);
+            m.put(a.substring(2), args[i + 1]);
+        }
+        return m;
+    }
+}
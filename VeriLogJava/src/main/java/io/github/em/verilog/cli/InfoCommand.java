@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.cli;
+
+import io.github.em.verilog.io.SegmentTrailer;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * {@code verilog info}: prints what a sealed segment's trailer says about it, without a key. The values are
+ * unauthenticated; {@code verilog verify} checks them against the signed footer.
+ */
+public final class InfoCommand {
+
+    /**
+     * Exit codes:
+     * 0 = sealed segment
+     * 1 = not sealed
+     * 3 = bad arguments
+     * 4 = I/O or unexpected errors
+     */
+    public int run(String[] args) {
+        try {
+            if (args.length != 3 || !"--file".equals(args[1])) {
+                throw new IllegalArgumentException("Provide --file <segment.vlog>.");
+            }
+            Path file = Paths.get(args[2]);
+            if (!Files.isRegularFile(file)) throw new IllegalArgumentException("No such segment: " + file);
+
+            SegmentTrailer t = SegmentTrailer.read(file);
+            if (t == null) {
+                System.out.println(file.getFileName() + ": not sealed");
+                return 1;
+            }
+            System.out.println(file.getFileName() + ": sealed, " + t.frames + " frames, seq "
+                    + t.firstSeq + ".." + t.lastSeq + ", footer at " + t.footerOffset);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            printHelp();
+            return 3;
+        } catch (Exception e) {
+            System.err.println("ERROR: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            return 4;
+        }
+    }
+
+    static void printHelp() {
+        System.out.println("  verilog info --file <file.vlog>");
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.cli;
+
+import io.github.em.verilog.io.SegmentScrubber;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code verilog scrub}: checks segments for damage with {@link SegmentScrubber}. Needs no keys.
+ */
+public final class ScrubCommand {
+
+    /**
+     * Exit codes:
+     * 0 = OK
+     * 2 = damage found
+     * 3 = bad arguments
+     * 4 = I/O or unexpected errors
+     */
+    public int run(String[] args) {
+        try {
+            Map<String, String> flags = parseFlags(args);
+            boolean hasDir = flags.containsKey("dir");
+            boolean hasFile = flags.containsKey("file");
+            if (hasDir == hasFile) throw new IllegalArgumentException("Provide exactly one of --dir or --file.");
+            if (flags.containsKey("archive-dir") && !hasDir) {
+                throw new IllegalArgumentException("--archive-dir requires --dir.");
+            }
+            int threads = Integer.parseInt(flags.getOrDefault("threads",
+                    String.valueOf(Runtime.getRuntime().availableProcessors())));
+            if (threads < 1) throw new IllegalArgumentException("--threads must be >= 1");
+
+            List<Path> files = new ArrayList<>();
+            if (hasFile) {
+                Path file = Paths.get(flags.get("file"));
+                if (!Files.isRegularFile(file)) throw new IllegalArgumentException("No such segment: " + file);
+                files.add(file);
+            } else {
+                Path dir = Paths.get(flags.get("dir"));
+                if (!Files.isDirectory(dir)) throw new IllegalArgumentException("No such directory: " + dir);
+                if (flags.containsKey("archive-dir")) {
+                    Path archive = Paths.get(flags.get("archive-dir"));
+                    if (!Files.isDirectory(archive)) throw new IllegalArgumentException("No such directory: " + archive);
+                    files.addAll(SegmentScrubber.segments(archive));
+                }
+                files.addAll(SegmentScrubber.segments(dir));
+            }
+
+            long start = System.nanoTime();
+            List<SegmentScrubber.Result> results = SegmentScrubber.scrub(files, threads);
+            long nanos = Math.max(1, System.nanoTime() - start);
+
+            long bytes = 0;
+            int failed = 0;
+            for (SegmentScrubber.Result r : results) {
+                bytes += r.bytes;
+                if (r.ok) {
+                    System.out.println(r.file.getFileName() + " -> OK (" + r.frames + " frames"
+                            + (r.checksums ? ", checksums" : ", no checksums")
+                            + (r.sealed ? ", sealed" : "")
+                            + (r.partialTail ? ", partial tail" : "") + ")");
+                } else {
+                    failed++;
+                    System.out.println(r.file.getFileName() + " -> FAIL at offset " + r.failedAt + ": " + r.reason);
+                }
+            }
+            System.out.println(String.format(Locale.ROOT, "%d files, %d failed, %.1f MB in %.2f s (%.1f MB/s)",
+                    results.size(), failed, bytes / 1e6, nanos / 1e9, bytes / 1e6 / (nanos / 1e9)));
+            return failed == 0 ? 0 : 2;
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERROR: " + e.getMessage());
+            printHelp();
+            return 3;
+        } catch (Exception e) {
+            System.err.println("ERROR: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            return 4;
+        }
+    }
+
+    static void printHelp() {
+        System.out.println("  verilog scrub --dir <logDir> [--archive-dir <dir>] [--threads <n>]");
+        System.out.println("  verilog scrub --file <file.vlog>");
+    }
+
+    private static Map<String, String> parseFlags(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (int i = 1; i < args.length; i += 2) {
+            String a = args[i];
+            if (!a.startsWith("--")) throw new IllegalArgumentException("Unexpected arg: " + a);
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + a);
+            m.put(a.substring(2), args[i + 1]);
+        }
+        return m;
+    }
+}
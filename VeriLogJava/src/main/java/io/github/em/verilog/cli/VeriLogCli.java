@@ -25,6 +25,15 @@ public final class VeriLogCli {
     }
 
     static int execute(String[] args) {
+        if (args != null && args.length > 0 && "index".equalsIgnoreCase(args[0])) {
+            return new IndexCommand().run(args);
+        }
+        if (args != null && args.length > 0 && "info".equalsIgnoreCase(args[0])) {
+            return new InfoCommand().run(args);
+        }
+        if (args != null && args.length > 0 && "scrub".equalsIgnoreCase(args[0])) {
+            return new ScrubCommand().run(args);
+        }
         return new VerifyCommand().run(args);
     }
 }
\ No newline at end of file
@@ -11,11 +11,12 @@ package io.github.em.verilog.cli;
 
 import io.github.em.verilog.errors.VeriLogException;
 import io.github.em.verilog.errors.VeriLogFormatException;
+import io.github.em.verilog.provider.CryptoSelection;
 import io.github.em.verilog.reader.*;
 import io.github.em.verilog.sign.BcPemKeys;
 import io.github.em.verilog.sign.BcPublicKeyLoader;
 import io.github.em.verilog.CryptoUtil;
-import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 
 import java.nio.file.*;
 import java.util.*;
@@ -56,36 +57,49 @@ public final class VerifyCommand {
 
     private static final class RunConfig {
         final Path dir;
+        final Path archiveDir;
         final Path file;
         final byte[] dek32;
         final PublicKeyResolver resolver;
         final boolean stopOnFirstFailure;
         final boolean toleratePartial;
+        final ChainAnchor anchor; // null: --file starts at genesis
+        final CryptoSelection crypto; // null: the reader's defaults
 
         RunConfig(Path dir,
+                  Path archiveDir,
                   Path file,
                   byte[] dek32,
                   PublicKeyResolver resolver,
                   boolean stopOnFirstFailure,
-                  boolean toleratePartial) {
+                  boolean toleratePartial,
+                  ChainAnchor anchor,
+                  CryptoSelection crypto) {
             this.dir = dir;
+            this.archiveDir = archiveDir;
             this.file = file;
             this.dek32 = dek32;
             this.resolver = resolver;
             this.stopOnFirstFailure = stopOnFirstFailure;
             this.toleratePartial = toleratePartial;
+            this.anchor = anchor;
+            this.crypto = crypto;
         }
     }
 
     private RunConfig parseAndValidate(Map<String, String> flags) throws Exception {
         Path dir = flags.containsKey("dir") ? java.nio.file.Paths.get(flags.get("dir")) : null;
         Path file = flags.containsKey("file") ? java.nio.file.Paths.get(flags.get("file")) : null;
+        Path archiveDir = flags.containsKey("archive-dir") ? java.nio.file.Paths.get(flags.get("archive-dir")) : null;
 
         if (!exactlyOneProvided(dir, file)) {
             System.err.println("ERROR: Provide exactly one of --dir or --file.");
             printHelpVerify();
             throw new IllegalArgumentException("invalid input"); // triggers exit code 3 as before
         }
+        if (archiveDir != null && dir == null) {
+            throw new IllegalArgumentException("--archive-dir requires --dir.");
+        }
 
         byte[] dek32 = DekParser.parseDek(flags);
         if (dek32.length == 0) {
@@ -107,7 +121,33 @@ public final class VerifyCommand {
         boolean toleratePartial =
                 "true".equalsIgnoreCase(flags.getOrDefault("tolerate-partial", "false"));
 
-        return new RunConfig(dir, file, dek32, resolver, stopOnFirstFailure, toleratePartial);
+        ChainAnchor anchor = flags.containsKey("after") ? parseAnchor(flags.get("after")) : null;
+        if (anchor != null && file == null) throw new IllegalArgumentException("--after requires --file.");
+
+        return new RunConfig(dir, archiveDir, file, dek32, resolver, stopOnFirstFailure, toleratePartial, anchor,
+                parseCrypto(flags.getOrDefault("crypto", "default")));
+    }
+
+    private static CryptoSelection parseCrypto(String value) {
+        switch (value) {
+            case "default":
+                return null;
+            case "benchmark":
+                return CryptoSelection.benchmark();
+            default:
+                throw new IllegalArgumentException("--crypto must be default or benchmark.");
+        }
+    }
+
+    /** {@code <seq>:<entryHashHex>} of the entry the file continues */
+    private static ChainAnchor parseAnchor(String value) {
+        int colon = value.indexOf(':');
+        try {
+            if (colon < 0) throw new IllegalArgumentException("missing ':'");
+            return ChainAnchor.after(Long.parseLong(value.substring(0, colon)), value.substring(colon + 1));
+        } catch (VeriLogFormatException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("--after must be <seq>:<entryHashHex> (" + e.getMessage() + ")");
+        }
     }
 
     private static boolean exactlyOneProvided(Path a, Path b) {
@@ -128,15 +168,26 @@ public final class VerifyCommand {
     }
 
     private int executeVerify(RunConfig cfg) throws VeriLogException {
-        VeriLogReader reader = new VeriLogReader();
+        VeriLogReader reader = cfg.crypto == null ? new VeriLogReader() : new VeriLogReader(null, cfg.crypto);
+        if (cfg.crypto != null) {
+            System.out.println("crypto: " + cfg.crypto.describe(CryptoSelection.Primitive.SHA256,
+                    CryptoSelection.Primitive.ES256_VERIFY, CryptoSelection.Primitive.AES_GCM));
+        }
 
         if (cfg.file != null) {
-            VerifyReport rep = reader.verifyFile(cfg.file, cfg.dek32, cfg.resolver, cfg.toleratePartial);
-            printFileResult(cfg.file, rep.valid, rep.seq, rep.reason);
+            VerifyReport rep = cfg.anchor == null
+                    ? reader.verifyFile(cfg.file, cfg.dek32, cfg.resolver, cfg.toleratePartial)
+                    : reader.verifyFile(cfg.file, cfg.dek32, cfg.resolver, cfg.toleratePartial, cfg.anchor);
+            printFileResult(cfg.file, rep.valid, rep.valid ? rep.firstSeq : 0, rep.seq, rep.reason);
+            if (rep.valid && cfg.anchor != null) {
+                System.out.println("  chain continues seq " + cfg.anchor.seq + " as given by --after, not genesis");
+            }
             return rep.valid ? 0 : 2;
         }
 
-        DirectoryVerifyReport dr = reader.verifyDirectory(cfg.dir, cfg.dek32, cfg.resolver, cfg.stopOnFirstFailure);
+        DirectoryVerifyReport dr = cfg.archiveDir == null
+                ? reader.verifyDirectory(cfg.dir, cfg.dek32, cfg.resolver, cfg.stopOnFirstFailure)
+                : reader.verifyDirectory(cfg.dir, cfg.archiveDir, cfg.dek32, cfg.resolver, cfg.stopOnFirstFailure);
         boolean allOk = printDirectoryResults(dr);
         System.out.println(allOk ? "ALL FILES OK" : "SOME FILES FAILED");
         return allOk ? 0 : 2;
@@ -145,28 +196,40 @@ public final class VerifyCommand {
     private boolean printDirectoryResults(DirectoryVerifyReport dr) {
         boolean allOk = true;
         for (var r : dr.results()) {
-            printFileResult(r.file, r.ok, r.lastSeqOrFailSeq, r.reason);
+            printFileResult(r.file, r.ok, r.firstSeq, r.lastSeqOrFailSeq, r.reason);
+            if (r.restart == DirectoryVerifyReport.Restart.SIGNED) {
+                System.out.println("  new chain starts here (signed restart record)");
+            } else if (r.restart == DirectoryVerifyReport.Restart.LEGACY) {
+                System.out.println("  new chain starts here (file written before restart records)");
+            }
             if (!r.ok) allOk = false;
         }
+        if (!dr.anchoredAtGenesis()) {
+            System.out.println("WARNING: chain starts at seq " + dr.firstSeq() + ", not at genesis; "
+                    + (dr.prunedThroughSeq() > 0
+                    ? "segments through seq " + dr.prunedThroughSeq() + " were pruned by retention"
+                    : "the earlier entries are not verified"));
+        }
         return allOk;
     }
 
-    private static void printFileResult(Path file, boolean ok, long seq, String reason) {
+    private static void printFileResult(Path file, boolean ok, long firstSeq, long seq, String reason) {
         String name = file.getFileName().toString();
         if (ok) {
-            System.out.println(name + " -> OK (lastSeq=" + seq + ")");
+            System.out.println(name + " -> OK (" + (firstSeq > 0 ? "firstSeq=" + firstSeq + ", " : "")
+                    + "lastSeq=" + seq + ")");
         } else {
             System.out.println(name + " -> FAIL (seq=" + seq + "): " + reason);
         }
     }
 
     private static PublicKeyResolver loadKeys(List<Path> pubPemPaths) throws Exception {
-        Map<String, ECPublicKeyParameters> map = new HashMap<>();
+        Map<String, AsymmetricKeyParameter> map = new HashMap<>();
 
         for (Path p : pubPemPaths) {
             String pem = Files.readString(p);
             byte[] spkiDer = BcPemKeys.readSpkiPublicKeyDer(pem);
-            ECPublicKeyParameters pub = BcPublicKeyLoader.fromSpkiDer(spkiDer);
+            AsymmetricKeyParameter pub = BcPublicKeyLoader.verificationKeyFromSpkiDer(spkiDer);
 
             String keyId = CryptoUtil.toHexLower(CryptoUtil.sha256(spkiDer));
             map.put(keyId, pub);
@@ -190,10 +253,10 @@ public final class VerifyCommand {
             String val = "true";
             i++;
 
-            if (key.equals("dir") || key.equals("file") ||
+            if (key.equals("dir") || key.equals("archive-dir") || key.equals("file") ||
                     key.equals("dek-hex") || key.equals("dek-b64") ||
                     key.equals("pub") || key.equals("stop-on-fail") ||
-                    key.equals("tolerate-partial")) {
+                    key.equals("tolerate-partial") || key.equals("after") || key.equals("crypto")) {
 
                 if (i >= args.length) {
                     throw new IllegalArgumentException("Missing value for --" + key);
@@ -212,19 +275,26 @@ public final class VerifyCommand {
     private static void printHelp() {
         System.out.println("Usage:");
         printHelpVerify();
+        System.out.println();
+        IndexCommand.printHelp();
+        InfoCommand.printHelp();
+        ScrubCommand.printHelp();
     }
 
     private static void printHelpVerify() {
-        System.out.println("  verilog verify --dir <logDir> --dek-hex <64hex> --pub <pub.pem>[,<pub2.pem>...] [--stop-on-fail true|false]");
-        System.out.println("  verilog verify --file <file.vlog> --dek-hex <64hex> --pub <pub.pem> [--tolerate-partial true|false]");
+        System.out.println("  verilog verify --dir <logDir> --dek-hex <64hex> --pub <pub.pem>[,<pub2.pem>...] [--archive-dir <dir>] [--stop-on-fail true|false] [--crypto default|benchmark]");
+        System.out.println("  verilog verify --file <file.vlog> --dek-hex <64hex> --pub <pub.pem> [--tolerate-partial true|false] [--after <seq>:<entryHashHex>] [--crypto default|benchmark]");
         System.out.println();
         System.out.println("Options:");
         System.out.println("  --dir                Directory containing .vlog files");
+        System.out.println("  --archive-dir        For --dir: also verify the rotated segments moved here");
         System.out.println("  --file               Single .vlog file");
         System.out.println("  --dek-hex            32-byte DEK as 64 hex chars");
         System.out.println("  --dek-b64            32-byte DEK as base64");
         System.out.println("  --pub                Public key PEM path(s), comma-separated allowed");
         System.out.println("  --stop-on-fail       For --dir: stop at first failed file (default true)");
         System.out.println("  --tolerate-partial   For --file: ignore trailing partial frame (default false)");
+        System.out.println("  --after              For --file: the entry the file continues (default: starts at seq 1)");
+        System.out.println("  --crypto             benchmark: time the crypto providers first and use the fastest (default: default)");
     }
 }
\ No newline at end of file
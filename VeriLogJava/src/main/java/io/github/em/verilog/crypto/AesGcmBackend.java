@@ -0,0 +1,21 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+/**
+ * Implementation behind {@link CipherSuite#AES_256_GCM_SEGMENT}. Both produce identical frames; which one is
+ * faster depends on the JDK and CPU.
+ */
+public enum AesGcmBackend {
+    /** JCE {@code AES/GCM/NoPadding}, intrinsified by HotSpot where AES-NI/CLMUL exist */
+    JCE,
+    /** BouncyCastle lightweight GCM, pure Java */
+    BOUNCY_CASTLE
+}
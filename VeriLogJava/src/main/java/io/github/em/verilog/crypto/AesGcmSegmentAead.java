@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+
+/**
+ * AES-256-GCM segment suite on the JCE provider, so HotSpot's AES/GHASH intrinsics apply. One {@link Cipher}
+ * is kept per segment and re-initialised per frame with the seq-derived nonce.
+ */
+final class AesGcmSegmentAead implements FrameAead {
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final byte[] HKDF_INFO = "VeriLog AES-256-GCM segment key".getBytes(StandardCharsets.US_ASCII);
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final Cipher cipher;
+    private final byte[] nonce = new byte[12];
+
+    AesGcmSegmentAead(byte[] dek32, byte[] salt) {
+        byte[] k = segmentKey(dek32, salt);
+        this.key = new SecretKeySpec(k, "AES");
+        Arrays.fill(k, (byte) 0);
+
+        try {
+            this.cipher = Cipher.getInstance(TRANSFORMATION);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(TRANSFORMATION + " not available", e);
+        }
+    }
+
+    @Override
+    public void seal(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst) {
+        try {
+            init(Cipher.ENCRYPT_MODE, type, seq, aad);
+            cipher.doFinal(src, dst);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void open(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst)
+            throws InvalidCipherTextException {
+        if (src.remaining() < SegmentCipher.TAG_LEN) throw new InvalidCipherTextException("data too short");
+        try {
+            init(Cipher.DECRYPT_MODE, type, seq, aad);
+            // GCM decryption buffers internally and releases plaintext only after the tag checked out
+            cipher.doFinal(src, dst);
+        } catch (AEADBadTagException e) {
+            throw new InvalidCipherTextException("mac check in GCM failed", e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** HKDF-SHA256(DEK, salt); shared with {@link BcAesGcmSegmentAead} so both backends read the same files */
+    static byte[] segmentKey(byte[] dek32, byte[] salt) {
+        byte[] k = new byte[32];
+        HKDFBytesGenerator hkdf = new HKDFBytesGenerator(new SHA256Digest());
+        hkdf.init(new HKDFParameters(dek32, salt, HKDF_INFO));
+        hkdf.generateBytes(k, 0, k.length);
+        return k;
+    }
+
+    private void init(int mode, byte type, long seq, byte[] aad) throws GeneralSecurityException {
+        SegmentCipher.seqNonce(type, seq, nonce);
+        cipher.init(mode, key, new GCMParameterSpec(TAG_BITS, nonce));
+        if (aad != null) cipher.updateAAD(aad);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.modes.GCMModeCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * AES-256-GCM segment suite on the BouncyCastle lightweight API; same key schedule and nonces as
+ * {@link AesGcmSegmentAead}.
+ */
+final class BcAesGcmSegmentAead implements FrameAead {
+    private static final int TAG_BITS = 128;
+
+    private final KeyParameter key;
+    private final GCMModeCipher gcm = GCMBlockCipher.newInstance(AESEngine.newInstance());
+    private final byte[] nonce = new byte[12];
+    private byte[] inScratch = new byte[0];
+    private byte[] outScratch = new byte[0];
+
+    BcAesGcmSegmentAead(byte[] dek32, byte[] salt) {
+        byte[] k = AesGcmSegmentAead.segmentKey(dek32, salt);
+        this.key = new KeyParameter(k);
+        Arrays.fill(k, (byte) 0);
+    }
+
+    @Override
+    public void seal(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst) {
+        try {
+            process(true, type, seq, aad, src, dst);
+        } catch (InvalidCipherTextException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void open(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst)
+            throws InvalidCipherTextException {
+        if (src.remaining() < SegmentCipher.TAG_LEN) throw new InvalidCipherTextException("data too short");
+        process(false, type, seq, aad, src, dst);
+    }
+
+    private void process(boolean encrypt, byte type, long seq, byte[] aad, ByteBuffer src, ByteBuffer dst)
+            throws InvalidCipherTextException {
+        SegmentCipher.seqNonce(type, seq, nonce);
+        gcm.init(encrypt, new AEADParameters(key, TAG_BITS, nonce, aad));
+
+        int inLen = src.remaining();
+        int outLen = gcm.getOutputSize(inLen);
+        if (dst.remaining() < outLen) throw new IllegalArgumentException("output buffer too small");
+
+        byte[] in;
+        int inOff;
+        if (src.hasArray()) {
+            in = src.array();
+            inOff = src.arrayOffset() + src.position();
+        } else {
+            if (inScratch.length < inLen) inScratch = new byte[inLen];
+            in = inScratch;
+            src.duplicate().get(in, 0, inLen);
+            inOff = 0;
+        }
+
+        // BC emits plaintext before the tag is checked, so dst is only written once doFinal succeeded
+        if (outScratch.length < outLen) outScratch = new byte[outLen];
+        try {
+            int n = gcm.processBytes(in, inOff, inLen, outScratch, 0);
+            n += gcm.doFinal(outScratch, n);
+            dst.put(outScratch, 0, n);
+            src.position(src.position() + inLen);
+        } finally {
+            Arrays.fill(outScratch, 0, outLen, (byte) 0);
+        }
+    }
+}
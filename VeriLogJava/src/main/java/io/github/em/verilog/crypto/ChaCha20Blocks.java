@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+/**
+ * Bulk ChaCha20 keystream. This is the portable scalar version; the multi-release jar carries a Java 21
+ * variant under {@code META-INF/versions/21} that computes several blocks per Vector API lane set.
+ */
+final class ChaCha20Blocks {
+    /** largest {@code blocks} argument callers may pass, sized for 512-bit vectors */
+    static final int MAX_BLOCKS = 16;
+    /** size of the {@code scratch} array callers keep for the vector variant */
+    static final int SCRATCH_INTS = 16 * MAX_BLOCKS;
+
+    private ChaCha20Blocks() {}
+
+    /**
+     * Writes {@code blocks} consecutive keystream blocks starting at {@code counter} to {@code out[0..)}.
+     */
+    static void keystream(int[] key, int counter, int n0, int n1, int n2, byte[] out, int blocks, int[] scratch) {
+        for (int i = 0; i < blocks; i++) {
+            ChaCha20Core.block(key, counter + i, n0, n1, n2, out, i * ChaCha20Core.BLOCK_LEN);
+        }
+    }
+
+    /** which implementation is active, for diagnostics */
+    static String implementation() {
+        return "scalar";
+    }
+}
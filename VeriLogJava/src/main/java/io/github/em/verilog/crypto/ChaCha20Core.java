@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+/**
+ * RFC 8439 ChaCha20 block function on plain ints, no allocation.
+ */
+final class ChaCha20Core {
+    static final int BLOCK_LEN = 64;
+
+    private static final int C0 = 0x61707865;
+    private static final int C1 = 0x3320646e;
+    private static final int C2 = 0x79622d32;
+    private static final int C3 = 0x6b206574;
+
+    private ChaCha20Core() {}
+
+    /**
+     * Writes one keystream block.
+     *
+     * @param key     8 little-endian key words
+     * @param counter 32-bit block counter
+     * @param n0      nonce word 0 (little-endian bytes 0..3), n1 and n2 follow
+     */
+    static void block(int[] key, int counter, int n0, int n1, int n2, byte[] out, int off) {
+        int x0 = C0, x1 = C1, x2 = C2, x3 = C3;
+        int x4 = key[0], x5 = key[1], x6 = key[2], x7 = key[3];
+        int x8 = key[4], x9 = key[5], x10 = key[6], x11 = key[7];
+        int x12 = counter, x13 = n0, x14 = n1, x15 = n2;
+
+        for (int i = 0; i < 10; i++) {
+            // column rounds
+            x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 16); x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 12);
+            x0 += x4; x12 = Integer.rotateLeft(x12 ^ x0, 8);  x8 += x12; x4 = Integer.rotateLeft(x4 ^ x8, 7);
+            x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 16); x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 12);
+            x1 += x5; x13 = Integer.rotateLeft(x13 ^ x1, 8);  x9 += x13; x5 = Integer.rotateLeft(x5 ^ x9, 7);
+            x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 16); x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 12);
+            x2 += x6; x14 = Integer.rotateLeft(x14 ^ x2, 8);  x10 += x14; x6 = Integer.rotateLeft(x6 ^ x10, 7);
+            x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 16); x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 12);
+            x3 += x7; x15 = Integer.rotateLeft(x15 ^ x3, 8);  x11 += x15; x7 = Integer.rotateLeft(x7 ^ x11, 7);
+            // diagonal rounds
+            x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 16); x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 12);
+            x0 += x5; x15 = Integer.rotateLeft(x15 ^ x0, 8);  x10 += x15; x5 = Integer.rotateLeft(x5 ^ x10, 7);
+            x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 16); x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 12);
+            x1 += x6; x12 = Integer.rotateLeft(x12 ^ x1, 8);  x11 += x12; x6 = Integer.rotateLeft(x6 ^ x11, 7);
+            x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 16); x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 12);
+            x2 += x7; x13 = Integer.rotateLeft(x13 ^ x2, 8);  x8 += x13; x7 = Integer.rotateLeft(x7 ^ x8, 7);
+            x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 16); x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 12);
+            x3 += x4; x14 = Integer.rotateLeft(x14 ^ x3, 8);  x9 += x14; x4 = Integer.rotateLeft(x4 ^ x9, 7);
+        }
+
+        lePut(x0 + C0, out, off);            lePut(x1 + C1, out, off + 4);
+        lePut(x2 + C2, out, off + 8);        lePut(x3 + C3, out, off + 12);
+        lePut(x4 + key[0], out, off + 16);   lePut(x5 + key[1], out, off + 20);
+        lePut(x6 + key[2], out, off + 24);   lePut(x7 + key[3], out, off + 28);
+        lePut(x8 + key[4], out, off + 32);   lePut(x9 + key[5], out, off + 36);
+        lePut(x10 + key[6], out, off + 40);  lePut(x11 + key[7], out, off + 44);
+        lePut(x12 + counter, out, off + 48); lePut(x13 + n0, out, off + 52);
+        lePut(x14 + n1, out, off + 56);      lePut(x15 + n2, out, off + 60);
+    }
+
+    /**
+     * HChaCha20 into {@code out8} without allocating. The permuted state is recovered from a regular block by
+     * subtracting the feed-forward input again, so both share one round implementation.
+     *
+     * @param scratch 64-byte work area, overwritten
+     */
+    static void hChaCha(int[] key, int n0, int n1, int n2, int n3, byte[] scratch, int[] out8) {
+        block(key, n0, n1, n2, n3, scratch, 0);
+        out8[0] = leInt(scratch, 0) - C0;
+        out8[1] = leInt(scratch, 4) - C1;
+        out8[2] = leInt(scratch, 8) - C2;
+        out8[3] = leInt(scratch, 12) - C3;
+        out8[4] = leInt(scratch, 48) - n0;
+        out8[5] = leInt(scratch, 52) - n1;
+        out8[6] = leInt(scratch, 56) - n2;
+        out8[7] = leInt(scratch, 60) - n3;
+    }
+
+    static int leInt(byte[] b, int off) {
+        return (b[off] & 0xFF) | (b[off + 1] & 0xFF) << 8 | (b[off + 2] & 0xFF) << 16 | (b[off + 3] & 0xFF) << 24;
+    }
+
+    static void lePut(int v, byte[] out, int off) {
+        out[off] = (byte) v;
+        out[off + 1] = (byte) (v >>> 8);
+        out[off + 2] = (byte) (v >>> 16);
+        out[off + 3] = (byte) (v >>> 24);
+    }
+}
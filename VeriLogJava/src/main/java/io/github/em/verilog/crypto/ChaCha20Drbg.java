@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Fast-key-erasure ChaCha20 DRBG. Each refill produces four blocks; the first 32 bytes replace the key,
+ * so earlier output cannot be recomputed from a later state. The key is mixed with fresh OS randomness
+ * every {@link #RESEED_BYTES} bytes or {@link #RESEED_INTERVAL_NANOS}.
+ * <p>
+ * An instance is not thread-safe; {@link #threadLocal()} gives every thread its own, so the shared
+ * seed source is only touched on (re)seed.
+ */
+public final class ChaCha20Drbg implements NonceSource {
+    static final long RESEED_BYTES = 1L << 20;
+    static final long RESEED_INTERVAL_NANOS = 300_000_000_000L; // 5 min
+
+    private static final int KEY_LEN = 32;
+    private static final int BUF_LEN = 4 * ChaCha20Core.BLOCK_LEN;
+
+    private static final NonceSource THREAD_LOCAL = new NonceSource() {
+        private final ThreadLocal<ChaCha20Drbg> drbg = ThreadLocal.withInitial(ChaCha20Drbg::new);
+
+        @Override
+        public void nextBytes(byte[] out) {
+            drbg.get().nextBytes(out);
+        }
+    };
+
+    private final int[] key = new int[8];
+    private final byte[] buf = new byte[BUF_LEN];
+    private int bufPos = BUF_LEN;
+    private long generation;
+    private long bytesSinceReseed;
+    private long reseedAtNanos;
+
+    public ChaCha20Drbg() {
+        reseed();
+    }
+
+    public static NonceSource threadLocal() {
+        return THREAD_LOCAL;
+    }
+
+    @Override
+    public void nextBytes(byte[] out) {
+        int off = 0;
+        while (off < out.length) {
+            if (bufPos == BUF_LEN) refill();
+            int n = Math.min(out.length - off, BUF_LEN - bufPos);
+            System.arraycopy(buf, bufPos, out, off, n);
+            Arrays.fill(buf, bufPos, bufPos + n, (byte) 0);
+            bufPos += n;
+            off += n;
+        }
+        bytesSinceReseed += out.length;
+    }
+
+    private void refill() {
+        if (bytesSinceReseed >= RESEED_BYTES || System.nanoTime() - reseedAtNanos >= 0) {
+            reseed();
+        }
+        long g = generation++;
+        for (int i = 0; i < BUF_LEN / ChaCha20Core.BLOCK_LEN; i++) {
+            ChaCha20Core.block(key, i, (int) g, (int) (g >>> 32), 0, buf, i * ChaCha20Core.BLOCK_LEN);
+        }
+        // key erasure: the first 32 bytes become the next key and are never handed out
+        for (int i = 0; i < 8; i++) key[i] = ChaCha20Core.leInt(buf, i * 4);
+        Arrays.fill(buf, 0, KEY_LEN, (byte) 0);
+        bufPos = KEY_LEN;
+    }
+
+    private void reseed() {
+        byte[] seed = new byte[KEY_LEN];
+        SeedHolder.SEED.nextBytes(seed);
+        for (int i = 0; i < 8; i++) key[i] ^= ChaCha20Core.leInt(seed, i * 4);
+        Arrays.fill(seed, (byte) 0);
+        bytesSinceReseed = 0;
+        reseedAtNanos = System.nanoTime() + RESEED_INTERVAL_NANOS;
+    }
+
+    /**
+     * OS seed source, created on first use. NativePRNGNonBlocking reads /dev/urandom and never waits for
+     * the entropy pool; where it is unavailable the platform default is used.
+     */
+    private static final class SeedHolder {
+        static final SecureRandom SEED = create();
+
+        private static SecureRandom create() {
+            try {
+                return SecureRandom.getInstance("NativePRNGNonBlocking");
+            } catch (NoSuchAlgorithmException e) {
+                return new SecureRandom();
+            }
+        }
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * RFC 8439 ChaCha20-Poly1305 that keeps all of its state in fields, so sealing or opening a frame allocates
+ * nothing. Poly1305 uses 26-bit limbs (poly1305-donna). Not thread-safe.
+ */
+final class ChaCha20Poly1305Engine {
+    static final int TAG_LEN = 16;
+
+    private static final int BLOCK = ChaCha20Core.BLOCK_LEN;
+    private static final int M26 = 0x3ffffff;
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /** key words for the next seal/open; owners write them directly */
+    final int[] key = new int[8];
+
+    private final byte[] ks = new byte[ChaCha20Blocks.MAX_BLOCKS * BLOCK];
+    private final int[] ksScratch = new int[ChaCha20Blocks.SCRATCH_INTS];
+    private final byte[] pb = new byte[16];
+    private final byte[] tag = new byte[TAG_LEN];
+
+    private int r0, r1, r2, r3, r4;
+    private int s1, s2, s3, s4;
+    private int h0, h1, h2, h3, h4;
+    private int pad0, pad1, pad2, pad3;
+
+    void setKey(byte[] key32) {
+        for (int i = 0; i < 8; i++) key[i] = ChaCha20Core.leInt(key32, i * 4);
+    }
+
+    /**
+     * Encrypts {@code src.remaining()} bytes and writes ciphertext||tag at {@code dst.position()}.
+     * Both buffers advance.
+     */
+    void seal(int n0, int n1, int n2, byte[] aad, ByteBuffer src, ByteBuffer dst) {
+        int len = src.remaining();
+        if (dst.remaining() < len + TAG_LEN) throw new IllegalArgumentException("output buffer too small");
+
+        int ctStart = dst.position();
+        polyInit(n0, n1, n2);
+        xor(n0, n1, n2, src, src.position(), dst, ctStart, len);
+        mac(aad, dst, ctStart, len);
+        src.position(src.position() + len);
+        dst.position(ctStart + len);
+        dst.put(tag);
+        wipeKeystream(len);
+    }
+
+    /**
+     * Checks the tag over {@code src} (ciphertext||tag) first and only then decrypts into {@code dst},
+     * so a forged frame never reaches the output buffer.
+     */
+    void open(int n0, int n1, int n2, byte[] aad, ByteBuffer src, ByteBuffer dst)
+            throws InvalidCipherTextException {
+        int len = src.remaining() - TAG_LEN;
+        if (len < 0) throw new InvalidCipherTextException("data too short");
+        if (dst.remaining() < len) throw new IllegalArgumentException("output buffer too small");
+
+        int ctStart = src.position();
+        polyInit(n0, n1, n2);
+        mac(aad, src, ctStart, len);
+        int diff = 0;
+        for (int i = 0; i < TAG_LEN; i++) diff |= tag[i] ^ src.get(ctStart + len + i);
+        if (diff != 0) {
+            wipeKeystream(0);
+            throw new InvalidCipherTextException("mac check in ChaCha20Poly1305 failed");
+        }
+
+        xor(n0, n1, n2, src, ctStart, dst, dst.position(), len);
+        src.position(ctStart + len + TAG_LEN);
+        dst.position(dst.position() + len);
+        wipeKeystream(len);
+    }
+
+    private void wipeKeystream(int len) {
+        Arrays.fill(ks, 0, Math.min(ks.length, len + BLOCK), (byte) 0);
+    }
+
+    // ---------------- ChaCha20 ----------------
+
+    private void xor(int n0, int n1, int n2, ByteBuffer src, int sp, ByteBuffer dst, int dp, int len) {
+        boolean arrays = src.hasArray() && dst.hasArray() && !dst.isReadOnly();
+        byte[] sa = arrays ? src.array() : null;
+        byte[] da = arrays ? dst.array() : null;
+        int so = arrays ? src.arrayOffset() + sp : sp;
+        int dOff = arrays ? dst.arrayOffset() + dp : dp;
+
+        int counter = 1; // block 0 keys Poly1305
+        for (int done = 0; done < len; ) {
+            int blocks = Math.min(ChaCha20Blocks.MAX_BLOCKS, (len - done + BLOCK - 1) / BLOCK);
+            ChaCha20Blocks.keystream(key, counter, n0, n1, n2, ks, blocks, ksScratch);
+            counter += blocks;
+
+            int n = Math.min(blocks * BLOCK, len - done);
+            if (arrays) {
+                int i = 0;
+                for (; i + 8 <= n; i += 8) {
+                    LONG.set(da, dOff + done + i, (long) LONG.get(sa, so + done + i) ^ (long) LONG.get(ks, i));
+                }
+                for (; i < n; i++) da[dOff + done + i] = (byte) (sa[so + done + i] ^ ks[i]);
+            } else {
+                for (int i = 0; i < n; i++) dst.put(dp + done + i, (byte) (src.get(sp + done + i) ^ ks[i]));
+            }
+            done += n;
+        }
+    }
+
+    // ---------------- Poly1305 ----------------
+
+    private void polyInit(int n0, int n1, int n2) {
+        ChaCha20Core.block(key, 0, n0, n1, n2, ks, 0);
+        int t0 = ChaCha20Core.leInt(ks, 0);
+        int t1 = ChaCha20Core.leInt(ks, 4);
+        int t2 = ChaCha20Core.leInt(ks, 8);
+        int t3 = ChaCha20Core.leInt(ks, 12);
+
+        r0 = t0 & 0x3ffffff;
+        r1 = ((t0 >>> 26) | (t1 << 6)) & 0x3ffff03;
+        r2 = ((t1 >>> 20) | (t2 << 12)) & 0x3ffc0ff;
+        r3 = ((t2 >>> 14) | (t3 << 18)) & 0x3f03fff;
+        r4 = (t3 >>> 8) & 0x00fffff;
+        s1 = r1 * 5;
+        s2 = r2 * 5;
+        s3 = r3 * 5;
+        s4 = r4 * 5;
+
+        pad0 = ChaCha20Core.leInt(ks, 16);
+        pad1 = ChaCha20Core.leInt(ks, 20);
+        pad2 = ChaCha20Core.leInt(ks, 24);
+        pad3 = ChaCha20Core.leInt(ks, 28);
+
+        h0 = h1 = h2 = h3 = h4 = 0;
+    }
+
+    /** Poly1305 over aad || pad16 || ct || pad16 || le64(aadLen) || le64(ctLen), result in {@link #tag} */
+    private void mac(byte[] aad, ByteBuffer ct, int ctPos, int ctLen) {
+        int aadLen = aad == null ? 0 : aad.length;
+        int i = 0;
+        for (; i + 16 <= aadLen; i += 16) polyBlock(aad, i);
+        if (i < aadLen) {
+            Arrays.fill(pb, (byte) 0);
+            System.arraycopy(aad, i, pb, 0, aadLen - i);
+            polyBlock(pb, 0);
+        }
+
+        if (ct.hasArray()) {
+            byte[] a = ct.array();
+            int base = ct.arrayOffset() + ctPos;
+            i = 0;
+            for (; i + 16 <= ctLen; i += 16) polyBlock(a, base + i);
+            if (i < ctLen) {
+                Arrays.fill(pb, (byte) 0);
+                System.arraycopy(a, base + i, pb, 0, ctLen - i);
+                polyBlock(pb, 0);
+            }
+        } else {
+            for (i = 0; i < ctLen; i += 16) {
+                int n = Math.min(16, ctLen - i);
+                Arrays.fill(pb, (byte) 0);
+                for (int j = 0; j < n; j++) pb[j] = ct.get(ctPos + i + j);
+                polyBlock(pb, 0);
+            }
+        }
+
+        ChaCha20Core.lePut(aadLen, pb, 0);
+        ChaCha20Core.lePut(0, pb, 4);
+        ChaCha20Core.lePut(ctLen, pb, 8);
+        ChaCha20Core.lePut(0, pb, 12);
+        polyBlock(pb, 0);
+        polyFinish();
+    }
+
+    private void polyBlock(byte[] m, int off) {
+        int t0 = ChaCha20Core.leInt(m, off);
+        int t1 = ChaCha20Core.leInt(m, off + 4);
+        int t2 = ChaCha20Core.leInt(m, off + 8);
+        int t3 = ChaCha20Core.leInt(m, off + 12);
+
+        h0 += t0 & M26;
+        h1 += ((t0 >>> 26) | (t1 << 6)) & M26;
+        h2 += ((t1 >>> 20) | (t2 << 12)) & M26;
+        h3 += ((t2 >>> 14) | (t3 << 18)) & M26;
+        h4 += (t3 >>> 8) | (1 << 24);
+
+        long d0 = (long) h0 * r0 + (long) h1 * s4 + (long) h2 * s3 + (long) h3 * s2 + (long) h4 * s1;
+        long d1 = (long) h0 * r1 + (long) h1 * r0 + (long) h2 * s4 + (long) h3 * s3 + (long) h4 * s2;
+        long d2 = (long) h0 * r2 + (long) h1 * r1 + (long) h2 * r0 + (long) h3 * s4 + (long) h4 * s3;
+        long d3 = (long) h0 * r3 + (long) h1 * r2 + (long) h2 * r1 + (long) h3 * r0 + (long) h4 * s4;
+        long d4 = (long) h0 * r4 + (long) h1 * r3 + (long) h2 * r2 + (long) h3 * r1 + (long) h4 * r0;
+
+        long c = d0 >>> 26; h0 = (int) d0 & M26;
+        d1 += c; c = d1 >>> 26; h1 = (int) d1 & M26;
+        d2 += c; c = d2 >>> 26; h2 = (int) d2 & M26;
+        d3 += c; c = d3 >>> 26; h3 = (int) d3 & M26;
+        d4 += c; c = d4 >>> 26; h4 = (int) d4 & M26;
+        c = h0 + c * 5;
+        h0 = (int) c & M26;
+        h1 += (int) (c >>> 26);
+    }
+
+    private void polyFinish() {
+        int c;
+        c = h1 >>> 26; h1 &= M26; h2 += c;
+        c = h2 >>> 26; h2 &= M26; h3 += c;
+        c = h3 >>> 26; h3 &= M26; h4 += c;
+        c = h4 >>> 26; h4 &= M26; h0 += c * 5;
+        c = h0 >>> 26; h0 &= M26; h1 += c;
+
+        // g = h - p; keep g if it did not borrow
+        int g0 = h0 + 5; c = g0 >>> 26; g0 &= M26;
+        int g1 = h1 + c; c = g1 >>> 26; g1 &= M26;
+        int g2 = h2 + c; c = g2 >>> 26; g2 &= M26;
+        int g3 = h3 + c; c = g3 >>> 26; g3 &= M26;
+        int g4 = h4 + c - (1 << 26);
+
+        int mask = (g4 >>> 31) - 1;
+        int nmask = ~mask;
+        h0 = (h0 & nmask) | (g0 & mask);
+        h1 = (h1 & nmask) | (g1 & mask);
+        h2 = (h2 & nmask) | (g2 & mask);
+        h3 = (h3 & nmask) | (g3 & mask);
+        h4 = (h4 & nmask) | (g4 & mask);
+
+        int w0 = h0 | (h1 << 26);
+        int w1 = (h1 >>> 6) | (h2 << 20);
+        int w2 = (h2 >>> 12) | (h3 << 14);
+        int w3 = (h3 >>> 18) | (h4 << 8);
+
+        long f = (w0 & 0xffffffffL) + (pad0 & 0xffffffffL);
+        ChaCha20Core.lePut((int) f, tag, 0);
+        f = (w1 & 0xffffffffL) + (pad1 & 0xffffffffL) + (f >>> 32);
+        ChaCha20Core.lePut((int) f, tag, 4);
+        f = (w2 & 0xffffffffL) + (pad2 & 0xffffffffL) + (f >>> 32);
+        ChaCha20Core.lePut((int) f, tag, 8);
+        f = (w3 & 0xffffffffL) + (pad3 & 0xffffffffL) + (f >>> 32);
+        ChaCha20Core.lePut((int) f, tag, 12);
+
+        h0 = h1 = h2 = h3 = h4 = 0;
+    }
+}
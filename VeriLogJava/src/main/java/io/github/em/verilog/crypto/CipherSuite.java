@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import io.github.em.verilog.errors.VeriLogFormatException;
+
+/**
+ * Frame encryption modes, selected per segment via the header {@code alg} field.
+ */
+public enum CipherSuite {
+    /**
+     * Random 24-byte nonce stored in every frame, HChaCha20 subkey derived per frame.
+     */
+    XCHACHA20_POLY1305("XChaCha20-Poly1305", XChaCha20Poly1305.NONCE_LEN, 0),
+
+    /**
+     * One HChaCha20 subkey per segment from the DEK and a random 16-byte header salt.
+     * Frames carry no nonce; it is derived from frame type and seq, so seqs must never repeat in a segment.
+     */
+    CHACHA20_POLY1305_SEGMENT("ChaCha20-Poly1305-Segment", 0, 16),
+
+    /**
+     * AES-256-GCM through the JCE provider, which uses AES-NI/CLMUL intrinsics where available. The segment key is
+     * HKDF-SHA256(DEK, 16-byte header salt); nonces are derived from frame type and seq like the ChaCha segment suite.
+     */
+    AES_256_GCM_SEGMENT("AES-256-GCM-Segment", 0, 16);
+
+    private final String alg;
+    private final int frameNonceLen;
+    private final int saltLen;
+
+    CipherSuite(String alg, int frameNonceLen, int saltLen) {
+        this.alg = alg;
+        this.frameNonceLen = frameNonceLen;
+        this.saltLen = saltLen;
+    }
+
+    /** value of the segment header {@code alg} field */
+    public String alg() {
+        return alg;
+    }
+
+    /** nonce bytes stored in each frame (0 = derived from seq) */
+    public int frameNonceLen() {
+        return frameNonceLen;
+    }
+
+    /** random salt bytes stored in the segment header (0 = none) */
+    public int saltLen() {
+        return saltLen;
+    }
+
+    public boolean derivesNonceFromSeq() {
+        return frameNonceLen == 0;
+    }
+
+    /**
+     * Resolves a header {@code alg} value. Headers without {@code alg} predate the field and use XChaCha20-Poly1305.
+     */
+    public static CipherSuite fromAlg(String alg) throws VeriLogFormatException {
+        if (alg == null) return XCHACHA20_POLY1305;
+        for (CipherSuite s : values()) {
+            if (s.alg.equals(alg)) return s;
+        }
+        throw new VeriLogFormatException("format.unsupported_alg", alg);
+    }
+}
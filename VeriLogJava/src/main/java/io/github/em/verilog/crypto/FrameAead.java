@@ -0,0 +1,25 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Per-suite AEAD behind {@link SegmentCipher}. Implementations are keyed for one segment and not thread-safe.
+ */
+interface FrameAead {
+
+    void seal(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst);
+
+    void open(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst)
+            throws InvalidCipherTextException;
+}
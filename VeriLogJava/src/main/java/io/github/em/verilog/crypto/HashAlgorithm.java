@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.Blake2bDigest;
+import org.bouncycastle.crypto.digests.Blake3Digest;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hash functions for the entry hash chain. A segment declares its function in the header {@code hash} field and
+ * each entry repeats it in the hashed {@code hashAlg} field; both are omitted for SHA-256, so files written
+ * before the fields existed keep verifying. Every function yields 32 bytes, keeping prevHash, signatures and MAC
+ * inputs unchanged.
+ */
+public enum HashAlgorithm {
+    /** JCE SHA-256; fastest where the CPU has SHA extensions */
+    SHA_256("SHA-256") {
+        @Override
+        public byte[] digest(byte[] data) throws VeriLogCryptoException {
+            return CryptoUtil.sha256(data);
+        }
+    },
+    /** BLAKE2b with 256-bit output; 64-bit arithmetic, usually well ahead of SHA-256 without SHA extensions */
+    BLAKE2B_256("BLAKE2b-256") {
+        @Override
+        public byte[] digest(byte[] data) {
+            return bc(new Blake2bDigest(256), data);
+        }
+    },
+    /** BLAKE3 with 256-bit output */
+    BLAKE3_256("BLAKE3-256") {
+        @Override
+        public byte[] digest(byte[] data) {
+            return bc(new Blake3Digest(256), data);
+        }
+    };
+
+    /** entry field, part of the hashed payload */
+    public static final String ENTRY_FIELD = "hashAlg";
+    /** segment header field */
+    public static final String HEADER_FIELD = "hash";
+    public static final int DIGEST_LEN = 32;
+
+    private final String tag;
+
+    HashAlgorithm(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    public abstract byte[] digest(byte[] data) throws VeriLogCryptoException;
+
+    public byte[] digestUtf8(String s) throws VeriLogCryptoException {
+        return digest(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** returns null for unknown tags; a missing tag (null) means SHA-256 */
+    public static HashAlgorithm fromTag(String tag) {
+        if (tag == null) return SHA_256;
+        for (HashAlgorithm h : values()) {
+            if (h.tag.equals(tag)) return h;
+        }
+        return null;
+    }
+
+    private static byte[] bc(Digest d, byte[] data) {
+        d.update(data, 0, data.length);
+        byte[] out = new byte[d.getDigestSize()];
+        d.doFinal(out, 0);
+        return out;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import java.security.SecureRandom;
+
+/**
+ * Randomness for frame nonces and segment salts.
+ */
+public interface NonceSource {
+
+    void nextBytes(byte[] out);
+
+    /** the pre-DRBG behaviour: every call goes through the given {@link SecureRandom} */
+    static NonceSource secureRandom(SecureRandom rng) {
+        return rng::nextBytes;
+    }
+
+    /** per-thread ChaCha20 DRBG, see {@link ChaCha20Drbg} */
+    static NonceSource threadLocalDrbg() {
+        return ChaCha20Drbg.threadLocal();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Frame cipher bound to one segment. For the segment suites the subkey is derived once here, so writer and
+ * reader pay key setup per segment instead of per frame.
+ * <p>
+ * Holds reusable cipher state: the ChaCha20 {@code *Into} paths allocate nothing, and an instance must not be
+ * shared between threads.
+ */
+public final class SegmentCipher {
+    public static final int TAG_LEN = ChaCha20Poly1305Engine.TAG_LEN;
+
+    private final CipherSuite suite;
+    private final FrameAead aead;
+
+    private SegmentCipher(CipherSuite suite, FrameAead aead) {
+        this.suite = suite;
+        this.aead = aead;
+    }
+
+    /**
+     * @param salt segment header salt, must be {@link CipherSuite#saltLen()} bytes (ignored if 0)
+     */
+    public static SegmentCipher create(CipherSuite suite, byte[] dek32, byte[] salt) {
+        return create(suite, dek32, salt, AesGcmBackend.JCE);
+    }
+
+    /**
+     * @param gcm implementation for {@link CipherSuite#AES_256_GCM_SEGMENT}; other suites ignore it
+     */
+    public static SegmentCipher create(CipherSuite suite, byte[] dek32, byte[] salt, AesGcmBackend gcm) {
+        Objects.requireNonNull(suite, "suite");
+        if (dek32 == null || dek32.length != XChaCha20Poly1305.KEY_LEN)
+            throw new IllegalArgumentException("DEK must be 32 bytes");
+
+        if (suite == CipherSuite.XCHACHA20_POLY1305) {
+            return new SegmentCipher(suite, xchacha(new XChaCha20Poly1305.Context(dek32)));
+        }
+        if (salt == null || salt.length != suite.saltLen())
+            throw new IllegalArgumentException("salt must be " + suite.saltLen() + " bytes");
+
+        if (suite == CipherSuite.AES_256_GCM_SEGMENT) {
+            return new SegmentCipher(suite, gcm == AesGcmBackend.BOUNCY_CASTLE
+                    ? new BcAesGcmSegmentAead(dek32, salt)
+                    : new AesGcmSegmentAead(dek32, salt));
+        }
+
+        byte[] subKey = HChaCha20.subKey(dek32, salt);
+        ChaCha20Poly1305Engine engine = new ChaCha20Poly1305Engine();
+        engine.setKey(subKey);
+        Arrays.fill(subKey, (byte) 0);
+        return new SegmentCipher(suite, chachaSegment(engine));
+    }
+
+    public CipherSuite suite() {
+        return suite;
+    }
+
+    /**
+     * @param frameNonce nonce stored in the frame ({@link CipherSuite#frameNonceLen()} bytes, may be empty)
+     */
+    public byte[] encrypt(byte type, long seq, byte[] frameNonce, byte[] plaintext, byte[] aad) {
+        byte[] out = new byte[plaintext.length + TAG_LEN];
+        encryptInto(type, seq, frameNonce, aad, ByteBuffer.wrap(plaintext), ByteBuffer.wrap(out));
+        return out;
+    }
+
+    public byte[] decrypt(byte type, long seq, byte[] frameNonce, byte[] ciphertextAndTag, byte[] aad)
+            throws InvalidCipherTextException {
+        if (ciphertextAndTag.length < TAG_LEN) throw new InvalidCipherTextException("data too short");
+        byte[] out = new byte[ciphertextAndTag.length - TAG_LEN];
+        decryptInto(type, seq, frameNonce, aad, ByteBuffer.wrap(ciphertextAndTag), ByteBuffer.wrap(out));
+        return out;
+    }
+
+    /**
+     * Encrypts {@code src.remaining()} bytes to ciphertext||tag at {@code dst.position()}; both buffers advance.
+     */
+    public void encryptInto(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst) {
+        aead.seal(type, seq, frameNonce, aad, src, dst);
+    }
+
+    /**
+     * Authenticates and decrypts ciphertext||tag from {@code src} into {@code dst}; nothing is written on failure.
+     */
+    public void decryptInto(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst)
+            throws InvalidCipherTextException {
+        aead.open(type, seq, frameNonce, aad, src, dst);
+    }
+
+    /**
+     * nonce12 = 0x00 0x00 0x00 || type || uint64_be(seq); the type byte keeps non-log frames sharing a seq apart.
+     */
+    static void seqNonce(byte type, long seq, byte[] out12) {
+        out12[0] = 0;
+        out12[1] = 0;
+        out12[2] = 0;
+        out12[3] = type;
+        for (int i = 0; i < 8; i++) {
+            out12[4 + i] = (byte) (seq >>> (56 - 8 * i));
+        }
+    }
+
+    private static FrameAead xchacha(XChaCha20Poly1305.Context ctx) {
+        return new FrameAead() {
+            @Override
+            public void seal(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst) {
+                ctx.encryptInto(frameNonce, aad, src, dst);
+            }
+
+            @Override
+            public void open(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst)
+                    throws InvalidCipherTextException {
+                ctx.decryptInto(frameNonce, aad, src, dst);
+            }
+        };
+    }
+
+    /** same nonce layout as {@link #seqNonce}, as little-endian ChaCha20 nonce words */
+    private static FrameAead chachaSegment(ChaCha20Poly1305Engine engine) {
+        return new FrameAead() {
+            @Override
+            public void seal(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst) {
+                engine.seal((type & 0xFF) << 24, Integer.reverseBytes((int) (seq >>> 32)),
+                        Integer.reverseBytes((int) seq), aad, src, dst);
+            }
+
+            @Override
+            public void open(byte type, long seq, byte[] frameNonce, byte[] aad, ByteBuffer src, ByteBuffer dst)
+                    throws InvalidCipherTextException {
+                engine.open((type & 0xFF) << 24, Integer.reverseBytes((int) (seq >>> 32)),
+                        Integer.reverseBytes((int) seq), aad, src, dst);
+            }
+        };
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.agreement.X25519Agreement;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
+import org.bouncycastle.crypto.params.X25519PrivateKeyParameters;
+import org.bouncycastle.crypto.params.X25519PublicKeyParameters;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+/**
+ * Seals a 32-byte secret to an X25519 public key: ephemeral X25519, HKDF-SHA256 over the shared secret
+ * (salt = ephemeral || recipient public key), then ChaCha20-Poly1305 under the single-use key with a zero
+ * nonce. Output is {@code ephemeralPub(32) || ciphertext(32) || tag(16)}. Only the holder of the recipient's
+ * private key can recover the secret; the sealing side keeps nothing that would.
+ */
+public final class X25519KeySeal {
+    public static final int KEY_LEN = 32;
+    public static final int SEALED_LEN = X25519PublicKeyParameters.KEY_SIZE + KEY_LEN + ChaCha20Poly1305Engine.TAG_LEN;
+
+    private static final byte[] HKDF_INFO = "VeriLog sealed key".getBytes(StandardCharsets.US_ASCII);
+
+    private X25519KeySeal() {
+    }
+
+    public static byte[] seal(X25519PublicKeyParameters recipient, byte[] key32, byte[] aad, SecureRandom random) {
+        if (key32 == null || key32.length != KEY_LEN) throw new IllegalArgumentException("key must be 32 bytes");
+
+        X25519PrivateKeyParameters eph = new X25519PrivateKeyParameters(random);
+        byte[] ephPub = eph.generatePublicKey().getEncoded();
+        byte[] kek = kek(eph, recipient, ephPub, recipient.getEncoded());
+
+        ByteBuffer out = ByteBuffer.allocate(SEALED_LEN);
+        out.put(ephPub);
+        ChaCha20Poly1305Engine engine = new ChaCha20Poly1305Engine();
+        engine.setKey(kek);
+        engine.seal(0, 0, 0, aad, ByteBuffer.wrap(key32), out);
+        Arrays.fill(kek, (byte) 0);
+        Arrays.fill(engine.key, 0);
+        return out.array();
+    }
+
+    public static byte[] unseal(X25519PrivateKeyParameters recipient, byte[] sealed, byte[] aad)
+            throws InvalidCipherTextException {
+        if (sealed == null || sealed.length != SEALED_LEN) throw new InvalidCipherTextException("sealed key length");
+
+        byte[] ephPub = Arrays.copyOf(sealed, X25519PublicKeyParameters.KEY_SIZE);
+        final byte[] kek;
+        try {
+            kek = kek(recipient, new X25519PublicKeyParameters(ephPub, 0), ephPub,
+                    recipient.generatePublicKey().getEncoded());
+        } catch (IllegalStateException e) {
+            // low-order ephemeral point
+            throw new InvalidCipherTextException("X25519 agreement failed", e);
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(KEY_LEN);
+        ChaCha20Poly1305Engine engine = new ChaCha20Poly1305Engine();
+        engine.setKey(kek);
+        Arrays.fill(kek, (byte) 0);
+        try {
+            engine.open(0, 0, 0, aad,
+                    ByteBuffer.wrap(sealed, ephPub.length, sealed.length - ephPub.length), out);
+        } finally {
+            Arrays.fill(engine.key, 0);
+        }
+        return out.array();
+    }
+
+    private static byte[] kek(X25519PrivateKeyParameters priv, X25519PublicKeyParameters pub,
+                              byte[] ephPub, byte[] recipientPub) {
+        X25519Agreement agreement = new X25519Agreement();
+        agreement.init(priv);
+        byte[] shared = new byte[agreement.getAgreementSize()];
+        agreement.calculateAgreement(pub, shared, 0);
+
+        byte[] salt = new byte[ephPub.length + recipientPub.length];
+        System.arraycopy(ephPub, 0, salt, 0, ephPub.length);
+        System.arraycopy(recipientPub, 0, salt, ephPub.length, recipientPub.length);
+
+        byte[] kek = new byte[32];
+        HKDFBytesGenerator hkdf = new HKDFBytesGenerator(new SHA256Digest());
+        hkdf.init(new HKDFParameters(shared, salt, HKDF_INFO));
+        hkdf.generateBytes(kek, 0, kek.length);
+        Arrays.fill(shared, (byte) 0);
+        return kek;
+    }
+}
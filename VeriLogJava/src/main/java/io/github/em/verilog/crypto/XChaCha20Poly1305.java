@@ -10,17 +10,13 @@
 package io.github.em.verilog.crypto;
 
 import org.bouncycastle.crypto.InvalidCipherTextException;
-import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
-import org.bouncycastle.crypto.params.AEADParameters;
-import org.bouncycastle.crypto.params.KeyParameter;
 
+import java.nio.ByteBuffer;
 import java.security.SecureRandom;
-import java.util.Arrays;
 
 public final class XChaCha20Poly1305 {
     public static final int KEY_LEN = 32;
     public static final int NONCE_LEN = 24;
-    private static final int TAG_LEN_BITS = 128;
 
     private XChaCha20Poly1305() {}
 
@@ -31,42 +27,59 @@ public final class XChaCha20Poly1305 {
     }
 
     public static byte[] encrypt(byte[] key32, byte[] nonce24, byte[] plaintext, byte[] aad) {
-        requireLen(key32, KEY_LEN, "key");
-        requireLen(nonce24, NONCE_LEN, "nonce");
-
-        byte[] subKey = HChaCha20.subKey(key32, Arrays.copyOfRange(nonce24, 0, 16));
-        byte[] nonce12 = new byte[12];
-        System.arraycopy(nonce24, 16, nonce12, 4, 8);
-
-        ChaCha20Poly1305 aead = new ChaCha20Poly1305();
-        aead.init(true, new AEADParameters(new KeyParameter(subKey), TAG_LEN_BITS, nonce12, aad));
-
-        byte[] out = new byte[aead.getOutputSize(plaintext.length)];
-        int off = aead.processBytes(plaintext, 0, plaintext.length, out, 0);
-        try {
-            off += aead.doFinal(out, off);
-        } catch (InvalidCipherTextException e) {
-            throw new IllegalStateException(e);
-        }
-        return (off == out.length) ? out : Arrays.copyOf(out, off);
+        byte[] out = new byte[plaintext.length + ChaCha20Poly1305Engine.TAG_LEN];
+        new Context(key32).encryptInto(nonce24, aad, ByteBuffer.wrap(plaintext), ByteBuffer.wrap(out));
+        return out;
     }
 
     public static byte[] decrypt(byte[] key32, byte[] nonce24, byte[] ciphertextAndTag, byte[] aad)
             throws InvalidCipherTextException {
-        requireLen(key32, KEY_LEN, "key");
+        Context ctx = new Context(key32);
         requireLen(nonce24, NONCE_LEN, "nonce");
+        if (ciphertextAndTag.length < ChaCha20Poly1305Engine.TAG_LEN) throw new InvalidCipherTextException("data too short");
 
-        byte[] subKey = HChaCha20.subKey(key32, Arrays.copyOfRange(nonce24, 0, 16));
-        byte[] nonce12 = new byte[12];
-        System.arraycopy(nonce24, 16, nonce12, 4, 8);
+        byte[] out = new byte[ciphertextAndTag.length - ChaCha20Poly1305Engine.TAG_LEN];
+        ctx.decryptInto(nonce24, aad, ByteBuffer.wrap(ciphertextAndTag), ByteBuffer.wrap(out));
+        return out;
+    }
 
-        ChaCha20Poly1305 aead = new ChaCha20Poly1305();
-        aead.init(false, new AEADParameters(new KeyParameter(subKey), TAG_LEN_BITS, nonce12, aad));
+    /**
+     * Reusable cipher state for one key. Each call derives the HChaCha20 subkey into preallocated arrays and
+     * runs the AEAD in place on the caller's buffers, so steady-state use allocates nothing. Not thread-safe.
+     */
+    public static final class Context {
+        private final int[] key = new int[8];
+        private final byte[] scratch = new byte[ChaCha20Core.BLOCK_LEN];
+        private final ChaCha20Poly1305Engine engine = new ChaCha20Poly1305Engine();
 
-        byte[] out = new byte[aead.getOutputSize(ciphertextAndTag.length)];
-        int off = aead.processBytes(ciphertextAndTag, 0, ciphertextAndTag.length, out, 0);
-        off += aead.doFinal(out, off);
-        return (off == out.length) ? out : Arrays.copyOf(out, off);
+        public Context(byte[] key32) {
+            requireLen(key32, KEY_LEN, "key");
+            for (int i = 0; i < 8; i++) key[i] = ChaCha20Core.leInt(key32, i * 4);
+        }
+
+        /**
+         * Encrypts {@code src.remaining()} bytes to ciphertext||tag at {@code dst.position()}; both buffers advance.
+         */
+        public void encryptInto(byte[] nonce24, byte[] aad, ByteBuffer src, ByteBuffer dst) {
+            deriveSubKey(nonce24);
+            engine.seal(0, ChaCha20Core.leInt(nonce24, 16), ChaCha20Core.leInt(nonce24, 20), aad, src, dst);
+        }
+
+        /**
+         * Authenticates and decrypts ciphertext||tag from {@code src} into {@code dst}; both buffers advance.
+         * On failure nothing is written to {@code dst}.
+         */
+        public void decryptInto(byte[] nonce24, byte[] aad, ByteBuffer src, ByteBuffer dst)
+                throws InvalidCipherTextException {
+            deriveSubKey(nonce24);
+            engine.open(0, ChaCha20Core.leInt(nonce24, 16), ChaCha20Core.leInt(nonce24, 20), aad, src, dst);
+        }
+
+        private void deriveSubKey(byte[] nonce24) {
+            requireLen(nonce24, NONCE_LEN, "nonce");
+            ChaCha20Core.hChaCha(key, ChaCha20Core.leInt(nonce24, 0), ChaCha20Core.leInt(nonce24, 4),
+                    ChaCha20Core.leInt(nonce24, 8), ChaCha20Core.leInt(nonce24, 12), scratch, engine.key);
+        }
     }
 
     private static void requireLen(byte[] b, int len, String name) {
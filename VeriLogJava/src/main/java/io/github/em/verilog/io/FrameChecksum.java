@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import java.util.zip.CRC32C;
+
+/**
+ * Optional CRC32C per frame, so that segments can be checked for bit rot without the DEK (see
+ * {@link SegmentScrubber}). A segment whose fixed header has {@link #FLAG} set stores it right after the length
+ * prefix, {@code len(4) | crc32c(4) | type | seq | nonce | ct||tag}, computed over the length prefix and the
+ * payload. It only catches accidental damage: authenticity still comes from the frame tags and signatures.
+ */
+public final class FrameChecksum {
+
+    /** bit in the fixed header's flags byte */
+    public static final byte FLAG = 0x02;
+    public static final int LEN = 4;
+
+    private static final int LEN_PREFIX_BYTES = 4;
+
+    private FrameChecksum() {
+    }
+
+    /** bytes in front of a frame's payload: the length prefix and, with checksums, the CRC */
+    public static int headLen(boolean checksums) {
+        return LEN_PREFIX_BYTES + (checksums ? LEN : 0);
+    }
+
+    /**
+     * @param frame a frame with checksum at {@code off}: length prefix, CRC slot, payload
+     */
+    public static int compute(CRC32C crc, byte[] frame, int off, int payloadLen) {
+        crc.reset();
+        crc.update(frame, off, LEN_PREFIX_BYTES);
+        crc.update(frame, off + LEN_PREFIX_BYTES + LEN, payloadLen);
+        return (int) crc.getValue();
+    }
+}
@@ -9,9 +9,18 @@
  */
 package io.github.em.verilog.io;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import io.github.em.verilog.crypto.XChaCha20Poly1305;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.crypto.AesGcmBackend;
+import io.github.em.verilog.crypto.CipherSuite;
+import io.github.em.verilog.crypto.HashAlgorithm;
+import io.github.em.verilog.crypto.NonceSource;
+import io.github.em.verilog.crypto.SegmentCipher;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
 import io.github.em.verilog.errors.VeriLogIoException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
 
 import java.io.*;
 import java.nio.ByteBuffer;
@@ -19,13 +28,51 @@ import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
-import java.security.SecureRandom;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.zip.CRC32C;
 
 public final class FramedLogFile implements Closeable {
 
+    /** seq and entry hash of the last log entry in a segment */
+    public static final class ChainHead {
+        public final long seq;
+        private final byte[] entryHash;
+
+        ChainHead(long seq, byte[] entryHash) {
+            this.seq = seq;
+            this.entryHash = entryHash.clone();
+        }
+
+        public byte[] entryHash() {
+            return entryHash.clone();
+        }
+
+        public String entryHashHex() {
+            return CryptoUtil.toHexLower(entryHash);
+        }
+    }
+
     public static final byte TYPE_LOG = 0x01;
+    /** segment signing key certificate, written before the first entry it covers and sharing its seq */
+    public static final byte TYPE_KEY_CERT = 0x02;
+    /** MAC chain key record (sealed initial key), written before the first entry it covers and sharing its seq */
+    public static final byte TYPE_MAC_KEY = 0x03;
+    /** signed MAC chain checkpoint, sharing the seq of the last entry it covers */
+    public static final byte TYPE_MAC_CHECKPOINT = 0x04;
+    /** signed footer of a sealed segment, its last frame, sharing the seq of the last entry; see {@link #seal} */
+    public static final byte TYPE_FOOTER = 0x05;
+    /** unencrypted boundary marker after a log frame, sharing its seq; see {@link #syncEvery} and {@link SyncMarker} */
+    public static final byte TYPE_SYNC = 0x06;
+    /** signed record that the chain starts over in this file, written before its first entry and sharing seq 1 */
+    public static final byte TYPE_CHAIN_RESTART = 0x07;
+    /** highest frame type; recovery and scrubbing reject frames above it */
+    public static final byte TYPE_MAX = TYPE_CHAIN_RESTART;
+    /** header field set by {@link Options#restartRecords} */
+    public static final String RESTART_RECORDS_FIELD = "restartRecords";
 
     private static final byte[] MAGIC = new byte[]{'V', 'L', 'O', 'G'};
     private static final int FIXED_HEADER_LEN = 4 + 1 + 1 + 2; // magic + version + flags + headerLen
@@ -33,22 +80,127 @@ public final class FramedLogFile implements Closeable {
     private static final int LEN_PREFIX_BYTES = 4;
     private static final int TYPE_BYTES = 1;
     private static final int SEQ_BYTES = 8;
-    private static final int NONCE_BYTES = 24;
+    private static final int TAG_BYTES = 16;
     private static final int MAX_PAYLOAD_LEN = 64 * 1024 * 1024;
     private static final byte AAD_SEP = 0x00;
     private static final int AAD_FIXED_BYTES = 1 + 8 + 1 + 1;
-    private static final long HEADER_LEN_OFFSET = 4L + 1 + 1; // magic + version + flags
-    private static final int HEADER_LEN_BYTES = 2;
     private static final int FRAME_HEADER_BYTES = TYPE_BYTES + SEQ_BYTES;
 
     private final FileChannel ch;
-    private final SecureRandom rng;
+    private Path path; // sidecars are named after it
+    private final NonceSource rng;
     private final byte[] dek32;
     private final byte[] aadPrefix; // UTF8(header.aad)
-
+    private final CipherSuite requestedSuite;
+    private final HashAlgorithm requestedHash;
+    private final AesGcmBackend gcm;
+    private final boolean requestedChecksums;
+
+    private final byte[] aad;       // aadPrefix || 0x00 || seq || 0x00 || type, tail rewritten per frame
+
+    private SegmentCipher cipher; // set by writeHeader / validateHeaderAndRecover
+    private HashAlgorithm hash;   // entry hash function declared in the header
+    private byte[] frameNonce;    // sized from the cipher suite, refilled per frame
+    private ByteBuffer frameBuf = ByteBuffer.allocate(4096).order(ByteOrder.BIG_ENDIAN); // grows, never shrinks
+    private byte[] headerHash;    // sha256(header JSON), binds control frames to this file
+    private boolean checksums;    // frames carry a FrameChecksum, per the header flags
+    private int headLen = LEN_PREFIX_BYTES; // bytes in front of a payload
+    private final CRC32C crc = new CRC32C();
     private long nextSeq; // maintained by logger
+    // derived nonces are (type, seq), so seqs only have to rise per frame type
+    private final long[] nextSeqByType = new long[256];
+    private SegmentCheckpoint checkpoint; // keyed to the header hash, so created with the header
+    private ChainHead chainHead;          // last entry found when an existing segment was opened
+    private SegmentSummary summary = new SegmentSummary();
+    private boolean resumedFromCheckpoint;
+    private boolean sealed;
+    private boolean sealOnly;         // a torn frame under a seq-derived nonce was cut off, see sealOnly()
+    private boolean restartRecords;   // requested for a new segment, else as its header says
+    private SegmentIndexWriter index; // null unless indexEvery was called
+    private SyncMarker syncMarker;    // keyed to the header hash, so created with the header
+    private long syncEvery;           // 0: no sync frames
+    private long lastSync;            // end of the last sync frame, or where syncing started
+    private final int verifyTailFrames;
+    private long recoveryNanos;
+    private long recoveryBytes;
+    private long recoverySkippedBytes;
 
     public static FramedLogFile openOrCreate(Path path, byte[] dek32, String aad) throws VeriLogIoException {
+        return openOrCreate(path, dek32, aad, options());
+    }
+
+    public static Options options() {
+        return new Options();
+    }
+
+    /**
+     * How to open or create a segment. Suite, hash and frame checksums only apply to a new segment; an existing
+     * one keeps what its header says.
+     */
+    public static final class Options {
+        private CipherSuite suite = CipherSuite.XCHACHA20_POLY1305;
+        private HashAlgorithm hash = HashAlgorithm.SHA_256;
+        private NonceSource nonces;
+        private AesGcmBackend gcm = AesGcmBackend.JCE;
+        private int verifyTailFrames;
+        private boolean frameChecksums;
+        private boolean restartRecords;
+
+        private Options() {
+        }
+
+        /** cipher suite for a new segment */
+        public Options suite(CipherSuite suite) {
+            this.suite = suite;
+            return this;
+        }
+
+        /** entry hash function for a new segment */
+        public Options hash(HashAlgorithm hash) {
+            this.hash = hash;
+            return this;
+        }
+
+        /** randomness for frame nonces and the segment salt; a thread-local DRBG by default */
+        public Options nonces(NonceSource nonces) {
+            this.nonces = nonces;
+            return this;
+        }
+
+        /** implementation used if the segment is (or is created as) AES-256-GCM */
+        public Options gcm(AesGcmBackend gcm) {
+            this.gcm = gcm;
+            return this;
+        }
+
+        /**
+         * When an existing segment has no usable checkpoint, authenticate this many frames at its end; a torn write
+         * that left a valid length prefix is cut off like a short frame.
+         */
+        public Options verifyTailFrames(int verifyTailFrames) {
+            if (verifyTailFrames < 0) throw new IllegalArgumentException("verifyTailFrames must be >= 0");
+            this.verifyTailFrames = verifyTailFrames;
+            return this;
+        }
+
+        /** give the frames of a new segment a {@link FrameChecksum} */
+        public Options frameChecksums(boolean frameChecksums) {
+            this.frameChecksums = frameChecksums;
+            return this;
+        }
+
+        /**
+         * mark the header of a new segment as written by a writer that puts a {@link #TYPE_CHAIN_RESTART} record
+         * in front of any chain it starts over; see {@link #restartRecords()}
+         */
+        public Options restartRecords(boolean restartRecords) {
+            this.restartRecords = restartRecords;
+            return this;
+        }
+    }
+
+    public static FramedLogFile openOrCreate(Path path, byte[] dek32, String aad, Options options)
+            throws VeriLogIoException {
         FileChannel ch = null;
         FramedLogFile f = null;
 
@@ -59,14 +211,15 @@ public final class FramedLogFile implements Closeable {
             ch = FileChannel.open(path,
                     StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
 
-            f = new FramedLogFile(ch, new SecureRandom(), dek32, aad);
+            f = new FramedLogFile(ch, path, options.nonces, dek32, aad, options.suite, options.hash, options.gcm,
+                    options.verifyTailFrames, options.frameChecksums);
+            f.restartRecords = options.restartRecords;
 
             if (!exists || ch.size() == 0) {
                 f.writeHeader();
                 f.nextSeq = 1;
             } else {
                 f.validateHeaderAndRecover();
-                f.nextSeq = f.scanNextSeq();
             }
 
             ch.position(ch.size());
@@ -94,43 +247,320 @@ public final class FramedLogFile implements Closeable {
         }
     }
 
-    private FramedLogFile(FileChannel ch, SecureRandom rng, byte[] dek32, String aad) {
+    private FramedLogFile(FileChannel ch, Path path, NonceSource rng, byte[] dek32, String aad, CipherSuite suite,
+                          HashAlgorithm hash, AesGcmBackend gcm, int verifyTailFrames, boolean checksums) {
         if (dek32 == null || dek32.length != DEK_LEN) throw new IllegalArgumentException("DEK must be 32 bytes");
         this.ch = ch;
-        this.rng = rng;
+        this.path = path;
+        this.rng = rng == null ? NonceSource.threadLocalDrbg() : rng;
         this.dek32 = dek32.clone();
         this.aadPrefix = aad.getBytes(StandardCharsets.UTF_8);
+        this.aad = new byte[aadPrefix.length + AAD_FIXED_BYTES];
+        System.arraycopy(aadPrefix, 0, this.aad, 0, aadPrefix.length);
+        this.requestedSuite = suite == null ? CipherSuite.XCHACHA20_POLY1305 : suite;
+        this.requestedHash = hash == null ? HashAlgorithm.SHA_256 : hash;
+        this.gcm = gcm == null ? AesGcmBackend.JCE : gcm;
+        this.verifyTailFrames = verifyTailFrames;
+        this.requestedChecksums = checksums;
     }
 
     public long nextSeq() {
         return nextSeq;
     }
 
+    /**
+     * Takes note that the file was renamed to {@code path} while open, so the sidecars are created under the new
+     * name. Only for a new segment, before its first frame and index.
+     */
+    public void renamedTo(Path path) throws IOException {
+        if (summary.frames != 0 || index != null) throw new IllegalStateException("segment already written");
+        checkpoint.close();
+        this.path = path;
+        this.checkpoint = new SegmentCheckpoint(path, dek32, headerHash);
+    }
+
+    /** sidecar written by {@link #checkpoint} for the segment at {@code segment} */
+    public static Path checkpointPath(Path segment) {
+        return SegmentCheckpoint.pathFor(segment);
+    }
+
+    /**
+     * Last log entry of an existing segment as found on open (from the checkpoint and the frames after it, or
+     * from the last log frame when there is no usable checkpoint); null for a new segment or one without entries.
+     */
+    public ChainHead chainHead() {
+        return chainHead;
+    }
+
+    /**
+     * Last log entry of a rotated segment, read without changing it: from the footer frame of a sealed segment,
+     * which must authenticate under {@code dek32}, else from its last authentic log frame. Null if the segment has
+     * no entries. The footer signature is not checked here.
+     */
+    public static ChainHead readHead(Path segment, byte[] dek32, String aad, AesGcmBackend gcm) throws IOException {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            FramedLogFile f = new FramedLogFile(ch, segment, null, dek32, aad, null, null, gcm, 0, false);
+            int headerLen = f.readHeader();
+            SegmentTrailer t = SegmentTrailer.read(ch);
+            if (t == null) return f.lastEntry((long) FIXED_HEADER_LEN + headerLen);
+            if (t.lastSeq == 0) return null;
+            ByteBuffer payload = ByteBuffer.allocate((int) (ch.size() - SegmentTrailer.LEN - t.footerOffset
+                    - f.headLen));
+            f.readFullyAt(payload, t.footerOffset + f.headLen);
+            byte[] plain = f.decryptPayload(payload.array(), payload.capacity());
+            if (plain == null) throw new IOException("Footer does not authenticate: " + segment);
+            JsonNode footer = new ObjectMapper().readTree(plain);
+            JsonNode seq = footer.get("lastSeq");
+            byte[] hash = hashField(footer, "lastEntryHash");
+            if (seq == null || !seq.canConvertToLong() || hash == null) {
+                throw new IOException("Footer has no chain head: " + segment);
+            }
+            return new ChainHead(seq.asLong(), hash);
+        } catch (VeriLogFormatException e) {
+            throw new IOException("Invalid footer: " + segment, e);
+        }
+    }
+
+    /** scans an unsealed segment read-only, authenticating its last frame, and decrypts its last log frame */
+    private ChainHead lastEntry(long framesStart) throws IOException {
+        SegmentRecovery rec = new SegmentRecovery(ch, ch.size(), headLen,
+                FRAME_HEADER_BYTES + frameNonce.length + TAG_BYTES, MAX_PAYLOAD_LEN, nextSeqByType);
+        rec.scan(framesStart, 1, this::authentic);
+        if (rec.lastLogFrame < 0) return null;
+        EntryInfo last = readEntry(rec.lastLogFrame);
+        if (last == null) throw new IOException("Last entry does not authenticate: " + path);
+        return new ChainHead(last.seq, last.entryHash);
+    }
+
+    /** totals for the footer; the writer reports each entry with {@link SegmentSummary#entry} */
+    public SegmentSummary summary() {
+        return summary;
+    }
+
+    /** bytes of header and frames written so far; the offset a footer written now would get */
+    public long length() throws IOException {
+        return ch.position();
+    }
+
+    /**
+     * True if recovery cut a torn frame off a segment whose nonces derive from (type, seq). Its bytes may already
+     * have used the nonce of the next frame, so this segment takes no more frames but its footer: seal it and
+     * continue in a new segment, which draws a new salt and so a new key.
+     */
+    public boolean sealOnly() {
+        return sealOnly;
+    }
+
+    /** true if the last open only had to read the frames after a valid checkpoint */
+    boolean resumedFromCheckpoint() {
+        return resumedFromCheckpoint;
+    }
+
+    /**
+     * Maintains the {@link SegmentIndex} sidecar from now on, with a record every {@code frames} frames. Records
+     * of an existing index that still match the segment are kept.
+     */
+    public void indexEvery(int frames) throws IOException {
+        if (frames < 1) throw new IllegalArgumentException("frames must be >= 1");
+        if (index != null) throw new IllegalStateException("index already enabled");
+        index = SegmentIndexWriter.open(path, dek32, headerHash, frames, ch.size());
+    }
+
+    /**
+     * (seq, offset) records of the index so far as 16-byte big-endian pairs, for embedding in the footer; empty
+     * without an index
+     */
+    public byte[] indexRecords() throws IOException {
+        return index == null ? new byte[0] : index.snapshot().packed();
+    }
+
+    /** writes the index seal; call once the segment is complete, e.g. before rotating it */
+    public void sealIndex() throws IOException {
+        if (index == null) return;
+        index.seal(ch.position());
+        index.flush(true);
+    }
+
+    /** time spent finding the end of an existing segment on open; 0 for a new segment */
+    public long recoveryNanos() {
+        return recoveryNanos;
+    }
+
+    /** frame bytes read by that recovery (from the checkpoint, or from the first frame) */
+    public long recoveryBytes() {
+        return recoveryBytes;
+    }
+
+    /** bytes of damaged frames that recovery skipped to continue at a sync frame, see {@link #syncEvery} */
+    public long recoverySkippedBytes() {
+        return recoverySkippedBytes;
+    }
+
+    /**
+     * Writes a {@link #TYPE_SYNC} frame after the log frame that ends at least {@code bytes} after the previous
+     * one. Recovery of a segment with sync frames skips a damaged region up to the next sync frame instead of
+     * cutting the segment there, and readers can split the segment at them.
+     */
+    public void syncEvery(long bytes) throws IOException {
+        if (bytes < 1) throw new IllegalArgumentException("bytes must be >= 1");
+        syncEvery = bytes;
+        lastSync = ch.position();
+    }
+
+    /** sha256 over the header JSON (includes createdAt and, for segment suites, the salt) */
+    public byte[] headerHash() {
+        return headerHash.clone();
+    }
+
+    public CipherSuite cipherSuite() {
+        return cipher.suite();
+    }
+
+    /** true if the frames of this segment carry a {@link FrameChecksum} */
+    public boolean frameChecksums() {
+        return checksums;
+    }
+
+    /** true if a frame of {@code type} was written to this segment or found when it was opened */
+    public boolean hasFrame(byte type) {
+        return nextSeqByType[type & 0xFF] > 0;
+    }
+
+    /**
+     * True if the header says a chain that starts over in this segment is preceded by a signed
+     * {@link #TYPE_CHAIN_RESTART} record. Segments written before these records lack the mark.
+     */
+    public boolean restartRecords() {
+        return restartRecords;
+    }
+
+    /** entry hash function of this segment */
+    public HashAlgorithm hashAlgorithm() {
+        return hash;
+    }
+
+    /**
+     * Bytes a frame adds on top of its plaintext (length prefix, type, seq, nonce, tag).
+     */
+    public int frameOverheadBytes() {
+        return headLen + FRAME_HEADER_BYTES + cipher.suite().frameNonceLen() + TAG_BYTES;
+    }
+
     public void appendEncryptedJson(byte type, long seq, byte[] plaintextUtf8Json) throws IOException {
-        byte[] nonce = XChaCha20Poly1305.randomNonce(rng);
-        byte[] aad = buildAad(type, seq);
-        byte[] ct = XChaCha20Poly1305.encrypt(dek32, nonce, plaintextUtf8Json, aad);
+        appendEncryptedJson(type, seq, ByteBuffer.wrap(plaintextUtf8Json));
+    }
 
-        int payloadLen = TYPE_BYTES + SEQ_BYTES + NONCE_BYTES + ct.length; // type + seq + nonce + ct
-        ByteBuffer frame = ByteBuffer.allocate(LEN_PREFIX_BYTES + payloadLen).order(ByteOrder.BIG_ENDIAN);
+    /**
+     * Encrypts the remaining bytes of {@code plaintextUtf8Json} straight into a reused frame buffer; steady-state
+     * appends allocate nothing.
+     */
+    public void appendEncryptedJson(byte type, long seq, ByteBuffer plaintextUtf8Json) throws IOException {
+        if (sealed) throw new IOException("Segment is sealed");
+        if (sealOnly && type != TYPE_FOOTER) {
+            throw new IOException("Segment lost a torn frame under a seq-derived nonce; seal it instead of appending");
+        }
+        CipherSuite suite = cipher.suite();
+        int t = type & 0xFF;
+        if (suite.derivesNonceFromSeq() && seq < nextSeqByType[t]) {
+            // the nonce is a function of (type, seq): writing a seq twice would reuse it
+            throw new IOException("seq " + seq + " not above last written seq " + (nextSeqByType[t] - 1)
+                    + " for frame type " + t);
+        }
+
+        if (frameNonce.length > 0) rng.nextBytes(frameNonce);
+        fillAad(type, seq);
+
+        int payloadLen = TYPE_BYTES + SEQ_BYTES + frameNonce.length + plaintextUtf8Json.remaining() + TAG_BYTES;
+        ByteBuffer frame = frameBuffer(headLen + payloadLen);
         frame.putInt(payloadLen);
+        if (checksums) frame.putInt(0);
         frame.put(type);
         frame.putLong(seq);
-        frame.put(nonce);
-        frame.put(ct);
+        frame.put(frameNonce);
+        cipher.encryptInto(type, seq, frameNonce, aad, plaintextUtf8Json, frame);
         frame.flip();
+        if (checksums) frame.putInt(LEN_PREFIX_BYTES, FrameChecksum.compute(crc, frame.array(), 0, payloadLen));
 
+        long frameStart = ch.position();
+        while (frame.hasRemaining()) ch.write(frame);
+        if (index != null) index.frameWritten(frameStart, payloadLen, type, seq);
+        nextSeqByType[t] = seq + 1;
+        nextSeq = Math.max(nextSeq, seq + 1);
+        summary.frames++;
+        if (syncEvery > 0 && type == TYPE_LOG && ch.position() - lastSync >= syncEvery) appendSync(seq);
+    }
+
+    /** not indexed: the index and the footer's copy of it only name frames that carry data */
+    private void appendSync(long seq) throws IOException {
+        ByteBuffer frame = frameBuffer(headLen + SyncMarker.PAYLOAD_LEN);
+        frame.putInt(SyncMarker.PAYLOAD_LEN);
+        if (checksums) frame.putInt(0);
+        syncMarker.writePayload(frame, seq, ch.position());
+        frame.flip();
+        if (checksums) {
+            frame.putInt(LEN_PREFIX_BYTES, FrameChecksum.compute(crc, frame.array(), 0, SyncMarker.PAYLOAD_LEN));
+        }
         while (frame.hasRemaining()) ch.write(frame);
-        nextSeq = seq + 1;
+        nextSeqByType[TYPE_SYNC] = seq + 1;
+        summary.frames++;
+        lastSync = ch.position();
+    }
+
+    private ByteBuffer frameBuffer(int len) {
+        if (frameBuf.capacity() < len) {
+            frameBuf = ByteBuffer.allocate(Math.max(len, frameBuf.capacity() * 2)).order(ByteOrder.BIG_ENDIAN);
+        }
+        frameBuf.clear();
+        return frameBuf;
     }
 
     public void flush(boolean fsync) throws IOException {
         ch.force(fsync);
+        // after the frames, so index records never point past flushed data
+        if (index != null) index.flush(fsync);
+    }
+
+    /**
+     * Records the current end of file, the per-type seqs and the {@link #summary()} in the checkpoint sidecar, so
+     * a later open only reads the frames written after this call. Call after {@link #flush}: the checkpoint must
+     * not get ahead of the data it describes.
+     */
+    public void checkpoint(boolean fsync) throws IOException {
+        checkpoint.write(ch.position(), nextSeqByType, summary, sealOnly, fsync);
+    }
+
+    /**
+     * Ends the segment: appends the signed footer record as a {@link #TYPE_FOOTER} frame, then a
+     * {@link SegmentTrailer} pointing to it, seals the index and syncs. Later appends fail, and so does opening
+     * the file for writing again.
+     *
+     * @param seq         seq of the last entry, 0 for a segment without entries
+     * @param footerJson  signed footer, built from {@link #summary()}, {@link #length()} and {@link #indexRecords()}
+     */
+    public void seal(long seq, byte[] footerJson) throws IOException {
+        long footerOffset = ch.position();
+        long frames = summary.frames;
+        appendEncryptedJson(TYPE_FOOTER, seq, footerJson);
+        summary.frames = frames;
+
+        ByteBuffer trailer = ByteBuffer.allocate(SegmentTrailer.LEN).order(ByteOrder.BIG_ENDIAN);
+        new SegmentTrailer(footerOffset, frames, summary.firstSeq, summary.lastSeq).writeTo(trailer);
+        trailer.flip();
+        while (trailer.hasRemaining()) ch.write(trailer);
+        sealed = true;
+
+        ch.force(true);
+        sealIndex();
     }
 
     @Override
     public void close() throws IOException {
-        ch.close();
+        try {
+            if (checkpoint != null) checkpoint.close();
+            if (index != null) index.close();
+        } finally {
+            ch.close();
+        }
     }
 
     // ---------------- header + recovery ----------------
@@ -138,13 +568,21 @@ public final class FramedLogFile implements Closeable {
     private void writeHeader() throws IOException {
         ObjectMapper om = new ObjectMapper();
         byte flags = 0x01; // encrypted records
+        if (requestedChecksums) flags |= FrameChecksum.FLAG;
+
+        byte[] salt = new byte[requestedSuite.saltLen()];
+        rng.nextBytes(salt);
+
+        Map<String, Object> header = new LinkedHashMap<>();
+        header.put("v", 1);
+        header.put("alg", requestedSuite.alg());
+        header.put("aad", new String(aadPrefix, StandardCharsets.UTF_8));
+        header.put("createdAt", Instant.now().toString());
+        if (salt.length > 0) header.put("salt", Base64.getEncoder().encodeToString(salt));
+        if (requestedHash != HashAlgorithm.SHA_256) header.put(HashAlgorithm.HEADER_FIELD, requestedHash.tag());
+        if (restartRecords) header.put(RESTART_RECORDS_FIELD, true);
 
-        byte[] headerJson = om.writeValueAsBytes(Map.of(
-                "v", 1,
-                "alg", "XChaCha20-Poly1305",
-                "aad", new String(aadPrefix, StandardCharsets.UTF_8),
-                "createdAt", Instant.now().toString()
-        ));
+        byte[] headerJson = om.writeValueAsBytes(header);
 
         if (headerJson.length > 65535) throw new IOException("Header too large");
 
@@ -159,9 +597,17 @@ public final class FramedLogFile implements Closeable {
         ch.position(0);
         while (buf.hasRemaining()) ch.write(buf);
         ch.force(true);
+
+        this.cipher = SegmentCipher.create(requestedSuite, dek32, salt, gcm);
+        this.hash = requestedHash;
+        this.headerHash = sha256(headerJson);
+        this.frameNonce = new byte[requestedSuite.frameNonceLen()];
+        this.checkpoint = new SegmentCheckpoint(path, dek32, headerHash);
+        useChecksums(requestedChecksums);
     }
 
-    private void validateHeaderAndRecover() throws IOException {
+    /** reads and checks the fixed header and the header JSON; sets cipher, hash and header hash */
+    private int readHeader() throws IOException {
         ch.position(0);
         ByteBuffer fixed = ByteBuffer.allocate(FIXED_HEADER_LEN).order(ByteOrder.BIG_ENDIAN);
         readFully(fixed);
@@ -175,111 +621,222 @@ public final class FramedLogFile implements Closeable {
         byte ver = fixed.get();
         if (ver != 1) throw new IOException("Unsupported version: " + ver);
 
-        /* flags */
-        fixed.get();
+        byte flags = fixed.get();
         int headerLen = fixed.getShort() & 0xFFFF;
 
         ByteBuffer hdr = ByteBuffer.allocate(headerLen);
         readFully(hdr);
+        readHeaderFields(hdr.array());
+        this.headerHash = sha256(hdr.array());
+        this.frameNonce = new byte[cipher.suite().frameNonceLen()];
+        useChecksums((flags & FrameChecksum.FLAG) != 0);
+        return headerLen;
+    }
 
-        // Recovery: truncate any partial frame at end
-        truncateToLastFullFrame();
+    private void useChecksums(boolean checksums) {
+        this.checksums = checksums;
+        this.headLen = FrameChecksum.headLen(checksums);
+        this.syncMarker = SyncMarker.forSegment(dek32, headerHash, checksums);
     }
 
-    private void truncateToLastFullFrame() throws IOException {
+    private void validateHeaderAndRecover() throws IOException {
+        int headerLen = readHeader();
+        // recovery would cut the trailer off as a torn frame
+        if (SegmentTrailer.read(ch) != null) throw new IOException("Segment is sealed");
+        this.checkpoint = new SegmentCheckpoint(path, dek32, headerHash);
+
+        long framesStart = (long) FIXED_HEADER_LEN + headerLen;
+        long started = System.nanoTime();
+        SegmentCheckpoint.State s = checkpoint.load();
         long size = ch.size();
-        long pos;
-
-        // read headerLen to jump correctly
-        ch.position(HEADER_LEN_OFFSET);
-        ByteBuffer hb = ByteBuffer.allocate(HEADER_LEN_BYTES).order(ByteOrder.BIG_ENDIAN);
-        readFully(hb);
-        hb.flip();
-        int headerLen = hb.getShort() & 0xFFFF;
-        pos = (long) FIXED_HEADER_LEN + headerLen;
-
-        long lastGood = pos;
-        ch.position(pos);
-
-        ByteBuffer lenBuf = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
-        while (true) {
-            lenBuf.clear();
-            int r = ch.read(lenBuf);
-            if (r < Integer.BYTES) {
-                break;
-            }
-
-            lenBuf.flip();
-            int payloadLen = lenBuf.getInt();
-
-            long frameEnd = ch.position() + payloadLen;
-            if (payloadLen <= 0 || payloadLen > MAX_PAYLOAD_LEN || frameEnd > size) {
-                break;
-            }
+        SegmentRecovery rec = new SegmentRecovery(ch, size, headLen,
+                FRAME_HEADER_BYTES + frameNonce.length + TAG_BYTES, MAX_PAYLOAD_LEN, nextSeqByType);
+        rec.resync = at -> syncMarker.find(ch, at, size);
+        long from;
+        if (s != null && s.offset >= framesStart && s.offset <= size) {
+            // everything up to the checkpoint was flushed and accounted for; only the tail is read, and since
+            // its frames are decrypted anyway, its entries are added to the summary
+            System.arraycopy(s.nextSeqByType, 0, nextSeqByType, 0, nextSeqByType.length);
+            summary = s.summary;
+            sealOnly = s.sealOnly;
+            from = s.offset;
+            rec.scan(from, SegmentRecovery.ALL, this::authenticAndSummarize);
+            // the entries of a skipped region are not in the summary
+            if (rec.skippedRegions > 0) summary.loseTimeRange();
+            resumedFromCheckpoint = true;
+        } else {
+            from = framesStart;
+            rec.scan(from, verifyTailFrames, this::authentic);
+            summarizeFromEnds(rec);
+        }
+        summary.frames += rec.frames;
+        chainHead = summary.hasEntries() ? new ChainHead(summary.lastSeq, summary.lastEntryHash) : null;
+        // Recovery: drop any partial or unauthenticated frame at end
+        dropTornTail(rec.end, size);
+
+        recoveryBytes = rec.end - from;
+        recoverySkippedBytes = rec.skippedBytes;
+        recoveryNanos = System.nanoTime() - started;
+
+        long max = 0;
+        for (long n : nextSeqByType) max = Math.max(max, n);
+        nextSeq = Math.max(1, max);
+    }
 
-            ch.position(frameEnd);
-            lastGood = frameEnd;
+    private void readHeaderFields(byte[] headerJson) throws IOException {
+        try {
+            JsonNode h = new ObjectMapper().readTree(headerJson);
+            CipherSuite suite = CipherSuite.fromAlg(h.hasNonNull("alg") ? h.get("alg").asText() : null);
+            byte[] salt = h.hasNonNull("salt") ? Base64.getDecoder().decode(h.get("salt").asText()) : new byte[0];
+            HashAlgorithm declared = HashAlgorithm.fromTag(h.path(HashAlgorithm.HEADER_FIELD).textValue());
+            if (declared == null) throw new IOException("Unsupported entry hash in segment header");
+            this.cipher = SegmentCipher.create(suite, dek32, salt, gcm);
+            this.hash = declared;
+            this.restartRecords = h.path(RESTART_RECORDS_FIELD).asBoolean(false);
+        } catch (VeriLogFormatException | IllegalArgumentException e) {
+            throw new IOException("Invalid segment header", e);
         }
+    }
 
-        if (lastGood != size) {
-            ch.truncate(lastGood);
-            ch.force(true);
+    private void dropTornTail(long lastGood, long size) throws IOException {
+        if (lastGood == size) return;
+        if (cipher.suite().derivesNonceFromSeq()) {
+            // the torn frame's (type, seq) is never used again, not even by the footer; recorded before the
+            // truncation removes the evidence, so a crash before sealing cannot lead to appends either
+            reserveTornSeq(lastGood, size);
+            sealOnly = true;
+            checkpoint.write(lastGood, nextSeqByType, summary, true, true);
         }
+        ch.truncate(lastGood);
+        ch.force(true);
     }
 
-    private long scanNextSeq() throws IOException {
-        // Simple scan: read frames, track max seq, return max+1
-        long pos;
+    private void reserveTornSeq(long pos, long size) throws IOException {
+        if (size - pos < headLen + 1 + 8) return; // stopped before the ciphertext
+        ByteBuffer head = ByteBuffer.allocate(1 + 8).order(ByteOrder.BIG_ENDIAN);
+        readFullyAt(head, pos + headLen);
+        int t = head.get(0) & 0xFF;
+        long seq = head.getLong(1);
+        if (t >= TYPE_LOG && t <= TYPE_MAX && seq >= 0) nextSeqByType[t] = Math.max(nextSeqByType[t], seq + 1);
+    }
 
-        ch.position(HEADER_LEN_OFFSET);
-        ByteBuffer hb = ByteBuffer.allocate(2).order(ByteOrder.BIG_ENDIAN);
-        readFully(hb);
-        hb.flip();
-        int headerLen = hb.getShort() & 0xFFFF;
-        pos = (long) FIXED_HEADER_LEN + headerLen;
+    /**
+     * Without a checkpoint only the first and last entry are decrypted. The timestamp range is then unknown
+     * if there are entries in between.
+     */
+    private void summarizeFromEnds(SegmentRecovery rec) throws IOException {
+        if (rec.firstLogFrame < 0) return;
+        EntryInfo first = readEntry(rec.firstLogFrame);
+        if (first != null) summary.entry(first.seq, first.prevHash, first.entryHash, first.ts);
+        if (rec.logFrames > 2) summary.loseTimeRange();
+        if (rec.lastLogFrame == rec.firstLogFrame) return;
+        EntryInfo last = readEntry(rec.lastLogFrame);
+        if (last != null) summary.entry(last.seq, last.prevHash, last.entryHash, last.ts);
+    }
 
-        long maxSeq = 0;
-        ch.position(pos);
+    /** decrypts the log frame at {@code pos}; null if it does not authenticate or is not an entry */
+    private EntryInfo readEntry(long pos) throws IOException {
+        ByteBuffer lenBuf = ByteBuffer.allocate(LEN_PREFIX_BYTES).order(ByteOrder.BIG_ENDIAN);
+        readFullyAt(lenBuf, pos);
+        ByteBuffer payload = ByteBuffer.allocate(lenBuf.getInt(0));
+        readFullyAt(payload, pos + headLen);
+        byte[] plain = decryptPayload(payload.array(), payload.capacity());
+        return plain == null ? null : entryInfo(plain);
+    }
 
-        ByteBuffer lenBuf = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
-        ByteBuffer headBuf = ByteBuffer.allocate(1 + 8).order(ByteOrder.BIG_ENDIAN);
+    private boolean authentic(long offset, ByteBuffer payload) {
+        if (payload.get(0) == TYPE_SYNC) return syncMarker.authentic(payload, offset);
+        return decryptPayload(payload.array(), payload.limit()) != null;
+    }
 
-        while (true) {
-            lenBuf.clear();
-            int r = ch.read(lenBuf);
-            if (r < Integer.BYTES) {
-                break; // EOF or partial length
-            }
+    private boolean authenticAndSummarize(long offset, ByteBuffer payload) {
+        if (payload.get(0) == TYPE_SYNC) return syncMarker.authentic(payload, offset);
+        byte[] plain = decryptPayload(payload.array(), payload.limit());
+        if (plain == null) return false;
+        if (payload.get(0) == TYPE_LOG) {
+            EntryInfo e = entryInfo(plain);
+            if (e != null) summary.entry(e.seq, e.prevHash, e.entryHash, e.ts);
+        }
+        return true;
+    }
 
-            lenBuf.flip();
-            int payloadLen = lenBuf.getInt();
-            if (payloadLen < (TYPE_BYTES + SEQ_BYTES) || payloadLen > MAX_PAYLOAD_LEN) {
-                break; // corrupt or insane frame
-            }
+    /** payload = type || seq || nonce || ct||tag; null if the tag does not verify */
+    private byte[] decryptPayload(byte[] payload, int len) {
+        if (len < FRAME_HEADER_BYTES + frameNonce.length + TAG_BYTES) return null;
+        ByteBuffer b = ByteBuffer.wrap(payload, 0, len);
+        byte type = b.get();
+        long seq = b.getLong();
+        int ctOff = FRAME_HEADER_BYTES + frameNonce.length;
+        byte[] nonce = Arrays.copyOfRange(payload, FRAME_HEADER_BYTES, ctOff);
+        fillAad(type, seq);
+        try {
+            return cipher.decrypt(type, seq, nonce, Arrays.copyOfRange(payload, ctOff, len), aad);
+        } catch (InvalidCipherTextException | RuntimeException e) {
+            return null;
+        }
+    }
 
-            headBuf.clear();
-            readFully(headBuf);
-            headBuf.flip();
+    /** seq, links and timestamp of a decrypted entry */
+    private static final class EntryInfo {
+        final long seq;
+        final byte[] prevHash;  // null if absent
+        final byte[] entryHash;
+        final Instant ts;       // null if absent
+
+        EntryInfo(long seq, byte[] prevHash, byte[] entryHash, Instant ts) {
+            this.seq = seq;
+            this.prevHash = prevHash;
+            this.entryHash = entryHash;
+            this.ts = ts;
+        }
+    }
 
-            headBuf.get(); // type
-            long seq = headBuf.getLong();
-            maxSeq = Math.max(maxSeq, seq);
+    /** null unless the JSON has a seq and a well-formed entryHash */
+    private static EntryInfo entryInfo(byte[] entryJson) {
+        try {
+            JsonNode e = new ObjectMapper().readTree(entryJson);
+            JsonNode seq = e.get("seq");
+            byte[] hash = hashField(e, "entryHash");
+            if (seq == null || !seq.canConvertToLong() || hash == null) return null;
+            String ts = e.path("ts").textValue();
+            return new EntryInfo(seq.asLong(), hashField(e, "prevHash"), hash, ts == null ? null : Instant.parse(ts));
+        } catch (IOException | RuntimeException | VeriLogFormatException e) {
+            return null;
+        }
+    }
 
-            long skip = (long) payloadLen - FRAME_HEADER_BYTES;
-            ch.position(ch.position() + skip);
+    private static byte[] hashField(JsonNode e, String field) throws VeriLogFormatException {
+        String hex = e.path(field).textValue();
+        if (hex == null || hex.length() != 2 * HashAlgorithm.DIGEST_LEN) return null;
+        byte[] hash = new byte[HashAlgorithm.DIGEST_LEN];
+        CryptoUtil.fromHex(hex, hash, 0);
+        return hash;
+    }
+
+    private static byte[] sha256(byte[] data) throws IOException {
+        try {
+            return CryptoUtil.sha256(data);
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("SHA-256 unavailable", e);
         }
-        return maxSeq + 1;
     }
 
-    private byte[] buildAad(byte type, long seq) {
+    private void fillAad(byte type, long seq) {
         // aad = prefix || 0x00 || uint64_be(seq) || 0x00 || type
-        ByteBuffer bb = ByteBuffer.allocate(aadPrefix.length + AAD_FIXED_BYTES).order(ByteOrder.BIG_ENDIAN);
-        bb.put(aadPrefix);
-        bb.put(AAD_SEP);
-        bb.putLong(seq);
-        bb.put(AAD_SEP);
-        bb.put(type);
-        return bb.array();
+        int off = aadPrefix.length;
+        aad[off++] = AAD_SEP;
+        for (int i = 0; i < SEQ_BYTES; i++) {
+            aad[off++] = (byte) (seq >>> (56 - 8 * i));
+        }
+        aad[off++] = AAD_SEP;
+        aad[off] = type;
+    }
+
+    private void readFullyAt(ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int r = ch.read(buf, pos + buf.position());
+            if (r == -1) throw new EOFException();
+        }
     }
 
     private void readFully(ByteBuffer buf) throws IOException {
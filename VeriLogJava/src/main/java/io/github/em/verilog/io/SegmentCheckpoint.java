@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Sidecar {@code <segment>.ckpt} recording how far a segment is known to be good: file offset, next seq per
+ * frame type and the segment's {@link SegmentSummary} up to that offset. Two fixed slots are written alternately, each with a generation
+ * counter and an HMAC under a key derived from the DEK, so a torn slot write leaves the other one usable.
+ * A slot counts only if its MAC verifies and it names the segment's header hash.
+ * Not thread-safe; owned by {@link FramedLogFile}.
+ */
+final class SegmentCheckpoint implements Closeable {
+
+    static final String SUFFIX = ".ckpt";
+
+    private static final byte[] MAGIC = {'V', 'L', 'C', 'K'};
+    private static final byte VERSION = 2;
+    private static final byte[] KEY_LABEL = "VeriLog segment checkpoint v1".getBytes(StandardCharsets.US_ASCII);
+    private static final int HASH_LEN = 32;
+    private static final int MAX_TYPES = 32;
+    private static final int SUMMARY_OFFSET = 4 + 1 + 1 + 2 + 8 + HASH_LEN + 8;
+    private static final int TYPES_OFFSET = SUMMARY_OFFSET + 8 + HASH_LEN + 8 + 8 + HASH_LEN + 2 * (8 + 4);
+    private static final int FLAG_TIME_RANGE_LOST = 1;
+    private static final int FLAG_SEAL_ONLY = 2;
+    private static final int BODY_LEN = TYPES_OFFSET + MAX_TYPES * (1 + 8);
+    private static final int SLOT_LEN = 512;
+
+    /** one decoded slot */
+    static final class State {
+        final long offset;
+        final long[] nextSeqByType;
+        final SegmentSummary summary;
+        /** see {@link FramedLogFile#sealOnly()} */
+        final boolean sealOnly;
+
+        State(long offset, long[] nextSeqByType, SegmentSummary summary, boolean sealOnly) {
+            this.offset = offset;
+            this.nextSeqByType = nextSeqByType;
+            this.summary = summary;
+            this.sealOnly = sealOnly;
+        }
+    }
+
+    private final Path path;
+    private final byte[] headerHash;
+    private final HMac mac = new HMac(new SHA256Digest());
+    private final ByteBuffer slot = ByteBuffer.allocate(SLOT_LEN).order(ByteOrder.BIG_ENDIAN);
+    private final byte[] tag = new byte[HASH_LEN];
+
+    private FileChannel ch; // opened on first write
+    private long generation;
+
+    SegmentCheckpoint(Path segment, byte[] dek32, byte[] headerHash) {
+        this.path = pathFor(segment);
+        this.headerHash = headerHash.clone();
+
+        HMac kdf = new HMac(new SHA256Digest());
+        kdf.init(new KeyParameter(dek32));
+        kdf.update(KEY_LABEL, 0, KEY_LABEL.length);
+        byte[] key = new byte[HASH_LEN];
+        kdf.doFinal(key, 0);
+        mac.init(new KeyParameter(key));
+        Arrays.fill(key, (byte) 0);
+    }
+
+    static Path pathFor(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + SUFFIX);
+    }
+
+    /**
+     * @return the newest valid slot, or null if the sidecar is missing, belongs to another header, or fails
+     * authentication
+     */
+    State load() throws IOException {
+        if (!Files.exists(path)) return null;
+
+        State best = null;
+        long bestGen = -1;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            for (int i = 0; i < 2; i++) {
+                if (!readSlot(in, (long) i * SLOT_LEN)) continue;
+                long gen = slot.getLong(8);
+                State s = decode();
+                if (s != null && gen > bestGen) {
+                    best = s;
+                    bestGen = gen;
+                }
+            }
+        }
+        generation = bestGen + 1;
+        return best;
+    }
+
+    /** writes the next slot */
+    void write(long offset, long[] nextSeqByType, SegmentSummary summary, boolean fsync) throws IOException {
+        write(offset, nextSeqByType, summary, false, fsync);
+    }
+
+    void write(long offset, long[] nextSeqByType, SegmentSummary summary, boolean sealOnly, boolean fsync)
+            throws IOException {
+        if (ch == null) {
+            ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        slot.clear();
+        boolean entries = summary.hasEntries();
+        int flags = (summary.timeRangeLost ? FLAG_TIME_RANGE_LOST : 0) | (sealOnly ? FLAG_SEAL_ONLY : 0);
+        slot.put(MAGIC).put(VERSION).put((byte) 0).putShort((short) flags);
+        slot.putLong(generation);
+        slot.put(headerHash);
+        slot.putLong(offset);
+        slot.putLong(summary.lastSeq);
+        slot.put(entries ? summary.lastEntryHash : new byte[HASH_LEN]);
+        slot.putLong(summary.frames);
+        slot.putLong(summary.firstSeq);
+        slot.put(entries ? summary.firstPrevHash : new byte[HASH_LEN]);
+        putInstant(summary.minTs);
+        putInstant(summary.maxTs);
+        int types = 0;
+        for (int t = 0; t < nextSeqByType.length; t++) {
+            if (nextSeqByType[t] == 0) continue;
+            if (types == MAX_TYPES) throw new IOException("Too many frame types for checkpoint");
+            slot.put((byte) t).putLong(nextSeqByType[t]);
+            types++;
+        }
+        slot.put(5, (byte) types);
+        while (slot.position() < BODY_LEN) slot.put((byte) 0);
+
+        mac.update(slot.array(), 0, BODY_LEN);
+        mac.doFinal(tag, 0);
+        slot.put(tag);
+        while (slot.hasRemaining()) slot.put((byte) 0);
+        slot.flip();
+
+        long pos = (generation & 1) * SLOT_LEN;
+        while (slot.hasRemaining()) ch.write(slot, pos + slot.position());
+        if (fsync) ch.force(false);
+        generation++;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ch != null) ch.close();
+        ch = null;
+    }
+
+    private boolean readSlot(FileChannel in, long pos) throws IOException {
+        slot.clear();
+        while (slot.hasRemaining()) {
+            if (in.read(slot, pos + slot.position()) <= 0) return false;
+        }
+        return true;
+    }
+
+    private State decode() {
+        byte[] a = slot.array();
+        mac.update(a, 0, BODY_LEN);
+        mac.doFinal(tag, 0);
+        if (!MessageDigest.isEqual(tag, Arrays.copyOfRange(a, BODY_LEN, BODY_LEN + HASH_LEN))) return null;
+        if (!Arrays.equals(a, 0, 4, MAGIC, 0, 4) || a[4] != VERSION) return null;
+        if (!Arrays.equals(a, 16, 16 + HASH_LEN, headerHash, 0, HASH_LEN)) return null;
+
+        slot.position(16 + HASH_LEN);
+        long offset = slot.getLong();
+        SegmentSummary summary = new SegmentSummary();
+        summary.lastSeq = slot.getLong();
+        byte[] lastHash = new byte[HASH_LEN];
+        slot.get(lastHash);
+        summary.frames = slot.getLong();
+        summary.firstSeq = slot.getLong();
+        byte[] firstPrev = new byte[HASH_LEN];
+        slot.get(firstPrev);
+        summary.minTs = getInstant();
+        summary.maxTs = getInstant();
+        summary.timeRangeLost = (slot.getShort(6) & FLAG_TIME_RANGE_LOST) != 0;
+        if (summary.hasEntries()) {
+            summary.lastEntryHash = lastHash;
+            summary.firstPrevHash = firstPrev;
+        }
+
+        int types = a[5] & 0xFF;
+        if (types > MAX_TYPES) return null;
+        long[] nextByType = new long[256];
+        for (int i = 0; i < types; i++) {
+            nextByType[slot.get() & 0xFF] = slot.getLong();
+        }
+        return new State(offset, nextByType, summary, (slot.getShort(6) & FLAG_SEAL_ONLY) != 0);
+    }
+
+    /** epoch seconds and nanos; all ones for null */
+    private void putInstant(Instant ts) {
+        slot.putLong(ts == null ? -1L : ts.getEpochSecond()).putInt(ts == null ? -1 : ts.getNano());
+    }
+
+    private Instant getInstant() {
+        long sec = slot.getLong();
+        int nano = slot.getInt();
+        return nano < 0 ? null : Instant.ofEpochSecond(sec, nano);
+    }
+}
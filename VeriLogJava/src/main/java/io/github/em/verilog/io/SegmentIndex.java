@@ -0,0 +1,258 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Sparse seq-to-offset index of a segment, kept in the sidecar {@code <segment>.vidx}. Every few frames the writer
+ * appends a record (seq, frame offset), and at rotation a sealing record with the final segment length.
+ * <p>
+ * Each record carries a truncated HMAC under a key derived from the DEK. The MAC covers the segment header hash
+ * and the record's position, so records cannot be moved between files or reordered. A record that fails
+ * ends the index. An index only narrows where a reader starts scanning: the frames it points to are still
+ * authenticated when they are decrypted.
+ */
+public final class SegmentIndex {
+
+    public static final String SUFFIX = ".vidx";
+    /** frames between two records unless configured otherwise */
+    public static final int DEFAULT_INTERVAL = 256;
+
+    static final int HEADER_LEN = 4 + 1 + 3 + 32 + 4 + 4;
+    static final int RECORD_LEN = 8 + 8 + 16;
+    static final long SEAL_SEQ = -1L;
+
+    private static final byte[] MAGIC = {'V', 'L', 'I', 'X'};
+    private static final byte VERSION = 1;
+    private static final byte[] KEY_LABEL = "VeriLog segment index v1".getBytes(StandardCharsets.US_ASCII);
+    private static final int TAG_LEN = 16;
+
+    private final long[] seqs;
+    private final long[] offsets;
+    private final long sealedLength; // -1 unless sealed
+
+    private SegmentIndex(long[] seqs, long[] offsets, long sealedLength) {
+        this.seqs = seqs;
+        this.offsets = offsets;
+        this.sealedLength = sealedLength;
+    }
+
+    public static Path pathFor(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + SUFFIX);
+    }
+
+    /**
+     * @param headerHash sha256 over the segment's header JSON
+     * @return the authenticated prefix of the index, or null if there is no index for this segment
+     */
+    public static SegmentIndex load(Path segment, byte[] dek32, byte[] headerHash) throws IOException {
+        Path p = pathFor(segment);
+        if (!Files.exists(p)) return null;
+        try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+            return read(ch, newMac(dek32), headerHash);
+        }
+    }
+
+    /**
+     * Rebuilds the index of {@code segment} from its frames and seals it. Meant for offline use on segments
+     * written before indexing or whose index was lost; the writer must not have the segment open.
+     *
+     * @return number of records written, excluding the seal
+     */
+    public static int rebuild(Path segment, byte[] dek32, int interval) throws IOException {
+        if (interval < 1) throw new IllegalArgumentException("interval must be >= 1");
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            ByteBuffer fixed = ByteBuffer.allocate(8).order(ByteOrder.BIG_ENDIAN);
+            readFully(ch, fixed, 0);
+            if (!Arrays.equals(fixed.array(), 0, 4, new byte[]{'V', 'L', 'O', 'G'}, 0, 4)) {
+                throw new IOException("Bad magic");
+            }
+            int headerLen = fixed.getShort(6) & 0xFFFF;
+            ByteBuffer hdr = ByteBuffer.allocate(headerLen);
+            readFully(ch, hdr, 8);
+
+            Files.deleteIfExists(pathFor(segment));
+            try (SegmentIndexWriter w = SegmentIndexWriter.open(segment, dek32, sha256(hdr.array()), interval, 0)) {
+                long size = ch.size();
+                boolean checksums = (fixed.get(5) & FrameChecksum.FLAG) != 0;
+                SegmentRecovery rec = new SegmentRecovery(ch, size, FrameChecksum.headLen(checksums), 1 + 8 + 16,
+                        Integer.MAX_VALUE, new long[256]);
+                // like the writer, which does not index sync frames
+                rec.visitor = (offset, payloadLen, type, seq) -> {
+                    if (type != FramedLogFile.TYPE_SYNC) w.frameWritten(offset, payloadLen, type, seq);
+                };
+                rec.scan(8L + headerLen, 0, null);
+                // a sealed segment ends with its trailer, which the scan stops at
+                w.seal(SegmentTrailer.read(ch) != null ? size : rec.end);
+                w.flush(true);
+                return w.records();
+            }
+        }
+    }
+
+    /** number of (seq, offset) records */
+    public int size() {
+        return seqs.length;
+    }
+
+    /** true if the writer finished the segment; {@link #sealedLength()} is then its length */
+    public boolean sealed() {
+        return sealedLength >= 0;
+    }
+
+    public long sealedLength() {
+        return sealedLength;
+    }
+
+    /**
+     * Offset of the last indexed frame whose seq is below {@code seq}, or -1 if there is none. Frames sharing a
+     * seq are never skipped: scanning forward from here reaches the first frame with that seq.
+     */
+    public long offsetBefore(long seq) {
+        int lo = 0;
+        int hi = seqs.length - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (seqs[mid] < seq) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found < 0 ? -1 : offsets[found];
+    }
+
+    // ---------------- format, shared with SegmentIndexWriter ----------------
+
+    static HMac newMac(byte[] dek32) {
+        HMac kdf = new HMac(new SHA256Digest());
+        kdf.init(new KeyParameter(dek32));
+        kdf.update(KEY_LABEL, 0, KEY_LABEL.length);
+        byte[] key = new byte[32];
+        kdf.doFinal(key, 0);
+        HMac mac = new HMac(new SHA256Digest());
+        mac.init(new KeyParameter(key));
+        Arrays.fill(key, (byte) 0);
+        return mac;
+    }
+
+    static void writeHeader(ByteBuffer out, byte[] headerHash, int interval) {
+        out.put(MAGIC).put(VERSION).put(new byte[3]).put(headerHash).putInt(interval).putInt(0);
+    }
+
+    /** appends seq || offset || tag, tag = HMAC(headerHash || seq || offset || position)[0..16) */
+    static void writeRecord(ByteBuffer out, HMac mac, byte[] headerHash, long position, long seq, long offset) {
+        int start = out.position();
+        out.putLong(seq).putLong(offset);
+        out.put(tag(mac, headerHash, position, out.array(), out.arrayOffset() + start));
+    }
+
+    /**
+     * Reads the records that authenticate, stopping at the first that does not; also used by the writer to
+     * resume an index.
+     */
+    static SegmentIndex read(FileChannel ch, HMac mac, byte[] headerHash) throws IOException {
+        long size = ch.size();
+        if (size < HEADER_LEN) return null;
+        ByteBuffer head = ByteBuffer.allocate(HEADER_LEN).order(ByteOrder.BIG_ENDIAN);
+        readFully(ch, head, 0);
+        byte[] h = head.array();
+        if (!Arrays.equals(h, 0, 4, MAGIC, 0, 4) || h[4] != VERSION) return null;
+        if (!Arrays.equals(h, 8, 40, headerHash, 0, 32)) return null;
+
+        int n = (int) ((size - HEADER_LEN) / RECORD_LEN);
+        ByteBuffer body = ByteBuffer.allocate(n * RECORD_LEN).order(ByteOrder.BIG_ENDIAN);
+        readFully(ch, body, HEADER_LEN);
+        byte[] b = body.array();
+
+        long[] seqs = new long[n];
+        long[] offsets = new long[n];
+        int count = 0;
+        long sealed = -1;
+        for (int i = 0; i < n; i++) {
+            int at = i * RECORD_LEN;
+            byte[] expected = tag(mac, headerHash, i, b, at);
+            if (!MessageDigest.isEqual(expected, Arrays.copyOfRange(b, at + 16, at + RECORD_LEN))) break;
+            long seq = body.getLong(at);
+            long offset = body.getLong(at + 8);
+            if (seq == SEAL_SEQ) {
+                sealed = offset;
+                break;
+            }
+            seqs[count] = seq;
+            offsets[count] = offset;
+            count++;
+        }
+        return new SegmentIndex(Arrays.copyOf(seqs, count), Arrays.copyOf(offsets, count), sealed);
+    }
+
+    /** offset of record {@code i} in the index file */
+    static long recordPosition(int i) {
+        return HEADER_LEN + (long) i * RECORD_LEN;
+    }
+
+    /** records as 16-byte big-endian (seq, offset) pairs */
+    byte[] packed() {
+        ByteBuffer out = ByteBuffer.allocate(seqs.length * 16).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < seqs.length; i++) out.putLong(seqs[i]).putLong(offsets[i]);
+        return out.array();
+    }
+
+    long seqAt(int i) {
+        return seqs[i];
+    }
+
+    long offsetAt(int i) {
+        return offsets[i];
+    }
+
+    private static byte[] tag(HMac mac, byte[] headerHash, long position, byte[] rec, int off) {
+        byte[] pos = ByteBuffer.allocate(8).putLong(position).array();
+        mac.update(headerHash, 0, headerHash.length);
+        mac.update(rec, off, 16);
+        mac.update(pos, 0, 8);
+        byte[] full = new byte[32];
+        mac.doFinal(full, 0);
+        return Arrays.copyOf(full, TAG_LEN);
+    }
+
+    private static byte[] sha256(byte[] data) throws IOException {
+        try {
+            return CryptoUtil.sha256(data);
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) <= 0) throw new EOFException();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import org.bouncycastle.crypto.macs.HMac;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appending side of {@link SegmentIndex}. Records are buffered and reach the file on {@link #flush}, which the
+ * segment calls after flushing its frames. Not thread-safe; owned by {@link FramedLogFile}.
+ */
+final class SegmentIndexWriter implements Closeable {
+
+    private final FileChannel ch;
+    private final HMac mac;
+    private final byte[] headerHash;
+    private final int interval;
+    private final ByteBuffer pending = ByteBuffer.allocate(64 * SegmentIndex.RECORD_LEN).order(ByteOrder.BIG_ENDIAN);
+
+    private int records;      // authenticated records in the file or in pending
+    private long writePos;    // file position of the first pending record
+    private int sinceRecord;
+    private long lastSeq = Long.MIN_VALUE;
+    private boolean sealed;
+
+    private SegmentIndexWriter(FileChannel ch, HMac mac, byte[] headerHash, int interval) {
+        this.ch = ch;
+        this.mac = mac;
+        this.headerHash = headerHash.clone();
+        this.interval = interval;
+    }
+
+    /**
+     * Opens or creates the index of {@code segment}. Records of an existing index are kept if they authenticate
+     * and point below {@code validEnd}; a seal is dropped, since the segment is being appended to again.
+     */
+    static SegmentIndexWriter open(Path segment, byte[] dek32, byte[] headerHash, int interval, long validEnd)
+            throws IOException {
+        FileChannel ch = FileChannel.open(SegmentIndex.pathFor(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            SegmentIndexWriter w = new SegmentIndexWriter(ch, SegmentIndex.newMac(dek32), headerHash, interval);
+            SegmentIndex existing = SegmentIndex.read(ch, w.mac, headerHash);
+            int keep = 0;
+            if (existing != null) {
+                while (keep < existing.size() && existing.offsetAt(keep) < validEnd) keep++;
+                if (keep > 0) w.lastSeq = existing.seqAt(keep - 1);
+                ch.truncate(SegmentIndex.recordPosition(keep));
+            } else {
+                ch.truncate(0);
+                ByteBuffer head = ByteBuffer.allocate(SegmentIndex.HEADER_LEN).order(ByteOrder.BIG_ENDIAN);
+                SegmentIndex.writeHeader(head, headerHash, interval);
+                head.flip();
+                while (head.hasRemaining()) ch.write(head, head.position());
+            }
+            w.records = keep;
+            w.writePos = SegmentIndex.recordPosition(keep);
+            return w;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /** called for every frame in file order; records every {@code interval}-th one */
+    void frameWritten(long offset, int payloadLen, byte type, long seq) throws IOException {
+        if (++sinceRecord < interval || seq < lastSeq) return;
+        sinceRecord = 0;
+        lastSeq = seq;
+        append(seq, offset);
+    }
+
+    /** marks the index complete for a segment of {@code segmentLength} bytes */
+    void seal(long segmentLength) throws IOException {
+        if (sealed) return;
+        append(SegmentIndex.SEAL_SEQ, segmentLength);
+        sealed = true;
+    }
+
+    /** (seq, offset) records, excluding the seal */
+    int records() {
+        return sealed ? records - 1 : records;
+    }
+
+    /** the records written so far, read back and authenticated */
+    SegmentIndex snapshot() throws IOException {
+        flush(false);
+        return SegmentIndex.read(ch, mac, headerHash);
+    }
+
+    void flush(boolean fsync) throws IOException {
+        if (pending.position() == 0) return;
+        pending.flip();
+        while (pending.hasRemaining()) writePos += ch.write(pending, writePos);
+        pending.clear();
+        if (fsync) ch.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        ch.close();
+    }
+
+    private void append(long seq, long offset) throws IOException {
+        if (pending.remaining() < SegmentIndex.RECORD_LEN) flush(false);
+        SegmentIndex.writeRecord(pending, mac, headerHash, records++, seq, offset);
+    }
+}
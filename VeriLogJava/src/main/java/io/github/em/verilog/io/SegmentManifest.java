@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only list of the sealed segments of a log directory, {@code <current>.manifest}: one signed
+ * {@code SegmentManifestRecord} per line, in seal order, each chained to the one before it. Readers take the
+ * segments and their order from here instead of listing and sorting the directory.
+ * <p>
+ * The file is plain JSON lines; it only repeats what segment names and trailers show in the clear. A line cut
+ * off by a crash is dropped when the writer reopens the file.
+ */
+public final class SegmentManifest implements Closeable {
+
+    public static final String SUFFIX = ".manifest";
+
+    private static final ObjectMapper OM = new ObjectMapper();
+    private static final int TAIL_BLOCK = 4096;
+
+    private final FileChannel ch;
+    private final JsonNode last;
+
+    private SegmentManifest(FileChannel ch, JsonNode last) {
+        this.ch = ch;
+        this.last = last;
+    }
+
+    /** manifest of the directory whose current segment is {@code current} */
+    public static Path pathFor(Path current) {
+        return current.resolveSibling(current.getFileName() + SUFFIX);
+    }
+
+    /** opens or creates the manifest for appending; a torn last line is cut off */
+    public static SegmentManifest open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long end = completeLength(ch, ch.size());
+            if (end != ch.size()) {
+                ch.truncate(end);
+                ch.force(true);
+            }
+            ch.position(end);
+            byte[] line = lastLine(ch, end);
+            return new SegmentManifest(ch, line == null ? null : OM.readTree(line));
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e instanceof IOException ? (IOException) e : new IOException("Invalid segment manifest", e);
+        }
+    }
+
+    /** the last record when the manifest was opened; null for an empty manifest */
+    public JsonNode last() {
+        return last;
+    }
+
+    /** appends one signed record as a line and syncs it */
+    public void append(byte[] recordJson) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(recordJson.length + 1);
+        b.put(recordJson).put((byte) '\n').flip();
+        while (b.hasRemaining()) ch.write(b);
+        ch.force(false);
+    }
+
+    /** complete lines of a manifest, in order; a torn last line is left out */
+    public static List<String> readLines(Path path) throws IOException {
+        byte[] all = Files.readAllBytes(path);
+        int end = all.length;
+        while (end > 0 && all[end - 1] != '\n') end--;
+        return new String(all, 0, end, StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() throws IOException {
+        ch.close();
+    }
+
+    /** the line ending at {@code end}, without its newline; null if there is none */
+    private static byte[] lastLine(FileChannel ch, long end) throws IOException {
+        if (end == 0) return null;
+        long start = completeLength(ch, end - 1);
+        ByteBuffer line = ByteBuffer.allocate((int) (end - 1 - start));
+        readFully(ch, line, start);
+        return line.array();
+    }
+
+    /** length up to and including the last newline before {@code limit} */
+    private static long completeLength(FileChannel ch, long limit) throws IOException {
+        long pos = limit;
+        ByteBuffer b = ByteBuffer.allocate(TAIL_BLOCK);
+        while (pos > 0) {
+            int n = (int) Math.min(TAIL_BLOCK, pos);
+            b.clear().limit(n);
+            readFully(ch, b, pos - n);
+            for (int i = n - 1; i >= 0; i--) {
+                if (b.get(i) == '\n') return pos - n + i + 1;
+            }
+            pos -= n;
+        }
+        return 0;
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            int r = ch.read(buf, pos + buf.position());
+            if (r == -1) throw new IOException("Unexpected end of segment manifest");
+        }
+    }
+}
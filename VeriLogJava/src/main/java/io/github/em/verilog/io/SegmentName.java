@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * File name of a rotated segment that tells what it holds, so a reader can pick segments by seq or time from a
+ * directory listing without opening them:
+ * <pre>
+ * prefix-&lt;firstSeq&gt;-&lt;lastSeq&gt;[_&lt;minTs&gt;_&lt;maxTs&gt;][~n].vlog
+ * app-0000000000000000001-0000000000000004096_20260101T120000.000Z_20260101T125959.999Z.vlog
+ * </pre>
+ * Seqs are zero-padded to 19 digits, so names sort by first seq. Timestamps are UTC with millisecond
+ * precision, rounded outwards; they are left out when the writer does not know the segment's full time range.
+ * A segment without entries has {@code lastSeq = firstSeq - 1}. The {@code ~n} suffix only keeps names unique.
+ * <p>
+ * The name is a hint for finding files. It is not authenticated; the signed footer is.
+ */
+public final class SegmentName {
+
+    public static final String EXTENSION = ".vlog";
+
+    private static final DateTimeFormatter TS =
+            DateTimeFormatter.ofPattern("uuuuMMdd'T'HHmmss.SSS'Z'").withZone(ZoneOffset.UTC);
+    private static final Pattern NAME = Pattern.compile(
+            "(.+)-(\\d{19})-(\\d{19})(?:_(\\d{8}T\\d{6}\\.\\d{3}Z)_(\\d{8}T\\d{6}\\.\\d{3}Z))?(?:~\\d+)?\\.vlog");
+
+    public final String prefix;
+    public final long firstSeq;
+    public final long lastSeq;
+    /** null if the name carries no time range */
+    public final Instant minTs;
+    public final Instant maxTs;
+
+    private SegmentName(String prefix, long firstSeq, long lastSeq, Instant minTs, Instant maxTs) {
+        this.prefix = prefix;
+        this.firstSeq = firstSeq;
+        this.lastSeq = lastSeq;
+        this.minTs = minTs;
+        this.maxTs = maxTs;
+    }
+
+    /** @param minTs null if the time range is unknown */
+    public static String format(String prefix, long firstSeq, long lastSeq, Instant minTs, Instant maxTs) {
+        StringBuilder sb = new StringBuilder(prefix).append('-')
+                .append(String.format("%019d", firstSeq)).append('-')
+                .append(String.format("%019d", lastSeq));
+        if (minTs != null && maxTs != null) {
+            Instant hi = maxTs.truncatedTo(ChronoUnit.MILLIS);
+            if (hi.isBefore(maxTs)) hi = hi.plusMillis(1);
+            sb.append('_').append(TS.format(minTs.truncatedTo(ChronoUnit.MILLIS))).append('_').append(TS.format(hi));
+        }
+        return sb.append(EXTENSION).toString();
+    }
+
+    /** @return the parsed name, or null if {@code fileName} is not in this format (e.g. an older rotated name) */
+    public static SegmentName parse(String fileName) {
+        Matcher m = NAME.matcher(fileName);
+        if (!m.matches()) return null;
+        try {
+            Instant min = m.group(4) == null ? null : Instant.from(TS.parse(m.group(4)));
+            Instant max = m.group(5) == null ? null : Instant.from(TS.parse(m.group(5)));
+            return new SegmentName(m.group(1), Long.parseLong(m.group(2)), Long.parseLong(m.group(3)), min, max);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public boolean hasEntries() {
+        return lastSeq >= firstSeq;
+    }
+
+    public boolean hasTimeRange() {
+        return minTs != null;
+    }
+
+    public boolean containsSeq(long seq) {
+        return seq >= firstSeq && seq <= lastSeq;
+    }
+
+    /** @return {@code path}, or the first {@code ~n} variant of it that does not exist yet */
+    public static Path unique(Path path) {
+        if (!Files.exists(path)) return path;
+        String name = path.getFileName().toString();
+        String stem = name.substring(0, name.length() - EXTENSION.length());
+        for (int n = 1; ; n++) {
+            Path p = path.resolveSibling(stem + "~" + n + EXTENSION);
+            if (!Files.exists(p)) return p;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * One sequential pass over the frames of a segment that finds the end of the last complete frame, the next seq
+ * per frame type and the last log frame. Frame headers are read through a large buffer, so a segment costs one
+ * read per {@link #READ_BUFFER} bytes of small frames instead of two reads per frame.
+ * <p>
+ * Frames can also be authenticated: all of them (the short tail after a checkpoint) or the last {@code k} (after
+ * a full scan, to catch a write that was torn inside a length-valid frame). The first frame that fails ends the
+ * segment, and its seq is not counted, unless a {@link #resync} finds a sync frame after it: the scan then
+ * continues there and the bytes in between are counted as skipped.
+ */
+final class SegmentRecovery {
+
+    static final int READ_BUFFER = 1 << 20;
+    /** authenticate every frame */
+    static final int ALL = Integer.MAX_VALUE;
+
+
+    interface Authenticator {
+        /** @param payload type || seq || nonce || ct||tag, of the frame at {@code offset} */
+        boolean authentic(long offset, ByteBuffer payload);
+    }
+
+    interface Resync {
+        /** @return offset of the first authentic sync frame at or after {@code from}, or -1 */
+        long next(long from) throws IOException;
+    }
+
+    interface FrameVisitor {
+        void frame(long offset, int payloadLen, byte type, long seq) throws IOException;
+    }
+
+    private final FileChannel ch;
+    private final long size;
+    private final int headLen;   // length prefix, and the CRC with frame checksums
+    private final int frameHead; // head + type + seq
+    private final int minPayload;
+    private final int maxPayload;
+    private final long[] nextSeqByType;
+
+    private final ByteBuffer buf;
+    private long bufStart;
+    private ByteBuffer payload = ByteBuffer.allocate(4096).order(ByteOrder.BIG_ENDIAN);
+
+    /** end of the last accepted frame */
+    long end;
+    /** offsets of the first and last accepted log frame, -1 if none */
+    long firstLogFrame = -1;
+    long lastLogFrame = -1;
+    /** accepted frames, and log frames among them */
+    long frames;
+    long logFrames;
+    /** damaged regions skipped, and their bytes */
+    long skippedRegions;
+    long skippedBytes;
+    /** sees every accepted frame in file order, optional */
+    FrameVisitor visitor;
+    /**
+     * finds where to continue after a frame that fails, optional; only used while frames are authenticated,
+     * so that a damaged length prefix cannot make it skip frames that are intact
+     */
+    Resync resync;
+
+    /** @param headLen bytes in front of a payload, see {@link FrameChecksum#headLen} */
+    SegmentRecovery(FileChannel ch, long size, int headLen, int minPayload, int maxPayload, long[] nextSeqByType) {
+        this.ch = ch;
+        this.size = size;
+        this.headLen = headLen;
+        this.frameHead = headLen + 1 + 8;
+        this.minPayload = minPayload;
+        this.maxPayload = maxPayload;
+        this.nextSeqByType = nextSeqByType;
+        this.buf = ByteBuffer.allocate((int) Math.max(frameHead, Math.min(READ_BUFFER, size)))
+                .order(ByteOrder.BIG_ENDIAN);
+        this.buf.limit(0);
+    }
+
+    /**
+     * Scans from {@code from} to the end of the file.
+     *
+     * @param authenticateLast number of trailing frames to authenticate, {@link #ALL} or 0
+     */
+    void scan(long from, int authenticateLast, Authenticator auth) throws IOException {
+        int ringLen = authenticateLast == ALL ? 0 : authenticateLast;
+        long[] ringPos = new long[ringLen];
+        long[] ringSeq = new long[ringLen];
+        int[] ringPayload = new int[ringLen];
+        byte[] ringType = new byte[ringLen];
+        boolean canResync = resync != null && authenticateLast > 0;
+
+        long pos = from;
+        end = from;
+        while (true) {
+            int ringCount = 0;
+            int ringHead = 0; // oldest frame
+            boolean damaged = false;
+            while (window(pos)) {
+                int at = (int) (pos - bufStart);
+                int payloadLen = buf.getInt(at);
+                if (payloadLen < minPayload || payloadLen > maxPayload
+                        || pos + headLen + payloadLen > size) {
+                    damaged = true;
+                    break;
+                }
+                byte type = buf.get(at + headLen);
+                long seq = buf.getLong(at + headLen + 1);
+
+                if (authenticateLast == ALL) {
+                    if (!authenticate(pos, payloadLen, auth)) {
+                        damaged = true;
+                        break;
+                    }
+                    accept(pos, payloadLen, type, seq);
+                } else if (ringLen == 0) {
+                    accept(pos, payloadLen, type, seq);
+                } else {
+                    // frames leave the ring unchecked; the ones still in it at the end are authenticated below
+                    if (ringCount == ringLen) {
+                        accept(ringPos[ringHead], ringPayload[ringHead], ringType[ringHead], ringSeq[ringHead]);
+                        ringHead = (ringHead + 1) % ringLen;
+                        ringCount--;
+                    }
+                    int slot = (ringHead + ringCount++) % ringLen;
+                    ringPos[slot] = pos;
+                    ringPayload[slot] = payloadLen;
+                    ringType[slot] = type;
+                    ringSeq[slot] = seq;
+                }
+                pos += headLen + payloadLen;
+            }
+
+            for (int i = 0; i < ringCount; i++) {
+                int slot = (ringHead + i) % ringLen;
+                if (!authenticate(ringPos[slot], ringPayload[slot], auth)) break;
+                accept(ringPos[slot], ringPayload[slot], ringType[slot], ringSeq[slot]);
+            }
+
+            // a torn tail has no sync frame after it, so it still ends the segment
+            if (!damaged || !canResync) return;
+            long next = resync.next(pos + 1);
+            if (next < 0) return;
+            skippedRegions++;
+            skippedBytes += next - end;
+            pos = next;
+        }
+    }
+
+    private void accept(long framePos, int payloadLen, byte type, long seq) throws IOException {
+        if (visitor != null) visitor.frame(framePos, payloadLen, type, seq);
+        int t = type & 0xFF;
+        nextSeqByType[t] = Math.max(nextSeqByType[t], seq + 1);
+        frames++;
+        if (type == FramedLogFile.TYPE_LOG) {
+            if (firstLogFrame < 0) firstLogFrame = framePos;
+            lastLogFrame = framePos;
+            logFrames++;
+        }
+        end = framePos + headLen + payloadLen;
+    }
+
+    private boolean authenticate(long framePos, int payloadLen, Authenticator auth) throws IOException {
+        if (payload.capacity() < payloadLen) {
+            payload = ByteBuffer.allocate(Math.max(payloadLen, payload.capacity() * 2)).order(ByteOrder.BIG_ENDIAN);
+        }
+        payload.clear().limit(payloadLen);
+        readFully(payload, framePos + headLen);
+        payload.flip();
+        return auth.authentic(framePos, payload);
+    }
+
+    /** makes the frame head at {@code pos} available in {@link #buf}; false if the file ends before it */
+    private boolean window(long pos) throws IOException {
+        if (pos + frameHead > size) return false;
+        if (pos >= bufStart && pos + frameHead <= bufStart + buf.limit()) return true;
+        buf.clear();
+        buf.limit((int) Math.min(buf.capacity(), size - pos));
+        bufStart = pos;
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) <= 0) break;
+        }
+        buf.flip();
+        return buf.limit() >= frameHead;
+    }
+
+    private void readFully(ByteBuffer b, long pos) throws IOException {
+        while (b.hasRemaining()) {
+            if (ch.read(b, pos + b.position()) <= 0) throw new EOFException();
+        }
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+/**
+ * Checks segments for damage without the DEK: the fixed header, the length, type and seq of every frame, the
+ * {@link FrameChecksum} of segments written with one, and the trailer of a sealed segment against its frames.
+ * Each file is read front to back in {@link #READ_BUFFER} blocks; several files are scrubbed at once. Nothing is
+ * decrypted, so a clean scrub means the bytes are intact, not that they are authentic; {@code VeriLogReader}
+ * checks that. Segments without checksums only get the structural checks.
+ */
+public final class SegmentScrubber {
+
+    static final int READ_BUFFER = 8 << 20;
+
+    private static final int FIXED_HEADER_LEN = 8;
+    private static final int MIN_PAYLOAD_LEN = 1 + 8 + 16; // type + seq + tag
+    private static final int MAX_PAYLOAD_LEN = 64 * 1024 * 1024;
+
+    /** outcome for one file */
+    public static final class Result {
+        public final Path file;
+        public final boolean ok;
+        /** offset of the first damaged byte range (header or frame), -1 if ok */
+        public final long failedAt;
+        public final String reason;
+        /** frames before the footer */
+        public final long frames;
+        public final long bytes;
+        public final boolean checksums;
+        public final boolean sealed;
+        /** an unsealed segment ended in a partial frame, as a crash leaves it; recovery cuts it off */
+        public final boolean partialTail;
+
+        private Result(Path file, long failedAt, String reason, long frames, long bytes, boolean checksums,
+                       boolean sealed, boolean partialTail) {
+            this.file = file;
+            this.ok = reason == null;
+            this.failedAt = failedAt;
+            this.reason = reason;
+            this.frames = frames;
+            this.bytes = bytes;
+            this.checksums = checksums;
+            this.sealed = sealed;
+            this.partialTail = partialTail;
+        }
+    }
+
+    private final Path file;
+    private final FileChannel ch;
+    private final long size;
+    private ByteBuffer buf;
+    private long bufStart;
+    private long frames;
+    private boolean checksums;
+    private boolean sealed;
+
+    private SegmentScrubber(Path file, FileChannel ch) throws IOException {
+        this.file = file;
+        this.ch = ch;
+        this.size = ch.size();
+        this.buf = ByteBuffer.allocate((int) Math.max(FIXED_HEADER_LEN, Math.min(READ_BUFFER, size)))
+                .order(ByteOrder.BIG_ENDIAN);
+        this.buf.limit(0);
+    }
+
+    public static Result scrub(Path segment) throws IOException {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return new SegmentScrubber(segment, ch).run();
+        }
+    }
+
+    /**
+     * Scrubs {@code files} on up to {@code threads} threads. A file that cannot be read is reported as failed.
+     *
+     * @return one result per file, in the order given
+     */
+    public static List<Result> scrub(List<Path> files, int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())), r -> {
+            Thread t = new Thread(r, "verilog-scrub");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Result>> pending = new ArrayList<>();
+            for (Path f : files) pending.add(pool.submit(() -> scrubOrFail(f)));
+            List<Result> results = new ArrayList<>();
+            for (int i = 0; i < files.size(); i++) {
+                try {
+                    results.add(pending.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(failed(files.get(i), 0, "scrub failed: " + e.getCause()));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("interrupted", e);
+                }
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** {@code .vlog} files in {@code dir} and in its subdirectories (hour or day partitions) */
+    public static List<Path> segments(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (var stream = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) stream::iterator) {
+                if (Files.isDirectory(p)) {
+                    try (var inner = Files.list(p)) {
+                        inner.filter(SegmentScrubber::isSegment).forEach(files::add);
+                    }
+                } else if (isSegment(p)) {
+                    files.add(p);
+                }
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static boolean isSegment(Path p) {
+        return Files.isRegularFile(p) && p.getFileName().toString().endsWith(".vlog");
+    }
+
+    private static Result scrubOrFail(Path f) {
+        try {
+            return scrub(f);
+        } catch (IOException e) {
+            return failed(f, 0, "I/O error: " + e.getMessage());
+        }
+    }
+
+    private static Result failed(Path f, long at, String reason) {
+        return new Result(f, at, reason, 0, 0, false, false, false);
+    }
+
+    private Result fail(long at, String reason) {
+        return new Result(file, at, reason, frames, size, checksums, sealed, false);
+    }
+
+    private Result run() throws IOException {
+        if (!window(0, FIXED_HEADER_LEN)) return fail(0, "truncated header");
+        if (buf.get(0) != 'V' || buf.get(1) != 'L' || buf.get(2) != 'O' || buf.get(3) != 'G') {
+            return fail(0, "bad magic");
+        }
+        if (buf.get(4) != 1) return fail(0, "unsupported version " + buf.get(4));
+        checksums = (buf.get(5) & FrameChecksum.FLAG) != 0;
+        long pos = FIXED_HEADER_LEN + (buf.getShort(6) & 0xFFFF);
+        if (pos > size) return fail(0, "truncated header");
+
+        SegmentTrailer trailer = SegmentTrailer.read(ch);
+        sealed = trailer != null;
+        long end = sealed ? size - SegmentTrailer.LEN : size;
+        int headLen = FrameChecksum.headLen(checksums);
+        CRC32C crc = new CRC32C();
+        long firstSeq = 0;
+        long lastSeq = 0;
+        long maxSeq = 0;
+        boolean footer = false;
+
+        while (pos < end) {
+            if (footer) return fail(pos, "frame after the footer");
+            if (!window(pos, headLen + 1 + 8) || pos + headLen + 1 + 8 > end) return partial(pos);
+            int at = (int) (pos - bufStart);
+            int payloadLen = buf.getInt(at);
+            if (payloadLen < MIN_PAYLOAD_LEN || payloadLen > MAX_PAYLOAD_LEN) {
+                return fail(pos, "invalid payload length " + payloadLen);
+            }
+            if (pos + headLen + payloadLen > end) return partial(pos);
+            byte type = buf.get(at + headLen);
+            long seq = buf.getLong(at + headLen + 1);
+
+            if (type < FramedLogFile.TYPE_LOG || type > FramedLogFile.TYPE_MAX) {
+                return fail(pos, "unknown frame type " + type);
+            }
+            if (seq < maxSeq) return fail(pos, "seq " + seq + " after seq " + maxSeq);
+            maxSeq = seq;
+            if (type == FramedLogFile.TYPE_LOG) {
+                if (lastSeq != 0 && seq != lastSeq + 1) {
+                    return fail(pos, "entry seq not contiguous (expected " + (lastSeq + 1) + ")");
+                }
+                if (firstSeq == 0) firstSeq = seq;
+                lastSeq = seq;
+            }
+            if (type == FramedLogFile.TYPE_FOOTER) {
+                if (!sealed || pos != trailer.footerOffset) return fail(pos, "footer frame without trailer");
+                footer = true;
+            } else {
+                frames++;
+            }
+
+            if (checksums) {
+                if (!window(pos, headLen + payloadLen)) return partial(pos);
+                at = (int) (pos - bufStart);
+                if (FrameChecksum.compute(crc, buf.array(), at, payloadLen) != buf.getInt(at + 4)) {
+                    return fail(pos, "frame checksum mismatch");
+                }
+            }
+            pos += headLen + payloadLen;
+        }
+
+        if (sealed && (!footer || trailer.frames != frames || trailer.firstSeq != firstSeq
+                || trailer.lastSeq != lastSeq)) {
+            return fail(trailer.footerOffset, "trailer does not match frames");
+        }
+        return new Result(file, -1, null, frames, size, checksums, sealed, false);
+    }
+
+    private Result partial(long pos) {
+        // a sealed segment is complete, so only an open one may end in a torn frame
+        if (sealed) return fail(pos, "truncated frame");
+        return new Result(file, -1, null, frames, size, checksums, false, true);
+    }
+
+    /** makes {@code [pos, pos + n)} available in {@link #buf}; false if the file ends before it */
+    private boolean window(long pos, int n) throws IOException {
+        if (pos + n > size) return false;
+        if (pos >= bufStart && pos + n <= bufStart + buf.limit()) return true;
+        if (buf.capacity() < n) buf = ByteBuffer.allocate(n).order(ByteOrder.BIG_ENDIAN); // a frame above 8 MiB
+        buf.clear();
+        buf.limit((int) Math.min(buf.capacity(), size - pos));
+        bufStart = pos;
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) <= 0) break;
+        }
+        buf.flip();
+        return buf.limit() >= n;
+    }
+}
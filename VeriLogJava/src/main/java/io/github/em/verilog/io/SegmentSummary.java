@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import io.github.em.verilog.crypto.HashAlgorithm;
+
+import java.time.Instant;
+
+/**
+ * Running totals of a segment that end up in its footer: frame count, first and last entry with their chain
+ * links, and the range of entry timestamps. {@link FramedLogFile} counts frames, the writer reports entries.
+ * The totals are kept in the checkpoint, so a reopened segment continues them.
+ * <p>
+ * The timestamp range is only known if every entry was seen. A segment recovered without a checkpoint has
+ * no range, see {@link #hasTimeRange()}.
+ */
+public final class SegmentSummary {
+
+    private static final byte[] GENESIS = new byte[HashAlgorithm.DIGEST_LEN];
+
+    long frames;
+    long firstSeq;          // 0 until the first entry
+    byte[] firstPrevHash;
+    long lastSeq;
+    byte[] lastEntryHash;
+    Instant minTs;          // null if no entry yet or the range is unknown
+    Instant maxTs;
+    boolean timeRangeLost;
+
+    /**
+     * Records an entry appended to the segment.
+     *
+     * @param prevHash the entry's prevHash; only kept for the first entry, null means the genesis hash
+     */
+    public void entry(long seq, byte[] prevHash, byte[] entryHash, Instant ts) {
+        if (firstSeq == 0) {
+            firstSeq = seq;
+            firstPrevHash = prevHash == null ? GENESIS.clone() : prevHash.clone();
+        }
+        lastSeq = seq;
+        lastEntryHash = entryHash.clone();
+        if (timeRangeLost) return;
+        if (ts == null) {
+            loseTimeRange();
+            return;
+        }
+        if (minTs == null || ts.isBefore(minTs)) minTs = ts;
+        if (maxTs == null || ts.isAfter(maxTs)) maxTs = ts;
+    }
+
+    /** frames in the segment, not counting a footer */
+    public long frames() {
+        return frames;
+    }
+
+    public boolean hasEntries() {
+        return firstSeq != 0;
+    }
+
+    public long firstSeq() {
+        return firstSeq;
+    }
+
+    public long lastSeq() {
+        return lastSeq;
+    }
+
+    /** prevHash of the first entry, i.e. the chain head the segment starts from; null without entries */
+    public byte[] firstPrevHash() {
+        return firstPrevHash == null ? null : firstPrevHash.clone();
+    }
+
+    public byte[] lastEntryHash() {
+        return lastEntryHash == null ? null : lastEntryHash.clone();
+    }
+
+    /** true if {@link #minTs()} and {@link #maxTs()} cover every entry of the segment */
+    public boolean hasTimeRange() {
+        return minTs != null;
+    }
+
+    public Instant minTs() {
+        return minTs;
+    }
+
+    public Instant maxTs() {
+        return maxTs;
+    }
+
+    void loseTimeRange() {
+        timeRangeLost = true;
+        minTs = null;
+        maxTs = null;
+    }
+}
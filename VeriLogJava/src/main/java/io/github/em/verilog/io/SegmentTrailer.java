@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Fixed-size pointer at the end of a sealed segment: offset of the footer frame, frame count and seq range.
+ * <pre>
+ * magic "VLFT" | version u8 | 3 reserved | footerOffset u64 | frames u64 | firstSeq u64 | lastSeq u64
+ * </pre>
+ * The trailer is not encrypted; it repeats what frame headers already show in the clear. It is not authenticated
+ * either. The signed footer frame it points to carries the same values, and {@code VeriLogReader} checks that
+ * they agree.
+ */
+public final class SegmentTrailer {
+
+    public static final int LEN = 4 + 1 + 3 + 8 + 8 + 8 + 8;
+
+    private static final byte[] MAGIC = {'V', 'L', 'F', 'T'};
+    private static final byte VERSION = 1;
+    private static final int LEN_PREFIX_BYTES = 4;
+    private static final int FLAGS_OFFSET = 5; // in the segment's fixed header
+
+    /** file offset of the footer frame (its length prefix) */
+    public final long footerOffset;
+    /** frames before the footer */
+    public final long frames;
+    /** first and last entry seq, 0 if the segment has no entries */
+    public final long firstSeq;
+    public final long lastSeq;
+
+    SegmentTrailer(long footerOffset, long frames, long firstSeq, long lastSeq) {
+        this.footerOffset = footerOffset;
+        this.frames = frames;
+        this.firstSeq = firstSeq;
+        this.lastSeq = lastSeq;
+    }
+
+    /** @return the trailer of a sealed segment, or null if {@code segment} is not sealed */
+    public static SegmentTrailer read(Path segment) throws IOException {
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            return read(ch);
+        }
+    }
+
+    /**
+     * A trailer only counts if its footer offset leads to a footer frame that ends exactly where the trailer
+     * starts, so the tail of an unsealed segment is not mistaken for one.
+     */
+    public static SegmentTrailer read(FileChannel ch) throws IOException {
+        long size = ch.size();
+        if (size < LEN + LEN_PREFIX_BYTES + 1) return null;
+        ByteBuffer b = ByteBuffer.allocate(LEN).order(ByteOrder.BIG_ENDIAN);
+        if (!readFully(ch, b, size - LEN)) return null;
+        byte[] a = b.array();
+        if (!Arrays.equals(a, 0, 4, MAGIC, 0, 4) || a[4] != VERSION) return null;
+
+        ByteBuffer flags = ByteBuffer.allocate(1);
+        if (!readFully(ch, flags, FLAGS_OFFSET)) return null;
+        int headLen = FrameChecksum.headLen((flags.get(0) & FrameChecksum.FLAG) != 0);
+
+        long footerOffset = b.getLong(8);
+        long footerEnd = size - LEN;
+        if (footerOffset < 0 || footerOffset > footerEnd - headLen - 1) return null;
+        ByteBuffer head = ByteBuffer.allocate(headLen + 1).order(ByteOrder.BIG_ENDIAN);
+        if (!readFully(ch, head, footerOffset)) return null;
+        if (head.getInt(0) != footerEnd - footerOffset - headLen) return null;
+        if (head.get(headLen) != FramedLogFile.TYPE_FOOTER) return null;
+
+        return new SegmentTrailer(footerOffset, b.getLong(16), b.getLong(24), b.getLong(32));
+    }
+
+    void writeTo(ByteBuffer out) {
+        out.put(MAGIC).put(VERSION).put(new byte[3])
+                .putLong(footerOffset).putLong(frames).putLong(firstSeq).putLong(lastSeq);
+    }
+
+    private static boolean readFully(FileChannel ch, ByteBuffer buf, long pos) throws IOException {
+        while (buf.hasRemaining()) {
+            if (ch.read(buf, pos + buf.position()) <= 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.io;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.macs.HMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Sync frames ({@link FramedLogFile#TYPE_SYNC}) mark frame boundaries, so a segment can be entered in the middle:
+ * recovery skips a damaged region up to the next one, and a reader splits a segment at them to verify its parts
+ * in parallel. A sync frame is not encrypted; its payload is
+ * <pre>type || seq || marker(16) || offset(8) || tag(16)</pre>
+ * with the seq of the entry before it and its own offset. The marker is the same for every sync frame of a segment
+ * and is what {@link #find} looks for; marker and tag are HMACs under a key derived from the DEK and bound to the
+ * header hash, so sync frames cannot be forged or moved.
+ * <p>
+ * Not thread-safe.
+ */
+public final class SyncMarker {
+
+    public static final int PAYLOAD_LEN = 1 + 8 + 16 + 8 + 16;
+
+    private static final byte[] KEY_LABEL = "VeriLog sync marker v1".getBytes(StandardCharsets.US_ASCII);
+    private static final int MARKER_LEN = 16;
+    private static final int TAG_LEN = 16;
+    private static final int TAGGED_LEN = PAYLOAD_LEN - TAG_LEN; // type .. offset
+    private static final int SCAN_BUFFER = 1 << 20;
+
+    private final HMac mac;
+    private final byte[] headerHash;
+    private final byte[] marker;
+    private final int headLen; // length prefix, and the CRC in a segment with frame checksums
+    private final byte[] out = new byte[32];
+
+    private SyncMarker(HMac mac, byte[] headerHash, int headLen) {
+        this.mac = mac;
+        this.headerHash = headerHash.clone();
+        this.headLen = headLen;
+        mac.update((byte) 'M');
+        mac.update(headerHash, 0, headerHash.length);
+        mac.doFinal(out, 0);
+        this.marker = Arrays.copyOf(out, MARKER_LEN);
+    }
+
+    public static SyncMarker forSegment(byte[] dek32, byte[] headerHash) {
+        return forSegment(dek32, headerHash, false);
+    }
+
+    /** @param frameChecksums whether the segment's frames carry a {@link FrameChecksum} */
+    public static SyncMarker forSegment(byte[] dek32, byte[] headerHash, boolean frameChecksums) {
+        HMac kdf = new HMac(new SHA256Digest());
+        kdf.init(new KeyParameter(dek32));
+        kdf.update(KEY_LABEL, 0, KEY_LABEL.length);
+        byte[] key = new byte[32];
+        kdf.doFinal(key, 0);
+        HMac mac = new HMac(new SHA256Digest());
+        mac.init(new KeyParameter(key));
+        Arrays.fill(key, (byte) 0);
+        return new SyncMarker(mac, headerHash, FrameChecksum.headLen(frameChecksums));
+    }
+
+    /** appends the payload of a sync frame at position {@code offset} */
+    void writePayload(ByteBuffer frame, long seq, long offset) {
+        int start = frame.position();
+        frame.put(FramedLogFile.TYPE_SYNC).putLong(seq).put(marker).putLong(offset);
+        tag(frame.array(), frame.arrayOffset() + start);
+        frame.put(out, 0, TAG_LEN);
+    }
+
+    /**
+     * @param payload a frame payload from its position on (type first)
+     * @param offset  where the frame starts
+     * @return true if it is a sync frame of this segment written at {@code offset}
+     */
+    public boolean authentic(ByteBuffer payload, long offset) {
+        if (payload.remaining() != PAYLOAD_LEN) return false;
+        byte[] p = new byte[PAYLOAD_LEN];
+        payload.duplicate().get(p);
+        return authentic(p, 0, offset);
+    }
+
+    /**
+     * First sync frame of this segment starting in {@code [from, to)} and ending by {@code to}; the bytes in
+     * between are not interpreted, so this works from any position, including inside a damaged region.
+     *
+     * @return its offset, or -1 if there is none
+     */
+    public long find(FileChannel ch, long from, long to) throws IOException {
+        int frameLen = headLen + PAYLOAD_LEN;
+        if (to - from < frameLen) return -1;
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(SCAN_BUFFER, to - from)).order(ByteOrder.BIG_ENDIAN);
+        byte[] a = buf.array();
+        long start = from;
+        while (start + frameLen <= to) {
+            buf.clear().limit((int) Math.min(buf.capacity(), to - start));
+            while (buf.hasRemaining()) {
+                if (ch.read(buf, start + buf.position()) <= 0) break;
+            }
+            int n = buf.position();
+            if (n < frameLen) return -1;
+            for (int i = 0; i + frameLen <= n; i++) {
+                // cheap byte test first: ciphertext rarely matches the marker's first byte and type
+                if (a[i + headLen + 1 + 8] == marker[0] && a[i + headLen] == FramedLogFile.TYPE_SYNC
+                        && buf.getInt(i) == PAYLOAD_LEN && authentic(a, i + headLen, start + i)) {
+                    return start + i;
+                }
+            }
+            start += n - frameLen + 1;
+        }
+        return -1;
+    }
+
+    private boolean authentic(byte[] p, int off, long offset) {
+        if (p[off] != FramedLogFile.TYPE_SYNC) return false;
+        if (!Arrays.equals(p, off + 9, off + 9 + MARKER_LEN, marker, 0, MARKER_LEN)) return false;
+        if (ByteBuffer.wrap(p, off + 9 + MARKER_LEN, 8).getLong() != offset) return false;
+        tag(p, off);
+        return MessageDigest.isEqual(Arrays.copyOf(out, TAG_LEN),
+                Arrays.copyOfRange(p, off + TAGGED_LEN, off + PAYLOAD_LEN));
+    }
+
+    /** HMAC(headerHash || type .. offset) into {@link #out} */
+    private void tag(byte[] p, int off) {
+        mac.update(headerHash, 0, headerHash.length);
+        mac.update(p, off, TAGGED_LEN);
+        mac.doFinal(out, 0);
+    }
+}
@@ -9,14 +9,63 @@
  */
 package io.github.em.verilog.logger;
 
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When the writer flushes: once {@code flushEveryN} frames are unflushed, once the oldest of them is
+ * {@code flushEveryMs} old, and with {@code flushOnIdle} as soon as the queue is empty. The age is a deadline, not
+ * a tick: the writer waits for the next event at most until the oldest unflushed frame is due, and checks it again
+ * after every event, so a busy queue does not delay it either. With an async signer, entries still waiting for
+ * their signatures are unflushed too, and age from when they were accepted.
+ */
 final class FlushPolicy {
+    /** longest wait for an event with nothing unflushed, so close and rotation by age are noticed */
+    static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
     final int flushEveryN;
     final long flushEveryMs;
     final boolean fsyncOnFlush;
+    final boolean flushOnIdle;
+    private final long maxAgeNanos;
 
     FlushPolicy(int flushEveryN, long flushEveryMs, boolean fsyncOnFlush) {
+        this(flushEveryN, flushEveryMs, fsyncOnFlush, false);
+    }
+
+    FlushPolicy(int flushEveryN, long flushEveryMs, boolean fsyncOnFlush, boolean flushOnIdle) {
         this.flushEveryN = flushEveryN;
         this.flushEveryMs = flushEveryMs;
         this.fsyncOnFlush = fsyncOnFlush;
+        this.flushOnIdle = flushOnIdle;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(flushEveryMs);
+    }
+
+    /**
+     * @param unflushed   frames appended since the last flush
+     * @param oldestNanos {@link System#nanoTime()} when the first of them was appended
+     * @param idle        whether the queue is empty
+     */
+    boolean shouldFlush(int unflushed, long oldestNanos, long nowNanos, boolean idle) {
+        return shouldFlush(unflushed, 0, oldestNanos, nowNanos, idle);
+    }
+
+    /**
+     * @param appended frames appended since the last flush
+     * @param pending  entries accepted but not appended yet, waiting for their signatures
+     */
+    boolean shouldFlush(int appended, int pending, long oldestNanos, long nowNanos, boolean idle) {
+        if (appended + pending == 0) return false;
+        return appended >= flushEveryN || dueByAge(oldestNanos, nowNanos, idle);
+    }
+
+    /** due whatever the count: the oldest frame reached the age limit, or the queue went idle */
+    boolean dueByAge(long oldestNanos, long nowNanos, boolean idle) {
+        return nowNanos - oldestNanos >= maxAgeNanos || (flushOnIdle && idle);
+    }
+
+    /** how long the writer may wait for the next event without missing a deadline */
+    long waitNanos(int unflushed, long oldestNanos, long nowNanos) {
+        if (unflushed == 0) return IDLE_WAIT_NANOS;
+        return Math.max(0, Math.min(IDLE_WAIT_NANOS, oldestNanos + maxAgeNanos - nowNanos));
     }
-}
\ No newline at end of file
+}
@@ -9,21 +9,52 @@
  */
 package io.github.em.verilog.logger;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.audit.ChainRestartRecord;
+import io.github.em.verilog.audit.ControlRecords;
 import io.github.em.verilog.audit.HashChainState;
+import io.github.em.verilog.audit.MacChainKey;
+import io.github.em.verilog.audit.MacChainRecords;
+import io.github.em.verilog.audit.SegmentFooterRecord;
+import io.github.em.verilog.audit.SegmentKeyCertificate;
+import io.github.em.verilog.audit.SegmentManifestRecord;
+import io.github.em.verilog.audit.SegmentPruneRecord;
 import io.github.em.verilog.audit.SignedEntryFactory;
+import io.github.em.verilog.crypto.X25519KeySeal;
 import io.github.em.verilog.errors.VeriLogCryptoException;
 import io.github.em.verilog.errors.VeriLogIoException;
 import io.github.em.verilog.io.FramedLogFile;
-
+import io.github.em.verilog.io.SegmentIndex;
+import io.github.em.verilog.io.SegmentManifest;
+import io.github.em.verilog.io.SegmentName;
+import io.github.em.verilog.io.SegmentSummary;
+import io.github.em.verilog.provider.CryptoSelection;
+import io.github.em.verilog.sign.Ed25519LogSigner;
+import io.github.em.verilog.sign.LogSigner;
+import io.github.em.verilog.sign.SignatureAlgorithm;
+
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 final class LogWriter implements Runnable {
 
@@ -40,12 +71,42 @@ final class LogWriter implements Runnable {
     // writer-owned state
     private FramedLogFile file;
     private long bytesWrittenCurrent;
-    private long lastFlushMs;
+    private long entriesCurrent;
+    private long openedCurrentMs;
     private int sinceFlush;
-
-    private final SignedEntryFactory signedFactory = new SignedEntryFactory();
+    /**
+     * {@link System#nanoTime()} when the oldest entry not yet flushed was accepted: appended, or handed to the
+     * signing pipeline; valid while {@link #ageClock} runs
+     */
+    private long unflushedSinceNanos;
+    private boolean ageClock;
+    /** hash of the last entry appended, in any segment; the prevHash of the next one (null: genesis) */
+    private byte[] lastEntryHash;
+
+    private final SignedEntryFactory signedFactory;
     private final HashChainState chain = HashChainState.fresh();
+    /** null when entries are signed synchronously */
+    private final SigningPipeline pipeline;
+    /** current segment's certified key when {@link VeriLoggerConfig#isSegmentSigningKeys()} */
+    private Ed25519LogSigner segmentSigner;
+    /** current segment's evolving MAC key when {@link VeriLoggerConfig#getMacChainSealKey()} is set */
+    private MacChainKey macKey;
+    private int sinceCheckpoint;
+    private boolean restartPending; // the chain starts over with the next entry, see recordChainRestart
+    private SecureRandom keyRandom;
     private final CountDownLatch terminated;
+    private final SegmentRotator rotator;
+    /** null without archive or retention limits */
+    private final RetentionManager retention;
+    /** null unless {@link VeriLoggerConfig#isSegmentManifest()}; appended to on the rotator thread */
+    private SegmentManifest manifest;
+    /** number and hash of the last manifest record built, on the writer thread */
+    private long manifestN;
+    private byte[] manifestHead;
+    /** segments retention wants gone, by manifest path; recorded in the manifest on the next rotation */
+    private final Map<Path, String> pruneDue = new ConcurrentHashMap<>();
+    /** those and the ones whose record is being appended; retention passes skip them */
+    private final Set<Path> pruning = ConcurrentHashMap.newKeySet();
 
     private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
 
@@ -63,26 +124,60 @@ final class LogWriter implements Runnable {
         this.closed = closed;
         this.faulted = faulted;
 
-        this.flushPolicy = new FlushPolicy(cfg.getFlushEveryN(), cfg.getFlushEveryMs(), cfg.isFsyncOnFlush());
-        this.rotationPolicy = new RotationPolicy(cfg.getRotateBytes(), cfg.getFilePrefix());
+        this.flushPolicy = new FlushPolicy(cfg.getFlushEveryN(), cfg.getFlushEveryMs(), cfg.isFsyncOnFlush(),
+                cfg.isFlushOnIdle());
+        this.rotationPolicy = new RotationPolicy(cfg.getRotateBytes(), cfg.getRotateEntries(), cfg.getRotateEveryMs(),
+                cfg.getFilePrefix(), cfg.getSegmentPartition());
         this.terminated = terminated;
+        this.signedFactory = new SignedEntryFactory(cfg.getCrypto());
+        // the signer is configured on its own; the selection only hashes entries and encrypts segments here
+        metrics.cryptoProviders(cfg.getCrypto().describe(CryptoSelection.Primitive.SHA256,
+                CryptoSelection.Primitive.AES_GCM));
+        // with segment keys the long-term (possibly remote) key only signs certificates
+        this.pipeline = cfg.getAsyncSigner() == null || cfg.isSegmentSigningKeys() || cfg.getMacChainSealKey() != null
+                ? null : new SigningPipeline(
+                cfg.getAsyncSigner(), signedFactory, chain,
+                cfg.getSignBatchSize(), cfg.getMaxSignBatchesInFlight(), this::appendSigned);
 
         try {
             Path current = currentPath();
             Files.createDirectories(cfg.getLogDir());
-
-            if (cfg.isRotateOnStartup() && Files.exists(current) && Files.size(current) > 0) {
-                rotateExistingOnStartup(current);
+            if (cfg.isSegmentManifest()) openManifest(SegmentManifest.pathFor(current));
+
+            FramedLogFile.ChainHead previous = null;
+            FramedLogFile leftover = null;
+            if (Files.exists(current) && Files.size(current) > 0) {
+                if (!cfg.isRotateOnStartup()) leftover = openFile(current);
+                if (leftover == null || leftover.sealOnly()) {
+                    previous = rotateExistingOnStartup(current, leftover);
+                    leftover = null;
+                }
             }
+            if (previous == null && (leftover == null || leftover.chainHead() == null)) previous = lastSegmentHead();
 
 // Create file with 0600 only if it doesn't exist yet (POSIX only)
             ensureFileExistsWith0600IfPossible(current);
-            this.file = FramedLogFile.openOrCreate(current, cfg.getEncryptionKey(), cfg.getAadPrefix());
+            this.file = leftover != null ? prepareSegment(leftover, previous) : openSegment(current, previous);
+            metrics.recovery(file.recoveryNanos(), file.recoveryBytes(), file.recoverySkippedBytes());
             this.bytesWrittenCurrent = Files.exists(current) ? Files.size(current) : 0;
-            this.lastFlushMs = System.currentTimeMillis();
+            this.openedCurrentMs = System.currentTimeMillis();
+            SegmentSummary reopened = file.summary();
+            this.entriesCurrent = reopened.hasEntries() ? reopened.lastSeq() - reopened.firstSeq() + 1 : 0;
         } catch (IOException e) {
+            closeManifestQuietly();
             throw new VeriLogIoException("io.create_failed", e.getCause());
+        } catch (VeriLogIoException e) {
+            closeManifestQuietly();
+            throw e;
         }
+        this.rotator = new SegmentRotator(currentPath(), this::openFile, manifest);
+        this.retention = RetentionManager.of(cfg);
+        if (retention != null) {
+            retention.inUse = p -> rotator.isRetiring(p) || pruning.contains(p);
+            if (manifest != null) retention.pruner = this::deferPrune;
+            rotator.afterSeals(this::applyRetention);
+        }
+        rotator.prepareNext();
     }
 
     @Override
@@ -111,7 +206,8 @@ final class LogWriter implements Runnable {
 
     private LogEvent pollEvent() {
         try {
-            return queue.poll(50, TimeUnit.MILLISECONDS);
+            return queue.poll(flushPolicy.waitNanos(sinceFlush + pendingSignatures(), unflushedSinceNanos,
+                    System.nanoTime()), TimeUnit.NANOSECONDS);
         } catch (InterruptedException ignored) {
             Thread.currentThread().interrupt();
             return LogEvent.POISON;
@@ -119,12 +215,18 @@ final class LogWriter implements Runnable {
     }
 
     private void afterTick() throws IOException, VeriLogIoException {
+        if (pipeline != null) {
+            // only cut a partial batch when idle, otherwise a busy queue would degrade to batches of one
+            if (queue.isEmpty()) pipeline.submit();
+            pipeline.commitCompleted();
+        }
         maybeFlush();
         if (shouldRotate()) rotate();
     }
 
     private boolean shouldRotate() {
-        return bytesWrittenCurrent >= rotationPolicy.rotateBytes;
+        return rotationPolicy.shouldRotate(bytesWrittenCurrent, entriesCurrent, openedCurrentMs,
+                System.currentTimeMillis());
     }
 
     private boolean shouldTerminate() {
@@ -140,7 +242,10 @@ final class LogWriter implements Runnable {
     }
 
     private void flushFinal() throws IOException {
-        file.flush(true);
+        if (pipeline != null) pipeline.drain();
+        checkpointBeforeClose(file);
+        flushAndCheckpoint(true);
+        rotator.awaitIdle();
     }
 
     private void onFault(Throwable t) {
@@ -158,8 +263,10 @@ final class LogWriter implements Runnable {
 
     private void closeAndSignalTermination() {
         FramedLogFile f = this.file; // snapshot to avoid race
+        if (macKey != null) macKey.destroy();
 
         try {
+            rotator.shutdown();
             if (f != null) {
                 f.close();
             }
@@ -171,6 +278,7 @@ final class LogWriter implements Runnable {
     }
 
     void flushAndCloseBestEffort() {
+        rotator.shutdown();
         FramedLogFile f = this.file; // snapshot to avoid race
         if (f == null) return;
         try {
@@ -191,25 +299,29 @@ final class LogWriter implements Runnable {
         if (f == null) throw new IOException("Log file is not open");
 
         try {
-            byte[] signedEntryJson = signedFactory.buildSignedEntryJsonUtf8(
-                    chain,
-                    cfg.getSigner(),
-                    cfg.getActor(),
-                    ev.level.name(),
-                    Map.of(
-                            "msg", ev.message,
-                            "fields", ev.fields
-                    ),
-                    ev.ts
+            Map<String, Object> event = Map.of(
+                    "msg", ev.message,
+                    "fields", ev.fields
             );
 
-            long seqForFrame = chain.nextSeq() - 1; // just allocated it
-            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, seqForFrame, signedEntryJson);
+            if (pipeline != null) {
+                startAgeClock();
+                pipeline.add(cfg.getActor(), ev.level.name(), event, ev.ts);
+                return;
+            }
+
+            if (macKey != null) {
+                SignedEntryFactory.PreparedEntry p = signedFactory.prepare(chain, issuerKeyId(),
+                        SignatureAlgorithm.HMAC_SHA256_CHAIN, cfg.getActor(), ev.level.name(), event, ev.ts);
+                appendSigned(f, p, signedFactory.complete(p, macKey.macAndEvolve(p.entryHash)));
+                if (++sinceCheckpoint >= cfg.getMacCheckpointEvery()) writeMacCheckpoint(f);
+                return;
+            }
 
-            metrics.incWritten();
-            // Writer-thread confined state (only accessed from LogWriter.run())
-            bytesWrittenCurrent += estimateFrameBytes(signedEntryJson.length);
-            sinceFlush++;
+            LogSigner signer = entrySigner();
+            SignedEntryFactory.PreparedEntry p = signedFactory.prepare(chain, signer.keyId(), signer.algorithm(),
+                    cfg.getActor(), ev.level.name(), event, ev.ts);
+            appendSigned(f, p, signedFactory.complete(p, signer.signEntryHash(p.entryHash)));
 
         } catch (IOException ioe) {
             faulted.set(true);
@@ -224,6 +336,26 @@ final class LogWriter implements Runnable {
         }
     }
 
+    private void appendSigned(SignedEntryFactory.PreparedEntry entry, byte[] signedEntryJson) throws IOException {
+        final FramedLogFile f = this.file;
+        if (f == null) throw new IOException("Log file is not open");
+        appendSigned(f, entry, signedEntryJson);
+    }
+
+    private void appendSigned(FramedLogFile f, SignedEntryFactory.PreparedEntry entry, byte[] signedEntryJson)
+            throws IOException {
+        if (restartPending) recordChainRestart(f);
+        f.appendEncryptedJson(FramedLogFile.TYPE_LOG, entry.seq, signedEntryJson);
+        f.summary().entry(entry.seq, lastEntryHash, entry.entryHash, entry.ts);
+        lastEntryHash = entry.entryHash;
+        entriesCurrent++;
+
+        metrics.incWritten();
+        // Writer-thread confined state (only accessed from LogWriter.run())
+        bytesWrittenCurrent += estimateFrameBytes(f, signedEntryJson.length);
+        unflushed();
+    }
+
     private static void bestEffortFlush(FramedLogFile f) {
         try {
             f.flush(true);
@@ -232,41 +364,329 @@ final class LogWriter implements Runnable {
         }
     }
 
+    private void unflushed() {
+        sinceFlush++;
+        startAgeClock();
+    }
+
+    private void startAgeClock() {
+        if (ageClock) return;
+        unflushedSinceNanos = System.nanoTime();
+        ageClock = true;
+    }
+
+    /** entries accepted but still waiting for their signatures */
+    private int pendingSignatures() {
+        return pipeline == null ? 0 : pipeline.pendingEntries();
+    }
+
     private void maybeFlush() throws IOException {
-        long now = System.currentTimeMillis();
-        if (sinceFlush >= flushPolicy.flushEveryN || (now - lastFlushMs) >= flushPolicy.flushEveryMs) {
-            file.flush(flushPolicy.fsyncOnFlush);
-            sinceFlush = 0;
-            lastFlushMs = now;
-        }
+        long now = System.nanoTime();
+        boolean idle = queue.isEmpty();
+        int pending = pendingSignatures();
+        if (!flushPolicy.shouldFlush(sinceFlush, pending, unflushedSinceNanos, now, idle)) return;
+        // a deadline covers entries still waiting for signatures too, so it waits for them
+        if (pending > 0 && flushPolicy.dueByAge(unflushedSinceNanos, now, idle)) pipeline.drain();
+        if (sinceFlush == 0) return;
+        flushAndCheckpoint(flushPolicy.fsyncOnFlush);
+        metrics.flush(now - unflushedSinceNanos);
+        flushed();
     }
 
+    /** the age clock goes on from the oldest entry still waiting for its signature, if any */
+    private void flushed() {
+        sinceFlush = 0;
+        if (pendingSignatures() > 0) unflushedSinceNanos = pipeline.oldestPendingNanos();
+        else ageClock = false;
+    }
+
+    /** the checkpoint follows the data, so a restart never trusts frames that were not flushed */
+    private void flushAndCheckpoint(boolean fsync) throws IOException {
+        file.flush(fsync);
+        file.checkpoint(fsync);
+    }
+
+    /**
+     * Switches to the segment the {@link SegmentRotator} prepared and hands the old one over for sealing, so the
+     * writer does not wait for a file create, a header sync or the final sync of the old segment.
+     */
     protected void rotate() throws VeriLogIoException {
+        long start = System.nanoTime();
         try {
-            file.flush(true);
-            file.close();
-
+            rotator.checkFailure();
+            // frames still waiting for signatures belong to the segment being closed
+            if (pipeline != null) pipeline.drain();
+            checkpointBeforeClose(file);
+
+            FramedLogFile old = file;
+            ObjectNode footerRec = footerRecord(old);
+            Callable<byte[]> footer = signedLater(footerRec);
             Path current = currentPath();
-            Path rotated = rotationPolicy.rotatedPath(cfg.getLogDir());
+            Path rotated = rotationPolicy.rotatedPath(cfg.getLogDir(), old.summary(), chain.nextSeq());
+            Callable<byte[]> listing = manifest == null ? null : listed(manifestRecord(old, rotated, footerRec));
 
-            moveAtomicOrReplace(current, rotated);
+            rotator.retire(old, current, rotated, chain.nextSeq() - 1, footer, listing);
 
-            this.file = FramedLogFile.openOrCreate(current, cfg.getEncryptionKey(), cfg.getAadPrefix());
+            flushed(); // sealing the old segment flushes them
+            FramedLogFile next = rotator.takePrepared(current);
+            if (next == null) {
+                ensureFileExistsWith0600IfPossible(current);
+                next = openFile(current);
+            }
+            // the passes submitted before the prepared segment have run, so this records all they selected
+            if (manifest != null) recordPrunes();
+            if (retention != null) rotator.afterSeals(this::applyRetention);
+            this.file = prepareSegment(next, null);
+            rotator.prepareNext();
             this.bytesWrittenCurrent = Files.size(current);
-            this.sinceFlush = 0;
-            this.lastFlushMs = System.currentTimeMillis();
+            this.entriesCurrent = 0;
+            this.openedCurrentMs = System.currentTimeMillis();
 
         } catch (IOException e) {
             throw new VeriLogIoException("io.rotate_failed", e, currentPath().toString());
         }
+        metrics.rotation(System.nanoTime() - start);
     }
 
-    private void rotateExistingOnStartup(Path current) throws IOException {
-        Path rotated = rotationPolicy.rotatedPath(cfg.getLogDir());
-        moveAtomicOrReplace(current, rotated);
+    private ObjectNode footerRecord(FramedLogFile f) throws IOException {
+        return SegmentFooterRecord.unsigned(f.headerHash(), f.summary(), f.length(), f.indexRecords(),
+                issuerAlgorithm(), issuerKeyId());
+    }
+
+    /**
+     * Footers and manifest records are signed by the long-term key, like the other control records. A local
+     * signer signs here, since signers are not required to be thread-safe; an async signer is waited for on the
+     * helper thread.
+     */
+    private Callable<byte[]> signedLater(ObjectNode rec) throws IOException {
+        byte[] hash;
+        byte[] sig;
+        try {
+            hash = ControlRecords.hash(rec);
+            sig = cfg.getSigner() != null ? cfg.getSigner().signEntryHash(hash) : null;
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("Failed to sign " + rec.path("kind").asText(), e);
+        }
+        return () -> ControlRecords.toJsonUtf8(rec, sig != null ? sig : signWithLongTermKey(hash));
+    }
+
+    /** @return the signed record, or null if the signer failed */
+    private byte[] signedOrNull(ObjectNode rec) throws IOException {
+        try {
+            return signedLater(rec).call();
+        } catch (VeriLogCryptoException e) {
+            return null;
+        } catch (IOException e) {
+            if (e.getCause() instanceof VeriLogCryptoException) return null;
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to sign " + rec.path("kind").asText(), e);
+        }
     }
 
-    private static void ensureFileExistsWith0600IfPossible(Path file) throws IOException {
+    /** resumes the record chain after the last complete record */
+    private void openManifest(Path path) throws IOException {
+        ensureFileExistsWith0600IfPossible(path);
+        manifest = SegmentManifest.open(path);
+        JsonNode last = manifest.last();
+        try {
+            manifestN = last == null ? 0 : last.path("n").asLong();
+            manifestHead = last == null ? new byte[CryptoUtil.SHA256_LEN] : ControlRecords.hash(last);
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("Invalid segment manifest", e);
+        }
+    }
+
+    /** the record for {@code f}, to be sealed at {@code rotated}; call before sealing, the length changes */
+    private ObjectNode manifestRecord(FramedLogFile f, Path rotated, ObjectNode footerRec) throws IOException {
+        String path = cfg.getLogDir().relativize(rotated).toString().replace(File.separatorChar, '/');
+        try {
+            return SegmentManifestRecord.unsigned(manifestN + 1, manifestHead, path, f.headerHash(), f.summary(),
+                    f.length(), ControlRecords.hash(footerRec), issuerAlgorithm(), issuerKeyId());
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("Failed to hash segment footer", e);
+        }
+    }
+
+    /** signs {@code rec} and makes it the head of the manifest chain; the caller must append it */
+    private Callable<byte[]> listed(ObjectNode rec) throws IOException {
+        Callable<byte[]> signed = signedLater(rec);
+        try {
+            manifestHead = ControlRecords.hash(rec);
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("Failed to hash segment manifest record", e);
+        }
+        manifestN++;
+        return signed;
+    }
+
+    private void closeManifestQuietly() {
+        if (manifest == null) return;
+        try {
+            manifest.close();
+        } catch (IOException ignored) {
+            // startup already failed
+        }
+    }
+
+    /**
+     * Segments listed in the manifest are only deleted once a signed prune record says so, or a verifier would
+     * have to take a missing segment on trust. Called on the rotator thread; signing waits for the writer.
+     */
+    private boolean deferPrune(Path dir, Path segment) {
+        if (pruning.add(segment)) {
+            pruneDue.put(segment, dir.relativize(segment).toString().replace(File.separatorChar, '/'));
+        }
+        return false;
+    }
+
+    /** appends a prune record per due segment after the seal just submitted; the rotator then deletes them */
+    private void recordPrunes() throws IOException {
+        for (Path segment : pruneDue.keySet()) {
+            String path = pruneDue.remove(segment);
+            Callable<byte[]> record = listed(SegmentPruneRecord.unsigned(manifestN + 1, manifestHead, path,
+                    issuerAlgorithm(), issuerKeyId()));
+            rotator.prune(segment, record, deleted -> {
+                pruning.remove(segment);
+                if (deleted) metrics.retention(0, 1);
+                else metrics.incRetentionFailures();
+            });
+        }
+    }
+
+    /** runs on the rotator thread; a failed pass is counted and retried after the next rotation */
+    private void applyRetention() {
+        try {
+            RetentionManager.Result r = retention.apply(System.currentTimeMillis());
+            metrics.retention(r.archived, r.deleted);
+        } catch (IOException | RuntimeException e) {
+            metrics.incRetentionFailures();
+        }
+    }
+
+    /**
+     * Recovers the segment left over from the last run, seals it and names it by its contents like a rotated
+     * one, so the new segment continues its chain. This is also how a segment that lost a torn frame under a
+     * seq-derived nonce ({@link FramedLogFile#sealOnly()}) ends: its authenticated prefix is sealed, and the new
+     * segment's fresh salt means fresh nonces. If the footer cannot be signed, the segment is still linked, just
+     * unsealed, and counted in {@link LoggerMetrics#startupSealFailures()}; an I/O error while sealing fails the
+     * start. A segment that cannot be reopened or has no entries is moved aside under a
+     * time-based name as before.
+     *
+     * @param f the segment if already open, else null
+     * @return its last entry, or null
+     */
+    private FramedLogFile.ChainHead rotateExistingOnStartup(Path current, FramedLogFile f) throws IOException {
+        if (f == null) {
+            try {
+                f = openFile(current);
+            } catch (VeriLogIoException e) {
+                moveSegment(current, rotationPolicy.rotatedPath(cfg.getLogDir()));
+                return null;
+            }
+        }
+        FramedLogFile.ChainHead head = f.chainHead();
+        if (head == null) {
+            f.close();
+            moveSegment(current, rotationPolicy.rotatedPath(cfg.getLogDir()));
+            return null;
+        }
+        Path rotated = rotationPolicy.rotatedPath(cfg.getLogDir(), f.summary(), head.seq + 1);
+        boolean sealed = false;
+        ObjectNode listing;
+        try (FramedLogFile leftover = f) {
+            ObjectNode footerRec = footerRecord(leftover);
+            listing = manifest != null ? manifestRecord(leftover, rotated, footerRec) : null;
+            byte[] footer = signedOrNull(footerRec);
+            if (footer != null) {
+                leftover.seal(head.seq, footer);
+                sealed = true;
+            } else {
+                metrics.incStartupSealFailures();
+            }
+        }
+        moveSegment(current, rotated);
+        if (sealed && listing != null) {
+            try {
+                manifest.append(listed(listing).call());
+            } catch (Exception e) {
+                throw e instanceof IOException ? (IOException) e : new IOException("Failed to sign manifest record", e);
+            }
+        }
+        return head;
+    }
+
+    /**
+     * Last entry of the rotated segment with the highest seqs in its name, in the log or archive directory, so a
+     * segment started without a leftover to link to still continues the chain. Null, and a new chain, only if
+     * there is no such segment. If its head cannot be read (damaged, or not readable with the current key), the
+     * writer does not start: a new chain there would hide the segments after it from the verifier.
+     */
+    private FramedLogFile.ChainHead lastSegmentHead() throws IOException, VeriLogIoException {
+        Path last = null;
+        SegmentName lastName = null;
+        for (Path seg : namedSegments()) {
+            SegmentName n = SegmentName.parse(seg.getFileName().toString());
+            if (lastName == null || n.lastSeq > lastName.lastSeq
+                    || (n.lastSeq == lastName.lastSeq && n.firstSeq > lastName.firstSeq)) {
+                last = seg;
+                lastName = n;
+            }
+        }
+        if (last == null) return null;
+        FramedLogFile.ChainHead head;
+        try {
+            head = FramedLogFile.readHead(last, cfg.getEncryptionKey(), cfg.getAadPrefix(), cfg.getCrypto().aesGcm());
+        } catch (IOException e) {
+            throw new VeriLogIoException("io.chain_head_unreadable", e, last);
+        }
+        if (head == null) throw new VeriLogIoException("io.chain_head_unreadable", last);
+        return head;
+    }
+
+    /** segments of this prefix with a seq-range name and entries, including partition subdirectories */
+    private List<Path> namedSegments() throws IOException {
+        List<Path> out = new ArrayList<>();
+        for (Path dir : new Path[]{cfg.getLogDir(), cfg.getArchiveDir()}) {
+            if (dir == null || !Files.isDirectory(dir)) continue;
+            for (Path p : list(dir)) {
+                if (Files.isDirectory(p)) {
+                    for (Path q : list(p)) addIfNamed(q, out);
+                } else {
+                    addIfNamed(p, out);
+                }
+            }
+        }
+        return out;
+    }
+
+    private void addIfNamed(Path p, List<Path> out) {
+        SegmentName n = SegmentName.parse(p.getFileName().toString());
+        if (n != null && n.prefix.equals(cfg.getFilePrefix()) && n.hasEntries() && Files.isRegularFile(p)) out.add(p);
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+
+    /** the index travels with its segment; the checkpoint only serves appends to the current one */
+    static void moveSegment(Path current, Path rotated) throws IOException {
+        Files.createDirectories(rotated.getParent());
+        try {
+            moveAtomicOrReplace(current, rotated);
+        } catch (NoSuchFileException e) {
+            // housekeeping removed the empty partition directory in between
+            Files.createDirectories(rotated.getParent());
+            moveAtomicOrReplace(current, rotated);
+        }
+        Path index = SegmentIndex.pathFor(current);
+        if (Files.exists(index)) moveAtomicOrReplace(index, SegmentIndex.pathFor(rotated));
+        Files.deleteIfExists(FramedLogFile.checkpointPath(current));
+    }
+
+    static void ensureFileExistsWith0600IfPossible(Path file) throws IOException {
         if (Files.exists(file)) return;
 
         try {
@@ -284,8 +704,171 @@ final class LogWriter implements Runnable {
         return cfg.getLogDir().resolve(cfg.getCurrentFileName());
     }
 
-    private long estimateFrameBytes(int plaintextLen) {
-        return 4L + 1 + 8 + 24 + plaintextLen + 16;
+    private FramedLogFile openFile(Path path) throws VeriLogIoException {
+        return FramedLogFile.openOrCreate(path, cfg.getEncryptionKey(), cfg.getAadPrefix(), FramedLogFile.options()
+                .suite(cfg.getCipherSuite())
+                .hash(cfg.getEntryHash())
+                .nonces(cfg.getNonceSource())
+                .gcm(cfg.getCrypto().aesGcm())
+                .verifyTailFrames(cfg.getRecoveryVerifyFrames())
+                .frameChecksums(cfg.isFrameChecksums())
+                .restartRecords(true));
+    }
+
+    /** @param previous where the chain continues if the segment has no entries yet; null to keep it as is */
+    private FramedLogFile openSegment(Path path, FramedLogFile.ChainHead previous) throws VeriLogIoException {
+        return prepareSegment(openFile(path), previous);
+    }
+
+    private FramedLogFile prepareSegment(FramedLogFile f, FramedLogFile.ChainHead previous)
+            throws VeriLogIoException {
+        chain.useHashAlgorithm(f.hashAlgorithm());
+        resumeChain(f.chainHead() != null ? f.chainHead() : previous);
+
+        try {
+            if (cfg.getIndexEvery() > 0) f.indexEvery(cfg.getIndexEvery());
+            if (cfg.getSyncEveryBytes() > 0) f.syncEvery(cfg.getSyncEveryBytes());
+            restartPending = chain.nextSeq() == 1 && !f.hasFrame(FramedLogFile.TYPE_CHAIN_RESTART);
+            if (cfg.isSegmentSigningKeys()) certifySegmentKey(f);
+            else if (cfg.getMacChainSealKey() != null) startMacChain(f);
+            return f;
+        } catch (IOException | VeriLogCryptoException e) {
+            try {
+                f.close();
+            } catch (IOException closeEx) {
+                e.addSuppressed(closeEx);
+            }
+            throw new VeriLogIoException("io.write_failed", e);
+        }
+    }
+
+    /**
+     * Continues the chain of a reopened segment after its last entry. Otherwise seqs would restart at 1 in the
+     * middle of the file, which breaks verification and, for the derived-nonce suites, would reuse nonces.
+     */
+    private void resumeChain(FramedLogFile.ChainHead head) {
+        if (head == null) return;
+        chain.resumeAfter(head.seq, head.entryHashHex());
+        lastEntryHash = head.entryHash();
+    }
+
+    private LogSigner entrySigner() {
+        return segmentSigner != null ? segmentSigner : cfg.getSigner();
+    }
+
+    /**
+     * Writes the signed record that the chain starts over in this segment, right before its first entry, so
+     * that the long-term key is not needed before there is something to log. The verifier only accepts a new
+     * chain after other segments with it, and lists the segment as a restart.
+     */
+    private void recordChainRestart(FramedLogFile f) throws IOException {
+        try {
+            ObjectNode rec = ChainRestartRecord.unsigned(1, f.headerHash(), issuerAlgorithm(), issuerKeyId());
+            byte[] sig = signWithLongTermKey(ControlRecords.hash(rec));
+            appendControl(f, FramedLogFile.TYPE_CHAIN_RESTART, 1, ControlRecords.toJsonUtf8(rec, sig));
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("Failed to sign chain restart record", e);
+        }
+        restartPending = false;
+    }
+
+    /**
+     * Generates this segment's Ed25519 key and writes its certificate ahead of the first entry. The previous
+     * segment key is dropped here, so it cannot sign anything after rotation.
+     */
+    private void certifySegmentKey(FramedLogFile f) throws IOException, VeriLogCryptoException {
+        segmentSigner = null;
+        Ed25519LogSigner key = Ed25519LogSigner.generate(keyRandom());
+
+        long firstSeq = chain.nextSeq();
+        ObjectNode cert = SegmentKeyCertificate.unsigned(firstSeq, f.headerHash(),
+                key.algorithm(), key.spkiPublicKeyDer(), key.keyId(),
+                issuerAlgorithm(), issuerKeyId());
+        byte[] sig = signWithLongTermKey(ControlRecords.hash(cert));
+
+        appendControl(f, FramedLogFile.TYPE_KEY_CERT, firstSeq, ControlRecords.toJsonUtf8(cert, sig));
+        segmentSigner = key;
+    }
+
+    /**
+     * Seals a fresh initial MAC key to the auditor and writes the signed key record ahead of the first entry.
+     * Only the evolving copy stays in memory.
+     */
+    private void startMacChain(FramedLogFile f) throws IOException, VeriLogCryptoException {
+        if (macKey != null) macKey.destroy();
+        macKey = null;
+
+        byte[] k0 = new byte[MacChainKey.KEY_LEN];
+        keyRandom().nextBytes(k0);
+        try {
+            byte[] headerHash = f.headerHash();
+            long firstSeq = chain.nextSeq();
+            byte[] sealed = X25519KeySeal.seal(cfg.getMacChainSealKey(), k0, headerHash, keyRandom());
+            ObjectNode rec = MacChainRecords.keyRecord(firstSeq, headerHash, sealed, issuerAlgorithm(), issuerKeyId());
+            byte[] sig = signWithLongTermKey(ControlRecords.hash(rec));
+
+            appendControl(f, FramedLogFile.TYPE_MAC_KEY, firstSeq, ControlRecords.toJsonUtf8(rec, sig));
+            macKey = new MacChainKey(k0);
+            sinceCheckpoint = 0;
+        } finally {
+            Arrays.fill(k0, (byte) 0);
+        }
+    }
+
+    private void writeMacCheckpoint(FramedLogFile f) throws IOException, VeriLogCryptoException {
+        if (sinceCheckpoint == 0) return;
+        long seq = chain.nextSeq() - 1;
+        ObjectNode rec = MacChainRecords.checkpoint(seq, chain.prevHashHex(), f.headerHash(),
+                issuerAlgorithm(), issuerKeyId());
+        byte[] sig = signWithLongTermKey(ControlRecords.hash(rec));
+
+        appendControl(f, FramedLogFile.TYPE_MAC_CHECKPOINT, seq, ControlRecords.toJsonUtf8(rec, sig));
+        sinceCheckpoint = 0;
+    }
+
+    /** entries after the last checkpoint would otherwise need the auditor's key to verify */
+    private void checkpointBeforeClose(FramedLogFile f) throws IOException {
+        if (macKey == null) return;
+        try {
+            writeMacCheckpoint(f);
+        } catch (VeriLogCryptoException e) {
+            throw new IOException("Failed to sign MAC checkpoint", e);
+        }
+    }
+
+    private void appendControl(FramedLogFile f, byte type, long seq, byte[] json) throws IOException {
+        f.appendEncryptedJson(type, seq, json);
+        bytesWrittenCurrent += estimateFrameBytes(f, json.length);
+        unflushed();
+    }
+
+    private SecureRandom keyRandom() {
+        if (keyRandom == null) keyRandom = new SecureRandom();
+        return keyRandom;
+    }
+
+    private String issuerKeyId() {
+        return cfg.getSigner() != null ? cfg.getSigner().keyId() : cfg.getAsyncSigner().keyId();
+    }
+
+    private SignatureAlgorithm issuerAlgorithm() {
+        return cfg.getSigner() != null ? cfg.getSigner().algorithm() : cfg.getAsyncSigner().algorithm();
+    }
+
+    private byte[] signWithLongTermKey(byte[] hash32) throws VeriLogCryptoException {
+        if (cfg.getSigner() != null) return cfg.getSigner().signEntryHash(hash32);
+        try {
+            return cfg.getAsyncSigner().signEntryHashes(new byte[][]{hash32}).get()[0];
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VeriLogCryptoException("crypto.sign_failed", e);
+        } catch (ExecutionException e) {
+            throw new VeriLogCryptoException("crypto.sign_failed", e.getCause());
+        }
+    }
+
+    private static long estimateFrameBytes(FramedLogFile f, int plaintextLen) {
+        return (long) f.frameOverheadBytes() + plaintextLen;
     }
 
     static void moveAtomicOrReplace(Path src, Path dst) throws IOException {
@@ -9,15 +9,89 @@
  */
 package io.github.em.verilog.logger;
 
+import io.github.em.verilog.provider.CryptoSelection;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public final class LoggerMetrics {
+    /** upper bounds, in ms, of the {@link #unflushedAgeCounts()} buckets; the last bucket has no bound */
+    public static final long[] UNFLUSHED_AGE_BOUNDS_MS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
     private final AtomicLong dropped = new AtomicLong(0);
     private final AtomicLong written = new AtomicLong(0);
+    private volatile Map<CryptoSelection.Primitive, String> cryptoProviders = Map.of();
+    private volatile long recoveryNanos;
+    private volatile long recoveryBytes;
+    private volatile long recoverySkippedBytes;
+    private final AtomicLong rotations = new AtomicLong(0);
+    private volatile long maxRotationNanos;
+    private final AtomicLong segmentsArchived = new AtomicLong(0);
+    private final AtomicLong segmentsDeleted = new AtomicLong(0);
+    private final AtomicLong retentionFailures = new AtomicLong(0);
+    private final AtomicLong startupSealFailures = new AtomicLong(0);
+    private final AtomicLongArray unflushedAge = new AtomicLongArray(UNFLUSHED_AGE_BOUNDS_MS.length + 1);
+    private volatile long maxUnflushedAgeNanos;
 
     void incDropped() { dropped.incrementAndGet(); }
     void incWritten() { written.incrementAndGet(); }
+    void retention(int archived, int deleted) {
+        segmentsArchived.addAndGet(archived);
+        segmentsDeleted.addAndGet(deleted);
+    }
+    void incRetentionFailures() { retentionFailures.incrementAndGet(); }
+    void incStartupSealFailures() { startupSealFailures.incrementAndGet(); }
+    void cryptoProviders(Map<CryptoSelection.Primitive, String> providers) { cryptoProviders = providers; }
+    void recovery(long nanos, long bytes, long skippedBytes) {
+        recoveryNanos = nanos;
+        recoveryBytes = bytes;
+        recoverySkippedBytes = skippedBytes;
+    }
+    /** @param oldestAgeNanos age of the oldest frame a flush wrote out */
+    void flush(long oldestAgeNanos) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(oldestAgeNanos);
+        int b = 0;
+        while (b < UNFLUSHED_AGE_BOUNDS_MS.length && ms > UNFLUSHED_AGE_BOUNDS_MS[b]) b++;
+        unflushedAge.incrementAndGet(b);
+        if (oldestAgeNanos > maxUnflushedAgeNanos) maxUnflushedAgeNanos = oldestAgeNanos; // single writer thread
+    }
+    void rotation(long nanos) {
+        rotations.incrementAndGet();
+        if (nanos > maxRotationNanos) maxRotationNanos = nanos; // single writer thread
+    }
 
     public long droppedCount() { return dropped.get(); }
     public long writtenCount() { return written.get(); }
+    /** provider name per primitive the writer uses (SHA-256 entry hashes, AES-GCM), as configured or benchmarked */
+    public Map<CryptoSelection.Primitive, String> cryptoProviders() { return cryptoProviders; }
+    /** time the writer spent recovering the reopened current segment at startup; 0 if it started a new one */
+    public long recoveryNanos() { return recoveryNanos; }
+    /** bytes of frames read during that recovery */
+    public long recoveryBytes() { return recoveryBytes; }
+    /** bytes of damaged frames that recovery skipped to continue at a sync frame; those entries are lost */
+    public long recoverySkippedBytes() { return recoverySkippedBytes; }
+    public long rotationCount() { return rotations.get(); }
+    /** longest time the writer spent switching segments, i.e. how long entries queued up behind a rotation */
+    public long maxRotationNanos() { return maxRotationNanos; }
+    /** rotated segments moved to the archive directory */
+    public long segmentsArchived() { return segmentsArchived.get(); }
+    /** rotated segments deleted by the retention limits */
+    public long segmentsDeleted() { return segmentsDeleted.get(); }
+    /** housekeeping passes that failed; the next rotation tries again */
+    public long retentionFailures() { return retentionFailures.get(); }
+    /** leftover segments rotated at startup without a footer, because the signer failed */
+    public long startupSealFailures() { return startupSealFailures.get(); }
+    /**
+     * Flushes by the age of the oldest frame they wrote out, i.e. how long entries stayed unflushed: one count per
+     * bucket of {@link #UNFLUSHED_AGE_BOUNDS_MS}, plus one for older.
+     */
+    public long[] unflushedAgeCounts() {
+        long[] counts = new long[unflushedAge.length()];
+        for (int i = 0; i < counts.length; i++) counts[i] = unflushedAge.get(i);
+        return counts;
+    }
+    /** longest time a frame stayed unflushed */
+    public long maxUnflushedAgeNanos() { return maxUnflushedAgeNanos; }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.logger;
+
+import io.github.em.verilog.io.SegmentIndex;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Housekeeping for rotated segments: moves them, with their index, into the archive directory and deletes the
+ * oldest ones beyond the configured total size or age. It runs on the {@link SegmentRotator} thread after each
+ * seal and once at startup and skips segments that are still being sealed, so no external job has to race the
+ * writer for the same files.
+ * <p>
+ * With a segment manifest, deletion goes through {@link #pruner}, so the writer can record it in the manifest
+ * first.
+ * <p>
+ * Only files named like rotated segments ({@code <prefix>-*.vlog}), directly in the directory or in a partition
+ * subdirectory, are touched; the current segment and its sidecars never are.
+ */
+final class RetentionManager {
+
+    private final Path logDir;
+    private final Path archiveDir;
+    private final String currentName;
+    private final String rotatedPrefix;
+    private final long maxBytes;
+    private final long maxAgeMs;
+    /** segments still being sealed */
+    Predicate<Path> inUse = p -> false;
+    /** takes over deleting a segment beyond the limits; by default it is deleted right away */
+    Pruner pruner = (dir, seg) -> {
+        delete(seg);
+        return true;
+    };
+
+    interface Pruner {
+        /**
+         * @param dir the directory the segment was found in, whose layout mirrors the log directory
+         * @return true if the segment is gone, false if it will be deleted later
+         */
+        boolean prune(Path dir, Path segment) throws IOException;
+    }
+
+    RetentionManager(Path logDir, Path archiveDir, String currentName, String filePrefix, long maxBytes,
+                     long maxAgeMs) {
+        this.logDir = logDir;
+        this.archiveDir = archiveDir;
+        this.currentName = currentName;
+        this.rotatedPrefix = filePrefix + "-";
+        this.maxBytes = maxBytes;
+        this.maxAgeMs = maxAgeMs;
+    }
+
+    static RetentionManager of(VeriLoggerConfig cfg) {
+        if (cfg.getArchiveDir() == null && cfg.getRetentionMaxBytes() == 0 && cfg.getRetentionMaxAgeMs() == 0) {
+            return null;
+        }
+        return new RetentionManager(cfg.getLogDir(), cfg.getArchiveDir(), cfg.getCurrentFileName(),
+                cfg.getFilePrefix(), cfg.getRetentionMaxBytes(), cfg.getRetentionMaxAgeMs());
+    }
+
+    static final class Result {
+        final int archived;
+        final int deleted;
+
+        Result(int archived, int deleted) {
+            this.archived = archived;
+            this.deleted = deleted;
+        }
+    }
+
+    Result apply(long nowMs) throws IOException {
+        int archived = archiveDir == null ? 0 : archive();
+        int deleted = maxBytes == 0 && maxAgeMs == 0 ? 0 : prune(archiveDir == null ? logDir : archiveDir, nowMs);
+        return new Result(archived, deleted);
+    }
+
+    /** the index goes first: an interrupted move then leaves a segment behind, which the next pass picks up */
+    private int archive() throws IOException {
+        Files.createDirectories(archiveDir);
+        int moved = 0;
+        for (Path seg : rotatedSegments(logDir)) {
+            Path dst = archiveDir.resolve(logDir.relativize(seg).toString());
+            Files.createDirectories(dst.getParent());
+            Path index = SegmentIndex.pathFor(seg);
+            if (Files.exists(index)) LogWriter.moveAtomicOrReplace(index, SegmentIndex.pathFor(dst));
+            LogWriter.moveAtomicOrReplace(seg, dst);
+            moved++;
+        }
+        removeEmptyPartitions(logDir);
+        return moved;
+    }
+
+    /** oldest first by modification time, which is when the segment was sealed */
+    private int prune(Path dir, long nowMs) throws IOException {
+        if (!Files.isDirectory(dir)) return 0;
+        List<Stored> segs = new ArrayList<>();
+        long total = 0;
+        for (Path seg : rotatedSegments(dir)) {
+            Path index = SegmentIndex.pathFor(seg);
+            Stored s = new Stored(seg, Files.getLastModifiedTime(seg).toMillis(),
+                    Files.size(seg) + (Files.exists(index) ? Files.size(index) : 0));
+            segs.add(s);
+            total += s.bytes;
+        }
+        segs.sort(Comparator.comparingLong((Stored s) -> s.modifiedMs)
+                .thenComparing(s -> s.path.getFileName().toString()));
+
+        int deleted = 0;
+        int pruned = 0;
+        for (Stored s : segs) {
+            boolean overSize = maxBytes > 0 && total > maxBytes;
+            boolean tooOld = maxAgeMs > 0 && nowMs - s.modifiedMs > maxAgeMs;
+            if (!overSize && !tooOld) break;
+            if (pruner.prune(dir, s.path)) deleted++;
+            total -= s.bytes;
+            pruned++;
+        }
+        if (pruned > 0) removeEmptyPartitions(dir);
+        return deleted;
+    }
+
+    /** deletes a segment and its index */
+    static void delete(Path segment) throws IOException {
+        Files.deleteIfExists(segment);
+        Files.deleteIfExists(SegmentIndex.pathFor(segment));
+    }
+
+    private static final class Stored {
+        final Path path;
+        final long modifiedMs;
+        final long bytes;
+
+        Stored(Path path, long modifiedMs, long bytes) {
+            this.path = path;
+            this.modifiedMs = modifiedMs;
+            this.bytes = bytes;
+        }
+    }
+
+    /** segments directly in {@code dir} and in its partition subdirectories */
+    private List<Path> rotatedSegments(Path dir) throws IOException {
+        List<Path> out = new ArrayList<>();
+        for (Path p : list(dir)) {
+            if (Files.isDirectory(p)) {
+                for (Path q : list(p)) if (isRotatedSegment(q)) out.add(q);
+            } else if (isRotatedSegment(p) && !p.getFileName().toString().equals(currentName)) {
+                out.add(p);
+            }
+        }
+        return out;
+    }
+
+    private boolean isRotatedSegment(Path p) {
+        String name = p.getFileName().toString();
+        return name.startsWith(rotatedPrefix) && name.endsWith(".vlog") && Files.isRegularFile(p) && !inUse.test(p);
+    }
+
+    private static void removeEmptyPartitions(Path dir) throws IOException {
+        for (Path p : list(dir)) {
+            if (!Files.isDirectory(p)) continue;
+            try (Stream<Path> s = Files.list(p)) {
+                if (s.findAny().isPresent()) continue;
+            }
+            try {
+                Files.delete(p);
+            } catch (DirectoryNotEmptyException ignored) {
+                // the writer rotated into it meanwhile
+            }
+        }
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
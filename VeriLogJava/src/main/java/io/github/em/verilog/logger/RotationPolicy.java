@@ -9,21 +9,82 @@
  */
 package io.github.em.verilog.logger;
 
+import io.github.em.verilog.io.SegmentName;
+import io.github.em.verilog.io.SegmentSummary;
+
 import java.nio.file.Path;
 import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 
+/**
+ * When the current segment is rotated: once it reaches {@code rotateBytes}, and optionally once it holds
+ * {@code rotateEntries} entries or has been open for {@code rotateEveryMs}. A segment without entries is not
+ * rotated for age, so an idle logger does not leave a trail of empty segments.
+ * <p>
+ * Rotated segments are named after their seq and time range ({@link SegmentName}), optionally inside an hour
+ * or day partition directory.
+ */
 final class RotationPolicy {
+    private static final DateTimeFormatter HOUR = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter DAY = DateTimeFormatter.ofPattern("uuuu-MM-dd").withZone(ZoneOffset.UTC);
+
     final long rotateBytes;
+    final long rotateEntries;   // 0: off
+    final long rotateEveryMs;   // 0: off
     final String filePrefix;
+    final VeriLoggerConfig.SegmentPartition partition;
 
     RotationPolicy(long rotateBytes, String filePrefix) {
+        this(rotateBytes, 0, 0, filePrefix, VeriLoggerConfig.SegmentPartition.NONE);
+    }
+
+    RotationPolicy(long rotateBytes, long rotateEntries, long rotateEveryMs, String filePrefix,
+                   VeriLoggerConfig.SegmentPartition partition) {
         this.rotateBytes = rotateBytes;
+        this.rotateEntries = rotateEntries;
+        this.rotateEveryMs = rotateEveryMs;
         this.filePrefix = filePrefix;
+        this.partition = partition;
+    }
+
+    /** @param openedMs when the writer opened the current segment */
+    boolean shouldRotate(long bytes, long entries, long openedMs, long nowMs) {
+        if (bytes >= rotateBytes) return true;
+        if (rotateEntries > 0 && entries >= rotateEntries) return true;
+        return rotateEveryMs > 0 && entries > 0 && nowMs - openedMs >= rotateEveryMs;
+    }
+
+    /**
+     * Name for a segment being rotated, from its {@link SegmentName seq and time range}, in the partition of its
+     * first entry (or of now, if the time range is unknown). The partition directory may not exist yet.
+     *
+     * @param nextSeq seq the next entry will get; names the empty range of a segment without entries
+     */
+    Path rotatedPath(Path dir, SegmentSummary s, long nextSeq) {
+        String name = s.hasEntries()
+                ? SegmentName.format(filePrefix, s.firstSeq(), s.lastSeq(), s.minTs(), s.maxTs())
+                : SegmentName.format(filePrefix, nextSeq, nextSeq - 1, null, null);
+        Path parent = partitionDir(dir, s.hasTimeRange() ? s.minTs() : Instant.now());
+        return SegmentName.unique(parent.resolve(name));
+    }
+
+    Path partitionDir(Path dir, Instant t) {
+        switch (partition) {
+            case HOUR:
+                return dir.resolve(HOUR.format(t));
+            case DAY:
+                return dir.resolve(DAY.format(t));
+            default:
+                return dir;
+        }
     }
 
+    /** time-based name, for a segment whose contents are not known (left over at startup) */
     Path rotatedPath(Path dir) {
-        String ts = Instant.now().toString().replace(':', '-');
+        Instant now = Instant.now();
+        String ts = now.toString().replace(':', '-');
         String name = filePrefix + "-" + ts + ".vlog";
-        return dir.resolve(name);
+        return partitionDir(dir, now).resolve(name);
     }
-}
\ No newline at end of file
+}
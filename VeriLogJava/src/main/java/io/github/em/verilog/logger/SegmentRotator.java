@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.logger;
+
+import io.github.em.verilog.errors.VeriLogIoException;
+import io.github.em.verilog.io.FramedLogFile;
+import io.github.em.verilog.io.SegmentManifest;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Takes the slow parts of a rotation off the writer thread. A helper thread creates and opens the next segment
+ * ahead of time under a staging name (header written and synced), so the writer only has to rename it into place
+ * and take the open file over. The
+ * retired segment is sealed, synced and closed on the same helper thread afterwards.
+ * <p>
+ * Tasks run one at a time in submission order, so segments enter the {@link SegmentManifest} in seal order. A
+ * seal that fails is kept and reported by {@link #checkFailure()} on the writer's next rotation or when it closes.
+ */
+final class SegmentRotator {
+
+    interface Opener {
+        FramedLogFile open(Path path) throws VeriLogIoException;
+    }
+
+    private final Path staging;
+    private final Opener opener;
+    /** null without a manifest; only used on the helper thread */
+    private final SegmentManifest manifest;
+    private final ExecutorService worker;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final Set<Path> retiring = ConcurrentHashMap.newKeySet();
+
+    // writer-thread confined
+    private Future<FramedLogFile> prepared;
+
+    SegmentRotator(Path current, Opener opener, SegmentManifest manifest) {
+        this.staging = stagingPath(current);
+        this.opener = opener;
+        this.manifest = manifest;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "verilog-rotation");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** the name does not end in {@code .vlog}, so readers listing segments skip it */
+    static Path stagingPath(Path current) {
+        return current.resolveSibling(current.getFileName() + ".next");
+    }
+
+    /** starts creating the next segment; a stale staging file from an earlier run is replaced */
+    void prepareNext() {
+        prepared = worker.submit(this::createStaging);
+    }
+
+    /** @return the open staging segment, or null */
+    private FramedLogFile createStaging() {
+        try {
+            Files.deleteIfExists(staging);
+            LogWriter.ensureFileExistsWith0600IfPossible(staging);
+            return opener.open(staging);
+        } catch (IOException | VeriLogIoException | RuntimeException e) {
+            // the writer creates the segment itself; if the disk is the problem, that fails too
+            deleteStagingQuietly();
+            return null;
+        }
+    }
+
+    /**
+     * Renames the prepared segment to {@code current}, waiting for it if it is not ready yet, and hands it over
+     * still open.
+     *
+     * @return null if no segment could be prepared; the caller then creates one in place
+     */
+    FramedLogFile takePrepared(Path current) throws IOException {
+        FramedLogFile f = awaitPrepared();
+        if (f == null) return null;
+        try {
+            LogWriter.moveAtomicOrReplace(staging, current);
+            f.renamedTo(current);
+            return f;
+        } catch (IOException | RuntimeException e) {
+            try {
+                f.close();
+            } catch (IOException closeEx) {
+                e.addSuppressed(closeEx);
+            }
+            throw e;
+        }
+    }
+
+    private FramedLogFile awaitPrepared() throws IOException {
+        Future<FramedLogFile> p = prepared;
+        prepared = null;
+        if (p == null) return null;
+        try {
+            return p.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while preparing the next segment");
+        }
+    }
+
+    /**
+     * Renames the segment {@code old} was opened at to {@code rotated}, then seals and closes it on the helper
+     * thread. The open channel keeps writing to the renamed file.
+     *
+     * @param footer  builds the signed footer; called on the helper thread
+     * @param listing builds the signed manifest record, appended once the seal succeeded; null without a manifest
+     */
+    void retire(FramedLogFile old, Path current, Path rotated, long seq, Callable<byte[]> footer,
+                Callable<byte[]> listing) throws IOException {
+        // registered before the rename, so a housekeeping pass that lists the directory meanwhile skips it
+        retiring.add(rotated);
+        LogWriter.moveSegment(current, rotated);
+        worker.execute(() -> {
+            try {
+                old.seal(seq, footer.call());
+                if (listing != null) manifest.append(listing.call());
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                try {
+                    old.close();
+                } catch (IOException e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    retiring.remove(rotated);
+                }
+            }
+        });
+    }
+
+    /**
+     * Appends the signed prune record of {@code segment} to the manifest, then deletes the segment and its index
+     * on the helper thread. After a failed seal nothing is appended, since the record would not follow its
+     * predecessor.
+     *
+     * @param done called with whether the segment was deleted
+     */
+    void prune(Path segment, Callable<byte[]> record, Consumer<Boolean> done) {
+        worker.execute(() -> {
+            try {
+                if (failure.get() != null) return;
+                manifest.append(record.call());
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+                return;
+            }
+            boolean deleted;
+            try {
+                RetentionManager.delete(segment);
+                deleted = true;
+            } catch (IOException e) {
+                deleted = false;
+            }
+            done.accept(deleted);
+        });
+    }
+
+    /** true while {@code segment} is being sealed; housekeeping leaves it alone */
+    boolean isRetiring(Path segment) {
+        return retiring.contains(segment);
+    }
+
+    /** runs {@code task} on the helper thread after the seals submitted so far */
+    void afterSeals(Runnable task) {
+        worker.execute(task);
+    }
+
+    void checkFailure() throws IOException {
+        Throwable t = failure.get();
+        if (t != null) throw new IOException("Failed to seal rotated segment", t);
+    }
+
+    /** waits until every retired segment is sealed, then reports a failure like {@link #checkFailure()} */
+    void awaitIdle() throws IOException {
+        try {
+            worker.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while sealing rotated segments");
+        }
+        checkFailure();
+    }
+
+    /** lets pending seals finish, removes the unused staging segment and closes the manifest */
+    void shutdown() {
+        try {
+            FramedLogFile unused = awaitPrepared();
+            if (unused != null) unused.close();
+        } catch (IOException ignored) {
+            // deleted below
+        }
+        worker.shutdown();
+        try {
+            while (!worker.awaitTermination(1, TimeUnit.SECONDS)) {
+                // a seal may wait on a remote signer; it is bounded by the signer's own timeouts
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        deleteStagingQuietly();
+        if (manifest != null) {
+            try {
+                manifest.close();
+            } catch (IOException ignored) {
+                // every record was synced when it was appended
+            }
+        }
+    }
+
+    private void deleteStagingQuietly() {
+        try {
+            Files.deleteIfExists(staging);
+        } catch (IOException ignored) {
+            // best-effort; the next run replaces it
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.logger;
+
+import io.github.em.verilog.audit.HashChainState;
+import io.github.em.verilog.audit.SignedEntryFactory;
+import io.github.em.verilog.audit.SignedEntryFactory.PreparedEntry;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.sign.AsyncLogSigner;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Writer-thread side of {@link AsyncLogSigner}: entries are hashed and chained immediately, grouped
+ * into batches, and handed to the sink strictly in sequence order once their batch is signed.
+ * Not thread-safe; owned by {@link LogWriter}.
+ */
+final class SigningPipeline {
+
+    interface FrameSink {
+        void append(PreparedEntry entry, byte[] signedEntryJson) throws IOException;
+    }
+
+    private static final class Batch {
+        final PreparedEntry[] entries;
+        final CompletableFuture<byte[][]> signatures;
+        final long acceptedNanos; // of the first entry
+
+        Batch(PreparedEntry[] entries, CompletableFuture<byte[][]> signatures, long acceptedNanos) {
+            this.entries = entries;
+            this.signatures = signatures;
+            this.acceptedNanos = acceptedNanos;
+        }
+    }
+
+    private final AsyncLogSigner signer;
+    private final SignedEntryFactory factory;
+    private final HashChainState chain;
+    private final int maxInFlight;
+    private final FrameSink sink;
+
+    private final ArrayDeque<Batch> inFlight = new ArrayDeque<>();
+    private final PreparedEntry[] open;
+    private int openCount;
+    private long openSinceNanos; // when the first entry of the open batch was added
+
+    SigningPipeline(AsyncLogSigner signer, SignedEntryFactory factory, HashChainState chain,
+                    int batchSize, int maxInFlight, FrameSink sink) {
+        this.signer = signer;
+        this.factory = factory;
+        this.chain = chain;
+        this.maxInFlight = maxInFlight;
+        this.sink = sink;
+        this.open = new PreparedEntry[batchSize];
+    }
+
+    void add(String actor, String eventType, Map<String, Object> event, Instant ts)
+            throws IOException, VeriLogCryptoException {
+        if (openCount == 0) openSinceNanos = System.nanoTime();
+        open[openCount++] = factory.prepare(chain, signer.keyId(), signer.algorithm(), actor, eventType, event, ts);
+        if (openCount == open.length) submit();
+        commitCompleted();
+    }
+
+    /** sends the partially filled batch, if any; blocks while too many batches are outstanding */
+    void submit() throws IOException {
+        if (openCount == 0) return;
+
+        PreparedEntry[] entries = new PreparedEntry[openCount];
+        byte[][] hashes = new byte[openCount][];
+        for (int i = 0; i < openCount; i++) {
+            entries[i] = open[i];
+            hashes[i] = open[i].entryHash;
+            open[i] = null;
+        }
+        openCount = 0;
+
+        inFlight.addLast(new Batch(entries, signer.signEntryHashes(hashes), openSinceNanos));
+        while (inFlight.size() > maxInFlight) commitHead();
+    }
+
+    /** appends every leading batch whose signatures have already arrived */
+    void commitCompleted() throws IOException {
+        while (!inFlight.isEmpty() && inFlight.peekFirst().signatures.isDone()) commitHead();
+    }
+
+    /** submits and waits for everything; afterwards all prepared entries are in the sink */
+    void drain() throws IOException {
+        submit();
+        while (!inFlight.isEmpty()) commitHead();
+    }
+
+    int pendingEntries() {
+        int n = openCount;
+        for (Batch b : inFlight) n += b.entries.length;
+        return n;
+    }
+
+    /** {@link System#nanoTime()} when the oldest pending entry was added; only valid with pending entries */
+    long oldestPendingNanos() {
+        return inFlight.isEmpty() ? openSinceNanos : inFlight.peekFirst().acceptedNanos;
+    }
+
+    private void commitHead() throws IOException {
+        Batch b = inFlight.peekFirst();
+        final byte[][] sigs;
+        try {
+            sigs = b.signatures.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for entry signatures");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to sign log entry batch", e.getCause());
+        }
+        if (sigs == null || sigs.length != b.entries.length) {
+            throw new IOException("Signer returned " + (sigs == null ? 0 : sigs.length)
+                    + " signatures for " + b.entries.length + " entries");
+        }
+
+        inFlight.removeFirst();
+        for (int i = 0; i < sigs.length; i++) {
+            sink.append(b.entries[i], factory.complete(b.entries[i], sigs[i]));
+        }
+    }
+}
@@ -10,6 +10,7 @@
 package io.github.em.verilog.logger;
 
 import io.github.em.verilog.errors.VeriLogIoException;
+import io.github.em.verilog.provider.CryptoSelection;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -116,6 +117,18 @@ public final class VeriLogger implements Closeable {
         return metrics.writtenCount();
     }
 
+    public Map<CryptoSelection.Primitive, String> cryptoProviders() {
+        return metrics.cryptoProviders();
+    }
+
+    public long recoveryNanos() {
+        return metrics.recoveryNanos();
+    }
+
+    public long maxRotationNanos() {
+        return metrics.maxRotationNanos();
+    }
+
     @Override
     public void close() throws IOException {
         close(cfg.getShutdownTimeoutMs());
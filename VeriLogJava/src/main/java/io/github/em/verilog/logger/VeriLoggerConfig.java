@@ -9,7 +9,14 @@
  */
 package io.github.em.verilog.logger;
 
+import io.github.em.verilog.crypto.CipherSuite;
+import io.github.em.verilog.crypto.HashAlgorithm;
+import io.github.em.verilog.io.SegmentIndex;
+import io.github.em.verilog.crypto.NonceSource;
+import io.github.em.verilog.provider.CryptoSelection;
+import io.github.em.verilog.sign.AsyncLogSigner;
 import io.github.em.verilog.sign.LogSigner;
+import org.bouncycastle.crypto.params.X25519PublicKeyParameters;
 
 import java.nio.file.Path;
 import java.util.Objects;
@@ -24,6 +31,16 @@ public final class VeriLoggerConfig {
      * 32 bytes DEK for XChaCha20-Poly1305
      */
     private  byte[] encryptionKey;
+    /**
+     * frame cipher for newly created segments
+     */
+    private CipherSuite cipherSuite;
+    private HashAlgorithm entryHash;
+    private CryptoSelection crypto;
+    /**
+     * randomness for frame nonces and segment salts
+     */
+    private NonceSource nonceSource;
     private  int queueCapacity;
     private BackpressureMode backpressureMode;
     private long offerTimeoutMs; // for BLOCK mode
@@ -32,6 +49,28 @@ public final class VeriLoggerConfig {
      * rotate when current file exceeds this many bytes
      */
     private long rotateBytes = 0;
+    /**
+     * also rotate after this many entries or this long since the segment was opened; 0 disables either
+     */
+    private long rotateEntries;
+    private long rotateEveryMs;
+    /**
+     * subdirectory per hour or day for rotated segments
+     */
+    private SegmentPartition segmentPartition;
+    /**
+     * signed list of sealed segments next to the current one, {@code <current>.manifest}
+     */
+    private boolean segmentManifest;
+    /**
+     * rotated segments are moved here once sealed; null keeps them next to the current segment
+     */
+    private Path archiveDir;
+    /**
+     * oldest rotated segments are deleted beyond this total size or age; 0 keeps everything
+     */
+    private long retentionMaxBytes;
+    private long retentionMaxAgeMs;
 
     /**
      * flush policy
@@ -39,13 +78,45 @@ public final class VeriLoggerConfig {
     private int flushEveryN;
     private long flushEveryMs;
     private boolean fsyncOnFlush;
+    private boolean flushOnIdle;
     private String actor;
     private LogSigner signer;
+    /**
+     * alternative to {@code signer} for high-latency keys; signatures are batched and pipelined
+     */
+    private AsyncLogSigner asyncSigner;
+    private int signBatchSize;
+    private int maxSignBatchesInFlight;
+    /**
+     * sign entries with a fresh Ed25519 key per segment, certified once by the long-term signer
+     */
+    private boolean segmentSigningKeys;
+    /**
+     * enables MAC chain entries; the per-segment initial MAC key is sealed to this auditor key
+     */
+    private X25519PublicKeyParameters macChainSealKey;
+    private int macCheckpointEvery;
     /**
      * If DROP: never drop WARN/ERROR (will block briefly instead)
      */
     private boolean preferReliabilityForWarnError;
     private boolean rotateOnStartup;
+    /**
+     * Frames at the end of a reopened segment whose tag is checked when it has no usable checkpoint
+     */
+    private int recoveryVerifyFrames;
+    /**
+     * Frames between two records of the seq-to-offset index sidecar; 0 disables the index
+     */
+    private int indexEvery;
+    /**
+     * Bytes between two sync frames; 0 writes none
+     */
+    private long syncEveryBytes;
+    /**
+     * CRC32C per frame of new segments, checked by {@code verilog scrub} without the DEK
+     */
+    private boolean frameChecksums;
     private boolean installShutdownHook;
     private long shutdownTimeoutMs; // secure Default
 
@@ -54,6 +125,12 @@ public final class VeriLoggerConfig {
         DROP            // drop when full
     }
 
+    public enum SegmentPartition {
+        NONE,           // rotated segments next to the current one
+        HOUR,           // logDir/2026-01-01T13/
+        DAY             // logDir/2026-01-01/
+    }
+
     public enum Level {
         DEBUG,
         INFO,
@@ -86,6 +163,22 @@ public final class VeriLoggerConfig {
         return encryptionKey.clone();
     }
 
+    public CipherSuite getCipherSuite() {
+        return cipherSuite;
+    }
+
+    public HashAlgorithm getEntryHash() {
+        return entryHash;
+    }
+
+    public CryptoSelection getCrypto() {
+        return crypto;
+    }
+
+    public NonceSource getNonceSource() {
+        return nonceSource;
+    }
+
     public int getQueueCapacity() {
         return queueCapacity;
     }
@@ -106,6 +199,34 @@ public final class VeriLoggerConfig {
         return rotateBytes;
     }
 
+    public long getRotateEntries() {
+        return rotateEntries;
+    }
+
+    public long getRotateEveryMs() {
+        return rotateEveryMs;
+    }
+
+    public SegmentPartition getSegmentPartition() {
+        return segmentPartition;
+    }
+
+    public boolean isSegmentManifest() {
+        return segmentManifest;
+    }
+
+    public Path getArchiveDir() {
+        return archiveDir;
+    }
+
+    public long getRetentionMaxBytes() {
+        return retentionMaxBytes;
+    }
+
+    public long getRetentionMaxAgeMs() {
+        return retentionMaxAgeMs;
+    }
+
     public int getFlushEveryN() {
         return flushEveryN;
     }
@@ -118,6 +239,10 @@ public final class VeriLoggerConfig {
         return fsyncOnFlush;
     }
 
+    public boolean isFlushOnIdle() {
+        return flushOnIdle;
+    }
+
     public String getActor() {
         return actor;
     }
@@ -126,6 +251,46 @@ public final class VeriLoggerConfig {
         return signer;
     }
 
+    public AsyncLogSigner getAsyncSigner() {
+        return asyncSigner;
+    }
+
+    public int getSignBatchSize() {
+        return signBatchSize;
+    }
+
+    public int getMaxSignBatchesInFlight() {
+        return maxSignBatchesInFlight;
+    }
+
+    public boolean isSegmentSigningKeys() {
+        return segmentSigningKeys;
+    }
+
+    public X25519PublicKeyParameters getMacChainSealKey() {
+        return macChainSealKey;
+    }
+
+    public int getMacCheckpointEvery() {
+        return macCheckpointEvery;
+    }
+
+    public int getRecoveryVerifyFrames() {
+        return recoveryVerifyFrames;
+    }
+
+    public int getIndexEvery() {
+        return indexEvery;
+    }
+
+    public long getSyncEveryBytes() {
+        return syncEveryBytes;
+    }
+
+    public boolean isFrameChecksums() {
+        return frameChecksums;
+    }
+
     public boolean isPreferReliabilityForWarnError() {
         return preferReliabilityForWarnError;
     }
@@ -148,18 +313,40 @@ public final class VeriLoggerConfig {
         this.currentFileName = b.currentFileName;
         this.aadPrefix = b.aadPrefix;
         this.encryptionKey = b.encryptionKey == null ? null : b.encryptionKey.clone(); // important
+        this.cipherSuite = b.cipherSuite;
+        this.entryHash = b.entryHash;
+        this.crypto = b.crypto;
+        this.nonceSource = b.nonceSource;
         this.queueCapacity = b.queueCapacity;
         this.backpressureMode = b.backpressureMode;
         this.offerTimeoutMs = b.offerTimeoutMs;
         this.faultMode = b.faultMode;
         this.rotateBytes = b.rotateBytes;
+        this.rotateEntries = b.rotateEntries;
+        this.rotateEveryMs = b.rotateEveryMs;
+        this.segmentPartition = b.segmentPartition;
+        this.segmentManifest = b.segmentManifest;
+        this.archiveDir = b.archiveDir;
+        this.retentionMaxBytes = b.retentionMaxBytes;
+        this.retentionMaxAgeMs = b.retentionMaxAgeMs;
         this.flushEveryN = b.flushEveryN;
         this.flushEveryMs = b.flushEveryMs;
         this.fsyncOnFlush = b.fsyncOnFlush;
+        this.flushOnIdle = b.flushOnIdle;
         this.actor = b.actor;
         this.signer = b.signer;
+        this.asyncSigner = b.asyncSigner;
+        this.signBatchSize = b.signBatchSize;
+        this.maxSignBatchesInFlight = b.maxSignBatchesInFlight;
+        this.segmentSigningKeys = b.segmentSigningKeys;
+        this.macChainSealKey = b.macChainSealKey;
+        this.macCheckpointEvery = b.macCheckpointEvery;
         this.preferReliabilityForWarnError = b.preferReliabilityForWarnError;
         this.rotateOnStartup = b.rotateOnStartup;
+        this.recoveryVerifyFrames = b.recoveryVerifyFrames;
+        this.indexEvery = b.indexEvery;
+        this.syncEveryBytes = b.syncEveryBytes;
+        this.frameChecksums = b.frameChecksums;
         this.installShutdownHook = b.installShutdownHook;
         this.shutdownTimeoutMs = b.shutdownTimeoutMs;
 
@@ -169,7 +356,13 @@ public final class VeriLoggerConfig {
     public void validate() {
         Objects.requireNonNull(logDir, "logDir");
         Objects.requireNonNull(actor, "actor");
-        Objects.requireNonNull(signer, "signer");
+        if (asyncSigner == null) Objects.requireNonNull(signer, "signer");
+        else if (signer != null) throw new IllegalArgumentException("signer and asyncSigner are mutually exclusive");
+        Objects.requireNonNull(cipherSuite, "cipherSuite");
+        Objects.requireNonNull(entryHash, "entryHash");
+        Objects.requireNonNull(crypto, "crypto");
+        Objects.requireNonNull(nonceSource, "nonceSource");
+        Objects.requireNonNull(segmentPartition, "segmentPartition");
         if (filePrefix == null || filePrefix.isBlank()) throw new IllegalArgumentException("filePrefix");
         if (currentFileName == null || currentFileName.isBlank()) throw new IllegalArgumentException("currentFileName");
         if (encryptionKey == null || encryptionKey.length != 32)
@@ -177,8 +370,22 @@ public final class VeriLoggerConfig {
         if (queueCapacity < 1) throw new IllegalArgumentException("queueCapacity");
         if (offerTimeoutMs < 0) throw new IllegalArgumentException("offerTimeoutMs");
         if (rotateBytes < 1024 * 1024) throw new IllegalArgumentException("rotateBytes too small");
+        if (rotateEntries < 0) throw new IllegalArgumentException("rotateEntries");
+        if (rotateEveryMs != 0 && rotateEveryMs < 1000) throw new IllegalArgumentException("rotateEveryMs too small");
+        if (retentionMaxBytes < 0) throw new IllegalArgumentException("retentionMaxBytes");
+        if (retentionMaxAgeMs < 0) throw new IllegalArgumentException("retentionMaxAgeMs");
+        if (archiveDir != null && archiveDir.toAbsolutePath().normalize().equals(logDir.toAbsolutePath().normalize()))
+            throw new IllegalArgumentException("archiveDir must differ from logDir");
         if (flushEveryN < 1) throw new IllegalArgumentException("flushEveryN");
         if (flushEveryMs < 1) throw new IllegalArgumentException("flushEveryMs");
+        if (signBatchSize < 1) throw new IllegalArgumentException("signBatchSize");
+        if (maxSignBatchesInFlight < 1) throw new IllegalArgumentException("maxSignBatchesInFlight");
+        if (macCheckpointEvery < 1) throw new IllegalArgumentException("macCheckpointEvery");
+        if (recoveryVerifyFrames < 0) throw new IllegalArgumentException("recoveryVerifyFrames");
+        if (indexEvery < 0) throw new IllegalArgumentException("indexEvery");
+        if (syncEveryBytes < 0) throw new IllegalArgumentException("syncEveryBytes");
+        if (macChainSealKey != null && segmentSigningKeys)
+            throw new IllegalArgumentException("macChain and segmentSigningKeys are mutually exclusive");
     }
 
     public static class Builder {
@@ -187,18 +394,40 @@ public final class VeriLoggerConfig {
         private String currentFileName = "current.vlog";
         private String aadPrefix = "VeriLog|v1";
         private byte[] encryptionKey = new byte[32];
+        private CipherSuite cipherSuite = CipherSuite.XCHACHA20_POLY1305;
+        private HashAlgorithm entryHash = HashAlgorithm.SHA_256;
+        private CryptoSelection crypto = CryptoSelection.defaults();
+        private NonceSource nonceSource = NonceSource.threadLocalDrbg();
         private int queueCapacity = 50_000;
         private BackpressureMode backpressureMode = BackpressureMode.BLOCK;
         private long offerTimeoutMs = 50;
         private FaultMode faultMode = FaultMode.DROP_ON_FAULT;
         private long rotateBytes = 100L * 1024 * 1024;
+        private long rotateEntries;
+        private long rotateEveryMs;
+        private SegmentPartition segmentPartition = SegmentPartition.NONE;
+        private boolean segmentManifest;
+        private Path archiveDir;
+        private long retentionMaxBytes;
+        private long retentionMaxAgeMs;
         private int flushEveryN = 500;
         private long flushEveryMs = 1000;
         private boolean fsyncOnFlush = false;
+        private boolean flushOnIdle = false;
         private String actor = "app";
         private LogSigner signer;
+        private AsyncLogSigner asyncSigner;
+        private int signBatchSize = 64;
+        private int maxSignBatchesInFlight = 16;
+        private boolean segmentSigningKeys = false;
+        private X25519PublicKeyParameters macChainSealKey;
+        private int macCheckpointEvery = 1000;
         private boolean preferReliabilityForWarnError = true;
         private boolean rotateOnStartup = true;
+        private int recoveryVerifyFrames = 8;
+        private int indexEvery = SegmentIndex.DEFAULT_INTERVAL;
+        private long syncEveryBytes;
+        private boolean frameChecksums;
         private boolean installShutdownHook = true;
         private long shutdownTimeoutMs = 5000;
 
@@ -227,6 +456,28 @@ public final class VeriLoggerConfig {
             return this;
         }
 
+        public Builder cipherSuite(CipherSuite cipherSuite) {
+            this.cipherSuite = cipherSuite;
+            return this;
+        }
+
+        /** hash function for new segments' entry chain; existing segments keep the one in their header */
+        public Builder entryHash(HashAlgorithm entryHash) {
+            this.entryHash = entryHash;
+            return this;
+        }
+
+        /** providers for SHA-256 and AES-GCM, e.g. {@code CryptoSelection.benchmark()}; reported in metrics */
+        public Builder crypto(CryptoSelection crypto) {
+            this.crypto = crypto;
+            return this;
+        }
+
+        public Builder nonceSource(NonceSource nonceSource) {
+            this.nonceSource = nonceSource;
+            return this;
+        }
+
         public Builder queueCapacity(int queueCapacity) {
             this.queueCapacity = queueCapacity;
             return this;
@@ -252,11 +503,58 @@ public final class VeriLoggerConfig {
             return this;
         }
 
+        /** also rotate once the current segment holds this many entries; 0 disables */
+        public Builder rotateEntries(long rotateEntries) {
+            this.rotateEntries = rotateEntries;
+            return this;
+        }
+
+        /** also rotate once the current segment has been open this long and holds an entry; 0 disables */
+        public Builder rotateEveryMs(long rotateEveryMs) {
+            this.rotateEveryMs = rotateEveryMs;
+            return this;
+        }
+
+        /** groups rotated segments into one subdirectory per hour or day of their first entry */
+        public Builder segmentPartition(SegmentPartition segmentPartition) {
+            this.segmentPartition = segmentPartition;
+            return this;
+        }
+
+        /**
+         * keeps a signed, append-only list of sealed segments, {@code <currentFileName>.manifest}, which readers
+         * use instead of listing the directory
+         */
+        public Builder segmentManifest(boolean segmentManifest) {
+            this.segmentManifest = segmentManifest;
+            return this;
+        }
+
+        /** directory sealed segments are moved to after rotation; null leaves them in {@code logDir} */
+        public Builder archiveDir(Path archiveDir) {
+            this.archiveDir = archiveDir;
+            return this;
+        }
+
+        /**
+         * Deletes the oldest rotated segments (in the archive, if configured) while their total size exceeds
+         * {@code maxBytes} or they are older than {@code maxAgeMs}; 0 disables either limit.
+         */
+        public Builder retention(long maxBytes, long maxAgeMs) {
+            this.retentionMaxBytes = maxBytes;
+            this.retentionMaxAgeMs = maxAgeMs;
+            return this;
+        }
+
         public Builder flushEveryN(int flushEveryN) {
             this.flushEveryN = flushEveryN;
             return this;
         }
 
+        /**
+         * Longest time a written entry stays unflushed. The writer flushes when the oldest unflushed frame reaches
+         * this age, also while the queue is busy.
+         */
         public Builder flushEveryMs(long flushEveryMs) {
             this.flushEveryMs = flushEveryMs;
             return this;
@@ -267,6 +565,16 @@ public final class VeriLoggerConfig {
             return this;
         }
 
+        /**
+         * Also flushes as soon as the queue is empty. Under load the writer still batches, since the queue is rarely
+         * empty, while a lone entry is flushed right away instead of after {@link #flushEveryMs}. At low rates this
+         * means one flush (and with {@link #fsyncOnFlush} one fsync) per entry.
+         */
+        public Builder flushOnIdle(boolean flushOnIdle) {
+            this.flushOnIdle = flushOnIdle;
+            return this;
+        }
+
         public Builder actor(String actor) {
             this.actor = actor;
             return this;
@@ -277,6 +585,75 @@ public final class VeriLoggerConfig {
             return this;
         }
 
+        public Builder asyncSigner(AsyncLogSigner asyncSigner) {
+            this.asyncSigner = asyncSigner;
+            return this;
+        }
+
+        public Builder signBatchSize(int signBatchSize) {
+            this.signBatchSize = signBatchSize;
+            return this;
+        }
+
+        public Builder maxSignBatchesInFlight(int maxSignBatchesInFlight) {
+            this.maxSignBatchesInFlight = maxSignBatchesInFlight;
+            return this;
+        }
+
+        public Builder segmentSigningKeys(boolean segmentSigningKeys) {
+            this.segmentSigningKeys = segmentSigningKeys;
+            return this;
+        }
+
+        public Builder macChain(X25519PublicKeyParameters sealKey) {
+            this.macChainSealKey = sealKey;
+            return this;
+        }
+
+        public Builder macCheckpointEvery(int macCheckpointEvery) {
+            this.macCheckpointEvery = macCheckpointEvery;
+            return this;
+        }
+
+        /**
+         * Number of trailing frames authenticated when a segment is reopened without a checkpoint; 0 only checks
+         * frame lengths.
+         */
+        public Builder recoveryVerifyFrames(int recoveryVerifyFrames) {
+            this.recoveryVerifyFrames = recoveryVerifyFrames;
+            return this;
+        }
+
+        /**
+         * Frames between two records of the {@link SegmentIndex} sidecar used by
+         * {@code FramedFileReader#seekToSeq}; 0 writes no index.
+         */
+        public Builder indexEvery(int indexEvery) {
+            this.indexEvery = indexEvery;
+            return this;
+        }
+
+        /**
+         * Writes a sync frame after the entry that ends at least this many bytes after the previous one (e.g.
+         * 64 KiB), so that recovery can skip a damaged region instead of cutting the segment there and
+         * {@code VeriLogReader} can verify one segment in parallel; 0 writes none. Readers that predate sync
+         * frames reject segments that have them.
+         */
+        public Builder syncEveryBytes(long syncEveryBytes) {
+            this.syncEveryBytes = syncEveryBytes;
+            return this;
+        }
+
+        /**
+         * Stores a CRC32C of each frame of new segments in the frame header (4 bytes per frame), so that
+         * {@code verilog scrub} can check archives for bit rot without the DEK. Existing segments keep the
+         * layout they were created with. Readers that predate frame checksums cannot read such segments.
+         */
+        public Builder frameChecksums(boolean frameChecksums) {
+            this.frameChecksums = frameChecksums;
+            return this;
+        }
+
         public Builder preferReliabilityForWarnError(boolean preferReliabilityForWarnError) {
             this.preferReliabilityForWarnError = preferReliabilityForWarnError;
             return this;
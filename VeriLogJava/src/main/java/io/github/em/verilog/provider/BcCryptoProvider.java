@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.provider;
+
+import io.github.em.verilog.crypto.AesGcmBackend;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+import io.github.em.verilog.reader.BcEcdsaVerifier;
+import io.github.em.verilog.sign.BcEcdsaP256Signer;
+import io.github.em.verilog.sign.LogSigner;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+
+/** BouncyCastle lightweight API for every primitive */
+public final class BcCryptoProvider implements CryptoProvider {
+    public static final BcCryptoProvider INSTANCE = new BcCryptoProvider();
+
+    private BcCryptoProvider() {
+    }
+
+    @Override
+    public String name() {
+        return "BC";
+    }
+
+    @Override
+    public byte[] sha256(byte[] data) {
+        SHA256Digest d = new SHA256Digest();
+        d.update(data, 0, data.length);
+        byte[] out = new byte[d.getDigestSize()];
+        d.doFinal(out, 0);
+        return out;
+    }
+
+    @Override
+    public LogSigner es256Signer(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer)
+            throws VeriLogCryptoException, VeriLogFormatException {
+        return new BcEcdsaP256Signer(pkcs8PrivateKeyDer, spkiPublicKeyDer, true);
+    }
+
+    @Override
+    public Es256Verifier es256Verifier() {
+        return BcEcdsaVerifier::verifyEntryHashSig;
+    }
+
+    @Override
+    public AesGcmBackend aesGcm() {
+        return AesGcmBackend.BOUNCY_CASTLE;
+    }
+}
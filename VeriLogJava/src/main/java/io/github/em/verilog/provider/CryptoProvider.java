@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.provider;
+
+import io.github.em.verilog.crypto.AesGcmBackend;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+import io.github.em.verilog.sign.LogSigner;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+
+/**
+ * One implementation of each primitive whose speed depends on the JDK: SHA-256, ES256 signing and verification,
+ * and AES-256-GCM. All providers produce interchangeable output; {@link CryptoSelection} picks one per primitive.
+ */
+public interface CryptoProvider {
+
+    /** short name reported in metrics, e.g. {@code "BC"} */
+    String name();
+
+    byte[] sha256(byte[] data) throws VeriLogCryptoException;
+
+    LogSigner es256Signer(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer)
+            throws VeriLogCryptoException, VeriLogFormatException;
+
+    /** a new verifier; verifiers may cache engine state and are not thread-safe */
+    Es256Verifier es256Verifier() throws VeriLogCryptoException;
+
+    AesGcmBackend aesGcm();
+
+    /** ES256 check of a raw r||s signature over sha256(entryHash) */
+    interface Es256Verifier {
+        boolean verify(ECPublicKeyParameters pub, byte[] entryHash32, byte[] sigRaw64) throws VeriLogCryptoException;
+    }
+}
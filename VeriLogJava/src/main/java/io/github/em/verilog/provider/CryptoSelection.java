@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.provider;
+
+import io.github.em.verilog.crypto.AesGcmBackend;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+import io.github.em.verilog.sign.LogSigner;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The provider used for each primitive. {@link #defaults()} keeps the implementations VeriLog has always used;
+ * {@link #benchmark()} times every candidate once at startup and keeps the fastest per primitive.
+ */
+public final class CryptoSelection {
+
+    public enum Primitive { SHA256, ES256_SIGN, ES256_VERIFY, AES_GCM }
+
+    private static final List<CryptoProvider> BUILT_IN = List.of(BcCryptoProvider.INSTANCE, JcaCryptoProvider.INSTANCE);
+
+    private final Map<Primitive, CryptoProvider> chosen;
+
+    private CryptoSelection(Map<Primitive, CryptoProvider> chosen) {
+        for (Primitive p : Primitive.values()) Objects.requireNonNull(chosen.get(p), p.name());
+        this.chosen = Collections.unmodifiableMap(new EnumMap<>(chosen));
+    }
+
+    /** JCA SHA-256 and AES-GCM, BouncyCastle ECDSA */
+    public static CryptoSelection defaults() {
+        Map<Primitive, CryptoProvider> m = new EnumMap<>(Primitive.class);
+        m.put(Primitive.SHA256, JcaCryptoProvider.INSTANCE);
+        m.put(Primitive.ES256_SIGN, BcCryptoProvider.INSTANCE);
+        m.put(Primitive.ES256_VERIFY, BcCryptoProvider.INSTANCE);
+        m.put(Primitive.AES_GCM, JcaCryptoProvider.INSTANCE);
+        return new CryptoSelection(m);
+    }
+
+    /** one provider for everything */
+    public static CryptoSelection of(CryptoProvider provider) {
+        Objects.requireNonNull(provider, "provider");
+        Map<Primitive, CryptoProvider> m = new EnumMap<>(Primitive.class);
+        for (Primitive p : Primitive.values()) m.put(p, provider);
+        return new CryptoSelection(m);
+    }
+
+    /** built-in providers, about 50 ms per primitive and provider */
+    public static CryptoSelection benchmark() {
+        return benchmark(BUILT_IN, Duration.ofMillis(50));
+    }
+
+    /**
+     * Times each candidate per primitive for {@code budget} (after an equal warm-up) and keeps the fastest.
+     * A candidate that fails is skipped; a primitive without a working candidate keeps its default.
+     */
+    public static CryptoSelection benchmark(List<CryptoProvider> candidates, Duration budget) {
+        Map<Primitive, CryptoProvider> m = new EnumMap<>(defaults().chosen);
+        m.putAll(new ProviderBenchmark(budget).fastest(candidates));
+        return new CryptoSelection(m);
+    }
+
+    public CryptoProvider provider(Primitive primitive) {
+        return chosen.get(primitive);
+    }
+
+    public byte[] sha256(byte[] data) throws VeriLogCryptoException {
+        return chosen.get(Primitive.SHA256).sha256(data);
+    }
+
+    public LogSigner es256Signer(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer)
+            throws VeriLogCryptoException, VeriLogFormatException {
+        return chosen.get(Primitive.ES256_SIGN).es256Signer(pkcs8PrivateKeyDer, spkiPublicKeyDer);
+    }
+
+    public CryptoProvider.Es256Verifier es256Verifier() throws VeriLogCryptoException {
+        return chosen.get(Primitive.ES256_VERIFY).es256Verifier();
+    }
+
+    public AesGcmBackend aesGcm() {
+        return chosen.get(Primitive.AES_GCM).aesGcm();
+    }
+
+    /** provider name per primitive, for metrics and logs */
+    public Map<Primitive, String> describe() {
+        Map<Primitive, String> m = new EnumMap<>(Primitive.class);
+        chosen.forEach((p, provider) -> m.put(p, provider.name()));
+        return Collections.unmodifiableMap(m);
+    }
+
+    /** provider name for each of {@code primitives}, e.g. the ones a component actually uses */
+    public Map<Primitive, String> describe(Primitive... primitives) {
+        Map<Primitive, String> m = new EnumMap<>(Primitive.class);
+        for (Primitive p : primitives) m.put(p, chosen.get(p).name());
+        return Collections.unmodifiableMap(m);
+    }
+
+    @Override
+    public String toString() {
+        return "CryptoSelection" + describe();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.provider;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.crypto.AesGcmBackend;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+import io.github.em.verilog.reader.JcaEcdsaVerifier;
+import io.github.em.verilog.sign.JcaEcdsaP256Signer;
+import io.github.em.verilog.sign.LogSigner;
+
+/** installed JCA/JCE providers (SunEC, SunJCE) for every primitive */
+public final class JcaCryptoProvider implements CryptoProvider {
+    public static final JcaCryptoProvider INSTANCE = new JcaCryptoProvider();
+
+    private JcaCryptoProvider() {
+    }
+
+    @Override
+    public String name() {
+        return "JCA";
+    }
+
+    @Override
+    public byte[] sha256(byte[] data) throws VeriLogCryptoException {
+        return CryptoUtil.sha256(data);
+    }
+
+    @Override
+    public LogSigner es256Signer(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer)
+            throws VeriLogCryptoException, VeriLogFormatException {
+        return new JcaEcdsaP256Signer(pkcs8PrivateKeyDer, spkiPublicKeyDer, true);
+    }
+
+    @Override
+    public Es256Verifier es256Verifier() throws VeriLogCryptoException {
+        return new JcaEcdsaVerifier()::verifyEntryHashSig;
+    }
+
+    @Override
+    public AesGcmBackend aesGcm() {
+        return AesGcmBackend.JCE;
+    }
+}
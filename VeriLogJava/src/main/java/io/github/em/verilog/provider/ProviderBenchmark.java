@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.provider;
+
+import io.github.em.verilog.crypto.CipherSuite;
+import io.github.em.verilog.crypto.SegmentCipher;
+import io.github.em.verilog.sign.BcEcdsaP256Signer;
+import io.github.em.verilog.sign.BcPublicKeyLoader;
+import io.github.em.verilog.sign.LogSigner;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+
+import java.nio.ByteBuffer;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Startup micro-benchmark behind {@link CryptoSelection#benchmark}. Deliberately simple: one warm-up pass, one
+ * timed pass, operations per nanosecond. Good enough to tell apart implementations that differ several-fold.
+ */
+final class ProviderBenchmark {
+
+    @FunctionalInterface
+    private interface Op {
+        void run(long i) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface OpFactory {
+        Op create(CryptoProvider p) throws Exception;
+    }
+
+    private final long budgetNanos;
+    private final byte[] payload = new byte[1024];
+    private final byte[] entryHash = new byte[32];
+    private final byte[] pkcs8;
+    private final byte[] spki;
+    private final ECPublicKeyParameters pub;
+    private final byte[] sig;
+
+    ProviderBenchmark(Duration budget) {
+        this.budgetNanos = Math.max(1, budget.toNanos());
+        Random rnd = new Random(42);
+        rnd.nextBytes(payload);
+        rnd.nextBytes(entryHash);
+        try {
+            KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+            kpg.initialize(256);
+            KeyPair kp = kpg.generateKeyPair();
+            this.pkcs8 = kp.getPrivate().getEncoded();
+            this.spki = kp.getPublic().getEncoded();
+            this.pub = BcPublicKeyLoader.fromSpkiDer(spki);
+            this.sig = new BcEcdsaP256Signer(pkcs8, spki, true).signEntryHash(entryHash);
+        } catch (Exception e) {
+            throw new IllegalStateException("benchmark key setup failed", e);
+        }
+    }
+
+    Map<CryptoSelection.Primitive, CryptoProvider> fastest(List<CryptoProvider> candidates) {
+        Map<CryptoSelection.Primitive, CryptoProvider> out = new EnumMap<>(CryptoSelection.Primitive.class);
+        for (CryptoSelection.Primitive primitive : CryptoSelection.Primitive.values()) {
+            CryptoProvider best = null;
+            double bestRate = 0;
+            for (CryptoProvider p : candidates) {
+                double rate = rate(opFactory(primitive), p);
+                if (rate > bestRate) {
+                    bestRate = rate;
+                    best = p;
+                }
+            }
+            if (best != null) out.put(primitive, best);
+        }
+        return out;
+    }
+
+    private OpFactory opFactory(CryptoSelection.Primitive primitive) {
+        switch (primitive) {
+            case SHA256:
+                return p -> i -> p.sha256(payload);
+            case ES256_SIGN:
+                return p -> {
+                    LogSigner s = p.es256Signer(pkcs8, spki);
+                    return i -> s.signEntryHash(entryHash);
+                };
+            case ES256_VERIFY:
+                return p -> {
+                    CryptoProvider.Es256Verifier v = p.es256Verifier();
+                    return i -> {
+                        if (!v.verify(pub, entryHash, sig)) throw new IllegalStateException("verify failed");
+                    };
+                };
+            case AES_GCM:
+                return p -> {
+                    SegmentCipher c = SegmentCipher.create(CipherSuite.AES_256_GCM_SEGMENT, new byte[32],
+                            new byte[CipherSuite.AES_256_GCM_SEGMENT.saltLen()], p.aesGcm());
+                    ByteBuffer dst = ByteBuffer.allocate(payload.length + SegmentCipher.TAG_LEN);
+                    byte[] aad = new byte[11];
+                    return i -> {
+                        dst.clear();
+                        c.encryptInto((byte) 1, i, new byte[0], aad, ByteBuffer.wrap(payload), dst);
+                    };
+                };
+            default:
+                throw new IllegalArgumentException(primitive.name());
+        }
+    }
+
+    /** operations per nanosecond, or 0 if the provider cannot run the primitive */
+    private double rate(OpFactory factory, CryptoProvider p) {
+        try {
+            Op op = factory.create(p);
+            long seq = 1; // GCM nonces must not repeat under the benchmark key
+            long end = System.nanoTime() + budgetNanos;
+            while (System.nanoTime() < end) op.run(seq++);
+
+            long ops = 0;
+            long start = System.nanoTime();
+            end = start + budgetNanos;
+            long now;
+            do {
+                op.run(seq++);
+                ops++;
+                now = System.nanoTime();
+            } while (now < end);
+            return ops / (double) (now - start);
+        } catch (Exception | LinkageError e) {
+            return 0;
+        }
+    }
+}
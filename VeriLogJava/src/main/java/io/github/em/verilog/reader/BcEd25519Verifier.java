@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.reader;
+
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+
+import java.util.Objects;
+
+public final class BcEd25519Verifier {
+
+    private BcEd25519Verifier() {
+    }
+
+    public static boolean verifyEntryHashSig(
+            Ed25519PublicKeyParameters pub,
+            byte[] entryHash32,
+            byte[] sig64
+    ) throws VeriLogCryptoException {
+
+        Objects.requireNonNull(pub, "pub must not be null");
+
+        if (entryHash32 == null || entryHash32.length != 32)
+            throw new IllegalArgumentException("entryHash must be 32 bytes");
+
+        // malformed signature length is untrusted input, not a programming error
+        if (sig64 == null || sig64.length != Ed25519.SIGNATURE_SIZE) return false;
+
+        try {
+            return pub.verify(Ed25519.Algorithm.Ed25519, null, entryHash32, 0, 32, sig64, 0);
+        } catch (RuntimeException e) {
+            throw new VeriLogCryptoException("crypto.verify_failed", e);
+        }
+    }
+}
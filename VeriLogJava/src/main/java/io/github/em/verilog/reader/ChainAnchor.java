@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.reader;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.crypto.HashAlgorithm;
+import io.github.em.verilog.errors.VeriLogFormatException;
+
+/**
+ * Where the chain of a file verified on its own must start: at seq 1 from the zero hash ({@link #GENESIS}), or
+ * right after a known entry, for a segment that continues an earlier one. Without it, a file cut off at the
+ * front would verify from whatever frame comes first.
+ */
+public final class ChainAnchor {
+
+    public static final ChainAnchor GENESIS = new ChainAnchor(0, new byte[HashAlgorithm.DIGEST_LEN]);
+
+    /** seq of the entry the file continues; 0 for genesis */
+    public final long seq;
+    private final byte[] entryHash;
+
+    private ChainAnchor(long seq, byte[] entryHash) {
+        this.seq = seq;
+        this.entryHash = entryHash;
+    }
+
+    /** the file's first entry must be {@code seq + 1} with {@code prevHash = entryHash} */
+    public static ChainAnchor after(long seq, byte[] entryHash) {
+        if (seq < 0) throw new IllegalArgumentException("seq must be >= 0");
+        if (entryHash == null || entryHash.length != HashAlgorithm.DIGEST_LEN) {
+            throw new IllegalArgumentException("entryHash must be " + HashAlgorithm.DIGEST_LEN + " bytes");
+        }
+        return new ChainAnchor(seq, entryHash.clone());
+    }
+
+    public static ChainAnchor after(long seq, String entryHashHex) throws VeriLogFormatException {
+        return after(seq, CryptoUtil.fromHex(entryHashHex));
+    }
+
+    byte[] entryHash() {
+        return entryHash.clone();
+    }
+}
@@ -16,28 +16,87 @@ import java.util.List;
 
 public final class DirectoryVerifyReport {
 
+    /** how a file starts a new chain at seq 1 instead of continuing the file before it */
+    public enum Restart {
+        /** with a verified chain restart record */
+        SIGNED,
+        /** without one, in a file written before chain restart records */
+        LEGACY
+    }
+
     public static final class FileResult {
         public final Path file;
         public final boolean ok;
         public final long lastSeqOrFailSeq;
         public final String reason; // null if ok
+        public final Restart restart; // null unless the file starts a new chain
+        public final long firstSeq; // 0 if failed or without entries
 
         public FileResult(Path file, boolean ok, long lastSeqOrFailSeq, String reason) {
+            this(file, ok, lastSeqOrFailSeq, reason, null);
+        }
+
+        public FileResult(Path file, boolean ok, long lastSeqOrFailSeq, String reason, Restart restart) {
+            this(file, ok, 0, lastSeqOrFailSeq, reason, restart);
+        }
+
+        public FileResult(Path file, boolean ok, long firstSeq, long lastSeqOrFailSeq, String reason,
+                          Restart restart) {
             this.file = file;
             this.ok = ok;
+            this.firstSeq = firstSeq;
             this.lastSeqOrFailSeq = lastSeqOrFailSeq;
             this.reason = reason;
+            this.restart = restart;
         }
     }
 
     private final List<FileResult> results = new ArrayList<>();
+    private long firstSeq;
+    private boolean anchoredAtGenesis = true;
+    private long prunedThroughSeq;
 
     void add(FileResult r) { results.add(r); }
 
+    void chainStart(long firstSeq, boolean genesis) {
+        this.firstSeq = firstSeq;
+        this.anchoredAtGenesis = genesis;
+    }
+
+    void prunedThrough(long seq) {
+        if (seq > prunedThroughSeq) prunedThroughSeq = seq;
+    }
+
     public List<FileResult> results() {
         return Collections.unmodifiableList(results);
     }
 
+    /** files that start a new chain; an auditor should know why the chain starts over there */
+    public List<FileResult> restarts() {
+        List<FileResult> out = new ArrayList<>();
+        for (FileResult r : results) if (r.restart != null) out.add(r);
+        return out;
+    }
+
+    /** seq of the first entry of the first file with entries; 0 if there is none */
+    public long firstSeq() {
+        return firstSeq;
+    }
+
+    /**
+     * Whether that file starts the chain at seq 1 from the genesis hash. If not, the entries before
+     * {@link #firstSeq()} were pruned ({@link #prunedThroughSeq()}) or are gone, and nothing shows where the
+     * chain began.
+     */
+    public boolean anchoredAtGenesis() {
+        return anchoredAtGenesis;
+    }
+
+    /** last seq of the oldest segments that the manifest records as deleted by retention; 0 if none */
+    public long prunedThroughSeq() {
+        return prunedThroughSeq;
+    }
+
     public boolean allOk() {
         for (FileResult r : results) if (!r.ok) return false;
         return true;
@@ -9,9 +9,15 @@
  */
 package io.github.em.verilog.reader;
 
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.errors.VeriLogCryptoException;
 import io.github.em.verilog.errors.VeriLogFormatException;
 import io.github.em.verilog.errors.VeriLogIoException;
 import io.github.em.verilog.errors.VeriLogUncheckedException;
+import io.github.em.verilog.io.FrameChecksum;
+import io.github.em.verilog.io.SegmentIndex;
+import io.github.em.verilog.io.SegmentTrailer;
+import io.github.em.verilog.io.SyncMarker;
 
 import java.io.EOFException;
 import java.io.IOException;
@@ -27,6 +33,16 @@ public final class FramedFileReader implements AutoCloseable {
     private final FileChannel ch;
     private final byte[] aadPrefix;
     private final int headerLenTotal; // bytes to skip before frames
+    private final boolean checksums;  // frames carry a FrameChecksum after the length prefix
+    private int frameNonceLen = 24;  // depends on header alg, see setFrameNonceLength
+    private SegmentIndex index;      // set by loadIndex
+    private SegmentTrailer trailer;  // null unless the segment is sealed
+    private long framesEnd = Long.MAX_VALUE; // start of the trailer in a sealed segment
+    private long frameOffset = -1;
+
+    private static final byte[] NO_NONCE = new byte[0];
+    private final ByteBuffer lenBuf = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
+    private ByteBuffer payloadBuf = ByteBuffer.allocate(4096).order(ByteOrder.BIG_ENDIAN); // grows, never shrinks
 
     public FramedFileReader(Path path)
             throws VeriLogIoException, VeriLogFormatException {
@@ -55,7 +71,8 @@ public final class FramedFileReader implements AutoCloseable {
                 );
             }
 
-            fixed.get(); // flags
+            byte flags = fixed.get();
+            this.checksums = (flags & FrameChecksum.FLAG) != 0;
             int headerLen = fixed.getShort() & 0xFFFF;
 
             ByteBuffer hdr = ByteBuffer.allocate(headerLen);
@@ -68,6 +85,9 @@ public final class FramedFileReader implements AutoCloseable {
             this.aadPrefix = hdrBytes;
             this.headerLenTotal = (4 + 1 + 1 + 2) + headerLen;
 
+            this.trailer = SegmentTrailer.read(ch);
+            if (trailer != null) this.framesEnd = ch.size() - SegmentTrailer.LEN;
+
         } catch (IOException e) {
             throw new VeriLogIoException("io.read_failed", e, path.toString());
         }
@@ -79,6 +99,7 @@ public final class FramedFileReader implements AutoCloseable {
         this.ch = ch;
         this.aadPrefix = rawHeaderJson;
         this.headerLenTotal = headerLenTotal;
+        this.checksums = false;
     }
 
     /**
@@ -88,16 +109,138 @@ public final class FramedFileReader implements AutoCloseable {
         return aadPrefix;
     }
 
+    /**
+     * Nonce bytes stored in each frame of this file ({@code CipherSuite.frameNonceLen()} of the header alg).
+     */
+    public void setFrameNonceLength(int frameNonceLen) {
+        if (frameNonceLen < 0) throw new IllegalArgumentException("frameNonceLen");
+        this.frameNonceLen = frameNonceLen;
+    }
+
+    /** true if the frames carry a {@link FrameChecksum}; {@link #readNextFrame} skips it */
+    public boolean frameChecksums() {
+        return checksums;
+    }
+
+    /** trailer of a sealed segment; the frames end at the footer frame it points to. Null if not sealed. */
+    public SegmentTrailer trailer() {
+        return trailer;
+    }
+
+    /** file offset of the frame last returned by {@link #readNextFrame} */
+    public long frameOffset() {
+        return frameOffset;
+    }
+
+    /**
+     * Reads the footer frame of a sealed segment without touching the others; the position for
+     * {@link #readNextFrame} is kept.
+     *
+     * @return null if the segment is not sealed
+     */
+    public Frame readFooterFrame() throws VeriLogIoException, VeriLogFormatException {
+        if (trailer == null) return null;
+        try {
+            long pos = ch.position();
+            ch.position(trailer.footerOffset);
+            try {
+                return readNextFrame(false);
+            } finally {
+                ch.position(pos);
+            }
+        } catch (IOException e) {
+            throw new VeriLogIoException("io.read_failed", e, path.toString());
+        }
+    }
+
     public void positionAtFirstFrame() throws IOException {
         ch.position(headerLenTotal);
     }
 
+    public long firstFrameOffset() {
+        return headerLenTotal;
+    }
+
+    /** end of the frames: the file size, or the start of the trailer in a sealed segment */
+    public long framesEnd() throws IOException {
+        return Math.min(ch.size(), framesEnd);
+    }
+
+    /**
+     * Restricts {@link #readNextFrame} to the frames from {@code from} up to {@code to}, e.g. the part of a
+     * segment between two sync frames. {@link #readFooterFrame} only works while the footer is in range.
+     */
+    public void range(long from, long to) throws IOException {
+        if (from < headerLenTotal || to < from) throw new IllegalArgumentException("range");
+        framesEnd = Math.min(framesEnd, to);
+        ch.position(from);
+    }
+
+    /**
+     * Offset of the first sync frame of this segment in {@code [from, to)}, found by its marker without reading
+     * the frames in between; -1 if there is none.
+     */
+    public long findSyncFrame(SyncMarker marker, long from, long to) throws VeriLogIoException {
+        try {
+            return marker.find(ch, Math.max(from, headerLenTotal), Math.min(to, framesEnd()));
+        } catch (IOException e) {
+            throw new VeriLogIoException("io.read_failed", e, path.toString());
+        }
+    }
+
+    /**
+     * Loads this segment's {@link SegmentIndex} sidecar for {@link #seekToSeq}. Records are authenticated with a
+     * key derived from the DEK and bound to this file's header.
+     *
+     * @return false if there is no index for this segment
+     */
+    public boolean loadIndex(byte[] dek32) throws VeriLogIoException, VeriLogCryptoException {
+        try {
+            index = SegmentIndex.load(path, dek32, CryptoUtil.sha256(aadPrefix));
+            return index != null;
+        } catch (IOException e) {
+            throw new VeriLogIoException("io.read_failed", e, SegmentIndex.pathFor(path).toString());
+        }
+    }
+
+    /**
+     * Positions the reader so that {@link #readNextFrame} returns the first frame whose seq is at least
+     * {@code seq} (control frames sharing the seq come first), or null if there is none. With a loaded index
+     * only the frames after the nearest record are skipped; without one the scan starts at the first frame.
+     * Frames are skipped by their length prefix, without decrypting them.
+     */
+    public void seekToSeq(long seq) throws VeriLogIoException {
+        try {
+            long size = Math.min(ch.size(), framesEnd);
+            long pos = index == null ? -1 : index.offsetBefore(seq);
+            if (pos < headerLenTotal || pos >= size) pos = headerLenTotal;
+
+            int headLen = FrameChecksum.headLen(checksums);
+            ByteBuffer head = ByteBuffer.allocate(headLen + 1 + 8).order(ByteOrder.BIG_ENDIAN);
+            while (pos + head.capacity() <= size) {
+                head.clear();
+                while (head.hasRemaining()) {
+                    if (ch.read(head, pos + head.position()) < 0) throw new EOFException();
+                }
+                int payloadLen = head.getInt(0);
+                if (payloadLen <= 0 || head.getLong(headLen + 1) >= seq) break;
+                pos += headLen + payloadLen;
+            }
+            ch.position(Math.min(pos, size));
+        } catch (IOException e) {
+            throw new VeriLogIoException("io.read_failed", e, path.toString());
+        }
+    }
+
     public Frame readNextFrame(boolean tolerateTrailingPartial)
             throws VeriLogIoException, VeriLogFormatException {
 
         try {
+            frameOffset = ch.position();
+            if (frameOffset >= framesEnd) return null;
+
             // len (4)
-            ByteBuffer lenBuf = ByteBuffer.allocate(4).order(ByteOrder.BIG_ENDIAN);
+            lenBuf.clear();
             int r = ch.read(lenBuf);
 
             if (r == -1) return null;
@@ -109,6 +252,14 @@ public final class FramedFileReader implements AutoCloseable {
 
             lenBuf.flip();
             int payloadLen = lenBuf.getInt();
+            if (checksums) {
+                lenBuf.clear();
+                ch.read(lenBuf);
+                if (lenBuf.hasRemaining()) {
+                    if (tolerateTrailingPartial) return null;
+                    throw new EOFException("Partial frame checksum");
+                }
+            }
             if (payloadLen <= 0 || payloadLen > 64 * 1024 * 1024) {
                 throw new VeriLogFormatException("format.invalid_payload_length", payloadLen);
             }
@@ -121,7 +272,10 @@ public final class FramedFileReader implements AutoCloseable {
             byte type = payload.get();
             long seq = payload.getLong();
 
-            byte[] nonce = new byte[24];
+            if (payload.remaining() < frameNonceLen) {
+                throw new VeriLogFormatException("format.invalid_payload_length", payloadLen);
+            }
+            byte[] nonce = frameNonceLen == 0 ? NO_NONCE : new byte[frameNonceLen];
             payload.get(nonce);
 
             byte[] ct = new byte[payload.remaining()];
@@ -180,9 +334,11 @@ public final class FramedFileReader implements AutoCloseable {
     private ByteBuffer readPayloadHandlingPartial(int payloadLen, boolean tolerateTrailingPartial)
             throws IOException, VeriLogIoException {
 
-        ByteBuffer payload = ByteBuffer
-                .allocate(payloadLen)
-                .order(ByteOrder.BIG_ENDIAN);
+        if (payloadBuf.capacity() < payloadLen) {
+            payloadBuf = ByteBuffer.allocate(Math.max(payloadLen, payloadBuf.capacity() * 2)).order(ByteOrder.BIG_ENDIAN);
+        }
+        ByteBuffer payload = payloadBuf;
+        payload.clear().limit(payloadLen);
 
         try {
             readFully(payload);
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.reader;
+
+import io.github.em.verilog.EcdsaSigCodec;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.util.SubjectPublicKeyInfoFactory;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Objects;
+
+/**
+ * ES256 verification on the JCA provider; accepts the same signatures as {@link BcEcdsaVerifier}. Keeps one
+ * {@link Signature} and the converted key of the last public key it saw, so a run of entries from one signer
+ * converts the key once. Not thread-safe.
+ */
+public final class JcaEcdsaVerifier {
+
+    private final Signature signature;
+    private ECPublicKeyParameters lastParams;
+    private PublicKey lastKey;
+
+    public JcaEcdsaVerifier() throws VeriLogCryptoException {
+        try {
+            this.signature = Signature.getInstance("SHA256withECDSA");
+        } catch (GeneralSecurityException e) {
+            throw new VeriLogCryptoException("crypto.init_failed", e, "SHA256withECDSA");
+        }
+    }
+
+    public boolean verifyEntryHashSig(
+            ECPublicKeyParameters pub,
+            byte[] entryHash32,
+            byte[] sigRaw64
+    ) throws VeriLogCryptoException {
+
+        Objects.requireNonNull(pub, "pub must not be null");
+
+        if (entryHash32 == null || entryHash32.length != 32)
+            throw new IllegalArgumentException("entryHash must be 32 bytes");
+
+        if (sigRaw64 == null || sigRaw64.length != 64)
+            throw new IllegalArgumentException("sig must be 64 bytes");
+
+        final byte[] der;
+        try {
+            der = EcdsaSigCodec.rawToDer(sigRaw64);
+        } catch (IllegalArgumentException | VeriLogFormatException e) {
+            // Malformed signature input; treat as invalid signature (untrusted input)
+            return false;
+        }
+
+        try {
+            // SHA256withECDSA hashes its input, so this checks ECDSA over sha256(entryHash) like the signers
+            signature.initVerify(jcaKey(pub));
+            signature.update(entryHash32);
+            return signature.verify(der);
+        } catch (SignatureException e) {
+            // e.g. r or s out of range
+            return false;
+        } catch (GeneralSecurityException | IOException | RuntimeException e) {
+            throw new VeriLogCryptoException("crypto.verify_failed", e);
+        }
+    }
+
+    private PublicKey jcaKey(ECPublicKeyParameters pub) throws GeneralSecurityException, IOException {
+        if (pub != lastParams) {
+            byte[] spki = SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(pub).getEncoded();
+            lastKey = KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(spki));
+            lastParams = pub;
+        }
+        return lastKey;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.reader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One verified record of a segment manifest, as returned by {@link VeriLogReader#readManifest}. Seq fields are 0
+ * for a segment without entries.
+ */
+public final class ManifestEntry {
+
+    /** position in the manifest, from 1 */
+    public final long n;
+    /** relative to the log directory, with {@code /} separators */
+    public final String path;
+    public final String headerHashHex;
+    public final long frames;
+    /** offset of the footer frame */
+    public final long length;
+    public final long firstSeq;
+    public final long lastSeq;
+    public final String footerHashHex;
+    /** position of the prune record that says retention deleted the segment; 0 if it is kept */
+    public final long prunedBy;
+
+    ManifestEntry(long n, String path, String headerHashHex, long frames, long length, long firstSeq, long lastSeq,
+                  String footerHashHex) {
+        this(n, path, headerHashHex, frames, length, firstSeq, lastSeq, footerHashHex, 0);
+    }
+
+    private ManifestEntry(long n, String path, String headerHashHex, long frames, long length, long firstSeq,
+                          long lastSeq, String footerHashHex, long prunedBy) {
+        this.n = n;
+        this.path = path;
+        this.headerHashHex = headerHashHex;
+        this.frames = frames;
+        this.length = length;
+        this.firstSeq = firstSeq;
+        this.lastSeq = lastSeq;
+        this.footerHashHex = footerHashHex;
+        this.prunedBy = prunedBy;
+    }
+
+    ManifestEntry prunedBy(long pruneN) {
+        return new ManifestEntry(n, path, headerHashHex, frames, length, firstSeq, lastSeq, footerHashHex, pruneN);
+    }
+
+    public boolean isPruned() {
+        return prunedBy != 0;
+    }
+
+    /**
+     * @param dirs the log directory, then the archive directory, which mirrors its layout
+     * @return the segment in the first directory that has it, or null (e.g. removed by retention)
+     */
+    public Path resolve(Path... dirs) {
+        for (Path dir : dirs) {
+            if (dir == null) continue;
+            Path p = dir.resolve(path);
+            if (Files.isRegularFile(p)) return p;
+        }
+        return null;
+    }
+}
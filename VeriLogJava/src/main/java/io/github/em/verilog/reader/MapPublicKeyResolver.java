@@ -9,19 +9,19 @@
  */
 package io.github.em.verilog.reader;
 
-import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 
 import java.util.Map;
 
 public final class MapPublicKeyResolver implements PublicKeyResolver {
-    private final Map<String, ECPublicKeyParameters> map;
+    private final Map<String, ? extends AsymmetricKeyParameter> map;
 
-    public MapPublicKeyResolver(Map<String, ECPublicKeyParameters> map) {
+    public MapPublicKeyResolver(Map<String, ? extends AsymmetricKeyParameter> map) {
         this.map = map;
     }
 
     @Override
-    public ECPublicKeyParameters resolveByKeyIdHex(String keyIdHex) {
+    public AsymmetricKeyParameter resolveByKeyIdHex(String keyIdHex) {
         return map.get(keyIdHex);
     }
 }
\ No newline at end of file
@@ -9,8 +9,9 @@
  */
 package io.github.em.verilog.reader;
 
-import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 
+/** Resolves a keyId to an EC P-256 or Ed25519 public key; null if unknown. */
 public interface PublicKeyResolver {
-    ECPublicKeyParameters resolveByKeyIdHex(String keyIdHex);
+    AsymmetricKeyParameter resolveByKeyIdHex(String keyIdHex);
 }
\ No newline at end of file
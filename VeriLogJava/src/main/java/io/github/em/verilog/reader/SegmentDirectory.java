@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.reader;
+
+import io.github.em.verilog.errors.VeriLogIoException;
+import io.github.em.verilog.io.SegmentName;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Rotated segments of one or more directories (e.g. the log and the archive directory, with their partition
+ * subdirectories), found by seq or time from their {@link SegmentName} alone. No segment is opened. Segments
+ * with older, time-only names are listed separately, since they may hold anything.
+ * <p>
+ * Names are not authenticated: a lookup only narrows down which files to verify.
+ */
+public final class SegmentDirectory {
+
+    public static final class Segment {
+        public final Path path;
+        public final SegmentName name;
+
+        Segment(Path path, SegmentName name) {
+            this.path = path;
+            this.name = name;
+        }
+    }
+
+    private final List<Segment> segments;   // by first seq
+    private final List<Path> unnamed;
+
+    private SegmentDirectory(List<Segment> segments, List<Path> unnamed) {
+        this.segments = segments;
+        this.unnamed = unnamed;
+    }
+
+    /** lists the given directories and their partition subdirectories; missing directories are skipped */
+    public static SegmentDirectory scan(Path... dirs) throws VeriLogIoException {
+        List<Segment> segments = new ArrayList<>();
+        List<Path> unnamed = new ArrayList<>();
+        for (Path dir : dirs) {
+            if (dir == null || !Files.isDirectory(dir)) continue;
+            try {
+                for (Path p : list(dir)) {
+                    if (Files.isDirectory(p)) {
+                        for (Path q : list(p)) add(q, segments, unnamed);
+                    } else {
+                        add(p, segments, unnamed);
+                    }
+                }
+            } catch (IOException e) {
+                throw new VeriLogIoException("io.read_failed", e, dir.toString());
+            }
+        }
+        segments.sort(Comparator.comparingLong((Segment s) -> s.name.firstSeq)
+                .thenComparing(s -> s.path.getFileName().toString()));
+        unnamed.sort(Comparator.comparing(p -> p.getFileName().toString()));
+        return new SegmentDirectory(Collections.unmodifiableList(segments), Collections.unmodifiableList(unnamed));
+    }
+
+    /** segments with a seq-range name, by first seq */
+    public List<Segment> segments() {
+        return segments;
+    }
+
+    /** {@code .vlog} files without a seq-range name, such as the current segment */
+    public List<Path> unnamed() {
+        return unnamed;
+    }
+
+    /**
+     * Binary search for the segment that holds {@code seq}.
+     *
+     * @return null if no named segment covers it; it may then be in the current segment
+     */
+    public Segment findSeq(long seq) {
+        int lo = 0;
+        int hi = segments.size() - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            SegmentName n = segments.get(mid).name;
+            if (n.firstSeq > seq) {
+                hi = mid - 1;
+            } else if (!n.containsSeq(seq)) {
+                lo = mid + 1;
+            } else {
+                return segments.get(mid);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Named segments whose entries may fall into {@code [from, to]}: those whose time range overlaps it and those
+     * whose name has no time range. {@link #unnamed()} segments are not included.
+     */
+    public List<Segment> overlapping(Instant from, Instant to) {
+        List<Segment> out = new ArrayList<>();
+        for (Segment s : segments) {
+            if (!s.name.hasEntries()) continue;
+            if (!s.name.hasTimeRange() || !(s.name.maxTs.isBefore(from) || s.name.minTs.isAfter(to))) out.add(s);
+        }
+        return out;
+    }
+
+    private static void add(Path p, List<Segment> segments, List<Path> unnamed) {
+        String fileName = p.getFileName().toString();
+        if (!Files.isRegularFile(p) || !fileName.endsWith(SegmentName.EXTENSION)) return;
+        SegmentName n = SegmentName.parse(fileName);
+        if (n != null) segments.add(new Segment(p, n));
+        else unnamed.add(p);
+    }
+
+    private static List<Path> list(Path dir) throws IOException {
+        List<Path> out = new ArrayList<>();
+        try (Stream<Path> s = Files.list(dir)) {
+            s.forEach(out::add);
+        }
+        return out;
+    }
+}
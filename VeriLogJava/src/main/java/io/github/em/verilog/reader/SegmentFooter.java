@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.reader;
+
+import java.time.Instant;
+
+/**
+ * Decoded footer of a sealed segment, as returned by {@link VeriLogReader#readFooter}. Seq and hash fields are
+ * 0 and null for a segment without entries; the time range is null if the writer did not see every entry.
+ */
+public final class SegmentFooter {
+
+    public final long frames;
+    /** offset of the footer frame: header and frames before it */
+    public final long length;
+    public final long firstSeq;
+    public final long lastSeq;
+    public final String firstPrevHashHex;
+    public final String lastEntryHashHex;
+    public final Instant minTs;
+    public final Instant maxTs;
+    private final long[] index; // seq, offset, seq, offset, ...
+
+    SegmentFooter(long frames, long length, long firstSeq, long lastSeq, String firstPrevHashHex,
+                  String lastEntryHashHex, Instant minTs, Instant maxTs, long[] index) {
+        this.frames = frames;
+        this.length = length;
+        this.firstSeq = firstSeq;
+        this.lastSeq = lastSeq;
+        this.firstPrevHashHex = firstPrevHashHex;
+        this.lastEntryHashHex = lastEntryHashHex;
+        this.minTs = minTs;
+        this.maxTs = maxTs;
+        this.index = index;
+    }
+
+    /** number of (seq, offset) records in the embedded index */
+    public int indexSize() {
+        return index.length / 2;
+    }
+
+    /**
+     * Offset of the last indexed frame whose seq is below {@code seq}, or -1; the same contract as
+     * {@code SegmentIndex#offsetBefore}.
+     */
+    public long offsetBefore(long seq) {
+        int lo = 0;
+        int hi = indexSize() - 1;
+        long found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (index[2 * mid] < seq) {
+                found = index[2 * mid + 1];
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return found;
+    }
+}
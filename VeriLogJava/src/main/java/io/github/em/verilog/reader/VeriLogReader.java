@@ -14,15 +14,53 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.em.verilog.CanonicalJson;
 import io.github.em.verilog.CryptoUtil;
-import io.github.em.verilog.crypto.XChaCha20Poly1305;
+import io.github.em.verilog.audit.ChainRestartRecord;
+import io.github.em.verilog.audit.ControlRecords;
+import io.github.em.verilog.audit.MacChainKey;
+import io.github.em.verilog.audit.MacChainRecords;
+import io.github.em.verilog.audit.SegmentFooterRecord;
+import io.github.em.verilog.audit.SegmentKeyCertificate;
+import io.github.em.verilog.audit.SegmentManifestRecord;
+import io.github.em.verilog.audit.SegmentPruneRecord;
+import io.github.em.verilog.crypto.CipherSuite;
+import io.github.em.verilog.crypto.HashAlgorithm;
+import io.github.em.verilog.crypto.SegmentCipher;
+import io.github.em.verilog.crypto.X25519KeySeal;
 import io.github.em.verilog.errors.*;
+import io.github.em.verilog.io.FramedLogFile;
+import io.github.em.verilog.io.SegmentManifest;
+import io.github.em.verilog.io.SegmentName;
+import io.github.em.verilog.io.SegmentTrailer;
+import io.github.em.verilog.io.SyncMarker;
+import io.github.em.verilog.provider.CryptoProvider;
+import io.github.em.verilog.provider.CryptoSelection;
+import io.github.em.verilog.sign.BcPublicKeyLoader;
+import io.github.em.verilog.sign.SignatureAlgorithm;
 import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.crypto.params.X25519PrivateKeyParameters;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 
 import static java.nio.file.Files.getLastModifiedTime;
@@ -30,41 +68,354 @@ import static java.nio.file.Files.getLastModifiedTime;
 public final class VeriLogReader {
 
     private final ObjectMapper om = new ObjectMapper();
+    /** auditor key that opens sealed MAC chain keys; null verifies MAC entries via checkpoints only */
+    private final X25519PrivateKeyParameters macUnsealKey;
+    private final CryptoSelection crypto;
     private static final String ENTRY_HASH = "entryHash";
     private static final String CURRENT_VLOG = "current.vlog";
+    private static final String GENESIS_HEX = "0".repeat(2 * HashAlgorithm.DIGEST_LEN);
+    /** bytes after a split point searched for the sync frame a part starts at */
+    static final int SPLIT_SCAN_LIMIT = 4 << 20;
+
+    public VeriLogReader() {
+        this(null);
+    }
+
+    public VeriLogReader(X25519PrivateKeyParameters macUnsealKey) {
+        this(macUnsealKey, CryptoSelection.defaults());
+    }
+
+    /**
+     * @param crypto providers for SHA-256 entry hashes, ES256 verification and AES-GCM segments
+     */
+    public VeriLogReader(X25519PrivateKeyParameters macUnsealKey, CryptoSelection crypto) {
+        this.macUnsealKey = macUnsealKey;
+        this.crypto = Objects.requireNonNull(crypto, "crypto");
+    }
 
     public VerifyReport verifyFile(Path vlogPath, byte[] dek32, PublicKeyResolver keyResolver)
             throws VeriLogException {
         return verifyFile(vlogPath, dek32, keyResolver, false);
     }
 
+    /** verifies a file whose chain starts at genesis; see {@link #verifyFile(Path, byte[], PublicKeyResolver, boolean, ChainAnchor)} */
     public VerifyReport verifyFile(
             Path vlogPath,
             byte[] dek32,
             PublicKeyResolver keyResolver,
             boolean tolerateTrailingPartialFrame
     ) throws VeriLogException {
+        return verifyFile(vlogPath, dek32, keyResolver, tolerateTrailingPartialFrame, ChainAnchor.GENESIS);
+    }
+
+    /**
+     * Verifies a file whose chain must start at {@code anchor}: its first entry is {@code anchor.seq + 1} and
+     * links to the anchor's entry hash. Use {@link ChainAnchor#after} for a rotated segment, with the last entry
+     * of the segment before it.
+     */
+    public VerifyReport verifyFile(
+            Path vlogPath,
+            byte[] dek32,
+            PublicKeyResolver keyResolver,
+            boolean tolerateTrailingPartialFrame,
+            ChainAnchor anchor
+    ) throws VeriLogException {
+        Objects.requireNonNull(anchor, "anchor");
+        return verifyAnchored(vlogPath, dek32, keyResolver, tolerateTrailingPartialFrame, anchor);
+    }
+
+    /** @param anchor null to let the first frame fix where the chain starts, for {@link #verifyDirectory} */
+    private VerifyReport verifyAnchored(
+            Path vlogPath,
+            byte[] dek32,
+            PublicKeyResolver keyResolver,
+            boolean tolerateTrailingPartialFrame,
+            ChainAnchor anchor
+    ) throws VeriLogException {
 
         Objects.requireNonNull(vlogPath, "vlogPath");
         Objects.requireNonNull(dek32, "dek32");
         Objects.requireNonNull(keyResolver, "keyResolver");
         final State s = new State();
+        s.anchorAt(anchor);
 
         try (FramedFileReader r = new FramedFileReader(vlogPath)) {
-            final Header h = readHeader(r, vlogPath);
+            final Header h = readHeader(r, vlogPath, dek32);
+            s.restartRecords = h.restartRecords;
 
+            r.setFrameNonceLength(h.cipher.suite().frameNonceLen());
+            if (r.trailer() != null) {
+                // the footer's index is checked against the frames as they stream by
+                VerifyReport failure = loadFooterIndex(r, s, h);
+                if (failure != null) return failure;
+            }
             r.positionAtFirstFrame();
 
-            for (Frame f : r.frames(tolerateTrailingPartialFrame)) {
-                VerifyReport failure = verifyOneFrame(f, s, h, dek32, keyResolver);
-                if (failure != null) return failure;
+            VerifyReport failure = verifyFrames(r, s, h, keyResolver, tolerateTrailingPartialFrame);
+            if (failure != null) return failure;
+            if (r.trailer() != null && !s.footerVerified) {
+                return VerifyReport.fail(s.lastOk, "sealed segment footer not verified");
+            }
+
+            if (s.macUnverified > 0) {
+                return VerifyReport.fail(s.lastOk, s.macUnverified + " MAC entries after the last checkpoint (needs the MAC unseal key)");
             }
 
-        } catch (java.io.IOException e) {
+        } catch (IOException e) {
             throw new VeriLogIoException("io.read_failed", e, vlogPath.toString());
+        } finally {
+            if (s.macKey != null) s.macKey.destroy();
         }
 
-        return VerifyReport.success(s.lastOk);
+        return VerifyReport.success(s.firstSeq, s.firstPrevHash, s.lastOk, s.prevHashExpected, s.footerHash,
+                s.restartRecords, s.chainRestart);
+    }
+
+    /**
+     * Like {@link #verifyFile(Path, byte[], PublicKeyResolver, boolean)}, but splits a segment into up to
+     * {@code parallelism} parts at its sync frames and verifies the parts at the same time. A part starts at a
+     * sync frame, which gives the seq it continues at; the parts must then form one chain, and the footer of a
+     * sealed segment is checked against their combined totals. The split points are spread evenly, each at the
+     * first sync frame within 4 MiB after it. Segments without sync frames, and those with key
+     * certificates or a MAC chain (whose keys are set up at the start of the segment), are verified in one pass.
+     */
+    public VerifyReport verifyFile(
+            Path vlogPath,
+            byte[] dek32,
+            PublicKeyResolver keyResolver,
+            boolean tolerateTrailingPartialFrame,
+            int parallelism
+    ) throws VeriLogException {
+        return verifyFile(vlogPath, dek32, keyResolver, tolerateTrailingPartialFrame, ChainAnchor.GENESIS, parallelism);
+    }
+
+    /** like {@link #verifyFile(Path, byte[], PublicKeyResolver, boolean, int)}, from {@code anchor} */
+    public VerifyReport verifyFile(
+            Path vlogPath,
+            byte[] dek32,
+            PublicKeyResolver keyResolver,
+            boolean tolerateTrailingPartialFrame,
+            ChainAnchor anchor,
+            int parallelism
+    ) throws VeriLogException {
+
+        Objects.requireNonNull(anchor, "anchor");
+        Objects.requireNonNull(vlogPath, "vlogPath");
+        Objects.requireNonNull(dek32, "dek32");
+        Objects.requireNonNull(keyResolver, "keyResolver");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+
+        final State s = new State();
+        final long[] starts;
+        try (FramedFileReader r = new FramedFileReader(vlogPath)) {
+            final Header h = readHeader(r, vlogPath, dek32);
+            s.restartRecords = h.restartRecords;
+            r.setFrameNonceLength(h.cipher.suite().frameNonceLen());
+            starts = parallelism == 1 ? null : splitAtSyncFrames(r, h, parallelism);
+            if (starts != null) {
+                if (r.trailer() != null) {
+                    VerifyReport failure = loadFooterIndex(r, s, h);
+                    if (failure != null) return failure;
+                }
+                VerifyReport failure = verifyParts(vlogPath, dek32, keyResolver, tolerateTrailingPartialFrame,
+                        starts, r.trailer() == null ? Long.MAX_VALUE : r.trailer().footerOffset, anchor, s);
+                if (failure != null) return failure;
+                if (r.trailer() != null) {
+                    failure = verifyFooterFrame(r.readFooterFrame(), r.trailer().footerOffset, r.trailer(), s, h,
+                            keyResolver);
+                    if (failure != null) return failure;
+                }
+            }
+        } catch (IOException e) {
+            throw new VeriLogIoException("io.read_failed", e, vlogPath.toString());
+        }
+        if (starts == null) return verifyAnchored(vlogPath, dek32, keyResolver, tolerateTrailingPartialFrame, anchor);
+
+        if (s.macUnverified > 0) {
+            return VerifyReport.fail(s.lastOk, s.macUnverified + " MAC entries after the last checkpoint (needs the MAC unseal key)");
+        }
+        return VerifyReport.success(s.firstSeq, s.firstPrevHash, s.lastOk, s.prevHashExpected, s.footerHash,
+                s.restartRecords, s.chainRestart);
+    }
+
+    /** frames from the reader's position to the end of its range, footer included if in range */
+    private VerifyReport verifyFrames(
+            FramedFileReader r,
+            State s,
+            Header h,
+            PublicKeyResolver keyResolver,
+            boolean tolerateTrailingPartialFrame
+    ) throws VeriLogException {
+        for (Frame f : r.frames(tolerateTrailingPartialFrame)) {
+            VerifyReport failure;
+            if (f.type == FramedLogFile.TYPE_FOOTER) {
+                failure = verifyFooterFrame(f, r.frameOffset(), r.trailer(), s, h, keyResolver);
+            } else {
+                failure = verifyIndexedFrame(f, r.frameOffset(), s);
+                if (failure == null) {
+                    failure = f.type == FramedLogFile.TYPE_SYNC
+                            ? verifySyncFrame(f, r.frameOffset(), s, h)
+                            : verifyOneFrame(f, s, h, keyResolver);
+                }
+                s.frames++;
+            }
+            if (failure != null) return failure;
+        }
+        return null;
+    }
+
+    /**
+     * Start offsets of the parts: the first frame, then one sync frame per split point; null if the segment
+     * cannot be split.
+     */
+    private static long[] splitAtSyncFrames(FramedFileReader r, Header h, int parts)
+            throws VeriLogException, IOException {
+        long first = r.firstFrameOffset();
+        long end = r.framesEnd();
+        r.positionAtFirstFrame();
+        Frame f;
+        try {
+            f = r.readNextFrame(true);
+        } catch (VeriLogFormatException | VeriLogIoException e) {
+            return null; // reported by the single pass
+        }
+        if (f == null || f.type == FramedLogFile.TYPE_KEY_CERT || f.type == FramedLogFile.TYPE_MAC_KEY) return null;
+
+        long[] starts = new long[parts];
+        int n = 0;
+        starts[n++] = first;
+        for (int k = 1; k < parts; k++) {
+            long from = Math.max(first + (end - first) / parts * k, starts[n - 1] + 1);
+            long at = r.findSyncFrame(h.sync, from, from + SPLIT_SCAN_LIMIT);
+            if (at >= 0) starts[n++] = at;
+        }
+        return n == 1 ? null : Arrays.copyOf(starts, n);
+    }
+
+    /**
+     * Verifies the parts on their own threads (each with its own reader, header and state), then joins their
+     * states into {@code s} in file order. The first failure in file order is returned.
+     */
+    private VerifyReport verifyParts(
+            Path vlogPath,
+            byte[] dek32,
+            PublicKeyResolver keyResolver,
+            boolean tolerateTrailingPartialFrame,
+            long[] starts,
+            long end,
+            ChainAnchor anchor,
+            State s
+    ) throws VeriLogException {
+
+        State[] parts = new State[starts.length];
+        int[] indexStart = new int[starts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = new State();
+            parts[i].footerIndex = s.footerIndex;
+            indexStart[i] = s.footerIndex == null ? 0 : firstIndexAtOrAfter(s.footerIndex, starts[i]);
+            parts[i].footerIndexPos = indexStart[i];
+        }
+        parts[0].anchorAt(anchor);
+
+        ExecutorService pool = Executors.newFixedThreadPool(parts.length, r -> {
+            Thread t = new Thread(r, "verilog-verify");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<VerifyReport>> pending = new ArrayList<>();
+            for (int i = 0; i < parts.length; i++) {
+                final int part = i;
+                final boolean last = i == parts.length - 1;
+                pending.add(pool.submit(() -> {
+                    try (FramedFileReader r = new FramedFileReader(vlogPath)) {
+                        Header h = readHeader(r, vlogPath, dek32);
+                        r.setFrameNonceLength(h.cipher.suite().frameNonceLen());
+                        r.range(starts[part], last ? end : starts[part + 1]);
+                        return verifyFrames(r, parts[part], h, keyResolver, last && tolerateTrailingPartialFrame);
+                    } catch (IOException e) {
+                        throw new VeriLogIoException("io.read_failed", e, vlogPath.toString());
+                    }
+                }));
+            }
+
+            for (int i = 0; i < parts.length; i++) {
+                VerifyReport failure = await(pending.get(i), vlogPath);
+                if (failure != null) return failure;
+                if (i == 0) {
+                    copyPart(parts[0], s);
+                } else if ((failure = joinPart(s, parts[i], indexStart[i])) != null) {
+                    return failure;
+                }
+            }
+            return null;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void copyPart(State part, State s) {
+        s.expectedSeq = part.expectedSeq;
+        s.prevHashExpected = part.prevHashExpected;
+        s.lastOk = part.lastOk;
+        s.macUnverified = part.macUnverified;
+        s.frames = part.frames;
+        s.firstSeq = part.firstSeq;
+        s.firstPrevHash = part.firstPrevHash;
+        s.minTs = part.minTs;
+        s.maxTs = part.maxTs;
+        s.footerIndexPos = part.footerIndexPos;
+        s.chainRestart = part.chainRestart;
+    }
+
+    /** a part continues the parts before it: seq, chain link and index position */
+    private static VerifyReport joinPart(State s, State part, int indexStart) {
+        // a part without entries still holds the seq its sync frame anchored
+        long startSeq = part.firstSeq != 0 ? part.firstSeq : part.expectedSeq;
+        if (startSeq != s.expectedSeq) {
+            return VerifyReport.fail(startSeq, "frame seq not contiguous (expected " + s.expectedSeq + ")");
+        }
+        if (part.firstSeq != 0) {
+            if (s.firstSeq == 0) {
+                s.firstSeq = part.firstSeq;
+                s.firstPrevHash = part.firstPrevHash;
+            } else if (!Arrays.equals(part.firstPrevHash, s.prevHashExpected)) {
+                return VerifyReport.fail(part.firstSeq, "prevHash mismatch");
+            }
+            s.prevHashExpected = part.prevHashExpected;
+            s.lastOk = part.lastOk;
+        }
+        if (s.footerIndex != null && s.footerIndexPos != indexStart) {
+            return VerifyReport.fail(startSeq, "segment footer index does not match frames");
+        }
+        s.expectedSeq = part.expectedSeq;
+        s.footerIndexPos = part.footerIndexPos;
+        s.frames += part.frames;
+        s.macUnverified += part.macUnverified;
+        if (part.minTs != null && (s.minTs == null || part.minTs.isBefore(s.minTs))) s.minTs = part.minTs;
+        if (part.maxTs != null && (s.maxTs == null || part.maxTs.isAfter(s.maxTs))) s.maxTs = part.maxTs;
+        return null;
+    }
+
+    /** position of the first (seq, offset) record at or after {@code offset} */
+    private static int firstIndexAtOrAfter(long[] index, long offset) {
+        int i = 0;
+        while (i < index.length / 2 && index[2 * i + 1] < offset) i++;
+        return i;
+    }
+
+    /** without an anchor, the first frame of a file fixes the seq the chain continues at */
+    private static void anchor(State state, long seq) {
+        if (state.expectedSeq == 0) state.expectedSeq = seq;
+    }
+
+    private static byte[] decodeHash(String hex) {
+        try {
+            byte[] h = CryptoUtil.fromHex(hex);
+            return h.length == HashAlgorithm.DIGEST_LEN ? h : null;
+        } catch (VeriLogFormatException e) {
+            return null;
+        }
     }
 
     // ---------------------------
@@ -75,68 +426,498 @@ public final class VeriLogReader {
             Frame frame,
             State state,
             Header header,
-            byte[] dek32,
             PublicKeyResolver keyResolver
     ) throws VeriLogException {
 
         VerifyReport report;
 
+        if (frame.type == FramedLogFile.TYPE_KEY_CERT) return verifyKeyCertFrame(frame, state, header, keyResolver);
+        if (frame.type == FramedLogFile.TYPE_MAC_KEY) return verifyMacKeyFrame(frame, state, header, keyResolver);
+        if (frame.type == FramedLogFile.TYPE_MAC_CHECKPOINT) {
+            return verifyMacCheckpointFrame(frame, state, header, keyResolver);
+        }
+        if (frame.type == FramedLogFile.TYPE_CHAIN_RESTART) {
+            return verifyChainRestartFrame(frame, state, header, keyResolver);
+        }
+
+        anchor(state, frame.seq);
         if ((report = verifyFrameMeta(frame, state.expectedSeq)) != null) return report;
 
-        final byte[] aad = buildAad(header.aadPrefixBytes, frame.type, frame.seq);
+        final Decrypted d = decryptJson(frame, header);
+        if (d.failure != null) return d.failure;
+        final JsonNode signed = d.json;
+
+        if ((report = verifyRequiredFields(signed, frame)) != null) return report;
+        if ((report = verifyJsonSeqMatchesFrame(signed, frame)) != null) return report;
+        if (state.prevHashExpected == null) {
+            state.prevHashExpected = decodeHash(signed.get("prevHash").asText());
+            if (state.prevHashExpected == null) return VerifyReport.fail(frame.seq, "prevHash invalid");
+        }
+        if ((report = verifyPrevHashMatches(signed, frame, state.prevHashExpected)) != null) return report;
+
+        final CanonicalAndHash ch = canonicalizeAndHash(signed, frame, header.hash);
+        if (ch.failure != null) return ch.failure;
+
+        final SignatureAlgorithm alg = SignatureAlgorithm.fromTag(signed.path(SignatureAlgorithm.FIELD).textValue());
+        if (alg == null) return VerifyReport.fail(frame.seq, "unsupported sigAlg");
+
+        if (alg == SignatureAlgorithm.HMAC_SHA256_CHAIN) {
+            if ((report = verifyMacEntry(signed, frame, state, ch.entryHashBytes)) != null) return report;
+        } else {
+            final AsymmetricKeyParameter pub = resolveKeyOrFail(signed, state, keyResolver);
+            if (pub == null) return VerifyReport.fail(frame.seq, "unknown keyId"); // should not happen
+
+            final byte[] sigRaw = decodeSignatureOrFail(signed);
+            if (sigRaw == null) return VerifyReport.fail(frame.seq, "signature encoding invalid");
+
+            final Boolean sigOk = verifySignature(header.es256, pub, alg, ch.entryHashBytes, sigRaw, frame.seq);
+            if (sigOk == null) return VerifyReport.fail(frame.seq, "sigAlg does not match key type");
+
+            if (!sigOk) {
+                return VerifyReport.fail(frame.seq, "signature invalid");
+            }
+        }
+
+        if (state.footerIndex != null && (report = trackTimestamp(signed, frame, state)) != null) return report;
+
+        // Update state (single place, after full success)
+        if (state.firstSeq == 0) {
+            state.firstSeq = frame.seq;
+            state.firstPrevHash = state.prevHashExpected;
+        }
+        state.prevHashExpected = ch.entryHashBytes;
+        state.expectedSeq++;
+        state.lastOk = frame.seq;
+
+        return null;
+    }
+
+    /**
+     * A sync frame shares the seq of the entry before it and names its own offset. It carries no entry; a part
+     * of a split segment starts at one and continues after its seq.
+     */
+    private static VerifyReport verifySyncFrame(Frame frame, long offset, State state, Header header) {
+        anchor(state, frame.seq + 1);
+        if (frame.seq != state.expectedSeq - 1) {
+            return VerifyReport.fail(frame.seq, "sync frame not at last entry seq (expected " + (state.expectedSeq - 1) + ")");
+        }
+        ByteBuffer payload = ByteBuffer.allocate(1 + 8 + frame.nonce24.length + frame.ct.length);
+        payload.put(frame.type).putLong(frame.seq).put(frame.nonce24).put(frame.ct).flip();
+        if (!header.sync.authentic(payload, offset)) return VerifyReport.fail(frame.seq, "sync frame invalid");
+        return null;
+    }
 
-        final byte[] plaintext;
+    /**
+     * A key certificate shares the seq of the next entry and authorizes its subject key for the rest of the file.
+     * It is checked against the long-term key once; entries signed by the subject key then verify against it
+     * directly.
+     */
+    private VerifyReport verifyKeyCertFrame(
+            Frame frame,
+            State state,
+            Header header,
+            PublicKeyResolver keyResolver
+    ) throws VeriLogException {
+
+        anchor(state, frame.seq);
+        if (frame.seq != state.expectedSeq) {
+            return VerifyReport.fail(frame.seq, "key certificate not at next entry seq (expected " + state.expectedSeq + ")");
+        }
+
+        final Decrypted d = decryptJson(frame, header);
+        if (d.failure != null) return d.failure;
+        final JsonNode cert = d.json;
+
+        for (String field : new String[]{"firstSeq", "headerHash", "subjectAlg", "subjectKey", "subjectKeyId", "keyId", "sig"}) {
+            if (!cert.hasNonNull(field)) return VerifyReport.fail(frame.seq, "missing required fields in key certificate");
+        }
+        if (!SegmentKeyCertificate.KIND.equals(cert.path("kind").asText())) {
+            return VerifyReport.fail(frame.seq, "unsupported key certificate kind");
+        }
+        if (cert.get("firstSeq").asLong() != frame.seq) {
+            return VerifyReport.fail(frame.seq, "key certificate firstSeq mismatch");
+        }
+        VerifyReport report = verifyControlRecord(cert, frame, header, keyResolver, "key certificate");
+        if (report != null) return report;
+
+        final String subjectKeyId = cert.get("subjectKeyId").asText();
+        final AsymmetricKeyParameter subject;
         try {
-            plaintext = XChaCha20Poly1305.decrypt(dek32, frame.nonce24, frame.ct, aad);
-        } catch (InvalidCipherTextException e) {
-            return VerifyReport.fail(frame.seq, "decrypt/auth failed");
+            byte[] spki = Base64.getDecoder().decode(cert.get("subjectKey").asText());
+            if (!CryptoUtil.hexLowerEquals(CryptoUtil.sha256(spki), subjectKeyId)) {
+                return VerifyReport.fail(frame.seq, "key certificate subjectKeyId mismatch");
+            }
+            subject = BcPublicKeyLoader.verificationKeyFromSpkiDer(spki);
+        } catch (IllegalArgumentException | VeriLogFormatException e) {
+            return VerifyReport.fail(frame.seq, "key certificate subject key invalid");
+        }
+        if (!matches(subject, SignatureAlgorithm.fromTag(cert.get("subjectAlg").asText()))) {
+            return VerifyReport.fail(frame.seq, "key certificate subjectAlg does not match key type");
+        }
+
+        state.certifiedKeys.put(subjectKeyId, subject);
+        return null;
+    }
+
+    /**
+     * A chain restart record shares seq 1 with the first entry of the file and comes before it. It lets the file
+     * start a new chain after other files in a directory; see {@link #verifyDirectory}.
+     */
+    private VerifyReport verifyChainRestartFrame(
+            Frame frame,
+            State state,
+            Header header,
+            PublicKeyResolver keyResolver
+    ) throws VeriLogException {
+
+        anchor(state, frame.seq);
+        if (frame.seq != 1 || state.expectedSeq != 1 || state.chainRestart) {
+            return VerifyReport.fail(frame.seq, "chain restart record not before the first entry at seq 1");
+        }
+
+        final Decrypted d = decryptJson(frame, header);
+        if (d.failure != null) return d.failure;
+        final JsonNode rec = d.json;
+
+        for (String field : new String[]{"firstSeq", "headerHash", "keyId", "sig"}) {
+            if (!rec.hasNonNull(field)) return VerifyReport.fail(frame.seq, "missing required fields in chain restart record");
+        }
+        if (!ChainRestartRecord.KIND.equals(rec.path("kind").asText())) {
+            return VerifyReport.fail(frame.seq, "unsupported chain restart record kind");
+        }
+        if (rec.get("firstSeq").asLong() != frame.seq) {
+            return VerifyReport.fail(frame.seq, "chain restart record firstSeq mismatch");
+        }
+        VerifyReport report = verifyControlRecord(rec, frame, header, keyResolver, "chain restart record");
+        if (report != null) return report;
+
+        state.chainRestart = true;
+        return null;
+    }
+
+    /**
+     * The MAC key record shares the seq of the next entry. Its sealed initial key is only opened when this
+     * reader holds the auditor key; otherwise MAC entries are accepted provisionally until a checkpoint.
+     */
+    private VerifyReport verifyMacKeyFrame(
+            Frame frame,
+            State state,
+            Header header,
+            PublicKeyResolver keyResolver
+    ) throws VeriLogException {
+
+        anchor(state, frame.seq);
+        if (frame.seq != state.expectedSeq) {
+            return VerifyReport.fail(frame.seq, "MAC key record not at next entry seq (expected " + state.expectedSeq + ")");
+        }
+
+        final Decrypted d = decryptJson(frame, header);
+        if (d.failure != null) return d.failure;
+        final JsonNode rec = d.json;
+
+        for (String field : new String[]{"firstSeq", "headerHash", "sealAlg", "sealedKey", "keyId", "sig"}) {
+            if (!rec.hasNonNull(field)) return VerifyReport.fail(frame.seq, "missing required fields in MAC key record");
+        }
+        if (!MacChainRecords.KEY_KIND.equals(rec.path("kind").asText())
+                || !MacChainRecords.SEAL_ALG.equals(rec.get("sealAlg").asText())) {
+            return VerifyReport.fail(frame.seq, "unsupported MAC key record");
+        }
+        if (rec.get("firstSeq").asLong() != frame.seq) {
+            return VerifyReport.fail(frame.seq, "MAC key record firstSeq mismatch");
+        }
+        VerifyReport report = verifyControlRecord(rec, frame, header, keyResolver, "MAC key record");
+        if (report != null) return report;
+
+        if (state.macKey != null) state.macKey.destroy();
+        state.macKey = null;
+        if (macUnsealKey != null) {
+            final byte[] k0;
+            try {
+                byte[] sealed = Base64.getDecoder().decode(rec.get("sealedKey").asText());
+                k0 = X25519KeySeal.unseal(macUnsealKey, sealed, header.headerHash);
+            } catch (IllegalArgumentException | InvalidCipherTextException e) {
+                return VerifyReport.fail(frame.seq, "MAC key unseal failed");
+            }
+            state.macKey = new MacChainKey(k0);
+            Arrays.fill(k0, (byte) 0);
+        }
+        state.macIssuerKeyId = rec.get("keyId").asText();
+        return null;
+    }
+
+    /** A checkpoint shares the seq of the last entry it covers and must commit to the current chain head. */
+    private VerifyReport verifyMacCheckpointFrame(
+            Frame frame,
+            State state,
+            Header header,
+            PublicKeyResolver keyResolver
+    ) throws VeriLogException {
+
+        if (state.macIssuerKeyId == null) return VerifyReport.fail(frame.seq, "MAC checkpoint without MAC key record");
+        if (frame.seq != state.expectedSeq - 1) {
+            return VerifyReport.fail(frame.seq, "MAC checkpoint not at last entry seq (expected " + (state.expectedSeq - 1) + ")");
+        }
+
+        final Decrypted d = decryptJson(frame, header);
+        if (d.failure != null) return d.failure;
+        final JsonNode rec = d.json;
+
+        for (String field : new String[]{"seq", ENTRY_HASH, "headerHash", "keyId", "sig"}) {
+            if (!rec.hasNonNull(field)) return VerifyReport.fail(frame.seq, "missing required fields in MAC checkpoint");
         }
+        if (!MacChainRecords.CHECKPOINT_KIND.equals(rec.path("kind").asText())) {
+            return VerifyReport.fail(frame.seq, "unsupported MAC checkpoint kind");
+        }
+        if (rec.get("seq").asLong() != frame.seq || !CryptoUtil.hexLowerEquals(state.prevHashExpected, rec.get(ENTRY_HASH).asText())) {
+            return VerifyReport.fail(frame.seq, "MAC checkpoint does not match chain head");
+        }
+        VerifyReport report = verifyControlRecord(rec, frame, header, keyResolver, "MAC checkpoint");
+        if (report != null) return report;
+
+        state.macUnverified = 0;
+        return null;
+    }
+
+    /**
+     * The footer is the last frame of a sealed segment and shares the seq of its last entry. Everything it states
+     * is compared with the frames verified before it and with the trailer.
+     */
+    private VerifyReport verifyFooterFrame(
+            Frame frame,
+            long offset,
+            SegmentTrailer trailer,
+            State state,
+            Header header,
+            PublicKeyResolver keyResolver
+    ) throws VeriLogException {
+
+        if (trailer == null || offset != trailer.footerOffset) {
+            return VerifyReport.fail(frame.seq, "segment footer without trailer");
+        }
+        anchor(state, frame.seq + 1); // a segment without any other frame
+        if (frame.seq != state.expectedSeq - 1) {
+            return VerifyReport.fail(frame.seq, "segment footer not at last entry seq (expected " + (state.expectedSeq - 1) + ")");
+        }
+
+        final Decrypted d = decryptJson(frame, header);
+        if (d.failure != null) return d.failure;
+        final JsonNode rec = d.json;
+
+        String missing = missingFooterField(rec);
+        if (missing != null) return VerifyReport.fail(frame.seq, missing);
+        VerifyReport report = verifyControlRecord(rec, frame, header, keyResolver, "segment footer");
+        if (report != null) return report;
+
+        if (rec.get("frames").asLong() != state.frames || rec.get("length").asLong() != offset) {
+            return VerifyReport.fail(frame.seq, "segment footer does not match frames");
+        }
+        boolean entries = state.firstSeq != 0;
+        if (entries != rec.hasNonNull("firstSeq")) return VerifyReport.fail(frame.seq, "segment footer does not match chain");
+        if (entries && (rec.get("firstSeq").asLong() != state.firstSeq
+                || rec.path("lastSeq").asLong() != state.expectedSeq - 1
+                || !CryptoUtil.hexLowerEquals(state.firstPrevHash, rec.path("firstPrevHash").asText())
+                || !CryptoUtil.hexLowerEquals(state.prevHashExpected, rec.path("lastEntryHash").asText()))) {
+            return VerifyReport.fail(frame.seq, "segment footer does not match chain");
+        }
+        if (rec.hasNonNull("minTs") && (!parseTs(rec.get("minTs")).equals(state.minTs)
+                || !parseTs(rec.path("maxTs")).equals(state.maxTs))) {
+            return VerifyReport.fail(frame.seq, "segment footer time range does not match entries");
+        }
+        if (state.footerIndexPos != state.footerIndex.length / 2) {
+            return VerifyReport.fail(frame.seq, "segment footer index does not match frames");
+        }
+        if (trailer.frames != state.frames
+                || trailer.firstSeq != (entries ? state.firstSeq : 0)
+                || trailer.lastSeq != (entries ? state.expectedSeq - 1 : 0)) {
+            return VerifyReport.fail(frame.seq, "segment trailer does not match footer");
+        }
+        state.footerVerified = true;
+        state.footerHash = ControlRecords.hash(rec);
+        return null;
+    }
+
+    /** @return a failure reason, or null if the fields every footer has are present */
+    private static String missingFooterField(JsonNode rec) {
+        for (String field : new String[]{"headerHash", "frames", "length", "index", "keyId", "sig"}) {
+            if (!rec.hasNonNull(field)) return "missing required fields in segment footer";
+        }
+        if (!SegmentFooterRecord.KIND.equals(rec.path("kind").asText())) return "unsupported segment footer kind";
+        return null;
+    }
+
+    private VerifyReport loadFooterIndex(FramedFileReader r, State state, Header header) throws VeriLogException {
+        Frame footer = r.readFooterFrame();
+        final Decrypted d = decryptJson(footer, header);
+        if (d.failure != null) return d.failure;
+        state.footerIndex = decodeIndex(d.json.path("index").asText(""));
+        if (state.footerIndex == null) return VerifyReport.fail(footer.seq, "segment footer index invalid");
+        return null;
+    }
+
+    /** every index record must name the offset and seq of a frame */
+    private static VerifyReport verifyIndexedFrame(Frame frame, long offset, State state) {
+        long[] index = state.footerIndex;
+        if (index == null) return null;
+        int i = state.footerIndexPos;
+        if (i < index.length / 2 && index[2 * i + 1] < offset) {
+            return VerifyReport.fail(frame.seq, "segment footer index does not match frames");
+        }
+        if (i < index.length / 2 && index[2 * i + 1] == offset) {
+            if (index[2 * i] != frame.seq) return VerifyReport.fail(frame.seq, "segment footer index does not match frames");
+            state.footerIndexPos++;
+        }
+        return null;
+    }
 
-        final JsonNode signed;
+    private static VerifyReport trackTimestamp(JsonNode signed, Frame frame, State state) {
+        final Instant ts;
         try {
-            signed = om.readTree(new String(plaintext, StandardCharsets.UTF_8));
-        } catch (JsonProcessingException e) {
-            return VerifyReport.fail(frame.seq, "invalid signed JSON");
+            ts = parseTs(signed.path("ts"));
+        } catch (DateTimeParseException e) {
+            return VerifyReport.fail(frame.seq, "invalid ts");
         }
+        if (state.minTs == null || ts.isBefore(state.minTs)) state.minTs = ts;
+        if (state.maxTs == null || ts.isAfter(state.maxTs)) state.maxTs = ts;
+        return null;
+    }
 
-        if ((report = verifyRequiredFields(signed, frame)) != null) return report;
-        if ((report = verifyJsonSeqMatchesFrame(signed, frame)) != null) return report;
-        if ((report = verifyPrevHashMatches(signed, frame, state.prevHashExpected)) != null) return report;
+    private static Instant parseTs(JsonNode ts) {
+        return Instant.parse(ts.asText());
+    }
 
-        final CanonicalAndHash ch = canonicalizeAndHash(signed, frame);
-        if (ch.failure != null) return ch.failure;
+    /** 16-byte big-endian (seq, offset) pairs; null if malformed */
+    @SuppressWarnings("java:S1168")
+    private static long[] decodeIndex(String b64) {
+        final ByteBuffer b;
+        try {
+            b = ByteBuffer.wrap(Base64.getDecoder().decode(b64));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (b.remaining() % 16 != 0) return null;
+        long[] index = new long[b.remaining() / 8];
+        for (int i = 0; i < index.length; i++) index[i] = b.getLong();
+        return index;
+    }
+
+    private VerifyReport verifyMacEntry(JsonNode signed, Frame frame, State state, byte[] entryHash) {
+        if (state.macIssuerKeyId == null) return VerifyReport.fail(frame.seq, "MAC entry without MAC key record");
+        if (!state.macIssuerKeyId.equals(signed.get("keyId").asText())) {
+            return VerifyReport.fail(frame.seq, "MAC entry keyId does not match MAC key record");
+        }
 
-        final ECPublicKeyParameters pub = resolveKeyOrFail(signed, keyResolver);
-        if (pub == null) return VerifyReport.fail(frame.seq, "unknown keyId"); // should not happen
+        final byte[] mac = decodeSignatureOrFail(signed);
+        if (mac == null) return VerifyReport.fail(frame.seq, "signature encoding invalid");
 
-        final byte[] sigRaw = decodeSignatureOrFail(signed);
+        if (state.macKey == null) {
+            // authenticated later by a signed checkpoint over the chain head
+            state.macUnverified++;
+            return null;
+        }
+        if (!state.macKey.verifyAndEvolve(entryHash, mac)) return VerifyReport.fail(frame.seq, "entry MAC invalid");
+        return null;
+    }
+
+    /** shared checks for long-term-key signed control records: file binding, issuer, signature */
+    private VerifyReport verifyControlRecord(
+            JsonNode rec,
+            Frame frame,
+            Header header,
+            PublicKeyResolver keyResolver,
+            String what
+    ) throws VeriLogException {
+
+        if (!CryptoUtil.hexLowerEquals(header.headerHash, rec.get("headerHash").asText())) {
+            return VerifyReport.fail(frame.seq, what + " bound to another file");
+        }
+
+        final String issuerKeyId = rec.get("keyId").asText();
+        final AsymmetricKeyParameter issuer = keyResolver.resolveByKeyIdHex(issuerKeyId);
+        if (issuer == null) return VerifyReport.fail(frame.seq, "unknown keyId: " + issuerKeyId);
+
+        final SignatureAlgorithm issuerAlg = SignatureAlgorithm.fromTag(rec.path(SignatureAlgorithm.FIELD).textValue());
+        if (issuerAlg == null) return VerifyReport.fail(frame.seq, "unsupported sigAlg");
+
+        final byte[] sigRaw = decodeSignatureOrFail(rec);
         if (sigRaw == null) return VerifyReport.fail(frame.seq, "signature encoding invalid");
 
-        final boolean sigOk;
+        final Boolean sigOk = verifySignature(header.es256, issuer, issuerAlg, ControlRecords.hash(rec), sigRaw, frame.seq);
+        if (sigOk == null) return VerifyReport.fail(frame.seq, "sigAlg does not match key type");
+        if (!sigOk) return VerifyReport.fail(frame.seq, what + " signature invalid");
+        return null;
+    }
+
+    private Decrypted decryptJson(Frame frame, Header header) {
+        final byte[] aad = header.aad(frame.type, frame.seq);
+
+        final ByteBuffer plaintext = header.plaintextBuffer(frame.ct.length);
         try {
-            sigOk = BcEcdsaVerifier.verifyEntryHashSig(pub, ch.entryHashBytes, sigRaw);
-        } catch (VeriLogCryptoException e) {
-            // unexpected crypto failure (engine/provider/etc)
-            throw new VeriLogCryptoException("crypto.verify_failed", e, "seq", String.valueOf(frame.seq));
+            header.cipher.decryptInto(frame.type, frame.seq, frame.nonce24, aad, ByteBuffer.wrap(frame.ct), plaintext);
+        } catch (InvalidCipherTextException e) {
+            return Decrypted.fail(VerifyReport.fail(frame.seq, "decrypt/auth failed"));
         }
 
-        if (!sigOk) {
-            return VerifyReport.fail(frame.seq, "signature invalid");
+        try {
+            return Decrypted.ok(om.readTree(plaintext.array(), 0, plaintext.position()));
+        } catch (IOException e) {
+            return Decrypted.fail(VerifyReport.fail(frame.seq, "invalid signed JSON"));
         }
+    }
 
-        // Update state (single place, after full success)
-        state.prevHashExpected = ch.expectedEntryHashHex;
-        state.expectedSeq++;
-        state.lastOk = frame.seq;
+    private static final class Decrypted {
+        final JsonNode json;
+        final VerifyReport failure;
 
-        return null;
+        private Decrypted(JsonNode json, VerifyReport failure) {
+            this.json = json;
+            this.failure = failure;
+        }
+
+        static Decrypted ok(JsonNode json) {
+            return new Decrypted(json, null);
+        }
+
+        static Decrypted fail(VerifyReport r) {
+            return new Decrypted(null, r);
+        }
+    }
+
+    /**
+     * Verifier is chosen by key type; the algorithm tag must agree (no algorithm confusion).
+     *
+     * @return null if the key type does not match {@code alg}
+     */
+    @SuppressWarnings("java:S2447")
+    private static Boolean verifySignature(
+            CryptoProvider.Es256Verifier es256,
+            AsymmetricKeyParameter pub,
+            SignatureAlgorithm alg,
+            byte[] hash32,
+            byte[] sigRaw,
+            long seq
+    ) throws VeriLogCryptoException {
+        if (!matches(pub, alg)) return null;
+        try {
+            if (pub instanceof ECPublicKeyParameters) {
+                return es256.verify((ECPublicKeyParameters) pub, hash32, sigRaw);
+            }
+            return BcEd25519Verifier.verifyEntryHashSig((Ed25519PublicKeyParameters) pub, hash32, sigRaw);
+        } catch (VeriLogCryptoException e) {
+            // unexpected crypto failure (engine/provider/etc)
+            throw new VeriLogCryptoException("crypto.verify_failed", e, "seq", String.valueOf(seq));
+        }
+    }
+
+    private static boolean matches(AsymmetricKeyParameter pub, SignatureAlgorithm alg) {
+        return (pub instanceof ECPublicKeyParameters && alg == SignatureAlgorithm.ES256)
+                || (pub instanceof Ed25519PublicKeyParameters && alg == SignatureAlgorithm.ED25519);
     }
 
     // ---------------------------
     // Header
     // ---------------------------
 
-    private Header readHeader(FramedFileReader r, Path vlogPath) throws VeriLogException {
+    private Header readHeader(FramedFileReader r, Path vlogPath, byte[] dek32) throws VeriLogException {
         final byte[] raw = r.rawHeaderJsonBytes();
         if (raw == null || raw.length == 0) {
             throw new VeriLogFormatException("format.missing_header", vlogPath.toString());
@@ -150,21 +931,109 @@ public final class VeriLogReader {
         }
 
         String aadPrefix = header.has("aad") ? header.get("aad").asText() : "VeriLog|v1";
-        return new Header(aadPrefix.getBytes(StandardCharsets.UTF_8));
+        CipherSuite suite = CipherSuite.fromAlg(header.hasNonNull("alg") ? header.get("alg").asText() : null);
+        String hashTag = header.path(HashAlgorithm.HEADER_FIELD).textValue();
+        HashAlgorithm hash = HashAlgorithm.fromTag(hashTag);
+        if (hash == null) throw new VeriLogFormatException("format.unsupported_hash", hashTag);
+
+        final byte[] salt;
+        try {
+            salt = header.hasNonNull("salt")
+                    ? Base64.getDecoder().decode(header.get("salt").asText())
+                    : new byte[0];
+        } catch (IllegalArgumentException e) {
+            throw new VeriLogFormatException("format.invalid_header_field", e, "salt");
+        }
+        if (suite.saltLen() > 0 && salt.length != suite.saltLen()) {
+            throw new VeriLogFormatException("format.invalid_header_field", "salt");
+        }
+
+        // subkey derived once per file, not per frame
+        SegmentCipher cipher = SegmentCipher.create(suite, dek32, salt, crypto.aesGcm());
+        byte[] headerHash = CryptoUtil.sha256(raw);
+        return new Header(aadPrefix.getBytes(StandardCharsets.UTF_8), cipher, hash, headerHash,
+                crypto.es256Verifier(), SyncMarker.forSegment(dek32, headerHash, r.frameChecksums()),
+                header.path(FramedLogFile.RESTART_RECORDS_FIELD).asBoolean(false));
     }
 
     private static final class Header {
         final byte[] aadPrefixBytes;
-
-        Header(byte[] aadPrefixBytes) {
+        final SegmentCipher cipher;
+        final HashAlgorithm hash;
+        final byte[] headerHash;
+        final CryptoProvider.Es256Verifier es256;
+        final SyncMarker sync;
+        final boolean restartRecords;
+        // per-file scratch, reused for every frame
+        private final byte[] aad;
+        private ByteBuffer plaintext = ByteBuffer.allocate(4096);
+
+        Header(byte[] aadPrefixBytes, SegmentCipher cipher, HashAlgorithm hash, byte[] headerHash,
+               CryptoProvider.Es256Verifier es256, SyncMarker sync, boolean restartRecords) {
             this.aadPrefixBytes = aadPrefixBytes;
+            this.cipher = cipher;
+            this.hash = hash;
+            this.headerHash = headerHash;
+            this.es256 = es256;
+            this.sync = sync;
+            this.restartRecords = restartRecords;
+            this.aad = new byte[aadPrefixBytes.length + 1 + 8 + 1 + 1];
+            System.arraycopy(aadPrefixBytes, 0, aad, 0, aadPrefixBytes.length);
+        }
+
+        /** aad = prefix || 0x00 || uint64_be(seq) || 0x00 || type */
+        byte[] aad(byte type, long seq) {
+            int off = aadPrefixBytes.length;
+            aad[off++] = 0x00;
+            for (int i = 0; i < 8; i++) {
+                aad[off++] = (byte) (seq >>> (56 - 8 * i));
+            }
+            aad[off++] = 0x00;
+            aad[off] = type;
+            return aad;
+        }
+
+        ByteBuffer plaintextBuffer(int ciphertextLen) {
+            if (plaintext.capacity() < ciphertextLen) {
+                plaintext = ByteBuffer.allocate(Math.max(ciphertextLen, plaintext.capacity() * 2));
+            }
+            plaintext.clear();
+            return plaintext;
         }
     }
 
     private static final class State {
-        long expectedSeq = 1;
-        String prevHashExpected = "0".repeat(64);
+        // where the chain continues: set by the anchor, or else by the first frame (0/null: not yet), in which
+        // case verifyDirectory checks that the file continues the previous one
+        long expectedSeq;
+        byte[] prevHashExpected;
         long lastOk = 0;
+        // keys authorized by a verified key certificate in this file
+        final Map<String, AsymmetricKeyParameter> certifiedKeys = new HashMap<>();
+        // MAC chain: issuer of the current key record, evolving key (null without the auditor key),
+        // and MAC entries not yet covered by a checkpoint
+        String macIssuerKeyId;
+        MacChainKey macKey;
+        long macUnverified;
+        // sealed segments: totals the footer is checked against, and its index (null when not sealed)
+        long frames;
+        long firstSeq;
+        byte[] firstPrevHash;
+        Instant minTs;
+        Instant maxTs;
+        long[] footerIndex;
+        int footerIndexPos;
+        boolean footerVerified;
+        byte[] footerHash;
+        // header mark that restarts carry a record, and a verified restart record at the start of the file
+        boolean restartRecords;
+        boolean chainRestart;
+
+        void anchorAt(ChainAnchor anchor) {
+            if (anchor == null) return;
+            expectedSeq = anchor.seq + 1;
+            prevHashExpected = anchor.entryHash();
+        }
     }
 
     // ----------------------------------------------
@@ -202,9 +1071,8 @@ public final class VeriLogReader {
         return null;
     }
 
-    private VerifyReport verifyPrevHashMatches(JsonNode signed, Frame f, String prevHashExpected) {
-        String prevHash = signed.get("prevHash").asText();
-        if (!prevHash.equals(prevHashExpected)) {
+    private VerifyReport verifyPrevHashMatches(JsonNode signed, Frame f, byte[] prevHashExpected) {
+        if (!CryptoUtil.hexLowerEquals(prevHashExpected, signed.get("prevHash").asText())) {
             return VerifyReport.fail(f.seq, "prevHash mismatch");
         }
         return null;
@@ -212,41 +1080,48 @@ public final class VeriLogReader {
 
     private static final class CanonicalAndHash {
         final byte[] entryHashBytes;
-        final String expectedEntryHashHex;
         final VerifyReport failure;
 
-        private CanonicalAndHash(byte[] entryHashBytes, String expectedEntryHashHex, VerifyReport failure) {
+        private CanonicalAndHash(byte[] entryHashBytes, VerifyReport failure) {
             this.entryHashBytes = entryHashBytes;
-            this.expectedEntryHashHex = expectedEntryHashHex;
             this.failure = failure;
         }
 
         static CanonicalAndHash fail(VerifyReport r) {
-            return new CanonicalAndHash(null, null, r);
+            return new CanonicalAndHash(null, r);
         }
 
-        static CanonicalAndHash ok(byte[] bytes, String expectedHex) {
-            return new CanonicalAndHash(bytes, expectedHex, null);
+        static CanonicalAndHash ok(byte[] bytes) {
+            return new CanonicalAndHash(bytes, null);
         }
     }
 
-    private CanonicalAndHash canonicalizeAndHash(JsonNode signed, Frame f) throws VeriLogException {
+    private CanonicalAndHash canonicalizeAndHash(JsonNode signed, Frame f, HashAlgorithm segmentHash)
+            throws VeriLogException {
+        final HashAlgorithm hash = HashAlgorithm.fromTag(signed.path(HashAlgorithm.ENTRY_FIELD).textValue());
+        if (hash == null) return CanonicalAndHash.fail(VerifyReport.fail(f.seq, "unsupported hashAlg"));
+        if (hash != segmentHash) {
+            // otherwise an entry could pick a weaker function than the segment declares
+            return CanonicalAndHash.fail(VerifyReport.fail(f.seq, "hashAlg does not match segment header"));
+        }
+
         final String canonicalPayload;
         canonicalPayload = canonicalizeWithout(signed);
-        byte[] entryHashBytes = CryptoUtil.sha256Utf8(canonicalPayload);
-        String computedEntryHashHex = CryptoUtil.toHexLower(entryHashBytes);
+        byte[] entryHashBytes = hash == HashAlgorithm.SHA_256
+                ? crypto.sha256(canonicalPayload.getBytes(StandardCharsets.UTF_8))
+                : hash.digestUtf8(canonicalPayload);
 
-        String expectedEntryHashHex = signed.get(ENTRY_HASH).asText();
-        if (!computedEntryHashHex.equals(expectedEntryHashHex)) {
+        if (!CryptoUtil.hexLowerEquals(entryHashBytes, signed.get(ENTRY_HASH).asText())) {
             return CanonicalAndHash.fail(VerifyReport.fail(f.seq, "entryHash mismatch"));
         }
 
-        return CanonicalAndHash.ok(entryHashBytes, expectedEntryHashHex);
+        return CanonicalAndHash.ok(entryHashBytes);
     }
 
-    private ECPublicKeyParameters resolveKeyOrFail(JsonNode signed, PublicKeyResolver keyResolver) {
+    private AsymmetricKeyParameter resolveKeyOrFail(JsonNode signed, State state, PublicKeyResolver keyResolver) {
         String keyId = signed.get("keyId").asText();
-        ECPublicKeyParameters pub = keyResolver.resolveByKeyIdHex(keyId);
+        AsymmetricKeyParameter pub = state.certifiedKeys.get(keyId);
+        if (pub == null) pub = keyResolver.resolveByKeyIdHex(keyId);
         if (pub == null) {
             // expected verification failure
             return null;
@@ -265,6 +1140,135 @@ public final class VeriLogReader {
     }
 
 
+    /**
+     * Reads and checks only the footer of a sealed segment: its tag, its binding to the header and the issuer's
+     * signature. The cost does not depend on the segment size. The frames are not verified; use
+     * {@link #verifyFile} for that.
+     *
+     * @return null if the segment is not sealed
+     */
+    public SegmentFooter readFooter(Path vlogPath, byte[] dek32, PublicKeyResolver keyResolver)
+            throws VeriLogException {
+
+        Objects.requireNonNull(vlogPath, "vlogPath");
+        Objects.requireNonNull(dek32, "dek32");
+        Objects.requireNonNull(keyResolver, "keyResolver");
+
+        try (FramedFileReader r = new FramedFileReader(vlogPath)) {
+            if (r.trailer() == null) return null;
+            final Header h = readHeader(r, vlogPath, dek32);
+            r.setFrameNonceLength(h.cipher.suite().frameNonceLen());
+
+            Frame frame = r.readFooterFrame();
+            final Decrypted d = decryptJson(frame, h);
+            if (d.failure != null) throw new VeriLogFormatException("format.invalid_footer", d.failure.reason);
+            final JsonNode rec = d.json;
+            String missing = missingFooterField(rec);
+            if (missing != null) throw new VeriLogFormatException("format.invalid_footer", missing);
+            VerifyReport report = verifyControlRecord(rec, frame, h, keyResolver, "segment footer");
+            if (report != null) throw new VeriLogFormatException("format.invalid_footer", report.reason);
+
+            long[] index = decodeIndex(rec.get("index").asText());
+            if (index == null) throw new VeriLogFormatException("format.invalid_footer", "segment footer index invalid");
+            try {
+                return new SegmentFooter(rec.get("frames").asLong(), rec.get("length").asLong(),
+                        rec.path("firstSeq").asLong(), rec.path("lastSeq").asLong(),
+                        rec.path("firstPrevHash").textValue(), rec.path("lastEntryHash").textValue(),
+                        rec.hasNonNull("minTs") ? parseTs(rec.get("minTs")) : null,
+                        rec.hasNonNull("maxTs") ? parseTs(rec.get("maxTs")) : null,
+                        index);
+            } catch (DateTimeParseException e) {
+                throw new VeriLogFormatException("format.invalid_footer", e, "invalid time range");
+            }
+        }
+    }
+
+    /**
+     * Reads and verifies a segment manifest without opening any segment: every record must be signed by a known
+     * key, number on from the one before and carry its hash. A torn last line is ignored, as the writer does.
+     * Prune records are not returned; they mark the segment they name as {@link ManifestEntry#isPruned() pruned}.
+     *
+     * @throws VeriLogFormatException naming the first record that fails
+     */
+    public List<ManifestEntry> readManifest(Path manifestPath, PublicKeyResolver keyResolver)
+            throws VeriLogException {
+
+        Objects.requireNonNull(manifestPath, "manifestPath");
+        Objects.requireNonNull(keyResolver, "keyResolver");
+
+        final List<String> lines;
+        try {
+            lines = SegmentManifest.readLines(manifestPath);
+        } catch (IOException e) {
+            throw new VeriLogIoException("io.read_failed", e, manifestPath.toString());
+        }
+        final CryptoProvider.Es256Verifier es256 = crypto.es256Verifier();
+        List<ManifestEntry> entries = new ArrayList<>(lines.size());
+        Map<String, Integer> byPath = new HashMap<>();
+        String prevHash = GENESIS_HEX;
+        for (int i = 0; i < lines.size(); i++) {
+            long n = i + 1L;
+            final JsonNode rec;
+            try {
+                rec = om.readTree(lines.get(i));
+            } catch (IOException e) {
+                throw new VeriLogFormatException("format.invalid_manifest", "record " + n + ": invalid JSON");
+            }
+            String failure = verifyManifestRecord(rec, n, prevHash, es256, keyResolver);
+            if (failure != null) throw new VeriLogFormatException("format.invalid_manifest", "record " + n + ": " + failure);
+            prevHash = CryptoUtil.toHexLower(ControlRecords.hash(rec));
+            if (SegmentPruneRecord.KIND.equals(rec.path("kind").asText())) {
+                Integer listed = byPath.get(rec.get("path").asText());
+                if (listed == null) {
+                    throw new VeriLogFormatException("format.invalid_manifest", "record " + n + ": prunes no listed segment");
+                }
+                if (!entries.get(listed).isPruned()) entries.set(listed, entries.get(listed).prunedBy(n));
+                continue;
+            }
+            byPath.put(rec.get("path").asText(), entries.size());
+            entries.add(new ManifestEntry(n, rec.get("path").asText(), rec.get("headerHash").asText(),
+                    rec.get("frames").asLong(), rec.get("length").asLong(),
+                    rec.path("firstSeq").asLong(), rec.path("lastSeq").asLong(), rec.get("footerHash").asText()));
+        }
+        return entries;
+    }
+
+    /** @return a failure reason, or null */
+    private String verifyManifestRecord(
+            JsonNode rec,
+            long n,
+            String prevHashHex,
+            CryptoProvider.Es256Verifier es256,
+            PublicKeyResolver keyResolver
+    ) throws VeriLogException {
+
+        String kind = rec.path("kind").asText();
+        String[] required = SegmentPruneRecord.KIND.equals(kind)
+                ? new String[]{"n", "prevHash", "path", "keyId", "sig"}
+                : new String[]{"n", "prevHash", "path", "headerHash", "frames", "length", "footerHash", "keyId", "sig"};
+        for (String field : required) {
+            if (!rec.hasNonNull(field)) return "missing required fields";
+        }
+        if (!SegmentManifestRecord.KIND.equals(kind) && !SegmentPruneRecord.KIND.equals(kind)) return "unsupported kind";
+        if (rec.get("n").asLong() != n) return "out of order (expected n " + n + ")";
+        if (!prevHashHex.equals(rec.get("prevHash").asText())) return "prevHash mismatch";
+
+        String path = rec.get("path").asText();
+        if (path.isEmpty() || path.startsWith("/") || path.contains("\\") || Arrays.asList(path.split("/")).contains("..")) {
+            return "path outside the log directory";
+        }
+
+        final AsymmetricKeyParameter issuer = keyResolver.resolveByKeyIdHex(rec.get("keyId").asText());
+        if (issuer == null) return "unknown keyId: " + rec.get("keyId").asText();
+        final SignatureAlgorithm alg = SignatureAlgorithm.fromTag(rec.path(SignatureAlgorithm.FIELD).textValue());
+        if (alg == null) return "unsupported sigAlg";
+        final byte[] sigRaw = decodeSignatureOrFail(rec);
+        if (sigRaw == null) return "signature encoding invalid";
+        final Boolean sigOk = verifySignature(es256, issuer, alg, ControlRecords.hash(rec), sigRaw, n);
+        if (sigOk == null) return "sigAlg does not match key type";
+        return sigOk ? null : "signature invalid";
+    }
+
     public DirectoryVerifyReport verifyDirectory(Path logDir, byte[] dek32, PublicKeyResolver keyResolver)
             throws VeriLogException {
         return verifyDirectory(logDir, dek32, keyResolver, true);
@@ -284,40 +1288,240 @@ public final class VeriLogReader {
         Objects.requireNonNull(dek32, "dek32");
         Objects.requireNonNull(keyResolver, "keyResolver");
 
+        return verifyDirectory(logDir, null, dek32, keyResolver, stopOnFirstFailure);
+    }
+
+    /**
+     * Verifies the segments of a writer configured with an archive directory: the rotated segments from both
+     * directories in name order, then the current segment. Files are verified on all cores.
+     *
+     * @param archiveDir may be null or missing
+     */
+    public DirectoryVerifyReport verifyDirectory(
+            Path logDir,
+            Path archiveDir,
+            byte[] dek32,
+            PublicKeyResolver keyResolver,
+            boolean stopOnFirstFailure
+    ) throws VeriLogException {
+        return verifyDirectory(logDir, archiveDir, dek32, keyResolver, stopOnFirstFailure,
+                Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Verifies each file on its own, {@code parallelism} at a time, then checks that the files form one chain:
+     * a file's first entry must continue the last entry of the file before it (seq + 1, prevHash = its
+     * entryHash), or start a new chain at seq 1 from the genesis hash. A new chain needs a signed chain restart
+     * record at the start of the file, which a writer puts there when it finds no segment to continue; only
+     * files written before these records (no mark in the header) may start one without it, and none after a file
+     * with the mark. Files that start a new chain are listed by {@link DirectoryVerifyReport#restarts()}. A
+     * deleted or reordered segment breaks the link. The first file may start anywhere, since retention removes
+     * the oldest segments; {@link DirectoryVerifyReport#anchoredAtGenesis()} tells whether it starts at genesis.
+     * <p>
+     * If the log directory has a segment manifest ({@code current.vlog.manifest}), the directories are not
+     * listed: the manifest is verified first, then the segments it lists are verified in its order, each against
+     * its record, followed by the current segment. Listed segments that are gone are reported as missing, unless
+     * a prune record of the manifest says retention deleted them and no kept segment comes before them.
+     */
+    public DirectoryVerifyReport verifyDirectory(
+            Path logDir,
+            Path archiveDir,
+            byte[] dek32,
+            PublicKeyResolver keyResolver,
+            boolean stopOnFirstFailure,
+            int parallelism
+    ) throws VeriLogException {
+
+        Objects.requireNonNull(logDir, "logDir");
+        Objects.requireNonNull(dek32, "dek32");
+        Objects.requireNonNull(keyResolver, "keyResolver");
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be >= 1");
+
         var report = new DirectoryVerifyReport();
 
-        var files = listVlogFiles(logDir);
-        sortVlogFiles(files);
+        final List<Path> files;
+        final Map<Path, ManifestEntry> listed = new HashMap<>();
+        Path manifestPath = SegmentManifest.pathFor(logDir.resolve(CURRENT_VLOG));
+        if (Files.isRegularFile(manifestPath)) {
+            try {
+                files = manifestFiles(readManifest(manifestPath, keyResolver), logDir, archiveDir, listed, report);
+            } catch (VeriLogFormatException e) {
+                report.add(new DirectoryVerifyReport.FileResult(manifestPath, false, 0, e.getMessage()));
+                return report;
+            }
+        } else {
+            files = listVlogFiles(logDir);
+            if (archiveDir != null && Files.isDirectory(archiveDir)) files.addAll(listVlogFiles(archiveDir));
+            sortVlogFiles(files);
+        }
 
-        for (Path f : files) {
-            boolean tolerate = isCurrentVlog(f);
-            VerifyReport r = verifyFile(f, dek32, keyResolver, tolerate);
+        int threads = Math.min(parallelism, files.size());
+        ExecutorService pool = threads <= 1 ? null : Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "verilog-verify");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            // submitted a bounded window ahead of the file being reported, so a failure leaves little to cancel
+            List<Future<VerifyReport>> pending = new ArrayList<>();
+            int window = threads * 2;
+
+            VerifyReport prev = null;
+            Path prevFile = null;
+            boolean restartRecordsSeen = false;
+            for (int i = 0; i < files.size(); i++) {
+                Path f = files.get(i);
+                ManifestEntry entry = listed.get(f);
+                VerifyReport r;
+                if (entry != null && !Files.exists(f)) {
+                    r = VerifyReport.fail(entry.firstSeq, entry.isPruned()
+                            ? "segment pruned ahead of older segments (manifest record " + entry.prunedBy + ")"
+                            : "segment listed in manifest is missing");
+                } else {
+                    if (pool != null) {
+                        while (pending.size() < files.size() && pending.size() <= i + window) {
+                            Path next = files.get(pending.size());
+                            pending.add(pool.submit(() -> verifyListed(next, dek32, keyResolver)));
+                        }
+                    }
+                    r = pool == null ? verifyListed(f, dek32, keyResolver) : await(pending.get(i), f);
+                    if (entry != null && r.valid && !matchesManifest(entry, r)) {
+                        r = VerifyReport.fail(r.seq, "segment does not match manifest record " + entry.n);
+                    }
+                }
 
-            report.add(new DirectoryVerifyReport.FileResult(f, r.valid, r.seq, r.reason));
+                DirectoryVerifyReport.Restart restart = null;
+                if (r.valid && r.hasEntries()) {
+                    boolean linked = prev != null && continuesChain(prev, r);
+                    boolean newChain = !linked && startsNewChain(r);
+                    if (newChain) restart = restartOf(r, restartRecordsSeen);
+                    if (prev == null) report.chainStart(r.firstSeq, newChain);
+                    restartRecordsSeen |= r.restartRecords;
+                    if (prev != null && !linked && restart == null) {
+                        r = VerifyReport.fail(r.firstSeq, "chain does not continue " + prevFile.getFileName()
+                                + " (expected seq " + (prev.seq + 1) + ")"
+                                + (newChain ? "; a new chain here needs a signed chain restart record" : ""));
+                    } else {
+                        prev = r;
+                        prevFile = f;
+                    }
+                }
+                report.add(new DirectoryVerifyReport.FileResult(f, r.valid, r.valid && r.hasEntries() ? r.firstSeq : 0,
+                        r.seq, r.reason, r.valid ? restart : null));
 
-            if (stopOnFirstFailure && !r.valid) break;
+                if (stopOnFirstFailure && !r.valid) {
+                    for (int j = i + 1; j < pending.size(); j++) pending.get(j).cancel(true);
+                    break;
+                }
+            }
+        } finally {
+            if (pool != null) pool.shutdownNow();
         }
         return report;
     }
 
-    private static java.util.List<Path> listVlogFiles(Path logDir) throws VeriLogException {
-        java.util.List<Path> files = new java.util.ArrayList<>();
-        try (var stream = java.nio.file.Files.list(logDir)) {
-            stream
-                    .filter(java.nio.file.Files::isRegularFile)
-                    .filter(p -> p.getFileName().toString().endsWith(".vlog"))
-                    .forEach(files::add);
-        } catch (java.io.IOException e) {
+    /** a file renamed or pruned since it was listed fails like a missing manifest segment, in either path */
+    private VerifyReport verifyListed(Path f, byte[] dek32, PublicKeyResolver keyResolver) throws VeriLogException {
+        if (!Files.exists(f)) return VerifyReport.fail(0, "segment is missing");
+        return verifyAnchored(f, dek32, keyResolver, isCurrentVlog(f), null);
+    }
+
+    /**
+     * Listed segments in manifest order, then the current segment. The oldest segments, as long as the manifest
+     * records them as pruned, are left out. A segment found in neither directory stays in the list (under the
+     * log directory) to be reported.
+     */
+    private static List<Path> manifestFiles(List<ManifestEntry> entries, Path logDir, Path archiveDir,
+                                            Map<Path, ManifestEntry> listed, DirectoryVerifyReport report) {
+        List<Path> files = new ArrayList<>();
+        for (ManifestEntry e : entries) {
+            if (e.isPruned() && files.isEmpty()) {
+                report.prunedThrough(e.lastSeq);
+                continue;
+            }
+            Path p = e.resolve(logDir, archiveDir);
+            if (p == null) p = logDir.resolve(e.path);
+            files.add(p);
+            listed.put(p, e);
+        }
+        Path current = logDir.resolve(CURRENT_VLOG);
+        if (Files.isRegularFile(current)) files.add(current);
+        return files;
+    }
+
+    /** the footer hash covers the header hash, frame count, length and seq range of the record */
+    private static boolean matchesManifest(ManifestEntry e, VerifyReport r) {
+        return e.footerHashHex.equals(r.footerHashHex)
+                && e.firstSeq == r.firstSeq
+                && e.lastSeq == (r.hasEntries() ? r.seq : 0);
+    }
+
+    private static boolean continuesChain(VerifyReport prev, VerifyReport next) {
+        return next.firstSeq == prev.seq + 1 && next.firstPrevHashHex.equals(prev.lastEntryHashHex);
+    }
+
+    private static boolean startsNewChain(VerifyReport r) {
+        return r.firstSeq == 1 && r.firstPrevHashHex.equals(GENESIS_HEX);
+    }
+
+    /**
+     * How a file that starts a new chain may do so; null if it may not. Once a file carries the header mark, a
+     * file without it cannot follow, so stripping the mark does not turn a new file into a legacy one.
+     */
+    private static DirectoryVerifyReport.Restart restartOf(VerifyReport r, boolean restartRecordsSeen) {
+        if (r.chainRestart) return DirectoryVerifyReport.Restart.SIGNED;
+        if (!r.restartRecords && !restartRecordsSeen) return DirectoryVerifyReport.Restart.LEGACY;
+        return null;
+    }
+
+    private static VerifyReport await(Future<VerifyReport> pending, Path file) throws VeriLogException {
+        try {
+            return pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new VeriLogIoException("io.read_failed", e, file.toString());
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof VeriLogException) throw (VeriLogException) c;
+            if (c instanceof RuntimeException) throw (RuntimeException) c;
+            if (c instanceof Error) throw (Error) c;
+            throw new IllegalStateException(c);
+        }
+    }
+
+    /** segments in {@code logDir} and in its hour or day partition subdirectories */
+    private static List<Path> listVlogFiles(Path logDir) throws VeriLogException {
+        List<Path> files = new ArrayList<>();
+        try (var stream = Files.list(logDir)) {
+            for (Path p : (Iterable<Path>) stream::iterator) {
+                if (Files.isDirectory(p)) {
+                    try (var inner = Files.list(p)) {
+                        inner.filter(VeriLogReader::isVlogFile).forEach(files::add);
+                    }
+                } else if (isVlogFile(p)) {
+                    files.add(p);
+                }
+            }
+        } catch (IOException e) {
             throw new VeriLogIoException("io.read_failed", e, logDir.toString());
         }
         return files;
     }
 
-    private static void sortVlogFiles(java.util.List<Path> files) {
-        // One comparator instead of two sorts
+    private static boolean isVlogFile(Path p) {
+        return Files.isRegularFile(p) && p.getFileName().toString().endsWith(".vlog");
+    }
+
+    /** older time-named segments first, then seq-named ones by first seq, the current segment last */
+    private static void sortVlogFiles(List<Path> files) {
         files.sort(
-                java.util.Comparator
+                Comparator
                         .comparing((Path p) -> p.getFileName().toString().equals(CURRENT_VLOG)) // false first, current last
+                        .thenComparing(p -> SegmentName.parse(p.getFileName().toString()) != null)
+                        .thenComparingLong(p -> {
+                            SegmentName n = SegmentName.parse(p.getFileName().toString());
+                            return n == null ? 0 : n.firstSeq;
+                        })
                         .thenComparing(p -> p.getFileName().toString())
         );
     }
@@ -326,20 +1530,6 @@ public final class VeriLogReader {
         return p.getFileName().toString().equals(CURRENT_VLOG);
     }
 
-    private byte[] buildAad(byte[] prefix, byte type, long seq) {
-        // aad = prefix || 0x00 || uint64_be(seq) || 0x00 || type
-        java.nio.ByteBuffer bb = java.nio.ByteBuffer
-                .allocate(prefix.length + 1 + 8 + 1 + 1)
-                .order(java.nio.ByteOrder.BIG_ENDIAN);
-
-        bb.put(prefix);
-        bb.put((byte) 0x00);
-        bb.putLong(seq);
-        bb.put((byte) 0x00);
-        bb.put(type);
-        return bb.array();
-    }
-
     private String canonicalizeWithout(JsonNode obj) throws VeriLogJsonException {
         try {
             var copy = obj.deepCopy();
@@ -9,22 +9,63 @@
  */
 package io.github.em.verilog.reader;
 
+import io.github.em.verilog.CryptoUtil;
+
 public final class VerifyReport {
     public final boolean valid;
     public final long seq;       // seq where it failed (or last verified)
     public final String reason;  // null if ok
+    /**
+     * Chain ends of a valid file with entries, for linking it to its neighbours: the first entry's seq and
+     * prevHash, and the last entry's hash. 0 and null otherwise.
+     */
+    public final long firstSeq;
+    public final String firstPrevHashHex;
+    public final String lastEntryHashHex;
+    /** hash of the verified footer record of a sealed file, as listed in a segment manifest; null otherwise */
+    public final String footerHashHex;
+    /**
+     * True if the header marks the file as written with chain restart records, so a new chain in it needs one;
+     * files from before these records lack the mark
+     */
+    public final boolean restartRecords;
+    /** true if the file starts with a verified chain restart record */
+    public final boolean chainRestart;
 
-    private VerifyReport(boolean valid, long seq, String reason) {
+    private VerifyReport(boolean valid, long seq, String reason, long firstSeq, String firstPrevHashHex,
+                         String lastEntryHashHex, String footerHashHex, boolean restartRecords,
+                         boolean chainRestart) {
         this.valid = valid;
         this.seq = seq;
         this.reason = reason;
+        this.firstSeq = firstSeq;
+        this.firstPrevHashHex = firstPrevHashHex;
+        this.lastEntryHashHex = lastEntryHashHex;
+        this.footerHashHex = footerHashHex;
+        this.restartRecords = restartRecords;
+        this.chainRestart = chainRestart;
     }
 
     public static VerifyReport success(long lastSeq) {
-        return new VerifyReport(true, lastSeq, null);
+        return new VerifyReport(true, lastSeq, null, 0, null, null, null, false, false);
+    }
+
+    /** @param firstSeq 0, with null hashes, for a file without entries; footerHash null if not sealed */
+    static VerifyReport success(long firstSeq, byte[] firstPrevHash, long lastSeq, byte[] lastEntryHash,
+                                byte[] footerHash, boolean restartRecords, boolean chainRestart) {
+        return new VerifyReport(true, lastSeq, null, firstSeq, hex(firstPrevHash), hex(lastEntryHash), hex(footerHash),
+                restartRecords, chainRestart);
+    }
+
+    private static String hex(byte[] b) {
+        return b == null ? null : CryptoUtil.toHexLower(b);
     }
 
     public static VerifyReport fail(long seq, String reason) {
-        return new VerifyReport(false, seq, reason);
+        return new VerifyReport(false, seq, reason, 0, null, null, null, false, false);
+    }
+
+    boolean hasEntries() {
+        return firstSeq != 0;
     }
-}
\ No newline at end of file
+}
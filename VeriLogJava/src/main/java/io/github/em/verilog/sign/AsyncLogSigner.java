@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.sign;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Batch signer for high-latency keys (HSM, KMS, remote signing services). The writer keeps several
+ * batches in flight and commits frames in sequence order as signatures arrive.
+ */
+public interface AsyncLogSigner {
+    /** stable identifier for the public key (e.g. hex(sha256(SPKI_DER))) */
+    String keyId();
+
+    default SignatureAlgorithm algorithm() {
+        return SignatureAlgorithm.ES256;
+    }
+
+    /**
+     * Signs a batch of 32-byte entry hashes without blocking the caller. The future yields one raw
+     * 64-byte signature per hash, in input order, or completes exceptionally.
+     */
+    CompletableFuture<byte[][]> signEntryHashes(byte[][] entryHashes32);
+
+    /** runs a synchronous signer on the given executor, one task per batch */
+    static AsyncLogSigner fromSync(LogSigner signer, Executor executor) {
+        Objects.requireNonNull(signer, "signer");
+        Objects.requireNonNull(executor, "executor");
+        return new AsyncLogSigner() {
+            @Override
+            public String keyId() {
+                return signer.keyId();
+            }
+
+            @Override
+            public SignatureAlgorithm algorithm() {
+                return signer.algorithm();
+            }
+
+            @Override
+            public CompletableFuture<byte[][]> signEntryHashes(byte[][] entryHashes32) {
+                return CompletableFuture.supplyAsync(() -> signAll(signer, entryHashes32), executor);
+            }
+        };
+    }
+
+    /** signs every hash with {@code signer}; checked failures surface as {@link CompletionException} */
+    static byte[][] signAll(LogSigner signer, byte[][] entryHashes32) {
+        byte[][] out = new byte[entryHashes32.length][];
+        try {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = signer.signEntryHash(entryHashes32[i]);
+            }
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        return out;
+    }
+}
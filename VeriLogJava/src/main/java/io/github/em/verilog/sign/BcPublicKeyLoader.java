@@ -10,7 +10,9 @@
 package io.github.em.verilog.sign;
 
 import io.github.em.verilog.errors.VeriLogFormatException;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
 import org.bouncycastle.crypto.util.PublicKeyFactory;
 
 import java.util.Objects;
@@ -35,4 +37,21 @@ public final class BcPublicKeyLoader {
             throw new VeriLogFormatException("format.key.spki_invalid", e);
         }
     }
+
+    /** accepts any supported verification key: EC P-256 or Ed25519 */
+    public static AsymmetricKeyParameter verificationKeyFromSpkiDer(byte[] spkiDer) throws VeriLogFormatException {
+        Objects.requireNonNull(spkiDer, "spkiDer");
+
+        try {
+            var key = PublicKeyFactory.createKey(spkiDer);
+            if (!(key instanceof ECPublicKeyParameters) && !(key instanceof Ed25519PublicKeyParameters)) {
+                throw new VeriLogFormatException("format.key.unsupported_public");
+            }
+            return key;
+        } catch (VeriLogFormatException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new VeriLogFormatException("format.key.spki_invalid", e);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.sign;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.crypto.util.PrivateKeyFactory;
+import org.bouncycastle.crypto.util.SubjectPublicKeyInfoFactory;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+
+/**
+ * Ed25519 entry signer. Signs the 32-byte entryHash directly (Ed25519 hashes internally) and is
+ * deterministic, so no per-signature randomness or low-S handling is needed. Stateless and
+ * thread-safe; the public key is derived once at construction.
+ */
+public final class Ed25519LogSigner implements LogSigner {
+
+    public static final int SIG_LEN = Ed25519.SIGNATURE_SIZE;
+
+    private final Ed25519PrivateKeyParameters priv;
+    private final Ed25519PublicKeyParameters pub;
+    private final String keyIdHex;
+    private final byte[] spkiDer;
+
+    public Ed25519LogSigner(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer) throws VeriLogCryptoException, VeriLogFormatException {
+        if (pkcs8PrivateKeyDer == null) throw new NullPointerException("pkcs8PrivateKeyDer");
+        if (spkiPublicKeyDer == null) throw new NullPointerException("spkiPublicKeyDer");
+
+        try {
+            AsymmetricKeyParameter privKey = PrivateKeyFactory.createKey(pkcs8PrivateKeyDer);
+            if (!(privKey instanceof Ed25519PrivateKeyParameters)) {
+                throw new VeriLogFormatException("format.key.not_ed25519_private");
+            }
+            this.priv = (Ed25519PrivateKeyParameters) privKey;
+            this.pub = priv.generatePublicKey();
+            this.spkiDer = spkiPublicKeyDer.clone();
+            this.keyIdHex = CryptoUtil.toHexLower(CryptoUtil.sha256(spkiPublicKeyDer));
+        } catch (VeriLogFormatException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new VeriLogCryptoException("crypto.signer_init_failed", e);
+        }
+    }
+
+    private Ed25519LogSigner(Ed25519PrivateKeyParameters priv) throws VeriLogCryptoException {
+        this.priv = priv;
+        this.pub = priv.generatePublicKey();
+        try {
+            this.spkiDer = SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(pub).getEncoded();
+        } catch (IOException e) {
+            throw new VeriLogCryptoException("crypto.signer_init_failed", e);
+        }
+        this.keyIdHex = CryptoUtil.toHexLower(CryptoUtil.sha256(spkiDer));
+    }
+
+    /** fresh key pair, e.g. for a short-lived per-segment key */
+    public static Ed25519LogSigner generate(SecureRandom random) throws VeriLogCryptoException {
+        return new Ed25519LogSigner(new Ed25519PrivateKeyParameters(random));
+    }
+
+    @Override
+    public String keyId() {
+        return keyIdHex;
+    }
+
+    @Override
+    public SignatureAlgorithm algorithm() {
+        return SignatureAlgorithm.ED25519;
+    }
+
+    public Ed25519PublicKeyParameters publicKey() {
+        return pub;
+    }
+
+    public byte[] spkiPublicKeyDer() {
+        return spkiDer.clone();
+    }
+
+    @Override
+    public byte[] signEntryHash(byte[] entryHash32) throws VeriLogCryptoException {
+        if (entryHash32 == null || entryHash32.length != 32)
+            throw new IllegalArgumentException("entryHash must be 32 bytes");
+
+        byte[] sig = new byte[SIG_LEN];
+        try {
+            priv.sign(Ed25519.Algorithm.Ed25519, null, entryHash32, 0, 32, sig, 0);
+        } catch (RuntimeException e) {
+            throw new VeriLogCryptoException("crypto.sign_failed", e);
+        }
+        return sig;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.sign;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.bouncycastle.crypto.util.PrivateKeyFactory;
+import org.bouncycastle.math.ec.ECMultiplier;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.math.ec.FixedPointUtil;
+import org.bouncycastle.util.BigIntegers;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * ECDSA P-256 signer for high entry rates. Produces the same signatures as {@link BcEcdsaP256Signer}
+ * (RFC 6979 nonces, SHA-256 over the entry hash, raw r||s) but
+ * <ul>
+ *     <li>multiplies with a fixed-base comb table for G that is built once at construction,</li>
+ *     <li>keeps digest and nonce calculator per thread instead of per call,</li>
+ *     <li>writes r||s directly instead of going through DER.</li>
+ * </ul>
+ * With a presignature pool ({@code poolSize > 0}) a background thread precomputes (k^-1, r) pairs from random
+ * nonces while the writer is idle; signing then costs one modular multiplication. Pool mode signatures are not
+ * deterministic and the pool holds secret nonces in memory; {@link #close()} stops the thread and drops them.
+ */
+public final class FastEcdsaP256Signer implements LogSigner, AutoCloseable {
+
+    private static final int FIELD_BYTES = 32;
+
+    private final ECPrivateKeyParameters priv;
+    private final BigInteger n;
+    private final BigInteger halfN;
+    private final BigInteger d;
+    private final ECPoint g;
+    private final ECMultiplier multiplier = new FixedPointCombMultiplier();
+    private final String keyIdHex;
+    private final boolean enforceLowS;
+
+    private final ThreadLocal<PerThread> perThread;
+    private final BlockingQueue<Presignature> pool;
+    private final Thread refill;
+    private volatile boolean closed;
+
+    public FastEcdsaP256Signer(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer, boolean enforceLowS)
+            throws VeriLogCryptoException, VeriLogFormatException {
+        this(pkcs8PrivateKeyDer, spkiPublicKeyDer, enforceLowS, 0);
+    }
+
+    /**
+     * @param poolSize presignatures kept ready; 0 disables the pool and keeps signatures deterministic
+     */
+    public FastEcdsaP256Signer(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer, boolean enforceLowS, int poolSize)
+            throws VeriLogCryptoException, VeriLogFormatException {
+        if (pkcs8PrivateKeyDer == null) throw new NullPointerException("pkcs8PrivateKeyDer");
+        if (spkiPublicKeyDer == null) throw new NullPointerException("spkiPublicKeyDer");
+        if (poolSize < 0) throw new IllegalArgumentException("poolSize");
+
+        try {
+            AsymmetricKeyParameter privKey = PrivateKeyFactory.createKey(pkcs8PrivateKeyDer);
+            if (!(privKey instanceof ECPrivateKeyParameters)) {
+                throw new VeriLogFormatException("format.key.not_ec_private");
+            }
+            this.priv = (ECPrivateKeyParameters) privKey;
+            this.n = priv.getParameters().getN();
+            this.halfN = n.shiftRight(1);
+            this.d = priv.getD();
+            this.g = priv.getParameters().getG();
+            FixedPointUtil.precompute(g); // comb table is cached on the curve, build it now rather than on first sign
+
+            this.enforceLowS = enforceLowS;
+            this.keyIdHex = CryptoUtil.toHexLower(CryptoUtil.sha256(spkiPublicKeyDer));
+        } catch (VeriLogFormatException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new VeriLogCryptoException("crypto.signer_init_failed", e);
+        }
+
+        this.perThread = ThreadLocal.withInitial(PerThread::new);
+        if (poolSize > 0) {
+            this.pool = new ArrayBlockingQueue<>(poolSize);
+            this.refill = new Thread(this::refillLoop, "verilog-presign");
+            refill.setDaemon(true);
+            refill.setPriority(Thread.MIN_PRIORITY);
+            refill.start();
+        } else {
+            this.pool = null;
+            this.refill = null;
+        }
+    }
+
+    @Override
+    public String keyId() {
+        return keyIdHex;
+    }
+
+    @Override
+    public byte[] signEntryHash(byte[] entryHash32) throws VeriLogCryptoException {
+        if (entryHash32 == null || entryHash32.length != 32)
+            throw new IllegalArgumentException("entryHash must be 32 bytes");
+
+        try {
+            PerThread t = perThread.get();
+            t.sha.update(entryHash32, 0, entryHash32.length);
+            t.sha.doFinal(t.digest, 0);
+            BigInteger e = new BigInteger(1, t.digest);
+
+            Presignature pre = pool == null ? null : pool.poll();
+            BigInteger s = pre == null ? null : finish(pre.kInv, pre.r, e);
+            BigInteger r = pre == null ? null : pre.r;
+
+            if (s == null) {
+                t.kCalc.init(n, d, t.digest);
+                do {
+                    BigInteger k = t.kCalc.nextK();
+                    r = rFor(k);
+                    s = r.signum() == 0 ? null : finish(BigIntegers.modOddInverse(n, k), r, e);
+                } while (s == null);
+            }
+
+            if (enforceLowS && s.compareTo(halfN) > 0) s = n.subtract(s);
+
+            byte[] out = new byte[2 * FIELD_BYTES];
+            BigIntegers.asUnsignedByteArray(r, out, 0, FIELD_BYTES);
+            BigIntegers.asUnsignedByteArray(s, out, FIELD_BYTES, FIELD_BYTES);
+            return out;
+        } catch (RuntimeException e) {
+            throw new VeriLogCryptoException("crypto.sign_failed", e);
+        }
+    }
+
+    /** presignatures currently ready, 0 without a pool */
+    public int availablePresignatures() {
+        return pool == null ? 0 : pool.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        if (refill != null) {
+            refill.interrupt();
+            pool.clear();
+        }
+    }
+
+    private BigInteger rFor(BigInteger k) {
+        ECPoint p = multiplier.multiply(g, k).normalize();
+        return p.getAffineXCoord().toBigInteger().mod(n);
+    }
+
+    /** s = k^-1 (e + d r) mod n, null if zero */
+    private BigInteger finish(BigInteger kInv, BigInteger r, BigInteger e) {
+        BigInteger s = kInv.multiply(e.add(d.multiply(r))).mod(n);
+        return s.signum() == 0 ? null : s;
+    }
+
+    private void refillLoop() {
+        SecureRandom rng = new SecureRandom();
+        try {
+            while (!closed) {
+                BigInteger k = BigIntegers.createRandomInRange(BigInteger.ONE, n.subtract(BigInteger.ONE), rng);
+                BigInteger r = rFor(k);
+                if (r.signum() == 0) continue;
+                pool.put(new Presignature(BigIntegers.modOddInverse(n, k), r)); // blocks while full
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PerThread {
+        final SHA256Digest sha = new SHA256Digest();
+        final HMacDSAKCalculator kCalc = new HMacDSAKCalculator(new SHA256Digest());
+        final byte[] digest = new byte[32];
+    }
+
+    private static final class Presignature {
+        final BigInteger kInv;
+        final BigInteger r;
+
+        Presignature(BigInteger kInv, BigInteger r) {
+            this.kInv = kInv;
+            this.r = r;
+        }
+    }
+}
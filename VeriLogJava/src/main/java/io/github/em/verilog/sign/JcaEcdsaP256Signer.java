@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.sign;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.EcdsaSigCodec;
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.errors.VeriLogFormatException;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.util.Arrays;
+
+/**
+ * ES256 on the JCA provider ({@code SHA256withECDSA} over the entry hash, i.e. ECDSA over sha256(entryHash) as
+ * with {@link BcEcdsaP256Signer}). SunEC is intrinsified on recent JDKs. Nonces are random rather than RFC 6979,
+ * which the format does not depend on. One initialised {@link Signature} is reused, so concurrent calls are
+ * serialized.
+ */
+public final class JcaEcdsaP256Signer implements LogSigner {
+
+    private static final BigInteger N = new BigInteger(
+            "ffffffff00000000ffffffffffffffffbce6faada7179e84f3b9cac2fc632551", 16);
+    private static final BigInteger HALF_N = N.shiftRight(1);
+
+    private final Signature signature;
+    private final String keyIdHex;
+    private final boolean enforceLowS;
+
+    public JcaEcdsaP256Signer(byte[] pkcs8PrivateKeyDer, byte[] spkiPublicKeyDer, boolean enforceLowS)
+            throws VeriLogCryptoException, VeriLogFormatException {
+        if (pkcs8PrivateKeyDer == null) throw new NullPointerException("pkcs8PrivateKeyDer");
+        if (spkiPublicKeyDer == null) throw new NullPointerException("spkiPublicKeyDer");
+
+        final PrivateKey priv;
+        try {
+            priv = KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(pkcs8PrivateKeyDer));
+        } catch (GeneralSecurityException e) {
+            throw new VeriLogFormatException("format.key.not_ec_private", e);
+        }
+        if (!(priv instanceof ECPrivateKey) || !N.equals(((ECPrivateKey) priv).getParams().getOrder())) {
+            throw new VeriLogFormatException("format.key.not_ec_private");
+        }
+
+        try {
+            this.signature = Signature.getInstance("SHA256withECDSA");
+            this.signature.initSign(priv);
+        } catch (GeneralSecurityException e) {
+            throw new VeriLogCryptoException("crypto.signer_init_failed", e);
+        }
+        this.enforceLowS = enforceLowS;
+        this.keyIdHex = CryptoUtil.toHexLower(CryptoUtil.sha256(spkiPublicKeyDer));
+    }
+
+    @Override
+    public String keyId() {
+        return keyIdHex;
+    }
+
+    @Override
+    public synchronized byte[] signEntryHash(byte[] entryHash32) throws VeriLogCryptoException {
+        if (entryHash32 == null || entryHash32.length != 32)
+            throw new IllegalArgumentException("entryHash must be 32 bytes");
+
+        final byte[] raw;
+        try {
+            signature.update(entryHash32);
+            raw = EcdsaSigCodec.derToRaw(signature.sign());
+        } catch (VeriLogFormatException e) {
+            throw new VeriLogCryptoException("crypto.sig_codec_failed", e);
+        } catch (GeneralSecurityException e) {
+            throw new VeriLogCryptoException("crypto.sign_failed", e);
+        }
+
+        if (enforceLowS) {
+            BigInteger s = new BigInteger(1, Arrays.copyOfRange(raw, 32, 64));
+            if (s.compareTo(HALF_N) > 0) putUnsigned32(N.subtract(s), raw, 32);
+        }
+        return raw;
+    }
+
+    private static void putUnsigned32(BigInteger v, byte[] out, int off) {
+        byte[] b = v.toByteArray();
+        int len = Math.min(b.length, 32);
+        Arrays.fill(out, off, off + 32, (byte) 0);
+        System.arraycopy(b, b.length - len, out, off + 32 - len, len);
+    }
+}
@@ -15,6 +15,11 @@ public interface LogSigner {
     /** stable identifier for the public key (e.g. hex(sha256(SPKI_DER))) */
     String keyId();
 
-    /** returns raw signature r||s (64 bytes) */
+    /** returns the raw 64-byte signature (r||s for ES256, R||S for Ed25519) */
     byte[] signEntryHash(byte[] entryHash32) throws VeriLogCryptoException;
+
+    /** algorithm tag written into entries; ES256 signers leave the field out */
+    default SignatureAlgorithm algorithm() {
+        return SignatureAlgorithm.ES256;
+    }
 }
\ No newline at end of file
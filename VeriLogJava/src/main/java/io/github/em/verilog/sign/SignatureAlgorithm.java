@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.sign;
+
+/**
+ * Entry signature algorithms. The tag is stored in the signed entry as {@code sigAlg}; entries
+ * without the field are ES256 so logs written before the field existed keep verifying.
+ */
+public enum SignatureAlgorithm {
+    /** ECDSA P-256 over sha256(entryHash), raw r||s. */
+    ES256("ES256"),
+    /** Ed25519 (RFC 8032, pure) over entryHash. */
+    ED25519("Ed25519"),
+    /** forward-secure HMAC-SHA256 chain (no public key); authenticated by signed checkpoints */
+    HMAC_SHA256_CHAIN("HMAC-SHA256-FS");
+
+    public static final String FIELD = "sigAlg";
+
+    private final String tag;
+
+    SignatureAlgorithm(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /** returns null for unknown tags; a missing tag (null) means ES256 */
+    public static SignatureAlgorithm fromTag(String tag) {
+        if (tag == null) return ES256;
+        for (SignatureAlgorithm a : values()) {
+            if (a.tag.equals(tag)) return a;
+        }
+        return null;
+    }
+}
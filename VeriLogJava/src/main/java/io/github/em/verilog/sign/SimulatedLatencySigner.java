@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.sign;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for a remote signer in tests and benchmarks: every batch completes after a fixed
+ * round-trip latency, regardless of size, with signatures from a local {@link LogSigner}.
+ * Batches overlap freely, like independent requests to an HSM or KMS.
+ */
+public final class SimulatedLatencySigner implements AsyncLogSigner, AutoCloseable {
+
+    private final LogSigner delegate;
+    private final long latencyNanos;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final AtomicLong batches = new AtomicLong();
+
+    public SimulatedLatencySigner(LogSigner delegate, Duration latency) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        if (latency.isNegative()) throw new IllegalArgumentException("latency");
+        this.latencyNanos = latency.toNanos();
+        this.scheduler = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "verilog-simulated-signer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public String keyId() {
+        return delegate.keyId();
+    }
+
+    @Override
+    public SignatureAlgorithm algorithm() {
+        return delegate.algorithm();
+    }
+
+    @Override
+    public CompletableFuture<byte[][]> signEntryHashes(byte[][] entryHashes32) {
+        batches.incrementAndGet();
+        byte[][] hashes = entryHashes32.clone();
+        CompletableFuture<byte[][]> result = new CompletableFuture<>();
+        scheduler.schedule(() -> {
+            try {
+                result.complete(AsyncLogSigner.signAll(delegate, hashes));
+            } catch (CompletionException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }, latencyNanos, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /** number of batches requested so far */
+    public long batchCount() {
+        return batches.get();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
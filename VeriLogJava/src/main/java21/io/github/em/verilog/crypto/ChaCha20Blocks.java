@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+/**
+ * Java 21 variant of the bulk keystream. Uses {@link VectorChaCha20} when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, otherwise behaves exactly like the Java 11 class.
+ * Set {@code -Dverilog.crypto.vector=false} to force the scalar path.
+ */
+final class ChaCha20Blocks {
+    static final int MAX_BLOCKS = 16;
+    static final int SCRATCH_INTS = 16 * MAX_BLOCKS;
+
+    // VectorChaCha20 is only touched when the module is present, so its class never fails to link
+    private static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && Boolean.parseBoolean(System.getProperty("verilog.crypto.vector", "true"))
+            && VectorChaCha20.usable();
+
+    private ChaCha20Blocks() {}
+
+    static void keystream(int[] key, int counter, int n0, int n1, int n2, byte[] out, int blocks, int[] scratch) {
+        int done = 0;
+        if (VECTOR) {
+            int step = VectorChaCha20.BLOCKS;
+            for (; blocks - done >= step; done += step) {
+                VectorChaCha20.blocks(key, counter + done, n0, n1, n2, out, done * ChaCha20Core.BLOCK_LEN, scratch);
+            }
+        }
+        for (; done < blocks; done++) {
+            ChaCha20Core.block(key, counter + done, n0, n1, n2, out, done * ChaCha20Core.BLOCK_LEN);
+        }
+    }
+
+    static String implementation() {
+        return VECTOR ? "vector-" + VectorChaCha20.BLOCKS + "x" : "scalar";
+    }
+}
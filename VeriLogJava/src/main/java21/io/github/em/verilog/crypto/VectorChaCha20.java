@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Erik Marten
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.github.em.verilog.crypto;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * ChaCha20 in the row layout: vector {@code a} holds row 0 (constants) of {@link #BLOCKS} consecutive blocks,
+ * {@code b}/{@code c} the key rows and {@code d} counter and nonce, four lanes per block. Diagonal rounds rotate
+ * lanes inside each four-lane group. Keeping the state in four vectors keeps the method small enough for C2 to
+ * inline every vector op; a lane-per-word layout needs 16 vectors and ends up boxing them.
+ */
+final class VectorChaCha20 {
+    private static final VectorSpecies<Integer> S = IntVector.SPECIES_PREFERRED;
+    /** keystream blocks produced per call */
+    static final int BLOCKS = S.length() / 4;
+
+    private static final VarHandle LE_INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VectorShuffle<Integer> ROT1 = groupRotation(1);
+    private static final VectorShuffle<Integer> ROT2 = groupRotation(2);
+    private static final VectorShuffle<Integer> ROT3 = groupRotation(3);
+
+    private VectorChaCha20() {}
+
+    /** a single block per call is not worth the setup */
+    static boolean usable() {
+        return BLOCKS >= 2 && BLOCKS <= ChaCha20Blocks.MAX_BLOCKS;
+    }
+
+    static void blocks(int[] key, int counter, int n0, int n1, int n2, byte[] out, int off, int[] scratch) {
+        // build the initial rows for every block, block i at lanes [4i, 4i + 4)
+        for (int i = 0; i < BLOCKS; i++) {
+            int l = 4 * i;
+            scratch[l] = 0x61707865;
+            scratch[l + 1] = 0x3320646e;
+            scratch[l + 2] = 0x79622d32;
+            scratch[l + 3] = 0x6b206574;
+            System.arraycopy(key, 0, scratch, S.length() + l, 4);
+            System.arraycopy(key, 4, scratch, 2 * S.length() + l, 4);
+            scratch[3 * S.length() + l] = counter + i;
+            scratch[3 * S.length() + l + 1] = n0;
+            scratch[3 * S.length() + l + 2] = n1;
+            scratch[3 * S.length() + l + 3] = n2;
+        }
+        IntVector a0 = IntVector.fromArray(S, scratch, 0);
+        IntVector b0 = IntVector.fromArray(S, scratch, S.length());
+        IntVector c0 = IntVector.fromArray(S, scratch, 2 * S.length());
+        IntVector d0 = IntVector.fromArray(S, scratch, 3 * S.length());
+
+        IntVector a = a0, b = b0, c = c0, d = d0;
+        for (int r = 0; r < 10; r++) {
+            // column round
+            a = a.add(b); d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROL, 16);
+            c = c.add(d); b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROL, 12);
+            a = a.add(b); d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROL, 8);
+            c = c.add(d); b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROL, 7);
+
+            // diagonal round: line the diagonals up as columns, then rotate back
+            b = b.rearrange(ROT1);
+            c = c.rearrange(ROT2);
+            d = d.rearrange(ROT3);
+            a = a.add(b); d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROL, 16);
+            c = c.add(d); b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROL, 12);
+            a = a.add(b); d = d.lanewise(VectorOperators.XOR, a).lanewise(VectorOperators.ROL, 8);
+            c = c.add(d); b = b.lanewise(VectorOperators.XOR, c).lanewise(VectorOperators.ROL, 7);
+            b = b.rearrange(ROT3);
+            c = c.rearrange(ROT2);
+            d = d.rearrange(ROT1);
+        }
+
+        a.add(a0).intoArray(scratch, 0);
+        b.add(b0).intoArray(scratch, S.length());
+        c.add(c0).intoArray(scratch, 2 * S.length());
+        d.add(d0).intoArray(scratch, 3 * S.length());
+
+        for (int i = 0; i < BLOCKS; i++) {
+            int blockOff = off + i * ChaCha20Core.BLOCK_LEN;
+            for (int row = 0; row < 4; row++) {
+                int src = row * S.length() + 4 * i;
+                int dst = blockOff + row * 16;
+                LE_INT.set(out, dst, scratch[src]);
+                LE_INT.set(out, dst + 4, scratch[src + 1]);
+                LE_INT.set(out, dst + 8, scratch[src + 2]);
+                LE_INT.set(out, dst + 12, scratch[src + 3]);
+            }
+        }
+    }
+
+    /** lane j of each four-lane group takes lane (j + k) mod 4 of the same group */
+    private static VectorShuffle<Integer> groupRotation(int k) {
+        int[] idx = new int[S.length()];
+        for (int i = 0; i < idx.length; i++) {
+            idx[i] = (i & ~3) | ((i + k) & 3);
+        }
+        return VectorShuffle.fromArray(S, idx, 0);
+    }
+}
@@ -25,4 +25,34 @@ public class CryptoUtilTest {
     void should_reject_invalid_characters() {
         assertThrows(VeriLogFormatException.class, () -> CryptoUtil.fromHex("zz"));
     }
+
+    @Test
+    void hexLowerEquals_matches_string_comparison() {
+        byte[] in = new byte[]{0x00, (byte) 0xab, 0x7f};
+        assertTrue(CryptoUtil.hexLowerEquals(in, "00ab7f"));
+        assertFalse(CryptoUtil.hexLowerEquals(in, "00AB7F"));
+        assertFalse(CryptoUtil.hexLowerEquals(in, "00ab7e"));
+        assertFalse(CryptoUtil.hexLowerEquals(in, "00ab"));
+        assertFalse(CryptoUtil.hexLowerEquals(in, null));
+    }
+
+    @Test
+    void buffer_variants_match_allocating_ones() throws Exception {
+        byte[] data = "some entry payload".getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        byte[] out = new byte[40];
+        CryptoUtil.sha256(data, 5, 7, out, 4);
+        byte[] expected = CryptoUtil.sha256(java.util.Arrays.copyOfRange(data, 5, 12));
+        assertArrayEquals(expected, java.util.Arrays.copyOfRange(out, 4, 36));
+        // the thread's digest is left reset
+        assertArrayEquals(expected, CryptoUtil.sha256(java.util.Arrays.copyOfRange(data, 5, 12)));
+
+        char[] hex = new char[2 + 64];
+        CryptoUtil.toHexLower(expected, 0, 32, hex, 2);
+        assertEquals(CryptoUtil.toHexLower(expected), new String(hex, 2, 64));
+
+        byte[] back = new byte[33];
+        CryptoUtil.fromHex(new String(hex, 2, 64), back, 1);
+        assertArrayEquals(expected, java.util.Arrays.copyOfRange(back, 1, 33));
+    }
 }
@@ -0,0 +1,49 @@
+package io.github.em.verilog.audit;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.MessageDigest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MacChainKeyTest {
+
+    @Test
+    void should_match_hmac_sha256_and_evolve_key_by_hashing() throws Exception {
+        byte[] k0 = new byte[32];
+        for (int i = 0; i < 32; i++) k0[i] = (byte) i;
+        byte[] msg = MessageDigest.getInstance("SHA-256").digest("entry".getBytes());
+
+        MacChainKey key = new MacChainKey(k0);
+        byte[] mac0 = key.macAndEvolve(msg);
+        byte[] mac1 = key.macAndEvolve(msg);
+
+        byte[] k1 = MessageDigest.getInstance("SHA-256").digest(k0);
+        assertArrayEquals(hmac(k0, msg), mac0);
+        assertArrayEquals(hmac(k1, msg), mac1);
+        assertEquals(2, key.index());
+    }
+
+    @Test
+    void should_verify_in_step_and_reject_tampered_mac() {
+        byte[] k0 = new byte[32];
+        byte[] msg = new byte[32];
+        MacChainKey writer = new MacChainKey(k0);
+        MacChainKey reader = new MacChainKey(k0);
+
+        byte[] mac = writer.macAndEvolve(msg);
+        assertTrue(reader.verifyAndEvolve(msg, mac));
+
+        byte[] next = writer.macAndEvolve(msg);
+        next[0] ^= 1;
+        assertFalse(reader.verifyAndEvolve(msg, next));
+    }
+
+    private static byte[] hmac(byte[] key, byte[] msg) throws Exception {
+        Mac m = Mac.getInstance("HmacSHA256");
+        m.init(new SecretKeySpec(key, "HmacSHA256"));
+        return m.doFinal(msg);
+    }
+}
@@ -1,7 +1,12 @@
 package io.github.em.verilog.cli;
 
+import io.github.em.verilog.io.FramedLogFile;
+import io.github.em.verilog.io.SegmentIndex;
 import org.junit.jupiter.api.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mockStatic;
 
@@ -45,4 +50,49 @@ final class VeriLogCliTest {
             VeriLogCli.exitHook = original;
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_rebuild_segment_index() throws Exception {
+        Path seg = Files.createTempDirectory("verilog-cli-index").resolve("seg.vlog");
+        try (FramedLogFile f = FramedLogFile.openOrCreate(seg, new byte[32], "aad")) {
+            for (int i = 1; i <= 50; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, "{}".getBytes());
+            f.flush(true);
+        }
+
+        int code = VeriLogCli.execute(new String[]{
+                "index", "--file", seg.toString(), "--dek-hex", "00".repeat(32), "--every", "10"});
+
+        assertEquals(0, code);
+        assertTrue(Files.exists(SegmentIndex.pathFor(seg)));
+        assertEquals(3, VeriLogCli.execute(new String[]{"index", "--file", seg.toString()}));
+    }
+
+    @Test
+    void should_report_whether_segment_is_sealed() throws Exception {
+        Path seg = Files.createTempDirectory("verilog-cli-info").resolve("seg.vlog");
+        try (FramedLogFile f = FramedLogFile.openOrCreate(seg, new byte[32], "aad")) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, "{}".getBytes());
+        }
+        assertEquals(1, VeriLogCli.execute(new String[]{"info", "--file", seg.toString()}));
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(seg, new byte[32], "aad")) {
+            f.seal(1, "{}".getBytes());
+        }
+        assertEquals(0, VeriLogCli.execute(new String[]{"info", "--file", seg.toString()}));
+        assertEquals(3, VeriLogCli.execute(new String[]{"info"}));
+    }
+
+    @Test
+    void should_scrub_directory_without_keys() throws Exception {
+        Path dir = Files.createTempDirectory("verilog-cli-scrub");
+        try (FramedLogFile f = FramedLogFile.openOrCreate(dir.resolve("seg.vlog"), new byte[32], "aad")) {
+            for (int i = 1; i <= 5; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, "{}".getBytes());
+            f.flush(true);
+        }
+        assertEquals(0, VeriLogCli.execute(new String[]{"scrub", "--dir", dir.toString(), "--threads", "2"}));
+
+        Files.writeString(dir.resolve("bad.vlog"), "garbage");
+        assertEquals(2, VeriLogCli.execute(new String[]{"scrub", "--dir", dir.toString()}));
+        assertEquals(3, VeriLogCli.execute(new String[]{"scrub"}));
+    }
+}
@@ -116,6 +116,16 @@ final class VerifyCommandTest {
         assertTrue(errBuf.toString().contains("Missing value for --dir"));
     }
 
+    @Test
+    void should_return_3_when_crypto_choice_unknown() throws Exception {
+        Path pem = tmp.resolve("a.pem");
+        writePublicKeyPem(pem);
+        int code = new VerifyCommand().run(new String[]{"verify", "--file", "a.vlog", "--dek-hex", "00".repeat(32),
+                "--pub", pem.toString(), "--crypto", "fastest"});
+        assertEquals(3, code);
+        assertTrue(errBuf.toString().contains("--crypto must be default or benchmark"));
+    }
+
     @Test
     void should_parse_pub_csv_trim_blanks_and_call_verifyFile_with_tolerate_partial_true() throws Exception {
         // Arrange: create two PEM files
@@ -0,0 +1,33 @@
+package io.github.em.verilog.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs against whichever ChaCha20Blocks the JVM picks: scalar in {@code test}, vector lanes in {@code vectorTest}.
+ */
+class ChaCha20BlocksTest {
+
+    @Test
+    void should_match_scalar_block_function_for_every_block_count() {
+        SecureRandom rng = new SecureRandom();
+        int[] key = new int[8];
+        for (int i = 0; i < 8; i++) key[i] = rng.nextInt();
+        int[] scratch = new int[ChaCha20Blocks.SCRATCH_INTS];
+
+        for (int blocks = 1; blocks <= ChaCha20Blocks.MAX_BLOCKS; blocks++) {
+            int counter = rng.nextInt(1 << 20);
+            byte[] actual = new byte[blocks * ChaCha20Core.BLOCK_LEN];
+            ChaCha20Blocks.keystream(key, counter, 1, 2, 3, actual, blocks, scratch);
+
+            byte[] expected = new byte[actual.length];
+            for (int b = 0; b < blocks; b++) {
+                ChaCha20Core.block(key, counter + b, 1, 2, 3, expected, b * ChaCha20Core.BLOCK_LEN);
+            }
+            assertArrayEquals(expected, actual, ChaCha20Blocks.implementation() + " blocks=" + blocks);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.engines.ChaCha7539Engine;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChaCha20CoreTest {
+
+    @Test
+    void should_match_bouncycastle_keystream() {
+        SecureRandom rng = new SecureRandom();
+        byte[] key = new byte[32];
+        byte[] nonce = new byte[12];
+        rng.nextBytes(key);
+        rng.nextBytes(nonce);
+
+        int blocks = 3;
+        byte[] expected = new byte[blocks * ChaCha20Core.BLOCK_LEN];
+        ChaCha7539Engine bc = new ChaCha7539Engine();
+        bc.init(true, new ParametersWithIV(new KeyParameter(key), nonce));
+        bc.processBytes(new byte[expected.length], 0, expected.length, expected, 0);
+
+        int[] k = new int[8];
+        for (int i = 0; i < 8; i++) k[i] = ChaCha20Core.leInt(key, i * 4);
+        byte[] actual = new byte[expected.length];
+        for (int c = 0; c < blocks; c++) {
+            ChaCha20Core.block(k, c, ChaCha20Core.leInt(nonce, 0), ChaCha20Core.leInt(nonce, 4),
+                    ChaCha20Core.leInt(nonce, 8), actual, c * ChaCha20Core.BLOCK_LEN);
+        }
+
+        assertArrayEquals(expected, actual);
+    }
+}
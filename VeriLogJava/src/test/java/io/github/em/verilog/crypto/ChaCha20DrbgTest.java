@@ -0,0 +1,64 @@
+package io.github.em.verilog.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChaCha20DrbgTest {
+
+    @Test
+    void should_not_repeat_nonces() {
+        ChaCha20Drbg drbg = new ChaCha20Drbg();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            byte[] n = new byte[24];
+            drbg.nextBytes(n);
+            assertTrue(seen.add(Arrays.toString(n)));
+        }
+    }
+
+    @Test
+    void should_fill_requests_larger_than_one_refill() {
+        byte[] out = new byte[4096];
+        new ChaCha20Drbg().nextBytes(out);
+
+        // 4 KiB of zeros from a working generator is not going to happen
+        int zeros = 0;
+        for (byte b : out) if (b == 0) zeros++;
+        assertTrue(zeros < 100);
+    }
+
+    @Test
+    void should_seed_instances_independently() {
+        byte[] a = new byte[32];
+        byte[] b = new byte[32];
+        new ChaCha20Drbg().nextBytes(a);
+        new ChaCha20Drbg().nextBytes(b);
+
+        assertFalse(Arrays.equals(a, b));
+    }
+
+    @Test
+    void should_give_each_thread_its_own_stream() throws Exception {
+        NonceSource src = NonceSource.threadLocalDrbg();
+        byte[] main = new byte[32];
+        src.nextBytes(main);
+
+        AtomicReference<byte[]> other = new AtomicReference<>();
+        Thread t = new Thread(() -> {
+            byte[] n = new byte[32];
+            src.nextBytes(n);
+            other.set(n);
+        });
+        t.start();
+        t.join();
+
+        assertNotNull(other.get());
+        assertFalse(Arrays.equals(main, other.get()));
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChaCha20Poly1305EngineTest {
+
+    private static final SecureRandom RNG = new SecureRandom();
+
+    @Test
+    void should_match_bouncycastle_for_all_lengths() throws Exception {
+        ChaCha20Poly1305Engine engine = new ChaCha20Poly1305Engine();
+        for (int len = 0; len <= 200; len++) {
+            byte[] key = random(32);
+            byte[] nonce = random(12);
+            byte[] aad = random(len % 37);
+            byte[] pt = random(len);
+
+            engine.setKey(key);
+            ByteBuffer dst = ByteBuffer.allocate(len + 16);
+            engine.seal(ChaCha20Core.leInt(nonce, 0), ChaCha20Core.leInt(nonce, 4), ChaCha20Core.leInt(nonce, 8),
+                    aad, ByteBuffer.wrap(pt), dst);
+
+            assertArrayEquals(bc(true, key, nonce, pt, aad), dst.array(), "len " + len);
+        }
+    }
+
+    @Test
+    void should_round_trip_direct_buffers_and_advance_positions() throws Exception {
+        byte[] key = random(32);
+        byte[] pt = random(1000);
+        byte[] aad = random(11);
+
+        ChaCha20Poly1305Engine engine = new ChaCha20Poly1305Engine();
+        engine.setKey(key);
+
+        ByteBuffer src = ByteBuffer.allocateDirect(pt.length);
+        src.put(pt).flip();
+        ByteBuffer ct = ByteBuffer.allocateDirect(pt.length + 16);
+        engine.seal(1, 2, 3, aad, src, ct);
+        assertFalse(src.hasRemaining());
+        assertFalse(ct.hasRemaining());
+
+        ct.flip();
+        ByteBuffer back = ByteBuffer.allocateDirect(pt.length);
+        engine.open(1, 2, 3, aad, ct, back);
+        assertFalse(ct.hasRemaining());
+
+        back.flip();
+        byte[] out = new byte[pt.length];
+        back.get(out);
+        assertArrayEquals(pt, out);
+    }
+
+    @Test
+    void should_reject_tampered_tag_without_writing_output() {
+        ChaCha20Poly1305Engine engine = new ChaCha20Poly1305Engine();
+        engine.setKey(random(32));
+
+        ByteBuffer ct = ByteBuffer.allocate(20 + 16);
+        engine.seal(0, 0, 0, null, ByteBuffer.wrap(random(20)), ct);
+        ct.array()[25] ^= 1;
+        ct.flip();
+
+        ByteBuffer out = ByteBuffer.allocate(20);
+        assertThrows(InvalidCipherTextException.class, () -> engine.open(0, 0, 0, null, ct, out));
+        assertArrayEquals(new byte[20], out.array());
+        assertEquals(0, out.position());
+    }
+
+    @Test
+    void should_match_bouncycastle_for_xchacha_and_segment_suites() throws Exception {
+        byte[] dek = random(32);
+        byte[] pt = random(77);
+        byte[] aad = random(20);
+
+        byte[] nonce24 = random(24);
+        byte[] nonce12 = new byte[12];
+        System.arraycopy(nonce24, 16, nonce12, 4, 8);
+        byte[] expected = bc(true, HChaCha20.subKey(dek, Arrays.copyOf(nonce24, 16)), nonce12, pt, aad);
+        assertArrayEquals(expected, XChaCha20Poly1305.encrypt(dek, nonce24, pt, aad));
+
+        byte[] salt = random(16);
+        byte[] seqNonce = {0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0x01, 0x02};
+        expected = bc(true, HChaCha20.subKey(dek, salt), seqNonce, pt, aad);
+        SegmentCipher c = SegmentCipher.create(CipherSuite.CHACHA20_POLY1305_SEGMENT, dek, salt);
+        assertArrayEquals(expected, c.encrypt((byte) 1, 0x0102, new byte[0], pt, aad));
+    }
+
+    private static byte[] bc(boolean enc, byte[] key, byte[] nonce12, byte[] in, byte[] aad)
+            throws InvalidCipherTextException {
+        ChaCha20Poly1305 aead = new ChaCha20Poly1305();
+        aead.init(enc, new AEADParameters(new KeyParameter(key), 128, nonce12, aad));
+        byte[] out = new byte[aead.getOutputSize(in.length)];
+        int off = aead.processBytes(in, 0, in.length, out, 0);
+        aead.doFinal(out, off);
+        return out;
+    }
+
+    private static byte[] random(int n) {
+        byte[] b = new byte[n];
+        RNG.nextBytes(b);
+        return b;
+    }
+}
@@ -0,0 +1,33 @@
+package io.github.em.verilog.crypto;
+
+import io.github.em.verilog.CryptoUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashAlgorithmTest {
+
+    @Test
+    void should_match_known_answers() throws Exception {
+        byte[] abc = "abc".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+                CryptoUtil.toHexLower(HashAlgorithm.SHA_256.digest(abc)));
+        assertEquals("bddd813c634239723171ef3fee98579b94964e3bb1cb3e427262c8c068d52319",
+                CryptoUtil.toHexLower(HashAlgorithm.BLAKE2B_256.digest(abc)));
+        assertEquals("af1349b9f5f9a1a6a0404dea36dcc9499bcb25c9adc112b7cc9a93cae41f3262",
+                CryptoUtil.toHexLower(HashAlgorithm.BLAKE3_256.digest(new byte[0])));
+    }
+
+    @Test
+    void should_resolve_tags_and_default_to_sha256() throws Exception {
+        assertSame(HashAlgorithm.SHA_256, HashAlgorithm.fromTag(null));
+        for (HashAlgorithm h : HashAlgorithm.values()) {
+            assertSame(h, HashAlgorithm.fromTag(h.tag()));
+            assertEquals(HashAlgorithm.DIGEST_LEN, h.digest(new byte[1]).length);
+        }
+        assertNull(HashAlgorithm.fromTag("MD5"));
+    }
+}
@@ -0,0 +1,132 @@
+package io.github.em.verilog.crypto;
+
+import io.github.em.verilog.errors.VeriLogFormatException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.generators.HKDFBytesGenerator;
+import org.bouncycastle.crypto.params.HKDFParameters;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentCipherTest {
+
+    private static final SecureRandom RNG = new SecureRandom();
+
+    @Test
+    void should_round_trip_with_seq_derived_nonce() throws Exception {
+        byte[] dek = random(32);
+        byte[] salt = random(16);
+        byte[] pt = "hello segment".getBytes();
+        byte[] aad = "aad".getBytes();
+
+        SegmentCipher writer = SegmentCipher.create(CipherSuite.CHACHA20_POLY1305_SEGMENT, dek, salt);
+        SegmentCipher reader = SegmentCipher.create(CipherSuite.CHACHA20_POLY1305_SEGMENT, dek, salt);
+
+        byte[] ct = writer.encrypt((byte) 1, 42, new byte[0], pt, aad);
+        assertEquals(pt.length + 16, ct.length);
+        assertArrayEquals(pt, reader.decrypt((byte) 1, 42, new byte[0], ct, aad));
+    }
+
+    @Test
+    void should_fail_when_seq_type_or_salt_differs() {
+        byte[] dek = random(32);
+        byte[] salt = random(16);
+        byte[] pt = "x".getBytes();
+        byte[] aad = "aad".getBytes();
+
+        SegmentCipher c = SegmentCipher.create(CipherSuite.CHACHA20_POLY1305_SEGMENT, dek, salt);
+        byte[] ct = c.encrypt((byte) 1, 7, new byte[0], pt, aad);
+
+        assertThrows(InvalidCipherTextException.class, () -> c.decrypt((byte) 1, 8, new byte[0], ct, aad));
+        assertThrows(InvalidCipherTextException.class, () -> c.decrypt((byte) 2, 7, new byte[0], ct, aad));
+
+        SegmentCipher other = SegmentCipher.create(CipherSuite.CHACHA20_POLY1305_SEGMENT, dek, random(16));
+        assertThrows(InvalidCipherTextException.class, () -> other.decrypt((byte) 1, 7, new byte[0], ct, aad));
+    }
+
+    @Test
+    void should_match_xchacha_for_random_nonce_suite() throws Exception {
+        byte[] dek = random(32);
+        byte[] nonce = random(24);
+        byte[] pt = "legacy".getBytes();
+        byte[] aad = "aad".getBytes();
+
+        SegmentCipher c = SegmentCipher.create(CipherSuite.XCHACHA20_POLY1305, dek, new byte[0]);
+        byte[] ct = c.encrypt((byte) 1, 1, nonce, pt, aad);
+
+        assertArrayEquals(pt, XChaCha20Poly1305.decrypt(dek, nonce, ct, aad));
+    }
+
+    @Test
+    void should_round_trip_aes_gcm_and_match_jce() throws Exception {
+        byte[] dek = random(32);
+        byte[] salt = random(16);
+        byte[] pt = "aes segment".getBytes();
+        byte[] aad = "aad".getBytes();
+
+        SegmentCipher c = SegmentCipher.create(CipherSuite.AES_256_GCM_SEGMENT, dek, salt);
+        byte[] ct = c.encrypt((byte) 1, 0x0102, new byte[0], pt, aad);
+
+        byte[] key = new byte[32];
+        HKDFBytesGenerator hkdf = new HKDFBytesGenerator(new SHA256Digest());
+        hkdf.init(new HKDFParameters(dek, salt, "VeriLog AES-256-GCM segment key".getBytes()));
+        hkdf.generateBytes(key, 0, 32);
+        Cipher jce = Cipher.getInstance("AES/GCM/NoPadding");
+        jce.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(key, "AES"),
+                new GCMParameterSpec(128, new byte[]{0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0x01, 0x02}));
+        jce.updateAAD(aad);
+        assertArrayEquals(jce.doFinal(pt), ct);
+
+        SegmentCipher reader = SegmentCipher.create(CipherSuite.AES_256_GCM_SEGMENT, dek, salt);
+        assertArrayEquals(pt, reader.decrypt((byte) 1, 0x0102, new byte[0], ct, aad));
+        assertThrows(InvalidCipherTextException.class, () -> reader.decrypt((byte) 1, 0x0103, new byte[0], ct, aad));
+        assertThrows(InvalidCipherTextException.class, () -> reader.decrypt((byte) 2, 0x0102, new byte[0], ct, aad));
+    }
+
+    @Test
+    void should_produce_identical_aes_gcm_frames_on_both_backends() throws Exception {
+        byte[] dek = random(32);
+        byte[] salt = random(16);
+        byte[] aad = random(13);
+        byte[] pt = random(1000);
+
+        SegmentCipher jce = SegmentCipher.create(CipherSuite.AES_256_GCM_SEGMENT, dek, salt, AesGcmBackend.JCE);
+        SegmentCipher bc = SegmentCipher.create(CipherSuite.AES_256_GCM_SEGMENT, dek, salt, AesGcmBackend.BOUNCY_CASTLE);
+
+        byte[] ct = bc.encrypt((byte) 1, 9, new byte[0], pt, aad);
+        assertArrayEquals(jce.encrypt((byte) 1, 9, new byte[0], pt, aad), ct);
+        assertArrayEquals(pt, jce.decrypt((byte) 1, 9, new byte[0], ct, aad));
+        assertArrayEquals(pt, bc.decrypt((byte) 1, 9, new byte[0], ct, aad));
+
+        ct[5] ^= 1;
+        assertThrows(InvalidCipherTextException.class, () -> bc.decrypt((byte) 1, 9, new byte[0], ct, aad));
+    }
+
+    @Test
+    void should_reject_bad_salt_length() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SegmentCipher.create(CipherSuite.CHACHA20_POLY1305_SEGMENT, new byte[32], new byte[15]));
+    }
+
+    @Test
+    void should_resolve_alg_names_and_default_legacy_headers() throws Exception {
+        assertEquals(CipherSuite.XCHACHA20_POLY1305, CipherSuite.fromAlg(null));
+        assertEquals(CipherSuite.CHACHA20_POLY1305_SEGMENT, CipherSuite.fromAlg("ChaCha20-Poly1305-Segment"));
+        assertEquals(CipherSuite.AES_256_GCM_SEGMENT, CipherSuite.fromAlg("AES-256-GCM-Segment"));
+
+        VeriLogFormatException ex = assertThrows(VeriLogFormatException.class, () -> CipherSuite.fromAlg("ROT13"));
+        assertEquals("format.unsupported_alg", ex.getMessageKey());
+    }
+
+    private static byte[] random(int n) {
+        byte[] b = new byte[n];
+        RNG.nextBytes(b);
+        return b;
+    }
+}
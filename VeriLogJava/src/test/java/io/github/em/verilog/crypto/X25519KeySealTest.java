@@ -0,0 +1,38 @@
+package io.github.em.verilog.crypto;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.params.X25519PrivateKeyParameters;
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class X25519KeySealTest {
+
+    private final SecureRandom rnd = new SecureRandom();
+
+    @Test
+    void should_unseal_what_was_sealed() throws Exception {
+        X25519PrivateKeyParameters auditor = new X25519PrivateKeyParameters(rnd);
+        byte[] key = new byte[32];
+        rnd.nextBytes(key);
+        byte[] aad = "header".getBytes();
+
+        byte[] sealed = X25519KeySeal.seal(auditor.generatePublicKey(), key, aad, rnd);
+
+        assertEquals(X25519KeySeal.SEALED_LEN, sealed.length);
+        assertArrayEquals(key, X25519KeySeal.unseal(auditor, sealed, aad));
+    }
+
+    @Test
+    void should_reject_wrong_key_or_aad() {
+        X25519PrivateKeyParameters auditor = new X25519PrivateKeyParameters(rnd);
+        byte[] sealed = X25519KeySeal.seal(auditor.generatePublicKey(), new byte[32], new byte[]{1}, rnd);
+
+        assertThrows(InvalidCipherTextException.class,
+                () -> X25519KeySeal.unseal(new X25519PrivateKeyParameters(rnd), sealed, new byte[]{1}));
+        assertThrows(InvalidCipherTextException.class,
+                () -> X25519KeySeal.unseal(auditor, sealed, new byte[]{2}));
+    }
+}
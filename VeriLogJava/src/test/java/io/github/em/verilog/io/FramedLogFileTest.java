@@ -1,9 +1,11 @@
 package io.github.em.verilog.io;
 
 import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.crypto.CipherSuite;
 import io.github.em.verilog.errors.VeriLogException;
 import io.github.em.verilog.errors.VeriLogFormatException;
 import io.github.em.verilog.errors.VeriLogIoException;
+import io.github.em.verilog.reader.Frame;
 import io.github.em.verilog.reader.FramedFileReader;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -262,7 +264,427 @@ public class FramedLogFileTest {
             assertEquals(1, f2.nextSeq());
         }
     }
-}
 
+    @Test
+    void should_keep_segment_cipher_from_header_when_reopened() throws Exception {
+        Path file = tempDir.resolve("segment.vlog");
+        byte[] dek = CryptoUtil.sha256Utf8("dek");
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            assertEquals(CipherSuite.CHACHA20_POLY1305_SEGMENT, f.cipherSuite());
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, "{\"a\":1}".getBytes());
+            f.flush(true);
+        }
+
+        // requested suite is ignored for an existing segment
+        try (FramedLogFile f2 = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertEquals(CipherSuite.CHACHA20_POLY1305_SEGMENT, f2.cipherSuite());
+            assertEquals(2, f2.nextSeq());
+        }
+    }
+
+    @Test
+    void should_omit_frame_nonce_in_segment_mode() throws Exception {
+        Path legacy = tempDir.resolve("legacy.vlog");
+        Path segment = tempDir.resolve("segment.vlog");
+        byte[] dek = new byte[32];
+        byte[] json = "{\"a\":1}".getBytes();
+
+        long legacyFrame;
+        long segmentFrame;
+        try (FramedLogFile f = FramedLogFile.openOrCreate(legacy, dek, "aad")) {
+            long before = Files.size(legacy);
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, json);
+            legacyFrame = Files.size(legacy) - before;
+            assertEquals(legacyFrame, f.frameOverheadBytes() + json.length);
+        }
+        try (FramedLogFile f = FramedLogFile.openOrCreate(segment, dek, "aad",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            long before = Files.size(segment);
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, json);
+            segmentFrame = Files.size(segment) - before;
+            assertEquals(segmentFrame, f.frameOverheadBytes() + json.length);
+        }
+
+        assertEquals(24, legacyFrame - segmentFrame);
+    }
+
+    @Test
+    void should_refuse_to_repeat_seq_in_segment_mode() throws Exception {
+        Path file = tempDir.resolve("segment.vlog");
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, new byte[32], "aad",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, "{}".getBytes());
+            assertThrows(IOException.class, () -> f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, "{}".getBytes()));
+        }
+    }
+
+    @Test
+    void should_track_seq_per_frame_type_in_segment_mode() throws Exception {
+        Path file = tempDir.resolve("segment.vlog");
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, new byte[32], "aad",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_KEY_CERT, 1, "{}".getBytes());
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, "{}".getBytes()); // distinct (type, seq) nonce
+            f.flush(true);
+        }
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, new byte[32], "aad")) {
+            assertEquals(2, f.nextSeq());
+            assertThrows(IOException.class, () -> f.appendEncryptedJson(FramedLogFile.TYPE_KEY_CERT, 1, "{}".getBytes()));
+            assertEquals(32, f.headerHash().length);
+        }
+    }
+
+    @Test
+    void should_cut_torn_frame_in_segment_mode_and_only_allow_sealing() throws Exception {
+        Path file = tempDir.resolve("segment.vlog");
+        byte[] dek = new byte[32];
+
+        long good;
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, entry(1));
+            noteEntries(f, 1);
+            f.flush(true);
+            f.checkpoint(true);
+            good = f.length();
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 2, entry(2));
+            f.flush(true);
+        }
+        try (var ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 3);
+        }
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertTrue(f.sealOnly());
+            assertEquals(1, f.chainHead().seq);
+            assertEquals(good, Files.size(file));
+            // seq 2's nonce may have reached the disk with the torn bytes
+            assertThrows(IOException.class, () -> f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 2, entry(2)));
+        }
+
+        // the file no longer shows the torn frame; the checkpoint remembers it
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertTrue(f.sealOnly());
+            assertThrows(IOException.class, () -> f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 3, entry(3)));
+            f.seal(1, "{\"kind\":\"segmentFooter\"}".getBytes());
+        }
+        assertEquals(1, SegmentTrailer.read(file).lastSeq);
+    }
+
+    @Test
+    void should_resume_from_checkpoint_reading_only_later_frames() throws Exception {
+        Path file = tempDir.resolve("ckpt.vlog");
+        byte[] dek = CryptoUtil.sha256Utf8("dek");
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_KEY_CERT, 1, "{}".getBytes());
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, entry(1));
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 2, entry(2));
+            f.flush(true);
+            noteEntries(f, 2);
+            f.checkpoint(true);
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 3, entry(3)); // after the checkpoint
+            f.flush(true);
+        }
+        assertTrue(Files.exists(FramedLogFile.checkpointPath(file)));
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertTrue(f.resumedFromCheckpoint());
+            assertEquals(4, f.nextSeq());
+            assertEquals(3, f.chainHead().seq);
+            assertArrayEquals(hash(3), f.chainHead().entryHash());
+            // per-type seqs come from the checkpoint
+            assertThrows(IOException.class, () -> f.appendEncryptedJson(FramedLogFile.TYPE_KEY_CERT, 1, "{}".getBytes()));
+        }
+    }
+
+    @Test
+    void should_scan_whole_segment_when_checkpoint_does_not_authenticate() throws Exception {
+        Path file = tempDir.resolve("ckpt.vlog");
+        byte[] dek = CryptoUtil.sha256Utf8("dek");
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, entry(1));
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 2, entry(2));
+            f.flush(true);
+            noteEntries(f, 2);
+            f.checkpoint(true);
+        }
+        byte[] side = Files.readAllBytes(FramedLogFile.checkpointPath(file));
+        side[60] ^= 1;
+        Files.write(FramedLogFile.checkpointPath(file), side);
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertFalse(f.resumedFromCheckpoint());
+            assertEquals(3, f.nextSeq());
+            assertEquals(2, f.chainHead().seq);
+            assertArrayEquals(hash(2), f.chainHead().entryHash());
+        }
+        // a checkpoint under another DEK is ignored as well
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, new byte[32], "aad")) {
+            assertFalse(f.resumedFromCheckpoint());
+            assertNull(f.chainHead());
+        }
+    }
+
+    @Test
+    void should_drop_frame_after_checkpoint_that_fails_authentication() throws Exception {
+        Path file = tempDir.resolve("ckpt.vlog");
+        byte[] dek = CryptoUtil.sha256Utf8("dek");
+
+        long checkpointed;
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 1, entry(1));
+            f.flush(true);
+            noteEntries(f, 1);
+            f.checkpoint(true);
+            checkpointed = Files.size(file);
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 2, entry(2));
+            f.flush(true);
+        }
+        // length prefix intact, tag broken: a torn write the length scan alone would accept
+        try (var ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{0x55}), ch.size() - 1);
+        }
 
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertTrue(f.resumedFromCheckpoint());
+            assertEquals(2, f.nextSeq());
+            assertEquals(1, f.chainHead().seq);
+        }
+        assertEquals(checkpointed, Files.size(file));
+    }
 
+    @Test
+    void should_recover_segment_larger_than_read_buffer_in_one_pass() throws Exception {
+        Path file = tempDir.resolve("big.vlog");
+        byte[] dek = new byte[32];
+        byte[] json = ("{\"pad\":\"" + "x".repeat(700) + "\"}").getBytes();
+
+        long framesStart;
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            framesStart = Files.size(file);
+            for (int i = 1; i <= 4000; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, json);
+            f.flush(true);
+        }
+        long size = Files.size(file);
+        assertTrue(size - framesStart > 2L * SegmentRecovery.READ_BUFFER);
+        try (var ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(size - 100); // torn last frame
+        }
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertEquals(4000, f.nextSeq());
+            assertEquals(size - framesStart - (f.frameOverheadBytes() + json.length), f.recoveryBytes());
+            assertTrue(f.recoveryNanos() > 0);
+        }
+    }
+
+    @Test
+    void should_cut_length_valid_frame_with_bad_tag_when_verifying_tail() throws Exception {
+        Path file = tempDir.resolve("tail.vlog");
+        byte[] dek = new byte[32];
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            for (int i = 1; i <= 3; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, entry(i));
+            f.flush(true);
+        }
+        try (var ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[]{0x55}), ch.size() - 1);
+        }
+        long size = Files.size(file);
+
+        // lengths alone accept the frame
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertEquals(4, f.nextSeq());
+        }
+        assertEquals(size, Files.size(file));
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad",
+                FramedLogFile.options().verifyTailFrames(2))) {
+            assertEquals(3, f.nextSeq());
+            assertEquals(2, f.chainHead().seq);
+            assertArrayEquals(hash(2), f.chainHead().entryHash());
+        }
+        assertTrue(Files.size(file) < size);
+    }
+
+    @Test
+    void should_skip_damaged_region_up_to_next_sync_frame() throws Exception {
+        Path file = tempDir.resolve("sync.vlog");
+        byte[] dek = new byte[32];
+
+        long framesStart;
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            framesStart = Files.size(file);
+            f.syncEvery(512);
+            for (int i = 1; i <= 40; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, entry(i));
+            f.flush(true);
+        }
+        long size = Files.size(file);
+        try (var ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(300), framesStart + (size - framesStart) / 3);
+        }
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad",
+                FramedLogFile.options().verifyTailFrames(2))) {
+            assertEquals(41, f.nextSeq());
+            assertEquals(40, f.chainHead().seq);
+            assertTrue(f.recoverySkippedBytes() >= 300);
+        }
+        assertEquals(size, Files.size(file));
+
+        // the frames after the damage are still readable from the sync frame on
+        try (FramedFileReader r = new FramedFileReader(file)) {
+            SyncMarker marker = SyncMarker.forSegment(dek, CryptoUtil.sha256(r.rawHeaderJsonBytes()));
+            long at = r.findSyncFrame(marker, framesStart + (size - framesStart) / 3, size);
+            assertTrue(at > 0);
+            r.range(at, size);
+            assertEquals(FramedLogFile.TYPE_SYNC, r.readNextFrame(false).type);
+            assertEquals(FramedLogFile.TYPE_LOG, r.readNextFrame(false).type);
+        }
+    }
+
+    @Test
+    void should_write_frame_checksums_and_keep_them_when_reopened() throws Exception {
+        Path file = tempDir.resolve("crc.vlog");
+        byte[] dek = new byte[32];
+
+        try (FramedLogFile f = checksummed(file, dek)) {
+            assertTrue(f.frameChecksums());
+            f.syncEvery(256);
+            for (int i = 1; i <= 9; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, entry(i));
+        }
+        // the header decides, not the option
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            assertTrue(f.frameChecksums());
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 10, entry(10));
+            f.flush(true);
+        }
+        try (var ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(file) - 7);
+        }
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad",
+                FramedLogFile.options().verifyTailFrames(2))) {
+            assertEquals(10, f.nextSeq());
+            assertEquals(9, f.chainHead().seq);
+            f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 10, entry(10));
+        }
+
+        try (FramedFileReader r = new FramedFileReader(file)) {
+            assertTrue(r.frameChecksums());
+            long seq = 0;
+            Frame fr;
+            while ((fr = r.readNextFrame(false)) != null) {
+                if (fr.type == FramedLogFile.TYPE_LOG) assertEquals(++seq, fr.seq);
+            }
+            assertEquals(10, seq);
+        }
+        assertTrue(SegmentScrubber.scrub(file).ok);
+    }
+
+    @Test
+    void should_seal_with_footer_and_trailer_and_refuse_further_appends() throws Exception {
+        Path file = tempDir.resolve("sealed.vlog");
+        byte[] dek = new byte[32];
+
+        long footerOffset;
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad",
+                FramedLogFile.options().suite(CipherSuite.AES_256_GCM_SEGMENT))) {
+            f.appendEncryptedJson(FramedLogFile.TYPE_KEY_CERT, 1, "{}".getBytes());
+            for (int i = 1; i <= 3; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, entry(i));
+            noteEntries(f, 3);
+            footerOffset = f.length();
+            f.seal(3, "{\"kind\":\"segmentFooter\"}".getBytes());
+            assertEquals(4, f.summary().frames());
+            assertThrows(IOException.class, () -> f.appendEncryptedJson(FramedLogFile.TYPE_LOG, 4, entry(4)));
+        }
+
+        SegmentTrailer t = SegmentTrailer.read(file);
+        assertNotNull(t);
+        assertEquals(footerOffset, t.footerOffset);
+        assertEquals(4, t.frames);
+        assertEquals(1, t.firstSeq);
+        assertEquals(3, t.lastSeq);
+        assertEquals(Files.size(file), footerOffset + f4(file, footerOffset) + SegmentTrailer.LEN);
+
+        VeriLogIoException ex = assertThrows(VeriLogIoException.class, () -> FramedLogFile.openOrCreate(file, dek, "aad"));
+        assertEquals("Segment is sealed", ex.getCause().getMessage());
+
+        try (FramedFileReader r = new FramedFileReader(file)) {
+            r.setFrameNonceLength(0);
+            assertEquals(FramedLogFile.TYPE_FOOTER, r.readFooterFrame().type);
+            r.positionAtFirstFrame();
+            int frames = 0;
+            while (r.readNextFrame(false) != null) frames++;
+            assertEquals(5, frames); // the trailer is not read as a frame
+        }
+    }
+
+    @Test
+    void should_keep_summary_across_reopen_through_checkpoint() throws Exception {
+        Path file = tempDir.resolve("summary.vlog");
+        byte[] dek = new byte[32];
+        java.time.Instant t0 = java.time.Instant.parse("2026-03-01T10:00:00.123456Z");
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            for (int i = 1; i <= 3; i++) {
+                f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, entry(i));
+                f.summary().entry(i, i == 1 ? hash(0) : hash(i - 1), hash(i), t0.plusMillis(10 - i));
+            }
+            f.flush(true);
+            f.checkpoint(true);
+        }
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            SegmentSummary s = f.summary();
+            assertEquals(3, s.frames());
+            assertEquals(1, s.firstSeq());
+            assertEquals(3, s.lastSeq());
+            assertArrayEquals(hash(0), s.firstPrevHash());
+            assertArrayEquals(hash(3), s.lastEntryHash());
+            assertEquals(t0.plusMillis(7), s.minTs());
+            assertEquals(t0.plusMillis(9), s.maxTs());
+        }
+
+        // without the checkpoint only the ends are decrypted, and the time range is unknown
+        Files.delete(FramedLogFile.checkpointPath(file));
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek, "aad")) {
+            SegmentSummary s = f.summary();
+            assertEquals(3, s.frames());
+            assertEquals(1, s.firstSeq());
+            assertEquals(3, s.lastSeq());
+            assertFalse(s.hasTimeRange());
+        }
+    }
+
+    private static FramedLogFile checksummed(Path file, byte[] dek) throws Exception {
+        return FramedLogFile.openOrCreate(file, dek, "aad", FramedLogFile.options().frameChecksums(true));
+    }
+
+    private static int f4(Path file, long offset) throws Exception {
+        try (var ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer b = ByteBuffer.allocate(4);
+            ch.read(b, offset);
+            return 4 + b.getInt(0);
+        }
+    }
+
+    private static void noteEntries(FramedLogFile f, int upTo) throws Exception {
+        for (int i = 1; i <= upTo; i++) f.summary().entry(i, i == 1 ? null : hash(i - 1), hash(i), null);
+    }
+
+    private static byte[] hash(int seq) throws Exception {
+        return CryptoUtil.sha256Utf8("entry-" + seq);
+    }
+
+    private static byte[] entry(int seq) throws Exception {
+        return ("{\"seq\":" + seq + ",\"entryHash\":\"" + CryptoUtil.toHexLower(hash(seq)) + "\"}").getBytes();
+    }
+}
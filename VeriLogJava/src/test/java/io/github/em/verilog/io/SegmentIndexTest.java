@@ -0,0 +1,102 @@
+package io.github.em.verilog.io;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.crypto.CipherSuite;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentIndexTest {
+
+    @TempDir
+    Path tmp;
+
+    private final byte[] dek = new byte[32];
+
+    @Test
+    void should_record_every_kth_frame_and_seal() throws Exception {
+        Path seg = tmp.resolve("seg.vlog");
+        byte[] headerHash = writeSegment(seg, 1000, 10, true);
+
+        SegmentIndex idx = SegmentIndex.load(seg, dek, headerHash);
+        assertNotNull(idx);
+        assertEquals(100, idx.size());
+        assertTrue(idx.sealed());
+        assertEquals(Files.size(seg), idx.sealedLength());
+
+        assertEquals(-1, idx.offsetBefore(10));      // first record is seq 10
+        assertEquals(idx.offsetAt(0), idx.offsetBefore(11));
+        assertEquals(idx.offsetAt(49), idx.offsetBefore(501));
+        assertEquals(idx.offsetAt(99), idx.offsetBefore(5000));
+    }
+
+    @Test
+    void should_stop_at_first_record_that_does_not_authenticate() throws Exception {
+        Path seg = tmp.resolve("seg.vlog");
+        byte[] headerHash = writeSegment(seg, 100, 10, true);
+
+        Path side = SegmentIndex.pathFor(seg);
+        byte[] b = Files.readAllBytes(side);
+        b[(int) SegmentIndex.recordPosition(4) + 9] ^= 1; // offset of the fifth record
+        Files.write(side, b);
+
+        SegmentIndex idx = SegmentIndex.load(seg, dek, headerHash);
+        assertEquals(4, idx.size());
+        assertFalse(idx.sealed());
+
+        assertNull(SegmentIndex.load(seg, dek, CryptoUtil.sha256Utf8("other header")));
+        assertEquals(0, SegmentIndex.load(seg, CryptoUtil.sha256Utf8("other dek"), headerHash).size());
+    }
+
+    @Test
+    void should_rebuild_same_records_as_the_writer() throws Exception {
+        Path seg = tmp.resolve("seg.vlog");
+        byte[] headerHash = writeSegment(seg, 500, 7, true);
+        SegmentIndex written = SegmentIndex.load(seg, dek, headerHash);
+
+        Files.delete(SegmentIndex.pathFor(seg));
+        assertEquals(written.size(), SegmentIndex.rebuild(seg, dek, 7));
+
+        SegmentIndex rebuilt = SegmentIndex.load(seg, dek, headerHash);
+        assertTrue(rebuilt.sealed());
+        assertEquals(written.sealedLength(), rebuilt.sealedLength());
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals(written.seqAt(i), rebuilt.seqAt(i));
+            assertEquals(written.offsetAt(i), rebuilt.offsetAt(i));
+        }
+    }
+
+    @Test
+    void should_keep_records_and_drop_seal_when_segment_is_reopened() throws Exception {
+        Path seg = tmp.resolve("seg.vlog");
+        byte[] headerHash = writeSegment(seg, 100, 10, true);
+
+        try (FramedLogFile f = FramedLogFile.openOrCreate(seg, dek, "aad")) {
+            f.indexEvery(10);
+            for (int i = 101; i <= 120; i++) f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, "{}".getBytes());
+            f.flush(true);
+        }
+
+        SegmentIndex idx = SegmentIndex.load(seg, dek, headerHash);
+        assertFalse(idx.sealed());
+        assertEquals(12, idx.size());
+        assertEquals(120, idx.seqAt(11));
+    }
+
+    private byte[] writeSegment(Path seg, int frames, int every, boolean seal) throws Exception {
+        try (FramedLogFile f = FramedLogFile.openOrCreate(seg, dek, "aad",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            f.indexEvery(every);
+            for (int i = 1; i <= frames; i++) {
+                f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, ("{\"i\":" + i + "}").getBytes());
+            }
+            f.flush(true);
+            if (seal) f.sealIndex();
+            return f.headerHash();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.em.verilog.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentManifestTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void should_append_lines_and_resume_after_last_record() throws Exception {
+        Path path = SegmentManifest.pathFor(tmp.resolve("current.vlog"));
+        assertEquals(tmp.resolve("current.vlog.manifest"), path);
+
+        try (SegmentManifest m = SegmentManifest.open(path)) {
+            assertNull(m.last());
+            m.append("{\"n\":1}".getBytes(StandardCharsets.UTF_8));
+            m.append("{\"n\":2}".getBytes(StandardCharsets.UTF_8));
+        }
+        try (SegmentManifest m = SegmentManifest.open(path)) {
+            assertEquals(2, m.last().path("n").asLong());
+        }
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}"), SegmentManifest.readLines(path));
+    }
+
+    @Test
+    void should_drop_torn_last_line() throws Exception {
+        Path path = tmp.resolve("current.vlog.manifest");
+        Files.writeString(path, "{\"n\":1}\n{\"n\":2", StandardOpenOption.CREATE_NEW);
+        assertEquals(List.of("{\"n\":1}"), SegmentManifest.readLines(path));
+
+        try (SegmentManifest m = SegmentManifest.open(path)) {
+            assertEquals(1, m.last().path("n").asLong());
+            m.append("{\"n\":2}".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals("{\"n\":1}\n{\"n\":2}\n", Files.readString(path));
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.em.verilog.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentNameTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void should_round_trip_seq_and_time_range_rounded_outwards() {
+        Instant min = Instant.parse("2026-01-01T12:00:00.123456Z");
+        Instant max = Instant.parse("2026-01-01T12:59:59.998001Z");
+        String name = SegmentName.format("app", 1, 4096, min, max);
+        assertEquals("app-0000000000000000001-0000000000000004096_20260101T120000.123Z_20260101T125959.999Z.vlog", name);
+
+        SegmentName n = SegmentName.parse(name);
+        assertEquals("app", n.prefix);
+        assertEquals(1, n.firstSeq);
+        assertEquals(4096, n.lastSeq);
+        assertEquals(Instant.parse("2026-01-01T12:00:00.123Z"), n.minTs);
+        assertEquals(Instant.parse("2026-01-01T12:59:59.999Z"), n.maxTs);
+        assertTrue(n.containsSeq(4096));
+        assertFalse(n.containsSeq(4097));
+    }
+
+    @Test
+    void should_parse_names_without_time_range_and_empty_segments_and_reject_others() {
+        SegmentName n = SegmentName.parse(SegmentName.format("my-app", 10, 9, null, null));
+        assertEquals("my-app", n.prefix);
+        assertFalse(n.hasEntries());
+        assertFalse(n.hasTimeRange());
+        assertFalse(n.containsSeq(10));
+
+        assertNotNull(SegmentName.parse("app-0000000000000000001-0000000000000000002~3.vlog"));
+        assertNull(SegmentName.parse("app-2026-01-01T00-00-00Z.vlog"));
+        assertNull(SegmentName.parse("current.vlog"));
+    }
+
+    @Test
+    void should_pick_unused_name() throws Exception {
+        Path p = tmp.resolve(SegmentName.format("app", 5, 4, null, null));
+        assertEquals(p, SegmentName.unique(p));
+        Files.createFile(p);
+        Path q = SegmentName.unique(p);
+        assertEquals("app-0000000000000000005-0000000000000000004~1.vlog", q.getFileName().toString());
+        assertEquals(5, SegmentName.parse(q.getFileName().toString()).firstSeq);
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.em.verilog.io;
+
+import io.github.em.verilog.crypto.CipherSuite;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentScrubberTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void should_pass_sealed_segment_and_find_flipped_byte() throws Exception {
+        Path file = tmp.resolve("a.vlog");
+        long framesStart = write(file, true, 20, true);
+
+        SegmentScrubber.Result ok = SegmentScrubber.scrub(file);
+        assertTrue(ok.ok, ok.reason);
+        assertTrue(ok.checksums);
+        assertTrue(ok.sealed);
+        assertEquals(21, ok.frames); // key cert + 20 entries
+        assertEquals(Files.size(file), ok.bytes);
+
+        // inside the ciphertext of some entry: only the checksum notices without the DEK
+        long at = framesStart + (Files.size(file) - framesStart) / 2;
+        flip(file, at);
+        SegmentScrubber.Result bad = SegmentScrubber.scrub(file);
+        assertFalse(bad.ok);
+        assertEquals("frame checksum mismatch", bad.reason);
+        assertTrue(bad.failedAt > framesStart && bad.failedAt <= at);
+    }
+
+    @Test
+    void should_accept_partial_tail_only_in_open_segment() throws Exception {
+        Path file = tmp.resolve("open.vlog");
+        write(file, true, 5, false);
+        try (var ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.truncate(Files.size(file) - 10);
+        }
+
+        SegmentScrubber.Result r = SegmentScrubber.scrub(file);
+        assertTrue(r.ok, r.reason);
+        assertTrue(r.partialTail);
+        assertEquals(5, r.frames); // key cert + 4 whole entries
+    }
+
+    @Test
+    void should_check_structure_of_segment_without_checksums() throws Exception {
+        Path file = tmp.resolve("plain.vlog");
+        long framesStart = write(file, false, 3, false);
+        assertTrue(SegmentScrubber.scrub(file).ok);
+        assertFalse(SegmentScrubber.scrub(file).checksums);
+
+        try (var ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.allocate(4).putInt(0, 3), framesStart);
+        }
+        SegmentScrubber.Result r = SegmentScrubber.scrub(file);
+        assertFalse(r.ok);
+        assertEquals(framesStart, r.failedAt);
+        assertEquals("invalid payload length 3", r.reason);
+    }
+
+    @Test
+    void should_scrub_partitions_on_several_threads_in_order() throws Exception {
+        Files.createDirectories(tmp.resolve("2026-10-18"));
+        Path a = tmp.resolve("2026-10-18").resolve("a.vlog");
+        Path b = tmp.resolve("b.vlog");
+        write(a, true, 3, true);
+        write(b, true, 3, false);
+        Files.writeString(tmp.resolve("c.vlog"), "not a segment");
+        Files.writeString(tmp.resolve("b.vlog.vidx"), "ignored");
+
+        List<Path> files = SegmentScrubber.segments(tmp);
+        assertEquals(List.of(a, b, tmp.resolve("c.vlog")), files);
+
+        List<SegmentScrubber.Result> results = SegmentScrubber.scrub(files, 3);
+        assertTrue(results.get(0).ok);
+        assertTrue(results.get(1).ok);
+        assertFalse(results.get(2).ok);
+        assertEquals("bad magic", results.get(2).reason);
+    }
+
+    private static long write(Path file, boolean checksums, int entries, boolean seal) throws Exception {
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, new byte[32], "aad",
+                FramedLogFile.options().suite(CipherSuite.AES_256_GCM_SEGMENT).frameChecksums(checksums))) {
+            long framesStart = f.length();
+            f.appendEncryptedJson(FramedLogFile.TYPE_KEY_CERT, 1, "{}".getBytes(StandardCharsets.UTF_8));
+            for (int i = 1; i <= entries; i++) {
+                f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i,
+                        ("{\"seq\":" + i + ",\"msg\":\"" + "m".repeat(40) + "\"}").getBytes(StandardCharsets.UTF_8));
+                f.summary().entry(i, null, new byte[32], null);
+            }
+            if (seal) f.seal(entries, "{\"kind\":\"segmentFooter\"}".getBytes(StandardCharsets.UTF_8));
+            else f.flush(true);
+            return framesStart;
+        }
+    }
+
+    private static void flip(Path file, long at) throws Exception {
+        try (var ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, at);
+            b.put(0, (byte) (b.get(0) ^ 0x10)).rewind();
+            ch.write(b, at);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.em.verilog.logger;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlushPolicyTest {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void should_flush_on_count_or_age_of_oldest_unflushed_frame() {
+        FlushPolicy p = new FlushPolicy(10, 100, false);
+
+        assertFalse(p.shouldFlush(0, 0, 1000 * MS, true), "nothing to flush");
+        assertFalse(p.shouldFlush(9, 0, 99 * MS, true));
+        assertTrue(p.shouldFlush(10, 0, 0, false));
+        assertTrue(p.shouldFlush(1, 0, 100 * MS, false));
+    }
+
+    @Test
+    void should_flush_when_idle_only_if_enabled() {
+        FlushPolicy p = new FlushPolicy(10, 100, false, true);
+
+        assertTrue(p.shouldFlush(1, 0, 0, true));
+        assertFalse(p.shouldFlush(1, 0, 0, false), "a busy queue keeps batching");
+    }
+
+    @Test
+    void should_age_entries_pending_signatures_without_counting_them_towards_n() {
+        FlushPolicy p = new FlushPolicy(10, 100, false);
+
+        assertFalse(p.shouldFlush(0, 9, 0, 99 * MS, false));
+        assertTrue(p.shouldFlush(0, 1, 0, 100 * MS, false), "pending entries alone reach the deadline");
+        assertFalse(p.shouldFlush(0, 10, 0, 0, false), "only appended frames count towards n");
+        assertTrue(p.dueByAge(0, 100 * MS, false));
+    }
+
+    @Test
+    void should_wait_no_longer_than_until_oldest_frame_is_due() {
+        FlushPolicy p = new FlushPolicy(10, 20, false);
+
+        assertEquals(FlushPolicy.IDLE_WAIT_NANOS, p.waitNanos(0, 0, 0));
+        assertEquals(15 * MS, p.waitNanos(1, 0, 5 * MS));
+        assertEquals(0, p.waitNanos(1, 0, 30 * MS), "overdue");
+        assertEquals(FlushPolicy.IDLE_WAIT_NANOS, new FlushPolicy(10, 60_000, false).waitNanos(1, 0, 0));
+    }
+}
@@ -1,9 +1,29 @@
 package io.github.em.verilog.logger;
 
+import io.github.em.verilog.audit.HashChainState;
+import io.github.em.verilog.audit.SignedEntryFactory;
+import io.github.em.verilog.crypto.CipherSuite;
+import io.github.em.verilog.crypto.HashAlgorithm;
+import io.github.em.verilog.errors.VeriLogCryptoException;
 import io.github.em.verilog.errors.VeriLogIoException;
 import io.github.em.verilog.io.FramedLogFile;
+import io.github.em.verilog.io.SegmentManifest;
+import io.github.em.verilog.io.SegmentTrailer;
 import io.github.em.verilog.logger.utils.TestConfigBuilder;
+import io.github.em.verilog.provider.BcCryptoProvider;
+import io.github.em.verilog.provider.CryptoSelection;
+import io.github.em.verilog.provider.JcaCryptoProvider;
+import io.github.em.verilog.reader.ChainAnchor;
+import io.github.em.verilog.reader.DirectoryVerifyReport;
+import io.github.em.verilog.reader.MapPublicKeyResolver;
+import io.github.em.verilog.reader.SegmentFooter;
+import io.github.em.verilog.reader.VeriLogReader;
+import io.github.em.verilog.reader.VerifyReport;
+import io.github.em.verilog.sign.BcEcdsaP256Signer;
+import io.github.em.verilog.sign.BcPublicKeyLoader;
 import io.github.em.verilog.sign.LogSigner;
+import io.github.em.verilog.sign.SimulatedLatencySigner;
+import org.bouncycastle.crypto.params.X25519PrivateKeyParameters;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
@@ -11,8 +31,16 @@ import org.mockito.MockedStatic;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -93,6 +121,751 @@ final class LogWriterTest {
         }
     }
 
+    @Test
+    void should_write_verifiable_log_when_signing_asynchronously() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+
+        try (var signer = new SimulatedLatencySigner(
+                new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true), Duration.ofMillis(5))) {
+            var queue = new LinkedBlockingQueue<LogEvent>();
+            var faulted = new AtomicBoolean(false);
+            var terminated = new CountDownLatch(1);
+
+            var cfg = TestConfigBuilder.configBuilder(tmp)
+                    .signer(null)
+                    .asyncSigner(signer)
+                    .signBatchSize(16)
+                    .maxSignBatchesInFlight(4)
+                    .build();
+            var metrics = new LoggerMetrics();
+
+            var writer = new LogWriter(cfg, queue, metrics, new AtomicBoolean(false), faulted, terminated);
+            for (int i = 0; i < 200; i++) {
+                queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of("i", i), Instant.now()));
+            }
+            queue.put(LogEvent.POISON);
+            new Thread(writer, "logwriter-async-test").start();
+
+            assertTrue(terminated.await(10, TimeUnit.SECONDS), "writer should terminate");
+            assertFalse(faulted.get());
+            assertTrue(signer.batchCount() < 200, "entries should be signed in batches");
+
+            VerifyReport rep = new VeriLogReader().verifyFile(
+                    tmp.resolve(cfg.getCurrentFileName()),
+                    new byte[32],
+                    new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki))));
+            assertTrue(rep.valid, rep.reason);
+            assertEquals(200, rep.seq);
+        }
+    }
+
+    @Test
+    void should_sign_entries_with_certified_segment_key() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var longTerm = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var faulted = new AtomicBoolean(false);
+        var terminated = new CountDownLatch(1);
+
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(longTerm)
+                .segmentSigningKeys(true)
+                .cipherSuite(CipherSuite.CHACHA20_POLY1305_SEGMENT)
+                .build();
+
+        var writer = new LogWriter(cfg, queue, new LoggerMetrics(), new AtomicBoolean(false), faulted, terminated);
+        for (int i = 0; i < 50; i++) {
+            queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of("i", i), Instant.now()));
+        }
+        queue.put(LogEvent.POISON);
+        new Thread(writer, "logwriter-segment-keys-test").start();
+
+        assertTrue(terminated.await(10, TimeUnit.SECONDS), "writer should terminate");
+        assertFalse(faulted.get());
+
+        // the resolver only knows the long-term key; entry keys come from the certificates
+        var resolver = new MapPublicKeyResolver(Map.of(longTerm.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+        VerifyReport rep = new VeriLogReader().verifyFile(current, new byte[32], resolver);
+        assertTrue(rep.valid, rep.reason);
+        assertEquals(50, rep.seq);
+
+        KeyPair other = kpg.generateKeyPair();
+        var wrongIssuer = new MapPublicKeyResolver(
+                Map.of(longTerm.keyId(), BcPublicKeyLoader.fromSpkiDer(other.getPublic().getEncoded())));
+        VerifyReport bad = new VeriLogReader().verifyFile(current, new byte[32], wrongIssuer);
+        assertFalse(bad.valid);
+        assertEquals("key certificate signature invalid", bad.reason);
+    }
+
+    @Test
+    void should_continue_chain_when_reopening_current_segment() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .rotateOnStartup(false)
+                .cipherSuite(CipherSuite.CHACHA20_POLY1305_SEGMENT)
+                .build();
+
+        for (int run = 0; run < 2; run++) {
+            var queue = new LinkedBlockingQueue<LogEvent>();
+            var faulted = new AtomicBoolean(false);
+            var terminated = new CountDownLatch(1);
+            var metrics = new LoggerMetrics();
+            var writer = new LogWriter(cfg, queue, metrics, new AtomicBoolean(false), faulted, terminated);
+            // the reopened segment only needs the frames after its checkpoint
+            if (run == 1) assertTrue(metrics.recoveryNanos() > 0);
+            assertEquals(0, metrics.recoveryBytes());
+            for (int i = 0; i < 15; i++) {
+                queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of("run", run), Instant.now()));
+            }
+            queue.put(LogEvent.POISON);
+            new Thread(writer, "logwriter-resume-test").start();
+            assertTrue(terminated.await(10, TimeUnit.SECONDS), "writer should terminate");
+            assertFalse(faulted.get());
+        }
+
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+        assertTrue(Files.exists(FramedLogFile.checkpointPath(current)));
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        VerifyReport rep = new VeriLogReader().verifyFile(current, new byte[32], resolver);
+        assertTrue(rep.valid, rep.reason);
+        assertEquals(30, rep.seq);
+    }
+
+    @Test
+    void should_seal_rotated_segment_with_signed_footer() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp).signer(signer).indexEvery(4).build();
+
+        var writer = new LogWriter(cfg, new LinkedBlockingQueue<>(), new LoggerMetrics(),
+                new AtomicBoolean(false), new AtomicBoolean(false), new CountDownLatch(1));
+        Method writeOne = LogWriter.class.getDeclaredMethod("writeOne", LogEvent.class);
+        writeOne.setAccessible(true);
+        Instant t0 = Instant.parse("2026-01-01T00:00:00Z");
+        for (int i = 0; i < 20; i++) {
+            writeOne.invoke(writer, new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of(), t0.plusSeconds(i % 7)));
+        }
+        writer.rotate();
+        writer.flushAndCloseBestEffort();
+
+        Path rotated;
+        try (var files = Files.list(tmp)) {
+            rotated = files.filter(p -> p.getFileName().toString().startsWith("verilog-")
+                    && p.getFileName().toString().endsWith(".vlog")).findFirst().orElseThrow();
+        }
+        SegmentTrailer trailer = SegmentTrailer.read(rotated);
+        assertNotNull(trailer);
+        assertEquals(21, trailer.frames, "20 entries after the chain restart record");
+        assertEquals(1, trailer.firstSeq);
+        assertEquals(20, trailer.lastSeq);
+        assertNull(SegmentTrailer.read(tmp.resolve(cfg.getCurrentFileName())));
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        VerifyReport rep = new VeriLogReader().verifyFile(rotated, new byte[32], resolver);
+        assertTrue(rep.valid, rep.reason);
+        assertEquals(20, rep.seq);
+
+        SegmentFooter footer = new VeriLogReader().readFooter(rotated, new byte[32], resolver);
+        assertEquals(21, footer.frames);
+        assertEquals(trailer.footerOffset, footer.length);
+        assertEquals(t0, footer.minTs);
+        assertEquals(t0.plusSeconds(6), footer.maxTs);
+        assertEquals(5, footer.indexSize());
+
+        // a sealed segment is not appended to again
+        assertThrows(VeriLogIoException.class, () -> FramedLogFile.openOrCreate(rotated, new byte[32], "test-aad"));
+
+        byte[] sealed = Files.readAllBytes(rotated);
+        byte[] tampered = sealed.clone();
+        tampered[tampered.length - SegmentTrailer.LEN + 23] ^= 1; // trailer frame count
+        Files.write(rotated, tampered);
+        assertEquals("segment trailer does not match footer",
+                new VeriLogReader().verifyFile(rotated, new byte[32], resolver).reason);
+
+        Files.write(rotated, Arrays.copyOf(sealed, sealed.length - SegmentTrailer.LEN));
+        assertNull(SegmentTrailer.read(rotated));
+        assertEquals("segment footer without trailer",
+                new VeriLogReader().verifyFile(rotated, new byte[32], resolver).reason);
+    }
+
+    @Test
+    void should_switch_to_prepared_segment_and_seal_the_old_one_in_background() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp).signer(signer).build();
+        var metrics = new LoggerMetrics();
+        var writer = new LogWriter(cfg, new LinkedBlockingQueue<>(), metrics,
+                new AtomicBoolean(false), new AtomicBoolean(false), new CountDownLatch(1));
+        Method writeOne = LogWriter.class.getDeclaredMethod("writeOne", LogEvent.class);
+        writeOne.setAccessible(true);
+        for (int i = 0; i < 5; i++) {
+            writeOne.invoke(writer, new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of(), Instant.now()));
+        }
+
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+        Path staging = SegmentRotator.stagingPath(current);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+        while (!(Files.exists(staging) && Files.size(staging) > 0) && System.nanoTime() < deadline) Thread.sleep(5);
+        byte[] preparedHeader = Files.readAllBytes(staging);
+        assertTrue(preparedHeader.length > 0, "next segment should be prepared ahead of rotation");
+
+        writer.rotate();
+        byte[] head = Arrays.copyOf(Files.readAllBytes(current), preparedHeader.length);
+        assertArrayEquals(preparedHeader, head, "current segment should be the prepared one");
+        assertEquals(1, metrics.rotationCount());
+        assertTrue(metrics.maxRotationNanos() > 0);
+
+        writeOne.invoke(writer, new LogEvent(VeriLoggerConfig.Level.INFO, "after", Map.of(), Instant.now()));
+        writer.flushAndCloseBestEffort();
+        assertFalse(Files.exists(staging), "unused staging segment should be removed on close");
+        assertFalse(Files.exists(FramedLogFile.checkpointPath(staging)), "sidecars should follow the final name");
+
+        Path rotated;
+        try (var files = Files.list(tmp)) {
+            rotated = files.filter(p -> p.getFileName().toString().startsWith("verilog-")
+                    && p.getFileName().toString().endsWith(".vlog")).findFirst().orElseThrow();
+        }
+        SegmentTrailer trailer = SegmentTrailer.read(rotated);
+        assertNotNull(trailer, "old segment should be sealed once the writer closes");
+        assertEquals(5, trailer.lastSeq);
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        VerifyReport rep = new VeriLogReader().verifyFile(rotated, new byte[32], resolver);
+        assertTrue(rep.valid, rep.reason);
+    }
+
+    @Test
+    void should_rotate_by_entry_count_and_archive_sealed_segments() throws Exception {
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var faulted = new AtomicBoolean(false);
+        var terminated = new CountDownLatch(1);
+        Path archive = tmp.resolve("archive");
+        var cfg = TestConfigBuilder.configBuilder(tmp.resolve("live"))
+                .rotateEntries(5)
+                .archiveDir(archive)
+                .build();
+        var metrics = new LoggerMetrics();
+
+        var writer = new LogWriter(cfg, queue, metrics, new AtomicBoolean(false), faulted, terminated);
+        for (int i = 0; i < 12; i++) {
+            queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of(), Instant.now()));
+        }
+        queue.put(LogEvent.POISON);
+        new Thread(writer, "logwriter-retention-test").start();
+        assertTrue(terminated.await(5, TimeUnit.SECONDS));
+        assertFalse(faulted.get());
+
+        assertEquals(2, metrics.rotationCount());
+        assertEquals(2, metrics.segmentsArchived());
+        try (var files = Files.list(archive)) {
+            var segs = files.filter(p -> p.toString().endsWith(".vlog")).sorted().toArray(Path[]::new);
+            assertEquals(2, segs.length);
+            assertEquals(6, SegmentTrailer.read(segs[0]).frames, "the first one starts with a chain restart record");
+            assertEquals(5, SegmentTrailer.read(segs[1]).frames);
+        }
+        try (var files = Files.list(tmp.resolve("live"))) {
+            assertEquals(1, files.filter(p -> p.toString().endsWith(".vlog")).count(), "only current stays live");
+        }
+    }
+
+    @Test
+    void should_link_segments_across_rotations_and_restarts() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .rotateEntries(4)
+                .build();
+
+        writeEvents(cfg, 10);   // seqs 1-4, 5-8 rotated; 9-10 in current
+        writeEvents(cfg, 3);    // current sealed and rotated at startup; 11-13
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var rep = new VeriLogReader().verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(rep.allOk());
+        assertEquals(4, rep.results().size());
+        assertEquals(13, rep.results().get(3).lastSeqOrFailSeq);
+        assertNotNull(SegmentTrailer.read(rep.results().get(2).file), "leftover segment is sealed at startup");
+
+        Files.delete(rep.results().get(1).file);
+        var broken = new VeriLogReader().verifyDirectory(tmp, new byte[32], resolver, false);
+        assertFalse(broken.allOk());
+        assertTrue(broken.results().get(1).reason.contains("chain does not continue"), broken.results().get(1).reason);
+    }
+
+    @Test
+    void should_leave_leftover_segment_unsealed_and_count_it_when_its_footer_cannot_be_signed() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        writeEvents(TestConfigBuilder.configBuilder(tmp).signer(signer).build(), 2);
+
+        // the footer is the first thing signed on the next start
+        var failed = new AtomicBoolean(false);
+        LogSigner flaky = new LogSigner() {
+            @Override
+            public String keyId() {
+                return signer.keyId();
+            }
+
+            @Override
+            public byte[] signEntryHash(byte[] entryHash32) throws VeriLogCryptoException {
+                if (failed.compareAndSet(false, true)) throw new VeriLogCryptoException("crypto.sign_failed");
+                return signer.signEntryHash(entryHash32);
+            }
+        };
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var metrics = new LoggerMetrics();
+        var faulted = new AtomicBoolean(false);
+        var terminated = new CountDownLatch(1);
+        var writer = new LogWriter(TestConfigBuilder.configBuilder(tmp).signer(flaky).build(), queue, metrics,
+                new AtomicBoolean(false), faulted, terminated);
+        queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m", Map.of(), Instant.now()));
+        queue.put(LogEvent.POISON);
+        new Thread(writer, "logwriter-unsealed-test").start();
+        assertTrue(terminated.await(10, TimeUnit.SECONDS));
+        assertFalse(faulted.get());
+        assertEquals(1, metrics.startupSealFailures());
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var rep = new VeriLogReader().verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(rep.allOk());
+        assertEquals(2, rep.results().size());
+        assertNull(SegmentTrailer.read(rep.results().get(0).file));
+        assertEquals(3, rep.results().get(1).lastSeqOrFailSeq);
+    }
+
+    @Test
+    void should_accept_new_chain_after_other_segments_only_with_signed_restart_record() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .rotateEntries(4)
+                .build();
+        writeEvents(cfg, 10);   // 1-4 (starts the chain), 5-8; 9-10 in current
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var reader = new VeriLogReader();
+        var rep = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(rep.allOk());
+        assertEquals(1, rep.restarts().size());
+        assertEquals(rep.results().get(0).file, rep.restarts().get(0).file);
+        assertEquals(DirectoryVerifyReport.Restart.SIGNED, rep.restarts().get(0).restart);
+
+        // a new chain from genesis in place of current, without a restart record: marked, or passed off as legacy
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+        for (boolean marked : new boolean[]{true, false}) {
+            Files.delete(current);
+            HashChainState chain = HashChainState.fresh();
+            SignedEntryFactory factory = new SignedEntryFactory();
+            try (FramedLogFile f = FramedLogFile.openOrCreate(current, new byte[32], cfg.getAadPrefix(),
+                    FramedLogFile.options().restartRecords(marked))) {
+                for (int i = 0; i < 2; i++) {
+                    long seq = chain.nextSeq();
+                    f.appendEncryptedJson(FramedLogFile.TYPE_LOG, seq,
+                            factory.buildSignedEntryJsonUtf8(chain, signer, "test", "INFO", Map.of(), Instant.now()));
+                }
+            }
+            var forged = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+            assertFalse(forged.allOk());
+            assertTrue(forged.results().get(2).reason.contains("needs a signed chain restart record"),
+                    forged.results().get(2).reason);
+        }
+
+        // a writer that finds nothing to continue starts over with a record, and the restart is listed
+        Path other = Files.createTempDirectory("verilog-restart");
+        writeEvents(TestConfigBuilder.configBuilder(other).signer(signer).build(), 2);
+        Files.copy(other.resolve(cfg.getCurrentFileName()), current, StandardCopyOption.REPLACE_EXISTING);
+        var restarted = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(restarted.allOk());
+        assertEquals(2, restarted.restarts().size());
+        assertEquals(current, restarted.restarts().get(1).file);
+    }
+
+    @Test
+    void should_continue_chain_of_highest_named_segment_and_refuse_to_start_when_it_is_unreadable()
+            throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .rotateEntries(4)
+                .build();
+        writeEvents(cfg, 8);    // 1-4, 5-8 rotated
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+        Files.deleteIfExists(current);
+        Files.deleteIfExists(FramedLogFile.checkpointPath(current));
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var reader = new VeriLogReader();
+        var rotated = reader.verifyDirectory(tmp, new byte[32], resolver, false).results();
+        Path first = rotated.get(0).file;
+        Path last = rotated.get(1).file;
+        // the older segment looks newer to mtime
+        Files.setLastModifiedTime(first, FileTime.from(Instant.now().plusSeconds(3600)));
+
+        writeEvents(cfg, 2);
+        var rep = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(rep.allOk());
+        assertEquals(10, rep.results().get(2).lastSeqOrFailSeq);
+        assertEquals(1, rep.restarts().size());
+
+        Files.delete(current);
+        Files.deleteIfExists(FramedLogFile.checkpointPath(current));
+        SegmentTrailer trailer = SegmentTrailer.read(last);
+        try (var ch = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            ch.read(b, trailer.footerOffset + 20);
+            b.put(0, (byte) (b.get(0) ^ 1)).rewind();
+            ch.write(b, trailer.footerOffset + 20);
+        }
+        var writer = new LinkedBlockingQueue<LogEvent>();
+        assertThrows(VeriLogIoException.class, () -> new LogWriter(cfg, writer, new LoggerMetrics(),
+                new AtomicBoolean(false), new AtomicBoolean(false), new CountDownLatch(1)));
+        assertFalse(Files.exists(current), "no new chain is started");
+    }
+
+    @Test
+    void should_seal_prefix_of_torn_segment_and_continue_chain_in_new_segment() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .rotateOnStartup(false)
+                .cipherSuite(CipherSuite.CHACHA20_POLY1305_SEGMENT)
+                .build();
+
+        writeEvents(cfg, 10);
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+        try (var ch = FileChannel.open(current, StandardOpenOption.WRITE)) {
+            ch.truncate(ch.size() - 5); // crash in the middle of entry 10
+        }
+        writeEvents(cfg, 3);    // 1-9 sealed; 10-12 in a new current segment
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var rep = new VeriLogReader().verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(rep.allOk());
+        assertEquals(2, rep.results().size());
+        assertEquals(9, rep.results().get(0).lastSeqOrFailSeq);
+        assertNotNull(SegmentTrailer.read(rep.results().get(0).file));
+        assertEquals(12, rep.results().get(1).lastSeqOrFailSeq);
+    }
+
+    @Test
+    void should_list_sealed_segments_in_signed_manifest() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .rotateEntries(4)
+                .segmentManifest(true)
+                .segmentPartition(VeriLoggerConfig.SegmentPartition.DAY)
+                .build();
+
+        writeEvents(cfg, 10);
+        writeEvents(cfg, 3);
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var reader = new VeriLogReader();
+        Path manifest = SegmentManifest.pathFor(tmp.resolve(cfg.getCurrentFileName()));
+        var entries = reader.readManifest(manifest, resolver);
+        assertEquals(3, entries.size());
+        assertEquals(5, entries.get(1).firstSeq);
+        assertEquals(10, entries.get(2).lastSeq);
+        assertNotNull(entries.get(2).resolve(tmp));
+
+        var rep = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(rep.allOk());
+        assertEquals(4, rep.results().size());
+
+        Files.delete(entries.get(1).resolve(tmp));
+        var missing = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertEquals("segment listed in manifest is missing", missing.results().get(1).reason);
+
+        Files.delete(entries.get(0).resolve(tmp));
+        var leading = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertEquals("segment listed in manifest is missing", leading.results().get(0).reason);
+
+        var lines = Files.readAllLines(manifest);
+        lines.set(0, lines.get(0).replace("\"frames\":5", "\"frames\":6"));
+        Files.write(manifest, lines);
+        var forged = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertFalse(forged.allOk());
+        assertEquals(manifest, forged.results().get(0).file);
+    }
+
+    @Test
+    void should_record_pruned_segments_in_manifest_before_deleting_them() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .rotateEntries(4)
+                .segmentManifest(true)
+                .retention(1, 0)
+                .build();
+
+        writeEvents(cfg, 10); // the first segment is pruned at the second rotation, the second one waits
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var reader = new VeriLogReader();
+        var entries = reader.readManifest(SegmentManifest.pathFor(tmp.resolve(cfg.getCurrentFileName())), resolver);
+        assertEquals(2, entries.size());
+        assertTrue(entries.get(0).isPruned());
+        assertNull(entries.get(0).resolve(tmp));
+        assertFalse(entries.get(1).isPruned());
+
+        var rep = reader.verifyDirectory(tmp, new byte[32], resolver, false);
+        assertTrue(rep.allOk());
+        assertEquals(2, rep.results().size());
+        assertFalse(rep.anchoredAtGenesis());
+        assertEquals(entries.get(0).lastSeq, rep.prunedThroughSeq());
+        assertEquals(entries.get(1).firstSeq, rep.firstSeq());
+    }
+
+    @Test
+    void should_write_sync_frames_that_split_verification() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .syncEveryBytes(1024)
+                .build();
+
+        writeEvents(cfg, 60);
+        writeEvents(cfg, 5); // seals the first segment on startup
+        Path sealed;
+        try (var files = Files.list(tmp)) {
+            sealed = files.filter(p -> p.toString().endsWith(".vlog") && !p.endsWith(cfg.getCurrentFileName()))
+                    .findFirst().orElseThrow();
+        }
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        var reader = new VeriLogReader();
+        VerifyReport whole = reader.verifyFile(sealed, new byte[32], resolver, false);
+        VerifyReport split = reader.verifyFile(sealed, new byte[32], resolver, false, 4);
+        assertTrue(split.valid, split.reason);
+        assertEquals(60, split.seq);
+        assertEquals(whole.footerHashHex, split.footerHashHex);
+        assertEquals(whole.lastEntryHashHex, split.lastEntryHashHex);
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+        assertTrue(reader.verifyFile(current, new byte[32], resolver, true,
+                ChainAnchor.after(60, split.lastEntryHashHex), 4).valid);
+
+        byte[] all = Files.readAllBytes(sealed);
+        all[all.length * 3 / 4] ^= 0x01;
+        Files.write(sealed, all);
+        assertFalse(reader.verifyFile(sealed, new byte[32], resolver, false, 4).valid);
+    }
+
+    @Test
+    void should_flush_at_age_deadline_or_when_queue_goes_idle() throws Exception {
+        var byAge = TestConfigBuilder.configBuilder(tmp.resolve("age"))
+                .flushEveryN(1000).flushEveryMs(100).build();
+        LoggerMetrics m = flushOneEvent(byAge);
+        assertEquals(1, Arrays.stream(m.unflushedAgeCounts()).sum());
+        assertTrue(m.maxUnflushedAgeNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+
+        var onIdle = TestConfigBuilder.configBuilder(tmp.resolve("idle"))
+                .flushEveryN(1000).flushEveryMs(60_000).flushOnIdle(true).build();
+        m = flushOneEvent(onIdle);
+        assertEquals(1, Arrays.stream(m.unflushedAgeCounts()).sum());
+        assertTrue(m.maxUnflushedAgeNanos() < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    /** logs one event and waits for the writer to flush it on its own */
+    private static LoggerMetrics flushOneEvent(VeriLoggerConfig cfg) throws Exception {
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var metrics = new LoggerMetrics();
+        var terminated = new CountDownLatch(1);
+        var writer = new LogWriter(cfg, queue, metrics, new AtomicBoolean(false), new AtomicBoolean(false), terminated);
+        new Thread(writer, "logwriter-flush-test").start();
+        queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m", Map.of(), Instant.now()));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Arrays.stream(metrics.unflushedAgeCounts()).sum() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        queue.put(LogEvent.POISON);
+        assertTrue(terminated.await(10, TimeUnit.SECONDS));
+        return metrics;
+    }
+
+    private static void writeEvents(VeriLoggerConfig cfg, int n) throws Exception {
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var faulted = new AtomicBoolean(false);
+        var terminated = new CountDownLatch(1);
+        var writer = new LogWriter(cfg, queue, new LoggerMetrics(), new AtomicBoolean(false), faulted, terminated);
+        for (int i = 0; i < n; i++) {
+            queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of(), Instant.now()));
+        }
+        queue.put(LogEvent.POISON);
+        new Thread(writer, "logwriter-link-test").start();
+        assertTrue(terminated.await(10, TimeUnit.SECONDS));
+        assertFalse(faulted.get());
+    }
+
+    @Test
+    void should_write_verifiable_log_with_declared_entry_hash() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var signer = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var faulted = new AtomicBoolean(false);
+        var terminated = new CountDownLatch(1);
+
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(signer)
+                .entryHash(HashAlgorithm.BLAKE3_256)
+                .build();
+
+        var writer = new LogWriter(cfg, queue, new LoggerMetrics(), new AtomicBoolean(false), faulted, terminated);
+        for (int i = 0; i < 20; i++) {
+            queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of("i", i), Instant.now()));
+        }
+        queue.put(LogEvent.POISON);
+        new Thread(writer, "logwriter-entry-hash-test").start();
+
+        assertTrue(terminated.await(10, TimeUnit.SECONDS), "writer should terminate");
+        assertFalse(faulted.get());
+
+        var resolver = new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        VerifyReport rep = new VeriLogReader().verifyFile(tmp.resolve(cfg.getCurrentFileName()), new byte[32], resolver);
+        assertTrue(rep.valid, rep.reason);
+        assertEquals(20, rep.seq);
+    }
+
+    @Test
+    void should_read_with_other_crypto_providers_than_written_and_report_them() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        CryptoSelection bc = CryptoSelection.of(BcCryptoProvider.INSTANCE);
+
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var metrics = new LoggerMetrics();
+        var faulted = new AtomicBoolean(false);
+        var terminated = new CountDownLatch(1);
+
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(bc.es256Signer(kp.getPrivate().getEncoded(), spki))
+                .cipherSuite(CipherSuite.AES_256_GCM_SEGMENT)
+                .crypto(bc)
+                .build();
+
+        var writer = new LogWriter(cfg, queue, metrics, new AtomicBoolean(false), faulted, terminated);
+        assertEquals("BC", metrics.cryptoProviders().get(CryptoSelection.Primitive.AES_GCM));
+        assertFalse(metrics.cryptoProviders().containsKey(CryptoSelection.Primitive.ES256_VERIFY),
+                "the writer does not verify");
+        for (int i = 0; i < 10; i++) {
+            queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of("i", i), Instant.now()));
+        }
+        queue.put(LogEvent.POISON);
+        new Thread(writer, "logwriter-provider-test").start();
+
+        assertTrue(terminated.await(10, TimeUnit.SECONDS), "writer should terminate");
+        assertFalse(faulted.get());
+
+        var resolver = new MapPublicKeyResolver(Map.of(cfg.getSigner().keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        VerifyReport rep = new VeriLogReader(null, CryptoSelection.of(JcaCryptoProvider.INSTANCE))
+                .verifyFile(tmp.resolve(cfg.getCurrentFileName()), new byte[32], resolver);
+        assertTrue(rep.valid, rep.reason);
+        assertEquals(10, rep.seq);
+    }
+
+    @Test
+    void should_authenticate_mac_chain_with_and_without_unseal_key() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        var longTerm = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true);
+        var auditor = new X25519PrivateKeyParameters(new SecureRandom());
+
+        var queue = new LinkedBlockingQueue<LogEvent>();
+        var faulted = new AtomicBoolean(false);
+        var terminated = new CountDownLatch(1);
+
+        var cfg = TestConfigBuilder.configBuilder(tmp)
+                .signer(longTerm)
+                .macChain(auditor.generatePublicKey())
+                .macCheckpointEvery(16)
+                .build();
+
+        var writer = new LogWriter(cfg, queue, new LoggerMetrics(), new AtomicBoolean(false), faulted, terminated);
+        for (int i = 0; i < 50; i++) {
+            queue.put(new LogEvent(VeriLoggerConfig.Level.INFO, "m" + i, Map.of("i", i), Instant.now()));
+        }
+        queue.put(LogEvent.POISON);
+        new Thread(writer, "logwriter-mac-chain-test").start();
+
+        assertTrue(terminated.await(10, TimeUnit.SECONDS), "writer should terminate");
+        assertFalse(faulted.get());
+
+        var resolver = new MapPublicKeyResolver(Map.of(longTerm.keyId(), BcPublicKeyLoader.fromSpkiDer(spki)));
+        Path current = tmp.resolve(cfg.getCurrentFileName());
+
+        VerifyReport withKey = new VeriLogReader(auditor).verifyFile(current, new byte[32], resolver);
+        assertTrue(withKey.valid, withKey.reason);
+        assertEquals(50, withKey.seq);
+
+        // without the auditor key the final checkpoint still covers every entry
+        VerifyReport withoutKey = new VeriLogReader().verifyFile(current, new byte[32], resolver);
+        assertTrue(withoutKey.valid, withoutKey.reason);
+
+        VerifyReport wrongAuditor = new VeriLogReader(new X25519PrivateKeyParameters(new SecureRandom()))
+                .verifyFile(current, new byte[32], resolver);
+        assertFalse(wrongAuditor.valid);
+        assertEquals("MAC key unseal failed", wrongAuditor.reason);
+    }
+
     @Test
     void should_set_faulted_when_signing_fails_and_still_terminate() throws Exception {
         LogSigner badSigner = mock(LogSigner.class);
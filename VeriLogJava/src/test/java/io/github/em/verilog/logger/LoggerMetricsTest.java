@@ -2,6 +2,8 @@ package io.github.em.verilog.logger;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class LoggerMetricsTest {
@@ -21,4 +23,33 @@ class LoggerMetricsTest {
         assertEquals(2, m.writtenCount());
         assertEquals(1, m.droppedCount());
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_report_last_recovery() {
+        LoggerMetrics m = new LoggerMetrics();
+        assertEquals(0, m.recoveryNanos());
+
+        m.recovery(1500, 4096, 53);
+
+        assertEquals(1500, m.recoveryNanos());
+        assertEquals(4096, m.recoveryBytes());
+        assertEquals(53, m.recoverySkippedBytes());
+    }
+
+    @Test
+    void should_count_flushes_by_age_of_oldest_unflushed_frame() {
+        LoggerMetrics m = new LoggerMetrics();
+
+        m.flush(TimeUnit.MICROSECONDS.toNanos(300));
+        m.flush(TimeUnit.MILLISECONDS.toNanos(7));
+        m.flush(TimeUnit.MILLISECONDS.toNanos(8));
+        m.flush(TimeUnit.SECONDS.toNanos(9));
+
+        long[] counts = m.unflushedAgeCounts();
+        assertEquals(LoggerMetrics.UNFLUSHED_AGE_BOUNDS_MS.length + 1, counts.length);
+        assertEquals(1, counts[0]);  // <= 1 ms
+        assertEquals(2, counts[3]);  // <= 10 ms
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(TimeUnit.SECONDS.toNanos(9), m.maxUnflushedAgeNanos());
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.em.verilog.logger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetentionManagerTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void should_move_rotated_segments_with_index_to_archive_and_leave_other_files() throws Exception {
+        Path live = Files.createDirectories(tmp.resolve("live"));
+        Path archive = tmp.resolve("archive");
+        Files.write(live.resolve("app-1.vlog"), new byte[10]);
+        Files.write(live.resolve("app-1.vlog.vidx"), new byte[3]);
+        Files.write(live.resolve("app-2.vlog"), new byte[10]);
+        Files.write(live.resolve("current.vlog"), new byte[10]);
+        Files.write(live.resolve("current.vlog.next"), new byte[10]);
+        Files.write(live.resolve("other-1.vlog"), new byte[10]);
+
+        var rm = new RetentionManager(live, archive, "current.vlog", "app", 0, 0);
+        rm.inUse = p -> p.getFileName().toString().equals("app-2.vlog");
+        RetentionManager.Result r = rm.apply(System.currentTimeMillis());
+
+        assertEquals(1, r.archived);
+        assertEquals(0, r.deleted);
+        assertTrue(Files.exists(archive.resolve("app-1.vlog")));
+        assertTrue(Files.exists(archive.resolve("app-1.vlog.vidx")));
+        assertTrue(Files.exists(live.resolve("app-2.vlog")), "a segment still being sealed stays");
+        assertTrue(Files.exists(live.resolve("current.vlog")));
+        assertTrue(Files.exists(live.resolve("current.vlog.next")));
+        assertTrue(Files.exists(live.resolve("other-1.vlog")));
+    }
+
+    @Test
+    void should_delete_oldest_segments_beyond_size_and_age() throws Exception {
+        long now = 10_000_000L;
+        for (int i = 1; i <= 4; i++) {
+            Path seg = tmp.resolve("app-" + i + ".vlog");
+            Files.write(seg, new byte[100]);
+            Files.setLastModifiedTime(seg, FileTime.fromMillis(now - (5 - i) * 1000L));
+        }
+
+        // 4 x 100 bytes, cap 250: the two oldest go
+        RetentionManager.Result bySize = new RetentionManager(tmp, null, "current.vlog", "app", 250, 0).apply(now);
+        assertEquals(2, bySize.deleted);
+        assertFalse(Files.exists(tmp.resolve("app-1.vlog")));
+        assertFalse(Files.exists(tmp.resolve("app-2.vlog")));
+        assertTrue(Files.exists(tmp.resolve("app-3.vlog")));
+
+        // app-3 is 2 s old, app-4 1 s
+        RetentionManager.Result byAge = new RetentionManager(tmp, null, "current.vlog", "app", 0, 1500).apply(now);
+        assertEquals(1, byAge.deleted);
+        assertFalse(Files.exists(tmp.resolve("app-3.vlog")));
+        assertTrue(Files.exists(tmp.resolve("app-4.vlog")));
+    }
+}
@@ -1,8 +1,11 @@
 package io.github.em.verilog.logger;
 
+import io.github.em.verilog.io.SegmentName;
+import io.github.em.verilog.io.SegmentSummary;
 import org.junit.jupiter.api.Test;
 
 import java.nio.file.Path;
+import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,4 +21,38 @@ class RotationPolicyTest {
         assertTrue(name.endsWith(".vlog"));
         assertFalse(name.contains(":"), "Filename must not contain ':' (Windows-unfriendly)");
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_rotate_on_size_entries_or_age_but_not_idle_segment_for_age() {
+        RotationPolicy rp = new RotationPolicy(1000, 10, 60_000, "app", VeriLoggerConfig.SegmentPartition.NONE);
+
+        assertFalse(rp.shouldRotate(999, 9, 0, 59_999));
+        assertTrue(rp.shouldRotate(1000, 0, 0, 0));
+        assertTrue(rp.shouldRotate(0, 10, 0, 0));
+        assertTrue(rp.shouldRotate(0, 1, 0, 60_000));
+        assertFalse(rp.shouldRotate(0, 0, 0, 120_000), "an empty segment is not rotated for age");
+
+        RotationPolicy bytesOnly = new RotationPolicy(1000, "app");
+        assertFalse(bytesOnly.shouldRotate(999, Long.MAX_VALUE, 0, Long.MAX_VALUE));
+    }
+
+    @Test
+    void should_name_rotated_segment_after_seq_and_time_range_inside_partition() {
+        RotationPolicy rp = new RotationPolicy(1000, 0, 0, "app", VeriLoggerConfig.SegmentPartition.HOUR);
+        SegmentSummary s = new SegmentSummary();
+        Instant t0 = Instant.parse("2026-03-04T05:06:07Z");
+        s.entry(7, null, new byte[32], t0);
+        s.entry(8, null, new byte[32], t0.plusSeconds(1));
+
+        Path out = rp.rotatedPath(Path.of("/tmp/logs"), s, 9);
+        assertEquals(Path.of("/tmp/logs/2026-03-04T05"), out.getParent());
+        SegmentName n = SegmentName.parse(out.getFileName().toString());
+        assertEquals(7, n.firstSeq);
+        assertEquals(8, n.lastSeq);
+        assertEquals(t0, n.minTs);
+
+        Path empty = new RotationPolicy(1000, "app").rotatedPath(Path.of("/tmp/logs"), new SegmentSummary(), 9);
+        assertEquals(Path.of("/tmp/logs"), empty.getParent());
+        assertFalse(SegmentName.parse(empty.getFileName().toString()).hasEntries());
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.em.verilog.logger;
+
+import io.github.em.verilog.audit.HashChainState;
+import io.github.em.verilog.audit.SignedEntryFactory;
+import io.github.em.verilog.sign.AsyncLogSigner;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningPipelineTest {
+
+    /** hands out futures the test completes by hand */
+    private static final class ManualSigner implements AsyncLogSigner {
+        final List<CompletableFuture<byte[][]>> futures = new ArrayList<>();
+        final List<Integer> sizes = new ArrayList<>();
+
+        @Override
+        public String keyId() {
+            return "manual";
+        }
+
+        @Override
+        public CompletableFuture<byte[][]> signEntryHashes(byte[][] entryHashes32) {
+            CompletableFuture<byte[][]> f = new CompletableFuture<>();
+            futures.add(f);
+            sizes.add(entryHashes32.length);
+            return f;
+        }
+
+        void complete(int batch) {
+            futures.get(batch).complete(new byte[sizes.get(batch)][64]);
+        }
+    }
+
+    private static void add(SigningPipeline p, int i) throws Exception {
+        p.add("actor", "INFO", Map.of("i", i), Instant.EPOCH);
+    }
+
+    @Test
+    void should_commit_in_sequence_order_when_batches_complete_out_of_order() throws Exception {
+        ManualSigner signer = new ManualSigner();
+        List<Long> committed = new ArrayList<>();
+        SigningPipeline p = new SigningPipeline(signer, new SignedEntryFactory(), HashChainState.fresh(),
+                2, 8, (e, json) -> committed.add(e.seq));
+
+        for (int i = 0; i < 5; i++) add(p, i);
+        assertEquals(2, signer.futures.size()); // two full batches, one entry still open
+        assertEquals(5, p.pendingEntries());
+
+        signer.complete(1);
+        p.commitCompleted();
+        assertTrue(committed.isEmpty(), "batch 2 must wait for batch 1");
+
+        signer.complete(0);
+        p.commitCompleted();
+        assertEquals(List.of(1L, 2L, 3L, 4L), committed);
+
+        p.submit();
+        signer.complete(2);
+        p.drain();
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), committed);
+        assertEquals(0, p.pendingEntries());
+    }
+
+    @Test
+    void should_block_on_oldest_batch_when_too_many_in_flight() throws Exception {
+        ManualSigner signer = new ManualSigner();
+        List<Long> committed = new ArrayList<>();
+        SigningPipeline p = new SigningPipeline(signer, new SignedEntryFactory(), HashChainState.fresh(),
+                1, 1, (e, json) -> committed.add(e.seq));
+
+        add(p, 0);
+        signer.complete(0);
+        // second batch exceeds the limit, so submit waits for (already completed) batch 0
+        add(p, 1);
+        assertEquals(List.of(1L), committed);
+        assertEquals(1, p.pendingEntries());
+    }
+
+    @Test
+    void should_surface_signer_failure_as_ioexception() throws Exception {
+        ManualSigner signer = new ManualSigner();
+        SigningPipeline p = new SigningPipeline(signer, new SignedEntryFactory(), HashChainState.fresh(),
+                1, 4, (e, json) -> fail("nothing should be committed"));
+
+        add(p, 0);
+        signer.futures.get(0).completeExceptionally(new IllegalStateException("hsm down"));
+        IOException ex = assertThrows(IOException.class, p::drain);
+        assertInstanceOf(IllegalStateException.class, ex.getCause());
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.em.verilog.provider;
+
+import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.sign.BcPublicKeyLoader;
+import io.github.em.verilog.sign.LogSigner;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CryptoSelectionTest {
+
+    private static final List<CryptoProvider> PROVIDERS = List.of(BcCryptoProvider.INSTANCE, JcaCryptoProvider.INSTANCE);
+    private static final BigInteger HALF_N = new BigInteger(
+            "ffffffff00000000ffffffffffffffffbce6faada7179e84f3b9cac2fc632551", 16).shiftRight(1);
+
+    @Test
+    void signatures_verify_across_providers() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        ECPublicKeyParameters pub = BcPublicKeyLoader.fromSpkiDer(spki);
+        byte[] entryHash = CryptoUtil.sha256("entry".getBytes());
+
+        for (CryptoProvider signing : PROVIDERS) {
+            LogSigner signer = signing.es256Signer(kp.getPrivate().getEncoded(), spki);
+            assertEquals(CryptoUtil.toHexLower(CryptoUtil.sha256(spki)), signer.keyId());
+            for (int i = 0; i < 8; i++) {
+                byte[] sig = signer.signEntryHash(entryHash);
+                assertTrue(new BigInteger(1, Arrays.copyOfRange(sig, 32, 64)).compareTo(HALF_N) <= 0, "low-S");
+
+                for (CryptoProvider verifying : PROVIDERS) {
+                    CryptoProvider.Es256Verifier v = verifying.es256Verifier();
+                    String pair = signing.name() + "->" + verifying.name();
+                    assertTrue(v.verify(pub, entryHash, sig), pair);
+                    byte[] bad = sig.clone();
+                    bad[10] ^= 1;
+                    assertFalse(v.verify(pub, entryHash, bad), pair);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sha256_is_identical_across_providers() throws Exception {
+        byte[] data = "abc".getBytes();
+        assertArrayEquals(BcCryptoProvider.INSTANCE.sha256(data), JcaCryptoProvider.INSTANCE.sha256(data));
+    }
+
+    @Test
+    void benchmark_picks_a_working_provider_per_primitive() {
+        CryptoSelection sel = CryptoSelection.benchmark(PROVIDERS, Duration.ofMillis(5));
+
+        Map<CryptoSelection.Primitive, String> names = sel.describe();
+        assertEquals(CryptoSelection.Primitive.values().length, names.size());
+        for (String name : names.values()) assertTrue(name.equals("BC") || name.equals("JCA"), name);
+    }
+
+    @Test
+    void defaults_keep_the_previous_implementations() {
+        Map<CryptoSelection.Primitive, String> names = CryptoSelection.defaults().describe();
+        assertEquals("JCA", names.get(CryptoSelection.Primitive.SHA256));
+        assertEquals("BC", names.get(CryptoSelection.Primitive.ES256_VERIFY));
+        assertEquals("JCA", names.get(CryptoSelection.Primitive.AES_GCM));
+    }
+}
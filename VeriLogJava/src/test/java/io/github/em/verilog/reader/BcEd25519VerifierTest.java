@@ -0,0 +1,40 @@
+package io.github.em.verilog.reader;
+
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.bouncycastle.crypto.params.Ed25519KeyGenerationParameters;
+import org.bouncycastle.crypto.params.Ed25519PrivateKeyParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.math.ec.rfc8032.Ed25519;
+import org.junit.jupiter.api.Test;
+
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BcEd25519VerifierTest {
+
+    private static final SecureRandom RNG = new SecureRandom();
+
+    @Test
+    void should_verify_valid_and_reject_tampered_or_malformed_signatures() throws Exception {
+        Ed25519KeyPairGenerator gen = new Ed25519KeyPairGenerator();
+        gen.init(new Ed25519KeyGenerationParameters(RNG));
+        AsymmetricCipherKeyPair kp = gen.generateKeyPair();
+        var priv = (Ed25519PrivateKeyParameters) kp.getPrivate();
+        var pub = (Ed25519PublicKeyParameters) kp.getPublic();
+
+        byte[] h = new byte[32];
+        RNG.nextBytes(h);
+        byte[] sig = new byte[64];
+        priv.sign(Ed25519.Algorithm.Ed25519, null, h, 0, 32, sig, 0);
+
+        assertTrue(BcEd25519Verifier.verifyEntryHashSig(pub, h, sig));
+
+        byte[] bad = sig.clone();
+        bad[10] ^= 1;
+        assertFalse(BcEd25519Verifier.verifyEntryHashSig(pub, h, bad));
+        assertFalse(BcEd25519Verifier.verifyEntryHashSig(pub, h, new byte[63]));
+        assertThrows(IllegalArgumentException.class, () -> BcEd25519Verifier.verifyEntryHashSig(pub, new byte[16], sig));
+    }
+}
@@ -1,11 +1,14 @@
 package io.github.em.verilog.reader;
 
 import io.github.em.verilog.errors.VeriLogIoException;
+import io.github.em.verilog.io.FramedLogFile;
+import io.github.em.verilog.io.SegmentIndex;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -53,4 +56,40 @@ public class FramedFileReaderTest {
 
         assertEquals("io.partial_frame_length", ex.getMessageKey());
     }
+
+    @Test
+    void should_seek_to_seq_with_and_without_index() throws Exception {
+        Path seg = Files.createTempDirectory("verilog-seek").resolve("seg.vlog");
+        byte[] dek = new byte[32];
+        try (FramedLogFile f = FramedLogFile.openOrCreate(seg, dek, "aad")) {
+            f.indexEvery(16);
+            for (int i = 1; i <= 400; i++) {
+                if (i == 250) f.appendEncryptedJson(FramedLogFile.TYPE_KEY_CERT, i, "{}".getBytes());
+                f.appendEncryptedJson(FramedLogFile.TYPE_LOG, i, "{}".getBytes());
+            }
+            f.flush(true);
+            f.sealIndex();
+        }
+
+        try (FramedFileReader r = new FramedFileReader(seg)) {
+            assertTrue(r.loadIndex(dek));
+            r.seekToSeq(250);
+            Frame cert = r.readNextFrame(false);
+            assertEquals(FramedLogFile.TYPE_KEY_CERT, cert.type);
+            assertEquals(250, cert.seq);
+            assertEquals(250, r.readNextFrame(false).seq);
+
+            r.seekToSeq(1);
+            assertEquals(1, r.readNextFrame(false).seq);
+            r.seekToSeq(401);
+            assertNull(r.readNextFrame(true));
+        }
+
+        Files.delete(SegmentIndex.pathFor(seg));
+        try (FramedFileReader r = new FramedFileReader(seg)) {
+            assertFalse(r.loadIndex(dek));
+            r.seekToSeq(333);
+            assertEquals(333, r.readNextFrame(false).seq);
+        }
+    }
 }
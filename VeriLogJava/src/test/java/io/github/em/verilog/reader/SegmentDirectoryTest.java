@@ -0,0 +1,51 @@
+package io.github.em.verilog.reader;
+
+import io.github.em.verilog.io.SegmentName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentDirectoryTest {
+
+    @TempDir
+    Path tmp;
+
+    @Test
+    void should_find_segments_by_seq_and_time_across_directories_and_partitions() throws Exception {
+        Instant t0 = Instant.parse("2026-01-01T00:00:00Z");
+        Path live = Files.createDirectories(tmp.resolve("live"));
+        Path archive = Files.createDirectories(tmp.resolve("archive/2026-01-01"));
+        touch(archive.resolve(SegmentName.format("app", 1, 100, t0, t0.plusSeconds(59))));
+        touch(archive.resolve(SegmentName.format("app", 101, 100, null, null)));
+        touch(live.resolve(SegmentName.format("app", 101, 200, t0.plusSeconds(60), t0.plusSeconds(119))));
+        touch(live.resolve(SegmentName.format("app", 201, 300, null, null)));
+        touch(live.resolve("app-2025-12-31T23-00-00Z.vlog"));
+        touch(live.resolve("current.vlog"));
+        touch(live.resolve("current.vlog.next"));
+
+        SegmentDirectory d = SegmentDirectory.scan(live, tmp.resolve("archive"), tmp.resolve("missing"));
+
+        assertEquals(4, d.segments().size());
+        assertEquals(2, d.unnamed().size());
+        assertEquals(1, d.findSeq(1).name.firstSeq);
+        assertEquals(1, d.findSeq(100).name.firstSeq);
+        assertEquals(200, d.findSeq(101).name.lastSeq);
+        assertEquals(300, d.findSeq(250).name.lastSeq);
+        assertNull(d.findSeq(301));
+        assertNull(d.findSeq(0));
+
+        var hits = d.overlapping(t0.plusSeconds(70), t0.plusSeconds(80));
+        assertEquals(2, hits.size(), "the overlapping segment and the one without a time range");
+        assertEquals(101, hits.get(0).name.firstSeq);
+        assertEquals(201, hits.get(1).name.firstSeq);
+    }
+
+    private static void touch(Path p) throws Exception {
+        Files.write(p, new byte[1]);
+    }
+}
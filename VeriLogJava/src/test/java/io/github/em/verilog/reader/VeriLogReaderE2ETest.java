@@ -4,11 +4,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.github.em.verilog.CanonicalJson;
 import io.github.em.verilog.CryptoUtil;
+import io.github.em.verilog.crypto.CipherSuite;
 import io.github.em.verilog.crypto.XChaCha20Poly1305;
+import io.github.em.verilog.io.FramedLogFile;
 import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.audit.HashChainState;
+import io.github.em.verilog.audit.SignedEntryFactory;
+import io.github.em.verilog.sign.BcPublicKeyLoader;
+import io.github.em.verilog.sign.Ed25519LogSigner;
 import org.bouncycastle.asn1.nist.NISTNamedCurves;
 import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.bouncycastle.crypto.util.PrivateKeyInfoFactory;
+import org.bouncycastle.crypto.util.SubjectPublicKeyInfoFactory;
 import org.bouncycastle.crypto.params.*;
 import org.bouncycastle.crypto.signers.ECDSASigner;
 import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
@@ -179,6 +188,138 @@ class VeriLogReaderE2ETest {
         assertTrue(rep.allOk());
         assertEquals(2, rep.results().size());
         assertTrue(rep.results().stream().allMatch(x -> x.ok));
+        // written without restart records: the second file may start a new chain, and is listed
+        assertEquals(DirectoryVerifyReport.Restart.LEGACY, rep.results().get(1).restart);
+    }
+
+    @Test
+    void should_verify_directory_together_with_archive_directory() throws Exception {
+        TestMaterial tm = new TestMaterial();
+
+        Path dir = Files.createTempDirectory("vlog-dir-live");
+        Path archive = Files.createTempDirectory("vlog-dir-archive");
+        writeVlogFile(archive.resolve("app-2026-01-01T00-00-00Z.vlog"), "VeriLog|v1", tm.dek32,
+                new EntrySpec(1, "0".repeat(64), "evt", OM.createObjectNode().put("a", 1)), tm);
+        writeVlogFile(dir.resolve("app-2026-01-02T00-00-00Z.vlog"), "VeriLog|v1", tm.dek32,
+                new EntrySpec(1, "0".repeat(64), "evt", OM.createObjectNode().put("b", 2)), tm);
+        writeVlogFile(dir.resolve("current.vlog"), "VeriLog|v1", tm.dek32,
+                new EntrySpec(1, "0".repeat(64), "evt", OM.createObjectNode().put("c", 3)), tm);
+
+        DirectoryVerifyReport rep = new VeriLogReader().verifyDirectory(dir, archive, tm.dek32, tm.keyResolver, true);
+
+        assertTrue(rep.allOk());
+        assertEquals(3, rep.results().size());
+        assertEquals(archive.resolve("app-2026-01-01T00-00-00Z.vlog"), rep.results().get(0).file);
+        assertEquals(dir.resolve("current.vlog"), rep.results().get(2).file);
+    }
+
+    @Test
+    void should_verify_ok_when_segment_uses_per_segment_subkey() throws Exception {
+        assertSegmentSuiteVerifies(CipherSuite.CHACHA20_POLY1305_SEGMENT);
+    }
+
+    @Test
+    void should_verify_ok_when_segment_uses_aes_gcm() throws Exception {
+        assertSegmentSuiteVerifies(CipherSuite.AES_256_GCM_SEGMENT);
+    }
+
+    @Test
+    void should_verify_ok_when_entries_are_signed_with_ed25519() throws Exception {
+        byte[] dek32 = randomBytes(32);
+        Ed25519KeyPairGenerator gen = new Ed25519KeyPairGenerator();
+        gen.init(new Ed25519KeyGenerationParameters(RNG));
+        AsymmetricCipherKeyPair kp = gen.generateKeyPair();
+        byte[] pkcs8 = PrivateKeyInfoFactory.createPrivateKeyInfo(kp.getPrivate()).getEncoded();
+        byte[] spki = SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(kp.getPublic()).getEncoded();
+        Ed25519LogSigner signer = new Ed25519LogSigner(pkcs8, spki);
+
+        Path file = Files.createTempDirectory("vlog-ed25519").resolve("current.vlog");
+        HashChainState chain = HashChainState.fresh();
+        SignedEntryFactory factory = new SignedEntryFactory();
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, dek32, "VeriLog|v1",
+                FramedLogFile.options().suite(CipherSuite.CHACHA20_POLY1305_SEGMENT))) {
+            for (int i = 1; i <= 3; i++) {
+                long seq = chain.nextSeq();
+                byte[] json = factory.buildSignedEntryJsonUtf8(chain, signer, "alice", "evt", Map.of("i", i), java.time.Instant.now());
+                f.appendEncryptedJson(FramedLogFile.TYPE_LOG, seq, json);
+            }
+            f.flush(true);
+        }
+
+        VeriLogReader r = new VeriLogReader();
+        VerifyReport rep = r.verifyFile(file, dek32,
+                new MapPublicKeyResolver(Map.of(signer.keyId(), BcPublicKeyLoader.verificationKeyFromSpkiDer(spki))));
+        assertTrue(rep.valid, rep.reason);
+        assertEquals(3, rep.seq);
+
+        // an EC key registered under the same keyId must not be used for an Ed25519 entry
+        TestMaterial tm = new TestMaterial();
+        VerifyReport mismatch = r.verifyFile(file, dek32, new MapPublicKeyResolver(Map.of(signer.keyId(), tm.pub)));
+        assertFalse(mismatch.valid);
+        assertEquals("sigAlg does not match key type", mismatch.reason);
+    }
+
+    @Test
+    void should_verify_file_from_genesis_unless_given_the_entry_it_continues() throws Exception {
+        TestMaterial tm = new TestMaterial();
+        Path dir = Files.createTempDirectory("vlog-anchor");
+        Path first = dir.resolve("first.vlog");
+        Path rest = dir.resolve("rest.vlog");
+
+        String prevHash = "0".repeat(64);
+        String firstHash = null;
+        for (long seq = 1; seq <= 3; seq++) {
+            Path file = seq == 1 ? first : rest;
+            try (FramedLogFile f = FramedLogFile.openOrCreate(file, tm.dek32, "VeriLog|v1")) {
+                ObjectNode unsigned = buildUnsignedEntry(seq, prevHash, tm.keyIdHex, "evt", OM.createObjectNode().put("i", seq));
+                SignedPayload sp = signEntry(unsigned, tm, false);
+                f.appendEncryptedJson(FramedLogFile.TYPE_LOG, seq, sp.json);
+                prevHash = sp.entryHashHex;
+                if (seq == 1) firstHash = sp.entryHashHex;
+            }
+        }
+
+        VeriLogReader r = new VeriLogReader();
+        assertTrue(r.verifyFile(first, tm.dek32, tm.keyResolver).valid);
+        // cut off at the front: does not start at genesis
+        VerifyReport alone = r.verifyFile(rest, tm.dek32, tm.keyResolver);
+        assertFalse(alone.valid);
+        assertEquals("frame seq not contiguous (expected 1)", alone.reason);
+
+        VerifyReport anchored = r.verifyFile(rest, tm.dek32, tm.keyResolver, false, ChainAnchor.after(1, firstHash));
+        assertTrue(anchored.valid, anchored.reason);
+        assertEquals(3, anchored.seq);
+
+        VerifyReport wrongHash = r.verifyFile(rest, tm.dek32, tm.keyResolver, false, ChainAnchor.after(1, "1".repeat(64)));
+        assertFalse(wrongHash.valid);
+    }
+
+    private static void assertSegmentSuiteVerifies(CipherSuite suite) throws Exception {
+        TestMaterial tm = new TestMaterial();
+
+        Path dir = Files.createTempDirectory("vlog-segment");
+        Path file = dir.resolve("current.vlog");
+
+        String prevHash = "0".repeat(64);
+        try (FramedLogFile f = FramedLogFile.openOrCreate(file, tm.dek32, "VeriLog|v1",
+                FramedLogFile.options().suite(suite))) {
+            for (long seq = 1; seq <= 3; seq++) {
+                ObjectNode unsigned = buildUnsignedEntry(seq, prevHash, tm.keyIdHex, "evt", OM.createObjectNode().put("i", seq));
+                SignedPayload sp = signEntry(unsigned, tm, false);
+                f.appendEncryptedJson(FramedLogFile.TYPE_LOG, seq, sp.json);
+                prevHash = sp.entryHashHex;
+            }
+            f.flush(true);
+        }
+
+        VeriLogReader r = new VeriLogReader();
+        VerifyReport rep = r.verifyFile(file, tm.dek32, tm.keyResolver);
+        assertTrue(rep.valid, rep.reason);
+        assertEquals(3, rep.seq);
+
+        VerifyReport wrongKey = r.verifyFile(file, randomBytes(32), tm.keyResolver);
+        assertFalse(wrongKey.valid);
+        assertEquals("decrypt/auth failed", wrongKey.reason);
     }
 
     // --------------------------------------------------------------------------------------------
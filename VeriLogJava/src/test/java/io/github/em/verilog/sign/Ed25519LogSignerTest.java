@@ -0,0 +1,70 @@
+package io.github.em.verilog.sign;
+
+import io.github.em.verilog.errors.VeriLogFormatException;
+import io.github.em.verilog.reader.BcEd25519Verifier;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.generators.Ed25519KeyPairGenerator;
+import org.bouncycastle.crypto.params.Ed25519KeyGenerationParameters;
+import org.bouncycastle.crypto.params.Ed25519PublicKeyParameters;
+import org.bouncycastle.crypto.util.PrivateKeyInfoFactory;
+import org.bouncycastle.crypto.util.SubjectPublicKeyInfoFactory;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Ed25519LogSignerTest {
+
+    private static final SecureRandom RNG = new SecureRandom();
+
+    static byte[][] genEd25519Der() throws Exception {
+        Ed25519KeyPairGenerator gen = new Ed25519KeyPairGenerator();
+        gen.init(new Ed25519KeyGenerationParameters(RNG));
+        AsymmetricCipherKeyPair kp = gen.generateKeyPair();
+        byte[] pkcs8 = PrivateKeyInfoFactory.createPrivateKeyInfo(kp.getPrivate()).getEncoded();
+        byte[] spki = SubjectPublicKeyInfoFactory.createSubjectPublicKeyInfo(kp.getPublic()).getEncoded();
+        return new byte[][]{pkcs8, spki};
+    }
+
+    @Test
+    void should_sign_deterministically_and_verify() throws Exception {
+        byte[][] der = genEd25519Der();
+        Ed25519LogSigner signer = new Ed25519LogSigner(der[0], der[1]);
+        assertEquals(SignatureAlgorithm.ED25519, signer.algorithm());
+        assertEquals(64, signer.keyId().length());
+
+        var pub = (Ed25519PublicKeyParameters) BcPublicKeyLoader.verificationKeyFromSpkiDer(der[1]);
+        assertArrayEquals(pub.getEncoded(), signer.publicKey().getEncoded());
+
+        byte[] h = new byte[32];
+        RNG.nextBytes(h);
+        byte[] sig = signer.signEntryHash(h);
+        assertEquals(64, sig.length);
+        assertArrayEquals(sig, signer.signEntryHash(h));
+        assertTrue(BcEd25519Verifier.verifyEntryHashSig(pub, h, sig));
+
+        h[0] ^= 1;
+        assertFalse(BcEd25519Verifier.verifyEntryHashSig(pub, h, sig));
+    }
+
+    @Test
+    void should_reject_non_ed25519_private_key() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+
+        VeriLogFormatException ex = assertThrows(VeriLogFormatException.class,
+                () -> new Ed25519LogSigner(kp.getPrivate().getEncoded(), kp.getPublic().getEncoded()));
+        assertEquals("format.key.not_ed25519_private", ex.getMessageKey());
+    }
+
+    @Test
+    void should_reject_wrong_hash_length() throws Exception {
+        byte[][] der = genEd25519Der();
+        Ed25519LogSigner signer = new Ed25519LogSigner(der[0], der[1]);
+        assertThrows(IllegalArgumentException.class, () -> signer.signEntryHash(new byte[31]));
+    }
+}
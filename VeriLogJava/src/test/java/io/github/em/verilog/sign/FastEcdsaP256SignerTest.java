@@ -0,0 +1,83 @@
+package io.github.em.verilog.sign;
+
+import io.github.em.verilog.reader.BcEcdsaVerifier;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FastEcdsaP256SignerTest {
+
+    private static final BigInteger HALF_N = new BigInteger(
+            "FFFFFFFF00000000FFFFFFFFFFFFFFFFBCE6FAADA7179E84F3B9CAC2FC632551", 16).shiftRight(1);
+
+    private static KeyPair genP256() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        return kpg.generateKeyPair();
+    }
+
+    @Test
+    void should_produce_same_signatures_as_bc_signer() throws Exception {
+        KeyPair kp = genP256();
+        byte[] spki = kp.getPublic().getEncoded();
+        byte[] pkcs8 = kp.getPrivate().getEncoded();
+
+        BcEcdsaP256Signer reference = new BcEcdsaP256Signer(pkcs8, spki, true);
+        try (FastEcdsaP256Signer fast = new FastEcdsaP256Signer(pkcs8, spki, true)) {
+            assertEquals(reference.keyId(), fast.keyId());
+            for (int i = 0; i < 20; i++) {
+                byte[] h = random32();
+                assertArrayEquals(reference.signEntryHash(h), fast.signEntryHash(h));
+            }
+        }
+    }
+
+    @Test
+    void should_verify_and_keep_low_s_when_using_presignature_pool() throws Exception {
+        KeyPair kp = genP256();
+        byte[] spki = kp.getPublic().getEncoded();
+        ECPublicKeyParameters pub = BcPublicKeyLoader.fromSpkiDer(spki);
+
+        try (FastEcdsaP256Signer signer = new FastEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true, 16)) {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (signer.availablePresignatures() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(signer.availablePresignatures() > 0);
+
+            byte[] h = random32();
+            byte[] a = signer.signEntryHash(h);
+            byte[] b = signer.signEntryHash(h);
+            assertFalse(Arrays.equals(a, b)); // random nonces in pool mode
+
+            for (int i = 0; i < 40; i++) { // drains the pool and falls back to inline nonces
+                byte[] hi = random32();
+                byte[] sig = signer.signEntryHash(hi);
+                assertTrue(BcEcdsaVerifier.verifyEntryHashSig(pub, hi, sig));
+                assertTrue(new BigInteger(1, Arrays.copyOfRange(sig, 32, 64)).compareTo(HALF_N) <= 0);
+            }
+        }
+    }
+
+    @Test
+    void should_reject_invalid_entry_hash_length() throws Exception {
+        KeyPair kp = genP256();
+        try (FastEcdsaP256Signer signer = new FastEcdsaP256Signer(kp.getPrivate().getEncoded(),
+                kp.getPublic().getEncoded(), true)) {
+            assertThrows(IllegalArgumentException.class, () -> signer.signEntryHash(new byte[31]));
+        }
+    }
+
+    private static byte[] random32() {
+        byte[] b = new byte[32];
+        new SecureRandom().nextBytes(b);
+        return b;
+    }
+}
@@ -122,4 +122,28 @@ class SignedEntryFactoryTest {
 
         assertFalse(BcEcdsaVerifier.verifyEntryHashSig(pub, entryHash32, sig));
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_tag_entry_with_sig_alg_only_when_not_es256() throws Exception {
+        KeyPair kp = genP256();
+        var es256 = new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), kp.getPublic().getEncoded(), true);
+        byte[][] ed = Ed25519LogSignerTest.genEd25519Der();
+        var ed25519 = new Ed25519LogSigner(ed[0], ed[1]);
+
+        SignedEntryFactory f = new SignedEntryFactory();
+        ObjectMapper om = new ObjectMapper();
+        Instant ts = Instant.parse("2026-02-20T20:00:00Z");
+
+        JsonNode a = om.readTree(f.buildSignedEntryJsonUtf8(HashChainState.fresh(), es256, "bob", "E", Map.of(), ts));
+        assertFalse(a.has("sigAlg"));
+
+        JsonNode b = om.readTree(f.buildSignedEntryJsonUtf8(HashChainState.fresh(), ed25519, "bob", "E", Map.of(), ts));
+        assertEquals("Ed25519", b.get("sigAlg").asText());
+
+        // the tag is part of the hashed payload
+        var unsigned = (com.fasterxml.jackson.databind.node.ObjectNode) b.deepCopy();
+        unsigned.remove("entryHash");
+        unsigned.remove("sig");
+        assertEquals(b.get("entryHash").asText(), CryptoUtil.toHexLower(CryptoUtil.sha256Utf8(CanonicalJson.canonicalize(unsigned))));
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.em.verilog.sign;
+
+import io.github.em.verilog.errors.VeriLogCryptoException;
+import io.github.em.verilog.reader.BcEcdsaVerifier;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedLatencySignerTest {
+
+    @Test
+    void should_sign_batch_in_order_after_latency() throws Exception {
+        KeyPairGenerator kpg = KeyPairGenerator.getInstance("EC");
+        kpg.initialize(256);
+        KeyPair kp = kpg.generateKeyPair();
+        byte[] spki = kp.getPublic().getEncoded();
+        ECPublicKeyParameters pub = BcPublicKeyLoader.fromSpkiDer(spki);
+
+        try (SimulatedLatencySigner signer = new SimulatedLatencySigner(
+                new BcEcdsaP256Signer(kp.getPrivate().getEncoded(), spki, true), Duration.ofMillis(20))) {
+            byte[][] hashes = new byte[8][32];
+            SecureRandom rng = new SecureRandom();
+            for (byte[] h : hashes) rng.nextBytes(h);
+
+            long t0 = System.nanoTime();
+            CompletableFuture<byte[][]> f = signer.signEntryHashes(hashes);
+            assertFalse(f.isDone());
+            byte[][] sigs = f.get(5, TimeUnit.SECONDS);
+            assertTrue(System.nanoTime() - t0 >= TimeUnit.MILLISECONDS.toNanos(20));
+
+            assertEquals(hashes.length, sigs.length);
+            for (int i = 0; i < hashes.length; i++) {
+                assertTrue(BcEcdsaVerifier.verifyEntryHashSig(pub, hashes[i], sigs[i]));
+            }
+            assertEquals(1, signer.batchCount());
+        }
+    }
+
+    @Test
+    void should_complete_exceptionally_when_delegate_fails() {
+        LogSigner failing = new LogSigner() {
+            @Override
+            public String keyId() {
+                return "k";
+            }
+
+            @Override
+            public byte[] signEntryHash(byte[] entryHash32) throws VeriLogCryptoException {
+                throw new VeriLogCryptoException("crypto.sign_failed");
+            }
+        };
+
+        try (SimulatedLatencySigner signer = new SimulatedLatencySigner(failing, Duration.ZERO)) {
+            ExecutionException ex = assertThrows(ExecutionException.class,
+                    () -> signer.signEntryHashes(new byte[][]{new byte[32]}).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(VeriLogCryptoException.class, ex.getCause());
+        }
+
+        ExecutionException ex = assertThrows(ExecutionException.class,
+                () -> AsyncLogSigner.fromSync(failing, Runnable::run).signEntryHashes(new byte[][]{new byte[32]}).get());
+        assertInstanceOf(VeriLogCryptoException.class, ex.getCause());
+    }
+}